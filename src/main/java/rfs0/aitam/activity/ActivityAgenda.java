@@ -1,6 +1,7 @@
 package rfs0.aitam.activity;
 
 import java.util.Comparator;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
@@ -135,9 +136,28 @@ public class ActivityAgenda implements Cloneable {
 	 * @return - the activity executed during the specified point in time or <code>null</code> if there is no entry for it.
 	 */
 	public Activity getActivityForDateTime(DateTime time) {
+		long millis = time.getMillis();
+		for (Entry<Interval, Activity> entry: m_agenda.entrySet()) {
+			Interval key = entry.getKey();
+			if (key.contains(millis) || key.getEndMillis() == millis) { // compares instants to avoid creating the end of each interval in every step
+				return entry.getValue();
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * <p>This method is used to retrieve the interval of the activity executed at the specified point in time (see {@link ActivityAgenda#getActivityForDateTime(DateTime)}).
+	 * <b>Note:</b> The activity is retrieved for the end of its interval as well, hence it is executed until the minute after the end of the interval at the earliest.</p> 
+	 * 
+	 * @param time - the point in time for which the interval should be retrieved.
+	 * @return - the interval of the activity executed during the specified point in time or <code>null</code> if there is no entry for it.
+	 */
+	public Interval getIntervalForDateTime(DateTime time) {
+		long millis = time.getMillis();
 		for (Interval key: m_agenda.keySet()) {
-			if (key.contains(time) || key.getEnd().equals(time)) {
-				return m_agenda.get(key);
+			if (key.contains(millis) || key.getEndMillis() == millis) {
+				return key;
 			}
 		}
 		return null;
@@ -182,9 +202,11 @@ public class ActivityAgenda implements Cloneable {
 	 * @return - the activity location of the activity executed during the specified point in time or <code>null</code> if there is no entry for it.
 	 */
 	public Node getNodeForDateTime(DateTime time) {
-		for (Interval key: m_locations.keySet()) {
-			if (key.contains(time) || key.getEnd().equals(time)) {
-				return m_locations.get(key);
+		long millis = time.getMillis();
+		for (Entry<Interval, Node> entry: m_locations.entrySet()) {
+			Interval key = entry.getKey();
+			if (key.contains(millis) || key.getEndMillis() == millis) { // compares instants to avoid creating the end of each interval in every step
+				return entry.getValue();
 			}
 		}
 		return null;
@@ -0,0 +1,128 @@
+package rfs0.aitam.activity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeConstants;
+
+import rfs0.aitam.settings.ISimulationSettings;
+
+/**
+ * <p>This class contains the {@link Activity}s which are candidates when an individual plans, i.e. the activities which are available at some minute of a day of week,
+ * for each combination of day of week, minute of day, {@link ActivityCategory}, {@link ActivityLocation} and whether or not they are joint activities.
+ * It is built once all activities have been initialized, such that the available activities can be looked up instead of being filtered out of all activities (see {@link Activity#isAvailableAt(int, DateTime)}).</p>
+ *
+ * <p>{@link ActivityCandidateIndex#m_candidates}: The candidates of each combination. The arrays of the same combination for consecutive minutes are shared if they contain the same activities.</p>
+ * <p>{@link ActivityCandidateIndex#m_numberOfActivitiesAvailableAtDay}: The number of activities of each category which are available at some time of each day of week.</p>
+ *
+ * <p><b>Note:</b> The candidates keep the order of the activities with which the index has been built.
+ * Activities executed at {@link ActivityLocation#TRAVEL} are never candidates, but they are counted by {@link ActivityCandidateIndex#getNumberOfActivitiesAvailableAt(int, ActivityCategory)}.
+ * Instances are immutable once constructed and can be used by several threads.</p>
+ */
+public final class ActivityCandidateIndex {
+
+	private static final Activity[] NO_ACTIVITIES = new Activity[0];
+	/**
+	 * <p>The index of the location which stands for all locations (except {@link ActivityLocation#TRAVEL}).</p>
+	 */
+	private static final int ANY_LOCATION = ActivityLocation.values().length;
+	private static final int NUMBER_OF_LOCATIONS = ANY_LOCATION + 1;
+	private static final int NUMBER_OF_CATEGORIES = ActivityCategory.values().length;
+
+	/**
+	 * <p>The candidates of each combination of day of week, minute of day, category, location and whether or not they are joint activities (see {@link ActivityCandidateIndex#getIndex(int, int, ActivityCategory, int, boolean)}).</p>
+	 */
+	private final Activity[][] m_candidates;
+	/**
+	 * <p>The number of activities of each category which are available at some time of each day of week (indexed by day of week and ordinal of category).</p>
+	 */
+	private final int[][] m_numberOfActivitiesAvailableAtDay;
+
+	/**
+	 * @param activities - all activities of the simulation (see {@link rfs0.aitam.environment.Environment#getAllActivities()}).
+	 */
+	public ActivityCandidateIndex(Collection<Activity> activities) {
+		m_candidates = new Activity[DateTimeConstants.DAYS_PER_WEEK * DateTimeConstants.MINUTES_PER_DAY * NUMBER_OF_CATEGORIES * NUMBER_OF_LOCATIONS * 2][];
+		m_numberOfActivitiesAvailableAtDay = new int[DateTimeConstants.SUNDAY + 1][NUMBER_OF_CATEGORIES];
+		DateTime startOfDay = ISimulationSettings.START_OF_DAY.withTimeAtStartOfDay();
+		for (int dayOfWeek = DateTimeConstants.MONDAY; dayOfWeek <= DateTimeConstants.SUNDAY; dayOfWeek++) {
+			for (Activity activity: activities) {
+				if (activity.isAvailableAt(dayOfWeek)) {
+					m_numberOfActivitiesAvailableAtDay[dayOfWeek][activity.getActivityCategory().ordinal()]++;
+				}
+			}
+			for (int minuteOfDay = 0; minuteOfDay < DateTimeConstants.MINUTES_PER_DAY; minuteOfDay++) {
+				DateTime timeInBaseTime = startOfDay.plusMinutes(minuteOfDay);
+				ArrayList<ArrayList<Activity>> candidates = new ArrayList<>();
+				for (int i = 0; i < NUMBER_OF_CATEGORIES * NUMBER_OF_LOCATIONS * 2; i++) {
+					candidates.add(new ArrayList<>());
+				}
+				for (Activity activity: activities) {
+					if (activity.getActivityLocation() == ActivityLocation.TRAVEL || !activity.isAvailableAt(dayOfWeek, timeInBaseTime)) {
+						continue;
+					}
+					int category = activity.getActivityCategory().ordinal();
+					int joint = activity.isJointActivity() ? 1 : 0;
+					candidates.get((category * NUMBER_OF_LOCATIONS + activity.getActivityLocation().ordinal()) * 2 + joint).add(activity);
+					candidates.get((category * NUMBER_OF_LOCATIONS + ANY_LOCATION) * 2 + joint).add(activity);
+				}
+				int offset = ((dayOfWeek - 1) * DateTimeConstants.MINUTES_PER_DAY + minuteOfDay) * candidates.size();
+				for (int i = 0; i < candidates.size(); i++) {
+					Activity[] candidatesOfCombination = candidates.get(i).isEmpty() ? NO_ACTIVITIES : candidates.get(i).toArray(new Activity[0]);
+					// share the array of the previous minute if possible
+					if (minuteOfDay > 0 && Arrays.equals(m_candidates[offset - candidates.size() + i], candidatesOfCombination)) {
+						candidatesOfCombination = m_candidates[offset - candidates.size() + i];
+					}
+					m_candidates[offset + i] = candidatesOfCombination;
+				}
+			}
+		}
+	}
+
+	/**
+	 * <p>This method looks up the activities which are available at the provided time and executed at the provided location.</p>
+	 *
+	 * <p><b>Important:</b> The returned array is shared and must not be modified.</p>
+	 *
+	 * @param dayOfWeek - the day of week (see {@link DateTimeConstants#MONDAY} to {@link DateTimeConstants#SUNDAY}).
+	 * @param timeInBaseTime - the time of day in base time (see {@link ISimulationSettings#START_OF_DAY}).
+	 * @param activityCategory - the category to which the activities belong.
+	 * @param activityLocation - the location where the activities are executed.
+	 * @param isJointActivity - whether or not the activities are joint activities.
+	 * @return Activity[] - the available activities, which is empty for {@link ActivityLocation#TRAVEL}.
+	 */
+	public Activity[] getActivities(int dayOfWeek, DateTime timeInBaseTime, ActivityCategory activityCategory, ActivityLocation activityLocation, boolean isJointActivity) {
+		return m_candidates[getIndex(dayOfWeek, timeInBaseTime.getMinuteOfDay(), activityCategory, activityLocation.ordinal(), isJointActivity)];
+	}
+
+	/**
+	 * <p>This method looks up the activities which are available at the provided time independent of where they are executed (except {@link ActivityLocation#TRAVEL}).</p>
+	 *
+	 * <p><b>Important:</b> The returned array is shared and must not be modified.</p>
+	 *
+	 * @param dayOfWeek - the day of week (see {@link DateTimeConstants#MONDAY} to {@link DateTimeConstants#SUNDAY}).
+	 * @param timeInBaseTime - the time of day in base time (see {@link ISimulationSettings#START_OF_DAY}).
+	 * @param activityCategory - the category to which the activities belong.
+	 * @param isJointActivity - whether or not the activities are joint activities.
+	 * @return Activity[] - the available activities.
+	 */
+	public Activity[] getActivities(int dayOfWeek, DateTime timeInBaseTime, ActivityCategory activityCategory, boolean isJointActivity) {
+		return m_candidates[getIndex(dayOfWeek, timeInBaseTime.getMinuteOfDay(), activityCategory, ANY_LOCATION, isJointActivity)];
+	}
+
+	/**
+	 * @param dayOfWeek - the day of week (see {@link DateTimeConstants#MONDAY} to {@link DateTimeConstants#SUNDAY}).
+	 * @param activityCategory - the category to which the activities belong.
+	 * @return int - the number of activities of the category which are available at some time of the day of week (see {@link Activity#isAvailableAt(int)}).
+	 */
+	public int getNumberOfActivitiesAvailableAt(int dayOfWeek, ActivityCategory activityCategory) {
+		return m_numberOfActivitiesAvailableAtDay[dayOfWeek][activityCategory.ordinal()];
+	}
+
+	private int getIndex(int dayOfWeek, int minuteOfDay, ActivityCategory activityCategory, int location, boolean isJointActivity) {
+		int index = ((dayOfWeek - 1) * DateTimeConstants.MINUTES_PER_DAY + minuteOfDay) * NUMBER_OF_CATEGORIES + activityCategory.ordinal();
+		return (index * NUMBER_OF_LOCATIONS + location) * 2 + (isJointActivity ? 1 : 0);
+	}
+}
@@ -4,11 +4,16 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.apache.commons.csv.CSVPrinter;
 import org.jfree.data.category.DefaultCategoryDataset;
@@ -19,22 +24,34 @@ import com.vividsolutions.jts.geom.GeometryFactory;
 import com.vividsolutions.jts.geom.Point;
 import com.vividsolutions.jts.planargraph.Node;
 
+import ec.util.MersenneTwisterFast;
 import rfs0.aitam.activity.Activity;
 import rfs0.aitam.activity.ActivityAgenda;
+import rfs0.aitam.activity.ActivityCandidateIndex;
 import rfs0.aitam.activity.ActivityCategory;
 import rfs0.aitam.activity.ActivityInitializer;
 import rfs0.aitam.individual.Individual;
+import rfs0.aitam.individual.PopulationMovementStore;
 import rfs0.aitam.individual.IndividualInitializer;
 import rfs0.aitam.need.AbsoluteNeedTimeSplit;
 import rfs0.aitam.settings.ISimulationSettings;
+import rfs0.aitam.utilities.AStarHeuristic;
+import rfs0.aitam.utilities.BatchRouter;
+import rfs0.aitam.utilities.ContractionHierarchy;
+import rfs0.aitam.utilities.EdgeTraffic;
 import rfs0.aitam.utilities.GeometryUtility;
+import rfs0.aitam.utilities.GraphUtility;
+import rfs0.aitam.utilities.Landmarks;
+import rfs0.aitam.utilities.RouteCache;
+import rfs0.aitam.utilities.RoutingGraph;
+import rfs0.aitam.utilities.RoutingStatistics;
+import rfs0.aitam.utilities.TrafficCosts;
 import sim.engine.SimState;
 import sim.engine.Steppable;
 import sim.field.geo.GeomVectorField;
 import sim.io.geo.ShapeFileImporter;
 import sim.util.Bag;
 import sim.util.geo.GeomPlanarGraph;
-import sim.util.geo.GeomPlanarGraphEdge;
 import sim.util.geo.MasonGeometry;
 /**
  * p>This class is used to model the environment. 
@@ -58,6 +75,7 @@ import sim.util.geo.MasonGeometry;
  * 
  * <p>{@link Environment#m_activityDescriptionToActivityMap}: This map contains the activity for each of the activity descriptions (see {@link ISimulationSettings}).</p>
  * <p>{@link Environment#m_activityCategoryToActivitiesyMap}: This map contains a list of all activities that belong to each of the activity categories.</p>
+ * <p>{@link Environment#m_activityCandidateIndex}: This index contains the activities available at each minute of each day of week by category, location and whether or not they are joint activities (see {@link ActivityCandidateIndex}).</p>
  * <p>{@link Environment#m_activityCategoryDataset}: This represents that dataset which is used to create the bar chart that shows what fraction of individuals execute an activity which belongs to each of the activity categories.</p>
  * 
  * <p><b>Time</b></p>
@@ -70,13 +88,17 @@ import sim.util.geo.MasonGeometry;
  * <p>{@link Environment#m_buildingsField}: This variable contains all the buildings as defined by the shape file for the buildings.</p>
  * <p>{@link Environment#m_pathField}: This variable contains all the paths as defined by the shape file for the paths.</p>
  * <p>{@link Environment#m_pathGraph}: This variable contains a graph representation of the paths.</p>
- * <p>{@link Environment#m_edgeTraffic}: This variable can be used to store the number of individuals on each of the edges which currently are being traversed (i.e. the traffic on each path).</p>
- * <p>{@link Environment#m_individualsField}: This variable contains all the geometries for all the individuals.</p>
+ * <p>{@link Environment#m_edgeTraffic}: This variable counts the individuals on each of the edges which currently are being traversed (i.e. the traffic on each path) and the link volume of each edge in the last hour (see {@link EdgeTraffic}).</p>
+ * <p>{@link Environment#m_individualsField}: This variable contains all the geometries for all the individuals. They are indexed by a grid which is updated incrementally when individuals move (see {@link IndividualsField}).</p>
  *
  * 
  * <p><b>Individuals</b></p>
  * 
  * <p>{@link Environment#m_individuals}: This variable contains all individuals in the environment.</p>
+ * <p>{@link Environment#m_movementStore}: This variable contains the movement state of all individuals in primitive arrays indexed by their id. It moves all traveling individuals at once.</p>
+ * <p>{@link Environment#m_wakeUpScheduler}: This variable schedules the steps of all individuals. It skips individuals which stay at the location of an individual activity (see {@link ISimulationSettings#IS_SKIP_AHEAD_SCHEDULING_ENABLED}).</p>
+ * <p>{@link Environment#m_travelEventScheduler}: This variable executes the arrivals of the individuals which travel event-driven (see {@link ISimulationSettings#IS_EVENT_DRIVEN_TRAVEL_ENABLED}).</p>
+ * <p>{@link Environment#m_individualsPlanningInParallel}: This variable contains the individuals which plan their individual activities in the current minute if they plan concurrently (see {@link ISimulationSettings#IS_PARALLEL_PLANNING_ENABLED}).</p>
  * 
  * <p><b>Output</b></p>
  * 
@@ -123,6 +145,10 @@ public class Environment extends SimState {
 	 * <p>This map contains a list of all activities that belong to each of the activity categories.</p>
 	 */
 	private HashMap<ActivityCategory, ArrayList<Activity>> m_activityCategoryToActivitiesyMap = new HashMap<>();
+	/**
+	 * <p>This index contains the activities available at each minute of each day of week by category, location and whether or not they are joint activities (see {@link ActivityCandidateIndex}).</p>
+	 */
+	private ActivityCandidateIndex m_activityCandidateIndex;
 	/**
 	 * <p>This represents that dataset which is used to create the bar chart that shows what fraction of individuals execute an activity which belongs to each of the activity categories.</p>
 	 */
@@ -150,13 +176,14 @@ public class Environment extends SimState {
 	 */
 	private GeomPlanarGraph m_pathGraph = new GeomPlanarGraph();
 	/**
-	 * <p>This variable can be used to store the number of individuals on each of the edges which currently are being traversed (i.e. the traffic on each path).</p>
+	 * <p>This variable counts the individuals on each of the edges which currently are being traversed (i.e. the traffic on each path) and the link volume of each edge in the last hour (see {@link EdgeTraffic}).
+	 * The costs of the edges are derived from it if {@link ISimulationSettings#IS_CONGESTION_ENABLED} is set.</p>
 	 */
-	private HashMap<GeomPlanarGraphEdge, ArrayList<Individual>> m_edgeTraffic = new HashMap<>(); 
+	private EdgeTraffic m_edgeTraffic;
 	/**
-	 * <p>This variable contains all the geometries for all the individuals.</p>
+	 * <p>This variable contains all the geometries for all the individuals. They are indexed by a grid which is updated incrementally when individuals move (see {@link IndividualsField}).</p>
 	 */
-	private GeomVectorField m_individualsField = new GeomVectorField(ISimulationSettings.ENVIRONMENT_WIDTH, ISimulationSettings.ENVIRONMENT_HEIGHT);
+	private IndividualsField m_individualsField = new IndividualsField(ISimulationSettings.ENVIRONMENT_WIDTH, ISimulationSettings.ENVIRONMENT_HEIGHT);
 
 	/**
 	 * @category Activities
@@ -164,6 +191,22 @@ public class Environment extends SimState {
 	 * <p>This variable contains all individuals in the environment.</p>
 	 */
 	private ArrayList<Individual> m_individuals = new ArrayList<>();
+	/**
+	 * <p>This variable contains the movement state of all individuals in primitive arrays indexed by their id. It moves all traveling individuals at once.</p>
+	 */
+	private PopulationMovementStore m_movementStore;
+	/**
+	 * <p>This variable schedules the steps of all individuals. It skips individuals which stay at the location of an individual activity (see {@link ISimulationSettings#IS_SKIP_AHEAD_SCHEDULING_ENABLED}).</p>
+	 */
+	private WakeUpScheduler m_wakeUpScheduler;
+	/**
+	 * <p>This variable executes the arrivals of the individuals which travel event-driven (see {@link ISimulationSettings#IS_EVENT_DRIVEN_TRAVEL_ENABLED}).</p>
+	 */
+	private TravelEventScheduler m_travelEventScheduler = new TravelEventScheduler();
+	/**
+	 * <p>This variable contains the individuals which plan their individual activities in the current minute if they plan concurrently (see {@link ISimulationSettings#IS_PARALLEL_PLANNING_ENABLED}).</p>
+	 */
+	private ArrayList<Individual> m_individualsPlanningInParallel = new ArrayList<>();
 	
 	/**
 	 * @category Output
@@ -179,10 +222,30 @@ public class Environment extends SimState {
 	public Environment(long seed) { 
 		super(seed); 
 		initEnvironment();
+		initContractionHierarchy();
+		initLandmarks();
 		initActivities();
 		initBuildings();
 		initIndividuals();
 		initOutput();
+		initOutputRecorder();
+	}
+	
+	/**
+	 * <p>Creates an environment on the provided paths without reading any shape file, i.e. an environment without buildings and individuals.
+	 * Only the graph representation of the paths, the activities and the output holder are initialized, but no output is written to disk. 
+	 * It is meant to be extended by tests, which add the buildings and individuals they require themselves (see {@link Environment#getBuildingToClosestNodeMap()}).</p>
+	 * 
+	 * @param seed - the seed of the random number generator.
+	 * @param pathField - the paths of the environment.
+	 */
+	protected Environment(long seed, GeomVectorField pathField) {
+		super(seed);
+		m_pathField = pathField;
+		synchronizeMinimumBoundingRectangles(new Envelope(pathField.getMBR()));
+		initPathGraph();
+		initActivities();
+		initOutput();
 	}
 
 	/**
@@ -193,15 +256,23 @@ public class Environment extends SimState {
 	 * 		<li>Plan joint {@link Activity}'s, if planning is possible. 
 	 * 			Write them into {@link Individual}'s joint {@link ActivityAgenda}</li>
 	 * 		<li>Carry over joint activities to the {@link Individual}'s individual {@link ActivityAgenda}, if planning is possible</li>
+	 * 		<li>Find the travel distances required by all {@link Individual}'s at once, if planning is possible (see {@link Environment#routeBatch()}).</li>
 	 * 		<li>Plan individual activities, if planning is possible.</li>
-	 * 		<li>Choose the best of the generated {@link ActivityAgenda}'s</li>
-	 * 		<li>At each point in time: Moving, if necessary.</li>
+	 * 		<li>Choose the best of the generated {@link ActivityAgenda}'s. 
+	 * 		<b>Note:</b> If {@link ISimulationSettings#IS_PARALLEL_PLANNING_ENABLED} is set, the individuals are only collected instead and plan their individual activities as well as choose their best agenda all at once (see {@link Environment#planIndividualActivitiesInParallel()}).</li>
+	 * 		<li>Every {@link ISimulationSettings#CONGESTION_UPDATE_INTERVAL_IN_MINUTES} minutes: update the costs of the edges according to the current traffic, if congestion is enabled (see {@link TrafficCosts}). 
+	 * 		At the start of each hour: take a snapshot of the link volumes (see {@link EdgeTraffic}).</li>
+	 * 		<li>At each point in time: Moving, if necessary. 
+	 * 		The individuals only initialize their paths, all traveling individuals are moved at once afterwards (see {@link PopulationMovementStore}).
+	 * 		<b>Note:</b> If {@link ISimulationSettings#IS_EVENT_DRIVEN_TRAVEL_ENABLED} is set, the arrival of a traveling {@link Individual} is executed once instead (see {@link TravelEventScheduler} and {@link Environment#updatePositionsOfTravelingIndividuals()}).</li>
 	 * 		<li>At each point in time: execute the activity scheduled for the interval overlapping the current point in time. 
 	 * 		<b>Note:</b> This includes in particular updating the {@link AbsoluteNeedTimeSplit}.
 	 * 		<li>Finally, if the beginning of a new day is reached, reset (only) variables which are used to generate a new {@link ActivityAgenda}</li>
 	 * 	</ol>
-	 * 	<li>Schedule the {@link GeomVectorField} containing all {@link Point}'s wrapped in a {@link MasonGeometry}. 
-	 * 		These represent the {@link Individual}'s as dots.</li>
+	 * 	<b>Note:</b> The steps are scheduled by the {@link WakeUpScheduler}, which skips an {@link Individual} while it stays at the location of an individual {@link Activity} (see {@link ISimulationSettings#IS_SKIP_AHEAD_SCHEDULING_ENABLED}). 
+	 * 	The output of the skipped individuals is recorded by the {@link WakeUpScheduler} in each step.
+	 * 	<li>The {@link IndividualsField} containing all {@link Point}'s wrapped in a {@link MasonGeometry} is not scheduled. 
+	 * 		These represent the {@link Individual}'s as dots. The individuals which have moved are put into the cells of their new positions whenever the field is queried.</li>
 	 * 	<li>Schedule the {@link DefaultCategoryDataset} to be updated with the information of the aggregated number of {@link Individual}'s per {@link ActivityCategory}.</li>
 	 * 	<li>Schedule the {@link EnvironmentOutputRecorder} to write all data in {@link Environment#m_outputHolder} to disk.
 	 * 	<li>Schedule the {@link SimulationTime} to be incremented. <b>Note:</b>Each step takes exactly one minute. 
@@ -211,8 +282,10 @@ public class Environment extends SimState {
 	@Override
 	public void start() {
 		super.start();
+		m_wakeUpScheduler = new WakeUpScheduler();
+		m_travelEventScheduler = new TravelEventScheduler();
 		for (Individual individual: getIndividuals()) {
-			schedule.scheduleRepeating(0.0, 0, new Steppable() {
+			m_wakeUpScheduler.addStep(this, individual, 0, new Steppable() {
 				private static final long serialVersionUID = 1L;
 				@Override
 				public void step(SimState state) {
@@ -222,7 +295,7 @@ public class Environment extends SimState {
 					}
 				}
 			});
-			schedule.scheduleRepeating(0.0, 10, new Steppable() {			
+			m_wakeUpScheduler.addStep(this, individual, 10, new Steppable() {			
 				private static final long serialVersionUID = 1L;
 				@Override
 				public void step(SimState state) {
@@ -231,7 +304,7 @@ public class Environment extends SimState {
 					}
 				}
 			});
-			schedule.scheduleRepeating(0.0, 20, new Steppable() {			
+			m_wakeUpScheduler.addStep(this, individual, 20, new Steppable() {			
 				private static final long serialVersionUID = 1L;
 				@Override
 				public void step(SimState state) {
@@ -240,40 +313,80 @@ public class Environment extends SimState {
 					 }
 				}
 			});
-			schedule.scheduleRepeating(0.0, 30, new Steppable() {			
+			m_wakeUpScheduler.addStep(this, individual, 30, new Steppable() {			
 				private static final long serialVersionUID = 1L;
 				@Override
 				public void step(SimState state) {
 					if (individual.isPlanningPossible(ISimulationSettings.AVAILABLE_TIME_POINTS_FOR_PLANNING_ACTIVITIES)) {
-						individual.planIndividualActivities();
+						if (ISimulationSettings.IS_PARALLEL_PLANNING_ENABLED) {
+							m_individualsPlanningInParallel.add(individual);
+						}
+						else {
+							individual.planIndividualActivities();
+						}
 					}
 				}
 			});
-			schedule.scheduleRepeating(0.0, 40, new Steppable() {			
+			m_wakeUpScheduler.addStep(this, individual, 40, new Steppable() {			
 				private static final long serialVersionUID = 1L;
 				@Override
 				public void step(SimState state) {
-					if (individual.isPlanningPossible(ISimulationSettings.AVAILABLE_TIME_POINTS_FOR_PLANNING_ACTIVITIES)) {
+					if (!ISimulationSettings.IS_PARALLEL_PLANNING_ENABLED && individual.isPlanningPossible(ISimulationSettings.AVAILABLE_TIME_POINTS_FOR_PLANNING_ACTIVITIES)) {
 						individual.chooseBestAgenda();
 					}
 				}
 			});
-			schedule.scheduleRepeating(0.0, 50, new Steppable() {
+			m_wakeUpScheduler.addStep(this, individual, 50, new Steppable() {
 				private static final long serialVersionUID = 1L;
 				@Override
 				public void step(SimState state) {
 					individual.move();
 				}
 			});
-			schedule.scheduleRepeating(0.0, 60, new Steppable() {
+			m_wakeUpScheduler.addStep(this, individual, 60, new Steppable() {
 				private static final long serialVersionUID = 1L;
 				@Override
 				public void step(SimState state) {
 					individual.executeActivity();
+					if (ISimulationSettings.IS_SKIP_AHEAD_SCHEDULING_ENABLED) {
+						m_wakeUpScheduler.putToSleepIfPossible(Environment.this, individual);
+					}
 				}
 			});
 		}
-		schedule.scheduleRepeating(0.0, 70, m_individualsField.scheduleSpatialIndexUpdater());
+		schedule.scheduleRepeating(0.0, 25, new Steppable() {
+			private static final long serialVersionUID = 1L;
+			@Override
+			public void step(SimState state) {
+				if (ISimulationSettings.IS_BATCH_ROUTING_ENABLED && isPlanningPossible()) {
+					routeBatch();
+				}
+			}
+		});
+		schedule.scheduleRepeating(0.0, 35, new Steppable() {
+			private static final long serialVersionUID = 1L;
+			@Override
+			public void step(SimState state) {
+				if (!m_individualsPlanningInParallel.isEmpty()) {
+					planIndividualActivitiesInParallel();
+				}
+			}
+		});
+		schedule.scheduleRepeating(0.0, 45, new Steppable() {
+			private static final long serialVersionUID = 1L;
+			@Override
+			public void step(SimState state) {
+				if (ISimulationSettings.IS_CONGESTION_ENABLED && m_simulationTime.getCurrentTime().getMinuteOfDay() % ISimulationSettings.CONGESTION_UPDATE_INTERVAL_IN_MINUTES == 0) {
+					GraphUtility.getTrafficCosts().update(m_edgeTraffic);
+				}
+				if (m_simulationTime.getCurrentTime().getMinuteOfHour() == 0) {
+					m_edgeTraffic.takeSnapshotOfVolume();
+				}
+			}
+		});
+		schedule.scheduleRepeating(0.0, 51, m_movementStore);
+		schedule.scheduleRepeating(0.0, 52, m_travelEventScheduler);
+		schedule.scheduleRepeating(0.0, 55, m_wakeUpScheduler);
 		// update attributes for simulation output
 		schedule.scheduleRepeating(0.0, 80, new Steppable() {
 				private static final long serialVersionUID = 1L;
@@ -298,11 +411,98 @@ public class Environment extends SimState {
 	}
 	
 	/**
-	 * <p>This method additionally closes the {@link CSVPrinter} once the simulation is finished.</p>
+	 * <p>This method checks whether the current point in time is one of {@link ISimulationSettings#AVAILABLE_TIME_POINTS_FOR_PLANNING_ACTIVITIES} (see {@link Individual#isPlanningPossible(ArrayList)}).</p>
+	 * 
+	 * @return boolean - <code>true</code> if the individuals plan at the current point in time, <code>false</code> otherwise.
+	 */
+	private boolean isPlanningPossible() {
+		return ISimulationSettings.AVAILABLE_TIME_POINTS_FOR_PLANNING_ACTIVITIES.stream().anyMatch(timePoint -> timePoint.equals(m_simulationTime.getCurrentTime()));
+	}
+	
+	/**
+	 * <p>This method finds the travel distances which all individuals require to plan their individual activities at once (see {@link BatchRouter}).
+	 * It is executed after the joint activities have been carried over, since their locations are only known at this point, and before the individuals plan.</p>
+	 */
+	private void routeBatch() {
+		long start = System.nanoTime();
+		BatchRouter batchRouter = GraphUtility.createBatchRouter();
+		if (batchRouter == null) {
+			return;
+		}
+		for (Individual individual: m_individuals) {
+			individual.requestTravelDistances(batchRouter);
+		}
+		batchRouter.solve();
+		if (ISimulationSettings.IS_DEBUG) {
+			System.out.println(String.format("It took %d ms to find the travel distances from %d locations for the individuals.", (System.nanoTime() - start) / 1000000, batchRouter.getNumberOfOrigins()));
+		}
+	}
+	
+	/**
+	 * <p>This method lets all individuals collected in {@link Environment#m_individualsPlanningInParallel} plan their individual activities and choose their best agenda concurrently on the pool of {@link Individual#getPlanningPool()}.</p>
+	 */
+	private void planIndividualActivitiesInParallel() {
+		planIndividualActivitiesInParallel(m_individualsPlanningInParallel, Individual.getPlanningPool());
+		m_individualsPlanningInParallel.clear();
+	}
+	
+	/**
+	 * <p>This method lets the provided individuals plan their individual activities and choose their best agenda concurrently on the provided pool.</p>
+	 * 
+	 * <p>Before, a seed is drawn for each of the individuals in the order of their ids. Each individual draws the seeds of its plans from its own random number generator initialized with this seed.
+	 * Since the individuals only read shared state (i.e. the activities, the path network and the travel distances) while planning, the chosen agendas neither depend on the number of threads nor on the order in which the individuals are planned.</p>
+	 * 
+	 * @param individuals - the individuals which plan their individual activities. They are sorted by their ids.
+	 * @param planningPool - the pool on which the individuals plan.
+	 */
+	protected void planIndividualActivitiesInParallel(ArrayList<Individual> individuals, ForkJoinPool planningPool) {
+		long start = System.nanoTime();
+		individuals.sort(Comparator.comparingInt(Individual::getId));
+		long[] seeds = new long[individuals.size()];
+		for (int i = 0; i < seeds.length; i++) {
+			seeds[i] = random.nextLong();
+		}
+		planningPool.submit(() -> IntStream.range(0, seeds.length).parallel().forEach(i -> {
+			Individual individual = individuals.get(i);
+			individual.planIndividualActivities(new MersenneTwisterFast(seeds[i]));
+			individual.chooseBestAgenda();
+		})).join();
+		if (ISimulationSettings.IS_DEBUG) {
+			System.out.println(String.format("It took %d ms to plan the individual activities of %d individuals.", (System.nanoTime() - start) / 1000000, seeds.length));
+		}
+	}
+	
+	/**
+	 * <p>This method moves all individuals which travel event-driven to the positions they have reached at the current point in time (see {@link ISimulationSettings#IS_EVENT_DRIVEN_TRAVEL_ENABLED}).
+	 * Their positions are not updated while traveling otherwise, hence it has to be called before the positions are used (e.g. by the UI).</p>
+	 */
+	public void updatePositionsOfTravelingIndividuals() {
+		for (Individual individual: m_individuals) {
+			individual.updatePositionWhileTraveling();
+		}
+	}
+	
+	/**
+	 * @return boolean - <code>true</code> if the arrival of traveling individuals is executed as an event (see {@link ISimulationSettings#IS_EVENT_DRIVEN_TRAVEL_ENABLED}), <code>false</code> otherwise.
+	 * It is never the case if {@link ISimulationSettings#IS_CONGESTION_ENABLED} is set.
+	 */
+	public boolean isEventDrivenTravelEnabled() {
+		return ISimulationSettings.IS_EVENT_DRIVEN_TRAVEL_ENABLED && !ISimulationSettings.IS_CONGESTION_ENABLED;
+	}
+	
+	/**
+	 * <p>This method additionally closes the {@link CSVPrinter} once the simulation is finished.
+	 * Furthermore, it reports the effectiveness of the {@link RouteCache} if caching is enabled and summarizes the work done by the searches (see {@link RoutingStatistics}).</p>
 	 */
 	@Override
 	public void finish() {
 		super.finish();
+		if (GraphUtility.getRouteCache() != null) {
+			System.out.println(GraphUtility.getRouteCache());
+		}
+		if (GraphUtility.getRoutingStatistics() != null) {
+			System.out.println(GraphUtility.getRoutingStatistics());
+		}
 		try {
 			m_environmentObserver.getCsvPrinter().close();
 		}
@@ -322,7 +522,8 @@ public class Environment extends SimState {
 	}
 	
 	/**
-	 * <p>This method initializes the environment by reading the shape files for the buildings and the paths layer.</p>
+	 * <p>This method initializes the environment by reading the shape files for the buildings and the paths layer.
+	 * Afterwards the graph representation of the paths is created and indexed for routing (see {@link GraphUtility#initRoutingGraph(GeomPlanarGraph)}).</p>
 	 */
 	private void initEnvironment() {
 		System.out.println("Initializing the environment...");
@@ -330,10 +531,72 @@ public class Environment extends SimState {
 		Envelope globalMBR = new Envelope();
 		readShapeFiles(globalMBR);
 		synchronizeMinimumBoundingRectangles(globalMBR);
-		m_pathGraph.createFromGeomField(m_pathField);
+		initPathGraph();
+		reportConnectedComponents();
 		System.out.println(String.format("Initialized environment in %d ms", (System.nanoTime() - start) / 1000000));
 	}
 	
+	/**
+	 * <p>This method creates the graph representation of the paths and indexes it for routing (see {@link GraphUtility#initRoutingGraph(GeomPlanarGraph)}).</p>
+	 */
+	private void initPathGraph() {
+		m_pathGraph.createFromGeomField(m_pathField);
+		GraphUtility.initRoutingGraph(m_pathGraph);
+		m_edgeTraffic = new EdgeTraffic(GraphUtility.getRoutingGraph().getNumberOfEdges());
+	}
+	
+	/**
+	 * <p>This method reports the sizes of the connected components of the paths graph.
+	 * Nodes outside the largest component can not be reached from most of the environment, hence a warning is logged if they make up more than expected
+	 * (see {@link ISimulationSettings#MIN_SHARE_OF_NODES_IN_LARGEST_COMPONENT}), since this usually indicates a broken shape file.</p>
+	 */
+	private void reportConnectedComponents() {
+		RoutingGraph routingGraph = GraphUtility.getRoutingGraph();
+		if (routingGraph.getNumberOfNodes() == 0) {
+			Logger.getLogger(Environment.class.getName()).log(Level.SEVERE, "The paths graph does not contain any nodes. Check the paths shape file!");
+			return;
+		}
+		int sizeOfLargestComponent = routingGraph.getComponentSize(routingGraph.getLargestComponent());
+		TreeMap<Integer, Integer> numberOfComponentsBySize = new TreeMap<>(Collections.reverseOrder());
+		for (int component = 0; component < routingGraph.getNumberOfComponents(); component++) {
+			if (component != routingGraph.getLargestComponent()) {
+				numberOfComponentsBySize.merge(routingGraph.getComponentSize(component), 1, Integer::sum);
+			}
+		}
+		System.out.println(String.format("Found %d connected components in the paths graph. The largest one contains %d of %d nodes. Other components (size=count): %s", 
+				routingGraph.getNumberOfComponents(), sizeOfLargestComponent, routingGraph.getNumberOfNodes(), numberOfComponentsBySize));
+		double shareOfNodesInLargestComponent = (double) sizeOfLargestComponent / routingGraph.getNumberOfNodes();
+		if (shareOfNodesInLargestComponent < ISimulationSettings.MIN_SHARE_OF_NODES_IN_LARGEST_COMPONENT) {
+			Logger.getLogger(Environment.class.getName()).log(Level.WARNING, String.format("Only %.2f%% of the nodes of the paths graph are connected to each other. Check the paths shape file!", 100 * shareOfNodesInLargestComponent));
+		}
+	}
+	
+	/**
+	 * <p>This method preprocesses the graph representation of the paths into a {@link ContractionHierarchy} if {@link ISimulationSettings#IS_CONTRACTION_HIERARCHY_ENABLED} is set.</p>
+	 */
+	private void initContractionHierarchy() {
+		if (!ISimulationSettings.IS_CONTRACTION_HIERARCHY_ENABLED) {
+			return;
+		}
+		System.out.println("Initializing contraction hierarchy...");
+		long start = System.nanoTime();
+		GraphUtility.initContractionHierarchy();
+		System.out.println(String.format("Initialized contraction hierarchy with %d edges in %d ms", GraphUtility.getContractionHierarchy().getNumberOfEdges(), (System.nanoTime() - start) / 1000000));
+	}
+	
+	/**
+	 * <p>This method selects the {@link Landmarks} used by the A* heuristic if {@link ISimulationSettings#ASTAR_HEURISTIC} is {@link AStarHeuristic#LANDMARKS}.</p>
+	 */
+	private void initLandmarks() {
+		if (ISimulationSettings.ASTAR_HEURISTIC != AStarHeuristic.LANDMARKS) {
+			return;
+		}
+		System.out.println("Initializing landmarks...");
+		long start = System.nanoTime();
+		GraphUtility.initLandmarks(ISimulationSettings.NUMBER_OF_LANDMARKS);
+		System.out.println(String.format("Initialized %d landmarks in %d ms", GraphUtility.getLandmarks().getNumberOfLandmarks(), (System.nanoTime() - start) / 1000000));
+	}
+	
 	/**
 	 * <p>This method read the shape files used to represent GIS data and expands the global MBR accordingly.</p>
 	 * 
@@ -437,7 +700,7 @@ public class Environment extends SimState {
 	}
 	
 	/**
-	 * <p>This method initializes all activities.</p>
+	 * <p>This method initializes all activities and the index of the activities available at each point in time (see {@link ActivityCandidateIndex}).</p>
 	 */
 	private void initActivities() {
 		System.out.println("Initializing activities...");
@@ -449,6 +712,7 @@ public class Environment extends SimState {
 		initTravelActivities();
 		initIdleActivities();
 		initSleepAndRestActivities();
+		m_activityCandidateIndex = new ActivityCandidateIndex(m_activityDescriptionToActivityMap.values());
 		System.out.println(String.format("Initialized activities in %d ms", (System.nanoTime() - start) / 1000000));
 	}
 
@@ -533,7 +797,7 @@ public class Environment extends SimState {
 			individual.getCurrentLocationPoint().setUserData(individual);
 			m_individualsField.addGeometry(individual.getCurrentLocationPoint());
 		}
-		m_individualsField.updateSpatialIndex();
+		m_movementStore = new PopulationMovementStore(m_individuals, m_edgeTraffic);
 		System.out.println(String.format("Initialized individuals in %d ms", (System.nanoTime() - start) / 1000000));
 	}
 	
@@ -587,24 +851,32 @@ public class Environment extends SimState {
 			}
 			m_activityCategoryToActivitiesyMap.get(category).addAll(activitiesOfCategory);
 		}
+	}
+	
+	/**
+	 * <p>This method initializes the {@link EnvironmentOutputRecorder}, which writes the output holder to disk. It has to be called after {@link Environment#initOutput()}.</p>
+	 */
+	private void initOutputRecorder() {
 		m_environmentObserver = new EnvironmentOutputRecorder(m_outputHolder.keySet());
 	}
 	
 	/**
-	 * <p>This method gets the closest node to the provided building based on the provided candidate paths.</p>
+	 * <p>This method gets the closest node to the provided building based on the provided candidate paths.
+	 * Only nodes of the largest connected component of the paths graph are considered, since the other nodes can not be reached from most of the environment.</p>
 	 * 
 	 * @param building - building for which the closest not is retrieved.
 	 * @param candidatePaths - a list with paths near to the building.
-	 * @return Node - the node (i.e. junction) closest to the building.
+	 * @return Node - the node (i.e. junction) closest to the building or <code>null</code> if none of the candidate paths starts at a node of the largest connected component.
 	 */
 	private Node getClosestNodeToBuilding(MasonGeometry building, Bag candidatePaths) {
 		Coordinate buildingCoordinate = building.getGeometry().getCoordinate();
+		RoutingGraph routingGraph = GraphUtility.getRoutingGraph();
 		double minDistance = Double.MAX_VALUE;
 		Node closestNodeToBuilding = null;
 		for (Object pathObj: candidatePaths) {
 			Coordinate pathCoordinate = ((MasonGeometry) pathObj).getGeometry().getCoordinate();
 			Node node = m_pathGraph.findNode(pathCoordinate);
-			if (node != null) {
+			if (node != null && routingGraph.isInLargestComponent(routingGraph.getNodeId(node))) {
 				double distance = GeometryUtility.calculateDistance(buildingCoordinate, node.getCoordinate());
 				if (distance < minDistance) {
 					minDistance = distance;
@@ -621,6 +893,10 @@ public class Environment extends SimState {
 	public HashMap<String, Activity> getAllActivities() {
 		return m_activityDescriptionToActivityMap;
 	}
+	
+	public ActivityCandidateIndex getActivityCandidateIndex() {
+		return m_activityCandidateIndex;
+	}
 
 	public SimulationTime getSimulationTime() {
 		return m_simulationTime;
@@ -638,14 +914,26 @@ public class Environment extends SimState {
 		return m_pathGraph;
 	}
 
-	public HashMap<GeomPlanarGraphEdge, ArrayList<Individual>> getEdgeTraffic() {
+	public EdgeTraffic getEdgeTraffic() {
 		return m_edgeTraffic;
 	}
 
-	public GeomVectorField getIndividualsField() {
+	public IndividualsField getIndividualsField() {
 		return m_individualsField;
 	}
 
+	public PopulationMovementStore getMovementStore() {
+		return m_movementStore;
+	}
+
+	public WakeUpScheduler getWakeUpScheduler() {
+		return m_wakeUpScheduler;
+	}
+
+	public TravelEventScheduler getTravelEventScheduler() {
+		return m_travelEventScheduler;
+	}
+	
 	public ArrayList<Individual> getIndividuals() {
 		return m_individuals;
 	}
@@ -663,6 +951,15 @@ public class Environment extends SimState {
 		}
 	}
 
+	public void addToIntegerValueOfOutputHolder(String key, int value) {
+		if (m_outputHolder.get(key) == null) {
+			m_outputHolder.put(key, Integer.valueOf(value));
+		}
+		else {
+			m_outputHolder.put(key, ((Integer) m_outputHolder.get(key)).intValue() + value);
+		}
+	}
+
 	public EnvironmentOutputRecorder getEnvironmentObserver() {
 		return m_environmentObserver;
 	}
@@ -22,6 +22,7 @@ import sim.display.Controller;
 import sim.display.Display2D;
 import sim.display.GUIState;
 import sim.engine.SimState;
+import sim.engine.Steppable;
 import sim.portrayal.DrawInfo2D;
 import sim.portrayal.Inspector;
 import sim.portrayal.SimpleInspector;
@@ -114,11 +115,19 @@ public class EnvironmentWithUI extends GUIState {
 	}
 
 	/**
-	 * <p>This method starts the UI.</p>
+	 * <p>This method starts the UI. 
+	 * After each step the positions of the individuals traveling event-driven are updated, such that they are displayed while traveling (see {@link Environment#updatePositionsOfTravelingIndividuals()}).</p>
 	 */
 	@Override
 	public void start() {
 		super.start();
+		scheduleRepeatingImmediatelyAfter(new Steppable() {
+			private static final long serialVersionUID = 1L;
+			@Override
+			public void step(SimState state) {
+				((Environment) state).updatePositionsOfTravelingIndividuals();
+			}
+		});
 		m_display.reset();
 		setupPortrayals();
 		m_display.setBackdrop(ISimulationSettings.COLOR_OF_BACKGROUND);
@@ -0,0 +1,380 @@
+package rfs0.aitam.environment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import com.vividsolutions.jts.geom.Envelope;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.Point;
+
+import rfs0.aitam.individual.Individual;
+import rfs0.aitam.settings.ISimulationSettings;
+import sim.engine.SimState;
+import sim.engine.Steppable;
+import sim.field.geo.GeomVectorField;
+import sim.util.Bag;
+import sim.util.geo.MasonGeometry;
+
+/**
+ * <p>This class contains the points of all {@link Individual}s. In addition to the spatial index of the {@link GeomVectorField}, which has to be rebuilt whenever a point is moved,
+ * the points are indexed by a uniform grid which is updated incrementally. Thus, moving an individual only moves it from one cell of the grid to another and the spatial index of the field does not have to be rebuilt.
+ * The queries of the field (e.g. the ones used by the UI to draw the individuals) are answered by the grid. It relies on the following attributes:</p>
+ *
+ * <p>{@link IndividualsField#m_minX}, {@link IndividualsField#m_minY}, {@link IndividualsField#m_numberOfColumns} and {@link IndividualsField#m_numberOfRows}: The extent of the grid, which covers the minimum bounding rectangle of the field.
+ * Points outside of it are kept in the cells at the border of the grid.</p>
+ * <p>{@link IndividualsField#m_firstInCell}: The id of the first individual in each cell or <code>-1</code> if the cell is empty.</p>
+ * <p>{@link IndividualsField#m_pointOfIndividual}: The point of each individual indexed by the id of the individual (see {@link Individual#getId()}).</p>
+ * <p>{@link IndividualsField#m_cellOfIndividual}, {@link IndividualsField#m_nextInCell} and {@link IndividualsField#m_previousInCell}: The cell of each individual and its neighbours in the list of the individuals of the cell.
+ * Hence, an individual is moved to another cell in constant time.</p>
+ * <p>{@link IndividualsField#m_movedIndividuals}: The ids of the individuals which have moved since the grid was updated the last time.
+ * An individual might move several times before the grid is queried (e.g. when it travels event-driven), hence the grid is only updated before it is queried (see {@link IndividualsField#updateGrid()}).</p>
+ */
+public class IndividualsField extends GeomVectorField {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * <p>The width and height of the cells.</p>
+	 */
+	private final double m_sizeOfCells = ISimulationSettings.SIZE_OF_CELLS_OF_INDIVIDUALS_FIELD;
+	/**
+	 * <p>The x-coordinate of the left border of the grid.</p>
+	 */
+	private double m_minX;
+	/**
+	 * <p>The y-coordinate of the bottom border of the grid.</p>
+	 */
+	private double m_minY;
+	private int m_numberOfColumns;
+	private int m_numberOfRows;
+	/**
+	 * <p>The id of the first individual in each cell or <code>-1</code> if the cell is empty.</p>
+	 */
+	private int[] m_firstInCell;
+	/**
+	 * <p>The point of each individual indexed by the id of the individual or <code>null</code> if there is no individual with this id.</p>
+	 */
+	private MasonGeometry[] m_pointOfIndividual = new MasonGeometry[0];
+	/**
+	 * <p>The cell of each individual.</p>
+	 */
+	private int[] m_cellOfIndividual = new int[0];
+	/**
+	 * <p>The id of the next individual in the same cell or <code>-1</code> if it is the last one.</p>
+	 */
+	private int[] m_nextInCell = new int[0];
+	/**
+	 * <p>The id of the previous individual in the same cell or <code>-1</code> if it is the first one.</p>
+	 */
+	private int[] m_previousInCell = new int[0];
+	/**
+	 * <p>Whether each individual has moved since the grid was updated the last time.</p>
+	 */
+	private boolean[] m_hasMoved = new boolean[0];
+	/**
+	 * <p>The ids of the individuals which have moved since the grid was updated the last time. Only the first {@link IndividualsField#m_numberOfMovedIndividuals} entries are used.</p>
+	 */
+	private int[] m_movedIndividuals = new int[0];
+	private int m_numberOfMovedIndividuals = 0;
+
+	/**
+	 * @param width - the width in display units of the field.
+	 * @param height - the height in display units of the field.
+	 */
+	public IndividualsField(int width, int height) {
+		super(width, height);
+		initGrid();
+	}
+
+	/**
+	 * <p>This method creates an empty grid which covers the minimum bounding rectangle of the field.</p>
+	 */
+	private void initGrid() {
+		Envelope minimumBoundingRectangle = getMBR();
+		if (minimumBoundingRectangle == null || minimumBoundingRectangle.isNull()) {
+			m_minX = 0.0;
+			m_minY = 0.0;
+			m_numberOfColumns = 1;
+			m_numberOfRows = 1;
+		}
+		else {
+			m_minX = minimumBoundingRectangle.getMinX();
+			m_minY = minimumBoundingRectangle.getMinY();
+			m_numberOfColumns = Math.max(1, (int) Math.ceil(minimumBoundingRectangle.getWidth() / m_sizeOfCells));
+			m_numberOfRows = Math.max(1, (int) Math.ceil(minimumBoundingRectangle.getHeight() / m_sizeOfCells));
+		}
+		m_firstInCell = new int[m_numberOfColumns * m_numberOfRows];
+		Arrays.fill(m_firstInCell, -1);
+	}
+
+	/**
+	 * <p>This method additionally adds the point of an individual (i.e. a point whose user data is an {@link Individual}) to the grid.</p>
+	 */
+	@Override
+	public void addGeometry(MasonGeometry geometry) {
+		super.addGeometry(geometry);
+		if (geometry.getUserData() instanceof Individual) {
+			int id = ((Individual) geometry.getUserData()).getId();
+			ensureCapacity(id + 1);
+			m_pointOfIndividual[id] = geometry;
+			addToCell(id, getCell((Point) geometry.getGeometry()));
+		}
+	}
+
+	/**
+	 * <p>This method marks the individual as moved, such that it is put into the cell of its new position before the grid is queried the next time.
+	 * It has to be called whenever the point of the individual is moved.
+	 * It is synchronized like the queries, since the UI might query the field while the individuals move.</p>
+	 *
+	 * @param id - the id of the individual.
+	 */
+	public synchronized void markAsMoved(int id) {
+		if (id >= m_hasMoved.length || m_pointOfIndividual[id] == null || m_hasMoved[id]) {
+			return;
+		}
+		m_hasMoved[id] = true;
+		m_movedIndividuals[m_numberOfMovedIndividuals++] = id;
+	}
+
+	/**
+	 * <p>This method puts all individuals which have moved since the last update into the cells of their new positions.</p>
+	 */
+	public synchronized void updateGrid() {
+		for (int i = 0; i < m_numberOfMovedIndividuals; i++) {
+			int id = m_movedIndividuals[i];
+			m_hasMoved[id] = false;
+			int cell = getCell((Point) m_pointOfIndividual[id].getGeometry());
+			if (cell != m_cellOfIndividual[id]) {
+				removeFromCell(id);
+				addToCell(id, cell);
+			}
+		}
+		m_numberOfMovedIndividuals = 0;
+	}
+
+	/**
+	 * @category Queries
+	 */
+
+	/**
+	 * <p>This method finds the points of the individuals within the provided envelope by looking at the cells overlapping it.</p>
+	 */
+	@Override
+	public synchronized Bag queryField(Envelope envelope) {
+		updateGrid();
+		Bag points = new Bag();
+		forEachCellOverlapping(envelope.getMinX(), envelope.getMinY(), envelope.getMaxX(), envelope.getMaxY(), cell -> {
+			for (int id = m_firstInCell[cell]; id != -1; id = m_nextInCell[id]) {
+				Point point = (Point) m_pointOfIndividual[id].getGeometry();
+				if (envelope.contains(point.getX(), point.getY())) {
+					points.add(m_pointOfIndividual[id]);
+				}
+			}
+		});
+		return points;
+	}
+
+	/**
+	 * <p>This method finds the points of the individuals within the provided distance of the provided geometry by looking at the cells overlapping its envelope extended by the distance.</p>
+	 */
+	@Override
+	public synchronized Bag getObjectsWithinDistance(Geometry geometry, double distance) {
+		updateGrid();
+		Bag points = new Bag();
+		Envelope envelope = geometry.getEnvelopeInternal();
+		forEachCellOverlapping(envelope.getMinX() - distance, envelope.getMinY() - distance, envelope.getMaxX() + distance, envelope.getMaxY() + distance, cell -> {
+			for (int id = m_firstInCell[cell]; id != -1; id = m_nextInCell[id]) {
+				if (geometry.isWithinDistance(m_pointOfIndividual[id].getGeometry(), distance)) {
+					points.add(m_pointOfIndividual[id]);
+				}
+			}
+		});
+		return points;
+	}
+
+	@Override
+	public Bag getObjectsWithinDistance(MasonGeometry geometry, double distance) {
+		return getObjectsWithinDistance(geometry.getGeometry(), distance);
+	}
+
+	/**
+	 * <p>This method finds the individuals within the provided distance of the provided location.</p>
+	 *
+	 * @param x - the x-coordinate of the location.
+	 * @param y - the y-coordinate of the location.
+	 * @param distance - the maximal distance.
+	 * @return ArrayList - the individuals within the distance.
+	 */
+	public synchronized ArrayList<Individual> getIndividualsWithinDistance(double x, double y, double distance) {
+		updateGrid();
+		ArrayList<Individual> individuals = new ArrayList<>();
+		forEachCellOverlapping(x - distance, y - distance, x + distance, y + distance, cell -> {
+			for (int id = m_firstInCell[cell]; id != -1; id = m_nextInCell[id]) {
+				if (calculateSquaredDistance(id, x, y) <= distance * distance) {
+					individuals.add((Individual) m_pointOfIndividual[id].getUserData());
+				}
+			}
+		});
+		return individuals;
+	}
+
+	/**
+	 * <p>This method finds the individual closest to the provided location.
+	 * The cells are searched in rings around the cell of the location until no cell outside of the searched rings can contain an individual closer than the closest individual found.</p>
+	 *
+	 * @param x - the x-coordinate of the location.
+	 * @param y - the y-coordinate of the location.
+	 * @return Individual - the closest individual or <code>null</code> if there are no individuals.
+	 */
+	public synchronized Individual getNearestIndividual(double x, double y) {
+		updateGrid();
+		int column = getColumn(x);
+		int row = getRow(y);
+		int nearestId = -1;
+		double squaredDistanceOfNearest = Double.POSITIVE_INFINITY;
+		int maxRing = Math.max(m_numberOfColumns, m_numberOfRows);
+		for (int ring = 0; ring <= maxRing; ring++) {
+			for (int c = column - ring; c <= column + ring; c++) {
+				for (int r = row - ring; r <= row + ring; r++) {
+					// only the cells on the border of the ring have not been searched yet
+					if (c < 0 || r < 0 || c >= m_numberOfColumns || r >= m_numberOfRows || Math.max(Math.abs(c - column), Math.abs(r - row)) != ring) {
+						continue;
+					}
+					for (int id = m_firstInCell[r * m_numberOfColumns + c]; id != -1; id = m_nextInCell[id]) {
+						double squaredDistance = calculateSquaredDistance(id, x, y);
+						if (squaredDistance < squaredDistanceOfNearest) {
+							nearestId = id;
+							squaredDistanceOfNearest = squaredDistance;
+						}
+					}
+				}
+			}
+			// the cells outside the searched rings are at least as far away as the border of the searched rings
+			double distanceToBorderOfRings = Math.min(
+					Math.min(x - (m_minX + (column - ring) * m_sizeOfCells), m_minX + (column + ring + 1) * m_sizeOfCells - x),
+					Math.min(y - (m_minY + (row - ring) * m_sizeOfCells), m_minY + (row + ring + 1) * m_sizeOfCells - y));
+			if (nearestId != -1 && distanceToBorderOfRings > 0 && squaredDistanceOfNearest <= distanceToBorderOfRings * distanceToBorderOfRings) {
+				break;
+			}
+		}
+		return nearestId == -1 ? null : (Individual) m_pointOfIndividual[nearestId].getUserData();
+	}
+
+	/**
+	 * @category Grid
+	 */
+
+	/**
+	 * <p>This method additionally creates a new grid for the new minimum bounding rectangle and puts all individuals into it.</p>
+	 */
+	@Override
+	public void setMBR(Envelope minimumBoundingRectangle) {
+		super.setMBR(minimumBoundingRectangle);
+		initGrid();
+		for (int id = 0; id < m_pointOfIndividual.length; id++) {
+			if (m_pointOfIndividual[id] != null) {
+				addToCell(id, getCell((Point) m_pointOfIndividual[id].getGeometry()));
+			}
+		}
+	}
+
+	/**
+	 * <p>This method additionally removes all individuals from the grid.</p>
+	 */
+	@Override
+	public void clear() {
+		super.clear();
+		m_pointOfIndividual = new MasonGeometry[0];
+		m_cellOfIndividual = new int[0];
+		m_nextInCell = new int[0];
+		m_previousInCell = new int[0];
+		m_hasMoved = new boolean[0];
+		m_movedIndividuals = new int[0];
+		m_numberOfMovedIndividuals = 0;
+		initGrid();
+	}
+
+	/**
+	 * <p>The grid is updated incrementally, hence the returned {@link Steppable} only puts the individuals which have moved into the cells of their new positions (see {@link IndividualsField#updateGrid()}).
+	 * The spatial index of the {@link GeomVectorField} is not used for queries and thus not rebuilt.</p>
+	 */
+	@Override
+	public Steppable scheduleSpatialIndexUpdater() {
+		return new Steppable() {
+			private static final long serialVersionUID = 1L;
+			@Override
+			public void step(SimState state) {
+				updateGrid();
+			}
+		};
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity <= m_pointOfIndividual.length) {
+			return;
+		}
+		int newCapacity = Math.max(capacity, 2 * m_pointOfIndividual.length);
+		m_pointOfIndividual = Arrays.copyOf(m_pointOfIndividual, newCapacity);
+		m_cellOfIndividual = Arrays.copyOf(m_cellOfIndividual, newCapacity);
+		m_nextInCell = Arrays.copyOf(m_nextInCell, newCapacity);
+		m_previousInCell = Arrays.copyOf(m_previousInCell, newCapacity);
+		m_hasMoved = Arrays.copyOf(m_hasMoved, newCapacity);
+		m_movedIndividuals = Arrays.copyOf(m_movedIndividuals, newCapacity);
+	}
+
+	private void addToCell(int id, int cell) {
+		m_cellOfIndividual[id] = cell;
+		m_previousInCell[id] = -1;
+		m_nextInCell[id] = m_firstInCell[cell];
+		if (m_firstInCell[cell] != -1) {
+			m_previousInCell[m_firstInCell[cell]] = id;
+		}
+		m_firstInCell[cell] = id;
+	}
+
+	private void removeFromCell(int id) {
+		int cell = m_cellOfIndividual[id];
+		if (m_previousInCell[id] != -1) {
+			m_nextInCell[m_previousInCell[id]] = m_nextInCell[id];
+		}
+		else {
+			m_firstInCell[cell] = m_nextInCell[id];
+		}
+		if (m_nextInCell[id] != -1) {
+			m_previousInCell[m_nextInCell[id]] = m_previousInCell[id];
+		}
+	}
+
+	/**
+	 * <p>This method calls the provided action for each cell of the grid overlapping the provided rectangle.</p>
+	 */
+	private void forEachCellOverlapping(double minX, double minY, double maxX, double maxY, IntConsumer action) {
+		int maxColumn = getColumn(maxX);
+		int maxRow = getRow(maxY);
+		for (int row = getRow(minY); row <= maxRow; row++) {
+			for (int column = getColumn(minX); column <= maxColumn; column++) {
+				action.accept(row * m_numberOfColumns + column);
+			}
+		}
+	}
+
+	private int getCell(Point point) {
+		return getRow(point.getY()) * m_numberOfColumns + getColumn(point.getX());
+	}
+
+	private int getColumn(double x) {
+		return Math.min(m_numberOfColumns - 1, Math.max(0, (int) Math.floor((x - m_minX) / m_sizeOfCells)));
+	}
+
+	private int getRow(double y) {
+		return Math.min(m_numberOfRows - 1, Math.max(0, (int) Math.floor((y - m_minY) / m_sizeOfCells)));
+	}
+
+	private double calculateSquaredDistance(int id, double x, double y) {
+		Point point = (Point) m_pointOfIndividual[id].getGeometry();
+		double dx = point.getX() - x;
+		double dy = point.getY() - y;
+		return dx * dx + dy * dy;
+	}
+}
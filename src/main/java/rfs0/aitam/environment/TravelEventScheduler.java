@@ -0,0 +1,66 @@
+package rfs0.aitam.environment;
+
+import java.util.ArrayList;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import rfs0.aitam.individual.Individual;
+import rfs0.aitam.settings.ISimulationSettings;
+import sim.engine.SimState;
+import sim.engine.Steppable;
+
+/**
+ * <p>This class executes the events of the {@link Individual}s which travel event-driven (see {@link ISimulationSettings#IS_EVENT_DRIVEN_TRAVEL_ENABLED}), i.e. their arrivals and the counts of the edges they enter for the link volumes.
+ * To do so it relies on the following attribute:</p>
+ *
+ * <p>{@link TravelEventScheduler#m_eventsByTime}: The pending events for each time of the schedule, which are sorted by the ids of the individuals they belong to.</p>
+ *
+ * <p>The events are not scheduled one by one, since the schedule shuffles all steps which share the same time and ordering by the random number generator of the {@link Environment}.
+ * Hence, each additional event would change the random numbers drawn for planning.
+ * Instead, the scheduler itself is stepped in every minute with an ordering no other step uses and executes the events which are due in the order of the ids of the individuals.
+ * It has to be stepped after the individuals have moved and before they execute their activities, i.e. they arrive in the same minute as if they had been moved in every step.</p>
+ */
+public class TravelEventScheduler implements Steppable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * <p>The pending events for each time of the schedule, which are sorted by the ids of the individuals they belong to.</p>
+	 */
+	private TreeMap<Double, TreeMap<Integer, ArrayList<Steppable>>> m_eventsByTime = new TreeMap<>();
+
+	/**
+	 * <p>This method adds an event of an individual which is executed in the provided minute.
+	 * The events of the same individual are executed in the order in which they have been added.</p>
+	 *
+	 * @param time - the time of the schedule at which the event is executed. It must not be before the current time.
+	 * @param individual - the individual to which the event belongs.
+	 * @param event - the event.
+	 */
+	public void scheduleEvent(double time, Individual individual, Steppable event) {
+		TreeMap<Integer, ArrayList<Steppable>> eventsOfTime = m_eventsByTime.get(time);
+		if (eventsOfTime == null) {
+			eventsOfTime = new TreeMap<>();
+			m_eventsByTime.put(time, eventsOfTime);
+		}
+		if (eventsOfTime.get(individual.getId()) == null) {
+			eventsOfTime.put(individual.getId(), new ArrayList<Steppable>());
+		}
+		eventsOfTime.get(individual.getId()).add(event);
+	}
+
+	/**
+	 * <p>This method executes all events which are due at the current time in the order of the ids of the individuals.</p>
+	 */
+	@Override
+	public void step(SimState state) {
+		while (!m_eventsByTime.isEmpty() && m_eventsByTime.firstKey() <= state.schedule.getTime()) {
+			Entry<Double, TreeMap<Integer, ArrayList<Steppable>>> eventsOfTime = m_eventsByTime.pollFirstEntry();
+			for (ArrayList<Steppable> eventsOfIndividual: eventsOfTime.getValue().values()) {
+				for (Steppable event: eventsOfIndividual) {
+					event.step(state);
+				}
+			}
+		}
+	}
+}
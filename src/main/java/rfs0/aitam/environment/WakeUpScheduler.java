@@ -0,0 +1,144 @@
+package rfs0.aitam.environment;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map.Entry;
+
+import rfs0.aitam.activity.Activity;
+import rfs0.aitam.individual.Individual;
+import rfs0.aitam.settings.ISimulationSettings;
+import sim.engine.Schedule;
+import sim.engine.SimState;
+import sim.engine.Steppable;
+import sim.engine.Stoppable;
+
+/**
+ * <p>This class schedules the steps of the {@link Individual}s such that an individual which stays at the location of an individual activity is not stepped in every minute
+ * (see {@link ISimulationSettings#IS_SKIP_AHEAD_SCHEDULING_ENABLED}). To do so it relies on the following attributes:</p>
+ *
+ * <p>{@link WakeUpScheduler#m_stepsOfIndividuals}: The steps of each individual, i.e. the {@link Steppable}s which are executed in every minute in which the individual is awake.</p>
+ * <p>{@link WakeUpScheduler#m_numberOfSkippedIndividuals}: The number of individuals which are currently skipped for each key of the output holder of the {@link Environment} they contribute to.</p>
+ *
+ * <p>Once an individual has executed its activity, it is checked for how many of the following minutes it can be skipped (see {@link Individual#calculateNumberOfMinutesToSkip()}).
+ * If there are any, its steps are stopped and it is woken up at the end of the last skipped minute, i.e. the skipped minutes are accounted in bulk and its steps are scheduled again from the next minute on.
+ * In the meantime the output of the skipped individuals is recorded in each minute, which is why the scheduler itself has to be stepped after the individuals have moved and before they execute their activities.</p>
+ */
+public class WakeUpScheduler implements Steppable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * <p>The ordering with which the individuals are woken up, i.e. after all the steps of a minute including the increment of the simulation time.</p>
+	 */
+	private static final int ORDERING_OF_WAKE_UP = 110;
+
+	/**
+	 * <p>The steps of each individual, i.e. the {@link Steppable}s which are executed in every minute in which the individual is awake.</p>
+	 */
+	private HashMap<Individual, ArrayList<StepOfIndividual>> m_stepsOfIndividuals = new HashMap<>();
+	/**
+	 * <p>The number of individuals which are currently skipped for each key of the output holder of the {@link Environment} they contribute to.</p>
+	 */
+	private HashMap<String, Integer> m_numberOfSkippedIndividuals = new HashMap<>();
+
+	/**
+	 * <p>This method adds a step of an individual and schedules it in every minute from the start of the simulation on.</p>
+	 *
+	 * @param environment - the environment whose schedule is used.
+	 * @param individual - the individual to which the step belongs.
+	 * @param ordering - the ordering with which the step is executed in each minute.
+	 * @param steppable - the step.
+	 */
+	public void addStep(Environment environment, Individual individual, int ordering, Steppable steppable) {
+		StepOfIndividual step = new StepOfIndividual(ordering, steppable);
+		step.m_stoppable = environment.schedule.scheduleRepeating(Schedule.EPOCH, ordering, steppable);
+		if (m_stepsOfIndividuals.get(individual) == null) {
+			m_stepsOfIndividuals.put(individual, new ArrayList<StepOfIndividual>());
+		}
+		m_stepsOfIndividuals.get(individual).add(step);
+	}
+
+	/**
+	 * <p>This method stops the steps of the provided individual if it can be skipped in the following minutes and schedules it to be woken up at the end of the last skipped minute.
+	 * It has to be called once the individual has executed its activity.</p>
+	 *
+	 * @param environment - the environment whose schedule is used.
+	 * @param individual - the individual which has executed its activity in the current minute.
+	 */
+	public void putToSleepIfPossible(Environment environment, Individual individual) {
+		int numberOfMinutesToSkip = individual.calculateNumberOfMinutesToSkip();
+		if (numberOfMinutesToSkip == 0) {
+			return;
+		}
+		for (StepOfIndividual step: m_stepsOfIndividuals.get(individual)) {
+			step.m_stoppable.stop();
+		}
+		Activity activity = individual.getCurrentActivity();
+		updateNumberOfSkippedIndividuals(activity, 1);
+		environment.schedule.scheduleOnce(environment.schedule.getTime() + numberOfMinutesToSkip, ORDERING_OF_WAKE_UP, new Steppable() {
+			private static final long serialVersionUID = 1L;
+			@Override
+			public void step(SimState state) {
+				updateNumberOfSkippedIndividuals(activity, -1);
+				individual.executeSkippedMinutes(numberOfMinutesToSkip);
+				for (StepOfIndividual step: m_stepsOfIndividuals.get(individual)) {
+					step.m_stoppable = state.schedule.scheduleRepeating(state.schedule.getTime() + 1, step.m_ordering, step.m_steppable);
+				}
+			}
+		});
+	}
+
+	/**
+	 * <p>This method updates the number of skipped individuals for the keys of the output holder an individual executing the provided activity contributes to (see {@link Individual#executeActivity()}).</p>
+	 *
+	 * @param activity - the activity of the individual.
+	 * @param difference - the number of individuals put to sleep (positive) or woken up (negative).
+	 */
+	private void updateNumberOfSkippedIndividuals(Activity activity, int difference) {
+		for (String key: new String[] { activity.getActivityCategory().toString(), activity.getActivityDescription(), ISimulationSettings.TOTAL_NUMBER_OF_AGENTS }) {
+			int numberOfSkippedIndividuals = m_numberOfSkippedIndividuals.getOrDefault(key, 0) + difference;
+			if (numberOfSkippedIndividuals == 0) {
+				m_numberOfSkippedIndividuals.remove(key);
+			}
+			else {
+				m_numberOfSkippedIndividuals.put(key, numberOfSkippedIndividuals);
+			}
+		}
+	}
+
+	/**
+	 * <p>This method records the output of the skipped individuals for the current minute as if they had executed their activities.</p>
+	 */
+	@Override
+	public void step(SimState state) {
+		Environment environment = (Environment) state;
+		for (Entry<String, Integer> entry: m_numberOfSkippedIndividuals.entrySet()) {
+			environment.addToIntegerValueOfOutputHolder(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * @return int - the number of individuals which are currently skipped.
+	 */
+	public int getNumberOfSkippedIndividuals() {
+		return m_numberOfSkippedIndividuals.getOrDefault(ISimulationSettings.TOTAL_NUMBER_OF_AGENTS, 0);
+	}
+
+	/**
+	 * <p>This class holds a step of an individual together with its ordering and the {@link Stoppable} to stop it while the individual is skipped.</p>
+	 */
+	private static class StepOfIndividual implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int m_ordering;
+		private final Steppable m_steppable;
+		private Stoppable m_stoppable;
+
+		private StepOfIndividual(int ordering, Steppable steppable) {
+			m_ordering = ordering;
+			m_steppable = steppable;
+		}
+	}
+}
@@ -0,0 +1,225 @@
+package rfs0.aitam.individual;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.joda.time.DateTime;
+import org.joda.time.Days;
+import org.joda.time.Interval;
+
+import com.vividsolutions.jts.planargraph.Node;
+
+import rfs0.aitam.activity.Activity;
+import rfs0.aitam.activity.ActivityAgenda;
+import rfs0.aitam.settings.ISimulationSettings;
+import rfs0.aitam.utilities.TimeUtility;
+
+/**
+ * <p>This class is a bounded memo of the agendas an {@link Individual} has chosen, keyed by the context in which they have been planned (see {@link AgendaMemo#createKey(int, DateTime, ActivityAgenda)}).</p>
+ *
+ * <p>Individuals face nearly the same planning problem on the same day of every week: the same target need time split, the same locations and often the same joint activities.
+ * Thus, the agenda chosen in the same context before is a good candidate, which is either used as a starting point of the planning or chosen right away once it has been confirmed by planning anew
+ * (see {@link ISimulationSettings#NUMBER_OF_CONFIRMATIONS_TO_REUSE_MEMOIZED_AGENDA}).</p>
+ *
+ * <p>Once the memo contains the maximum number of agendas, the least recently used agenda is evicted.
+ * The number of hits and misses is counted in order to be able to assess the effectiveness of the memo.</p>
+ *
+ * <p><b>Note:</b> Instances are not thread safe. Each individual has its own memo, which is only used while the individual plans.</p>
+ */
+public final class AgendaMemo {
+
+	/**
+	 * <p>The maximum number of agendas which are kept.</p>
+	 */
+	private final int m_maxSize;
+	/**
+	 * <p>The memoized agendas in access order, i.e. the least recently used agenda comes first.</p>
+	 */
+	private final LinkedHashMap<String, MemoizedAgenda> m_agendas;
+	/**
+	 * <p>The number of lookups which found an agenda.</p>
+	 */
+	private long m_hits = 0;
+	/**
+	 * <p>The number of lookups which did not find an agenda.</p>
+	 */
+	private long m_misses = 0;
+
+	/**
+	 * @param maxSize - the maximum number of agendas which are kept. Must be positive.
+	 */
+	public AgendaMemo(int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException(String.format("The size of the agenda memo must be positive. Got value maxSize=%d.", maxSize));
+		}
+		m_maxSize = maxSize;
+		m_agendas = new LinkedHashMap<String, MemoizedAgenda>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, MemoizedAgenda> eldest) {
+				return size() > m_maxSize;
+			}
+		};
+	}
+
+	/**
+	 * <p>This method creates the key of the context in which an agenda is planned.
+	 * It consists of the day of week, the time of day at which the agenda is planned and the signature of the fixed part of the agenda,
+	 * i.e. the time of day, the activity and the location of each activity executed already or planned jointly.</p>
+	 *
+	 * @param dayOfWeek - the day of week (see {@link org.joda.time.DateTimeConstants#MONDAY} to {@link org.joda.time.DateTimeConstants#SUNDAY}).
+	 * @param currentDateTime - the time at which the agenda is planned.
+	 * @param fixedAgenda - the agenda of the activities which can not be planned anymore.
+	 * @return String - the key.
+	 */
+	public static String createKey(int dayOfWeek, DateTime currentDateTime, ActivityAgenda fixedAgenda) {
+		StringBuilder key = new StringBuilder();
+		key.append(dayOfWeek).append('|').append(currentDateTime.getMinuteOfDay());
+		for (Entry<Interval, Activity> entry: fixedAgenda.getAgenda().entrySet()) {
+			Interval interval = entry.getKey();
+			Node node = fixedAgenda.getNodes().get(interval);
+			key.append('|').append(interval.getStart().getMinuteOfDay())
+				.append('-').append(interval.getEnd().getMinuteOfDay())
+				.append(':').append(entry.getValue().getActivityDescription());
+			if (node != null) {
+				key.append('@').append(node.getCoordinate().x).append(',').append(node.getCoordinate().y);
+			}
+		}
+		return key.toString();
+	}
+
+	/**
+	 * @param key - the key of the context (see {@link AgendaMemo#createKey(int, DateTime, ActivityAgenda)}).
+	 * @return MemoizedAgenda - the agenda memoized for the context, or <code>null</code> if there is none.
+	 */
+	public MemoizedAgenda get(String key) {
+		MemoizedAgenda memoizedAgenda = m_agendas.get(key);
+		if (memoizedAgenda == null) {
+			m_misses++;
+		}
+		else {
+			m_hits++;
+		}
+		return memoizedAgenda;
+	}
+
+	/**
+	 * <p>This method memoizes the activities of the provided agenda which are not part of the fixed agenda.
+	 * The agenda memoized for the context before is replaced and the least recently used agenda is evicted if the memo is full.</p>
+	 *
+	 * @param key - the key of the context (see {@link AgendaMemo#createKey(int, DateTime, ActivityAgenda)}).
+	 * @param agenda - the chosen agenda (without travel activities).
+	 * @param fixedAgenda - the agenda of the activities which could not be planned anymore.
+	 * @param currentDateTime - the time at which the agenda has been planned.
+	 */
+	public void put(String key, ActivityAgenda agenda, ActivityAgenda fixedAgenda, DateTime currentDateTime) {
+		ActivityAgenda plannedAgenda = new ActivityAgenda();
+		for (Entry<Interval, Activity> entry: agenda.getAgenda().entrySet()) {
+			if (!fixedAgenda.getAgenda().containsKey(entry.getKey())) {
+				plannedAgenda.addActivityForInterval(entry.getKey(), entry.getValue());
+				plannedAgenda.addNodeForInterval(entry.getKey(), agenda.getNodes().get(entry.getKey()));
+			}
+		}
+		m_agendas.put(key, new MemoizedAgenda(plannedAgenda, currentDateTime));
+	}
+
+	/**
+	 * @param key - the key of the context (see {@link AgendaMemo#createKey(int, DateTime, ActivityAgenda)}).
+	 */
+	public void remove(String key) {
+		m_agendas.remove(key);
+	}
+
+	/**
+	 * <p>This method removes all agendas from the memo and resets the counters.</p>
+	 */
+	public void clear() {
+		m_agendas.clear();
+		m_hits = 0;
+		m_misses = 0;
+	}
+
+	public int size() {
+		return m_agendas.size();
+	}
+
+	public int getMaxSize() {
+		return m_maxSize;
+	}
+
+	public long getHits() {
+		return m_hits;
+	}
+
+	public long getMisses() {
+		return m_misses;
+	}
+
+	/**
+	 * @return double - the fraction of lookups which found an agenda, or <code>0</code> if there has not been any lookup yet.
+	 */
+	public double getHitRate() {
+		long lookups = m_hits + m_misses;
+		return lookups == 0 ? 0 : (double) m_hits / lookups;
+	}
+
+	/**
+	 * <p>An agenda of the memo. As such it is described by the following information:</p>
+	 *
+	 * <p>{@link MemoizedAgenda#m_plannedAgenda}: The activities which have been planned, i.e. the chosen agenda without the fixed activities.</p>
+	 * <p>{@link MemoizedAgenda#m_dateTimeOfPlanning}: The time at which the agenda has been planned.</p>
+	 * <p>{@link MemoizedAgenda#m_numberOfConfirmations}: The number of times planning anew did not result in a better agenda.</p>
+	 */
+	public static final class MemoizedAgenda {
+
+		private final ActivityAgenda m_plannedAgenda;
+		private final DateTime m_dateTimeOfPlanning;
+		private int m_numberOfConfirmations = 0;
+
+		private MemoizedAgenda(ActivityAgenda plannedAgenda, DateTime dateTimeOfPlanning) {
+			m_plannedAgenda = plannedAgenda;
+			m_dateTimeOfPlanning = dateTimeOfPlanning;
+		}
+
+		/**
+		 * <p>This method re-validates the memoized activities for the current day and adds them to a copy of the fixed agenda.
+		 * The activities are shifted to the current day and must still start after the current time, must not overlap any fixed activity and must be available at their start.</p>
+		 *
+		 * <p><b>Note:</b> Whether or not the resulting agenda covers the whole day must be checked by the caller (see {@link TimeUtility#isDayFullyPlanned(rfs0.aitam.environment.Environment, ActivityAgenda)}).</p>
+		 *
+		 * @param fixedAgenda - the agenda of the activities which can not be planned anymore.
+		 * @param currentDateTime - the current time.
+		 * @param dayOfWeek - the current day of week.
+		 * @return ActivityAgenda - the fixed agenda with the memoized activities, or <code>null</code> if any of the memoized activities is not valid anymore.
+		 */
+		public ActivityAgenda createAgenda(ActivityAgenda fixedAgenda, DateTime currentDateTime, int dayOfWeek) {
+			int numberOfDays = Days.daysBetween(m_dateTimeOfPlanning.toLocalDate(), currentDateTime.toLocalDate()).getDays();
+			ActivityAgenda agenda = ActivityAgenda.newInstance(fixedAgenda);
+			for (Entry<Interval, Activity> entry: m_plannedAgenda.getAgenda().entrySet()) {
+				Interval interval = new Interval(entry.getKey().getStart().plusDays(numberOfDays), entry.getKey().getEnd().plusDays(numberOfDays));
+				Activity activity = entry.getValue();
+				if (interval.getStart().isBefore(currentDateTime)
+						|| !activity.isAvailableAt(dayOfWeek, TimeUtility.convertToBaseInterval(interval).getStart())
+						|| fixedAgenda.getIntervals().stream().anyMatch(fixedInterval -> fixedInterval.overlaps(interval))) {
+					return null;
+				}
+				agenda.addActivityForInterval(interval, activity);
+				agenda.addNodeForInterval(interval, m_plannedAgenda.getNodes().get(entry.getKey()));
+			}
+			return agenda;
+		}
+
+		/**
+		 * <p>This method records that planning anew did not result in a better agenda.</p>
+		 */
+		public void confirm() {
+			m_numberOfConfirmations++;
+		}
+
+		public int getNumberOfConfirmations() {
+			return m_numberOfConfirmations;
+		}
+	}
+}
@@ -0,0 +1,13 @@
+package rfs0.aitam.individual;
+
+import rfs0.aitam.settings.ISimulationSettings;
+
+/**
+ * This enumeration contains all strategies an {@link Individual} can use to plan its individual activities (see {@link Individual#planIndividualActivities()}).
+ * <p>{@link AgendaPlanner#RANDOM_SAMPLING}: Generate {@link ISimulationSettings#NUMBER_OF_PLANS_TO_GENERATE} random plans and keep the best one.</p>
+ * <p>{@link AgendaPlanner#LOCAL_SEARCH}: Generate a single plan (based on the agenda of the previous day if possible) and improve it by simulated annealing, i.e. by swapping, resizing, relocating and splitting its activities.</p>
+ */
+public enum AgendaPlanner {
+	RANDOM_SAMPLING,
+	LOCAL_SEARCH
+}
@@ -2,33 +2,52 @@ package rfs0.aitam.individual;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.joda.time.DateTime;
+import org.joda.time.DateTimeConstants;
 import org.joda.time.Interval;
 
 import com.vividsolutions.jts.geom.Coordinate;
-import com.vividsolutions.jts.linearref.LengthIndexedLine;
 import com.vividsolutions.jts.planargraph.Node;
 
+import ec.util.MersenneTwisterFast;
 import rfs0.aitam.activity.Activity;
 import rfs0.aitam.activity.ActivityAgenda;
 import rfs0.aitam.activity.ActivityCategory;
-import rfs0.aitam.activity.ActivityLocation;
 import rfs0.aitam.environment.Environment;
+import rfs0.aitam.environment.IndividualsField;
+import rfs0.aitam.environment.TravelEventScheduler;
+import rfs0.aitam.environment.WakeUpScheduler;
+import rfs0.aitam.individual.AgendaMemo.MemoizedAgenda;
 import rfs0.aitam.need.AbsoluteNeedTimeSplit;
 import rfs0.aitam.need.Need;
 import rfs0.aitam.need.NeedTimeSplit;
 import rfs0.aitam.settings.ISimulationSettings;
+import rfs0.aitam.utilities.BatchRouter;
 import rfs0.aitam.utilities.CalculationUtility;
+import rfs0.aitam.utilities.DStarLite;
 import rfs0.aitam.utilities.DebugUtility;
+import rfs0.aitam.utilities.EdgeTraffic;
 import rfs0.aitam.utilities.GraphUtility;
+import rfs0.aitam.utilities.RoutingGraph;
 import rfs0.aitam.utilities.TimeUtility;
+import rfs0.aitam.utilities.TrafficCosts;
+import rfs0.aitam.utilities.TravelDistanceMatrix;
 import rfs0.aitam.utilities.Tuple;
+import sim.engine.SimState;
+import sim.engine.Steppable;
 import sim.field.network.Network;
 import sim.util.geo.GeomPlanarGraphDirectedEdge;
 import sim.util.geo.GeomPlanarGraphEdge;
@@ -97,8 +116,10 @@ import sim.util.geo.PointMoveTo;
  * It contains individual as well as joint activities.</p>
  * <p>{@link Individual#m_jointActivityAgenda}: The agenda with all joint activities planned for the current day. 
  * It contains only joint activities.</p>
+ * <p>{@link Individual#m_activityAgendaOfPreviousDay}: The agenda with all activities executed on the previous day. It is used as a starting point when planning by {@link AgendaPlanner#LOCAL_SEARCH}.</p>
+ * <p>{@link Individual#m_agendaMemo}: The agendas chosen before, keyed by the context in which they have been planned (see {@link ISimulationSettings#IS_AGENDA_MEMO_ENABLED}).</p>
  * <p>{@link Individual#m_allDayPlans}: This variable is used to create a configurable number of randomly generated plans and to choose from it. 
- * Use {@link ISimulationSettings#NUMBER_OF_PLANS_TO_GENERATE} to configure it.</p>
+ * Use {@link ISimulationSettings#NUMBER_OF_PLANS_TO_GENERATE} to configure it. The plans are kept in the order in which they have been generated.</p>
  * <p>{@link Individual#m_currentActivity}: The activity the individual has planned executing at the current point in time.</p>
  * 
  * <p><b>Static locations</b></p>
@@ -118,27 +139,32 @@ import sim.util.geo.PointMoveTo;
  * <p>{@link Individual#m_leisureNode}: The node on the path network which is closest to the individuals preferred building for executing leisure activities. 
  * It serves as a proxy for this building.</p>
  * <p>{@link Individual#m_otherPlacesForLeisureNodes}: A list of all other places (in addition to the preferred place for leisure) where activities of {@link ActivityCategory#LEISURE} can be executed.</p>
+ * <p>{@link Individual#m_travelDistanceMatrix}: The distances and travel durations between all of the above nodes. 
+ * It is used to look up travel durations when planning instead of searching the paths.</p>
+ * <p>{@link Individual#m_batchRouter}: The distances between the locations of the joint activities carried over to the individual agenda and the above nodes, which have been found for the current planning phase. 
+ * It is used to look up travel durations which are not contained in {@link Individual#m_travelDistanceMatrix}.</p>
  * 
  * <p><b>Dynamic locations</b></p>
  * 
  * <p>{@link Individual#m_currentLocationPoint}: The current location of the individual.</p>
- * <p>{@link Individual#m_lengthIndexedLineOfEdge}: The line of the edge the individual is currently traveling on.</p>
- * <p>{@link Individual#m_endIndexOfCurrentEdge}: The end index of the current edge.</p>
- * <p>{@link Individual#m_startIndexOfCurrentEdge}: The start index of the current edge.</p>
- * <p>{@link Individual#m_currentIndexOnLineOfEdge}: The current index i.e. the position of the individual on the current edge.</p>
+ * <p>{@link Individual#m_movementStore}: The store which contains the movement state of the individual (i.e. its position, the current edge, the position on it, the direction in which it is traversed and the index of the current edge on the path). 
+ * It is shared by all individuals, such that all traveling individuals are moved at once (see {@link PopulationMovementStore}).</p>
  * <p>{@link Individual#m_pointMoveTo}: A helper class to move a point to a new Coordinate.</p>
- * <p>{@link Individual#m_pathToNextTarget}: The path to the next target.</p>
- * <p>{@link Individual#m_currentEdge}: The edge on which the individual currently is traveling on.</p>
- * <p>{@link Individual#m_edgeDirection}: The direction which the individual is traveling on the current edge. 
- * It can either be positive or negative and indicates how the edge is traversed by the individual.</p>
- * <p>{@link Individual#m_currentIndexOnPathToNextTarget}: The index of the edge the individual is currently traveling on. 
- * If this value is equal to the size of {@link Individual#m_pathToNextTarget}, then the individual has reached its target.</p>
+ * <p>{@link Individual#m_pathToNextTarget}: The path to the next target. The arcs of the path are stored in {@link Individual#m_movementStore} for moving.</p>
+ * <p>{@link Individual#m_incrementalSearch}: The search which found the path to the next target with respect to congestion. It is used to re-route the individual when the traffic changes.</p>
+ * <p>{@link Individual#m_departureTime}: The time of the schedule at which the individual started to travel on {@link Individual#m_pathToNextTarget} if it travels event-driven (see {@link ISimulationSettings#IS_EVENT_DRIVEN_TRAVEL_ENABLED}).</p>
+ * <p>{@link Individual#m_arrivalTime}: The time of the schedule at which the individual reaches its target if it travels event-driven or <code>-1</code> otherwise.</p>
  * <p>{@link Individual#m_currentNode}: The node of the path network the individual is currently on.</p>
  * <p>{@link Individual#m_currentTargetNode}: The node of the path network that represents the next target.</p>
  */
 public class Individual {
 	
 	private static final Logger LOG = Logger.getLogger(Individual.class.getName());
+	
+	/**
+	 * <p>The pool on which the random plans of all individuals are generated (see {@link Individual#planIndividualActivities()}).</p>
+	 */
+	private static final ForkJoinPool s_planningPool = new ForkJoinPool(ISimulationSettings.NUMBER_OF_PLANNING_THREADS);
 
 	/**
 	 * @category Environment
@@ -248,11 +274,19 @@ public class Individual {
 	 * It contains only joint activities.</p>
 	 */
 	private ActivityAgenda m_jointActivityAgenda = new ActivityAgenda();
+	/**
+	 * <p>The agenda with all activities executed on the previous day. It is used as a starting point when planning by {@link AgendaPlanner#LOCAL_SEARCH}.</p>
+	 */
+	private ActivityAgenda m_activityAgendaOfPreviousDay = new ActivityAgenda();
+	/**
+	 * <p>The agendas chosen before, keyed by the context in which they have been planned (see {@link ISimulationSettings#IS_AGENDA_MEMO_ENABLED}).</p>
+	 */
+	private AgendaMemo m_agendaMemo = new AgendaMemo(ISimulationSettings.MAX_NUMBER_OF_MEMOIZED_AGENDAS);
 	/**
 	 * <p>This variable is used to create a configurable number of randomly generated plans and to choose from it. 
-	 * Use {@link ISimulationSettings#NUMBER_OF_PLANS_TO_GENERATE} to configure it.</p>
+	 * Use {@link ISimulationSettings#NUMBER_OF_PLANS_TO_GENERATE} to configure it. The plans are kept in the order in which they have been generated.</p>
 	 */
-	private HashMap<ActivityAgenda, ActivityAgenda> m_allDayPlans = new HashMap<>();
+	private HashMap<ActivityAgenda, ActivityAgenda> m_allDayPlans = new LinkedHashMap<>();
 	/**
 	 * <p>The activity the individual has planned executing at the current point in time.</p>
 	 */
@@ -289,6 +323,16 @@ public class Individual {
 	 * <p>A list of all other places (in addition to the preferred place for leisure) where activities of {@link ActivityCategory#LEISURE} can be executed.</p>
 	 */
 	private ArrayList<Node> m_otherPlacesForLeisureNodes;
+	/**
+	 * <p>The distances and travel durations between all of the above nodes. 
+	 * It is used to look up travel durations when planning instead of searching the paths.</p>
+	 */
+	private TravelDistanceMatrix m_travelDistanceMatrix;
+	/**
+	 * <p>The distances between the locations of the joint activities carried over to the individual agenda and the above nodes, which have been found for the current planning phase. 
+	 * It is used to look up travel durations which are not contained in {@link Individual#m_travelDistanceMatrix}.</p>
+	 */
+	private BatchRouter m_batchRouter;
 	
 	/**
 	 * @category Dynamic locations
@@ -299,45 +343,31 @@ public class Individual {
 	 */
 	private MasonGeometry m_currentLocationPoint;
 	/**
-	 * The line of the edge the individual is currently traveling on.</p>
+	 * <p>The store which contains the movement state of the individual (i.e. its position, the current edge, the position on it, the direction in which it is traversed and the index of the current edge on the path). 
+	 * It is shared by all individuals, such that all traveling individuals are moved at once (see {@link PopulationMovementStore}).</p>
 	 */
-	private LengthIndexedLine m_lengthIndexedLineOfEdge = null; // Used by individual to walk along line segment
-	/**
-	 * <p>The end index of the current edge.</p>
-	 */
-	private double m_endIndexOfCurrentEdge = 0.0;
-	/**
-	 * <p>The start index of the current edge.</p>
-	 */
-	private double m_startIndexOfCurrentEdge = 0.0;
-	/**
-	 * <p>The current index i.e. the position of the individual on the current edge.</p>
-	 */
-	private double m_currentIndexOnLineOfEdge = 0.0;
+	private PopulationMovementStore m_movementStore;
 	/**
 	 * <p>A helper class to move a point to a new Coordinate.</p>
 	 */
 	private PointMoveTo m_pointMoveTo = new PointMoveTo();
 	/**
-	 * <p>The path to the next target.</p>
+	 * <p>The path to the next target. The arcs of the path are stored in {@link Individual#m_movementStore} for moving.</p>
 	 */
 	private ArrayList<GeomPlanarGraphDirectedEdge> m_pathToNextTarget = new ArrayList<GeomPlanarGraphDirectedEdge>();
 	/**
-	 * <p>The edge on which the individual currently is traveling on.</p>
+	 * <p>The search which found the path to the next target with respect to congestion or <code>null</code> if {@link ISimulationSettings#IS_CONGESTION_ENABLED} is not set. 
+	 * It is used to re-route the individual when the traffic changes.</p>
 	 */
-	private GeomPlanarGraphEdge m_currentEdge = null;
+	private DStarLite m_incrementalSearch;
 	/**
-	 * <p>The direction which the individual is traveling on the current edge. 
-	 * It can either be positive or negative and indicates how the edge is traversed by the individual.</p>
+	 * <p>The time of the schedule at which the individual started to travel on {@link Individual#m_pathToNextTarget} if it travels event-driven (see {@link ISimulationSettings#IS_EVENT_DRIVEN_TRAVEL_ENABLED}).</p>
 	 */
-	private static final int POSITIVE_MOVEMENT = 1;
-	private static final int NEGATIVE_MOVEMENT = -1;
-	private int m_edgeDirection;
+	private double m_departureTime = -1;
 	/**
-	 * <p>The index of the edge the individual is currently traveling on. 
-	 * If this value is equal to the size of {@link Individual#m_pathToNextTarget}, then the individual has reached its target.</p>
+	 * <p>The time of the schedule at which the individual reaches its target if it travels event-driven or <code>-1</code> otherwise.</p>
 	 */
-	private int m_currentIndexOnPathToNextTarget = 0;
+	private double m_arrivalTime = -1;
 	/**
 	 * <p>The node of the path network the individual is currently on.</p>
 	 */
@@ -360,6 +390,140 @@ public class Individual {
 				+ " | Friends network = " + m_friendsNetworkId;
 	}
 
+	/**
+	 * <p>The best of the random plans an {@link Individual} generated so far while planning its individual activities (see {@link Individual#planIndividualActivities()}).
+	 * It is shared by the threads generating the plans.</p>
+	 * 
+	 * <p>{@link BestPlan#m_index}: The index of the best plan or <code>-1</code> if the best plan is the memoized agenda (see {@link AgendaMemo}).</p>
+	 * <p>{@link BestPlan#m_meanSquaredError}: The mean squared error of the best plan.</p>
+	 * <p>{@link BestPlan#m_maxLowerBoundOfBetterPlans}: The maximum lower bound of the mean squared error a plan may have to possibly be better than the best plan.</p>
+	 * <p>{@link BestPlan#m_randomAgenda}: The best plan without travel activities.</p>
+	 * <p>{@link BestPlan#m_randomAgendaWithTravelActivities}: The best plan with travel activities.</p>
+	 * <p>{@link BestPlan#m_numberOfDiscardedPlans}: The number of plans discarded because of too many travel activities.</p>
+	 * <p>{@link BestPlan#m_numberOfPrunedPlans}: The number of plans abandoned because they could not be better than the best plan.</p>
+	 * <p>{@link BestPlan#m_isPruningEnabled}: Whether or not plans are abandoned once they can not be better than the best plan (see {@link ISimulationSettings#IS_PRUNING_OF_PLANS_ENABLED}).</p>
+	 * 
+	 * <p><b>Note:</b> Of several plans with the same mean squared error the one with the smallest index is the best plan. 
+	 * Hence, the best plan does not depend on the order in which the plans are completed.</p>
+	 */
+	static class BestPlan {
+		
+		private final boolean m_isPruningEnabled;
+		private int m_index;
+		private BigDecimal m_meanSquaredError;
+		private volatile double m_maxLowerBoundOfBetterPlans = Double.POSITIVE_INFINITY;
+		private ActivityAgenda m_randomAgenda;
+		private ActivityAgenda m_randomAgendaWithTravelActivities;
+		private final AtomicInteger m_numberOfDiscardedPlans = new AtomicInteger();
+		private final AtomicInteger m_numberOfPrunedPlans = new AtomicInteger();
+		
+		BestPlan() {
+			this(ISimulationSettings.IS_PRUNING_OF_PLANS_ENABLED);
+		}
+		
+		/**
+		 * @param isPruningEnabled - whether or not plans are abandoned once they can not be better than the best plan.
+		 */
+		BestPlan(boolean isPruningEnabled) {
+			m_isPruningEnabled = isPruningEnabled;
+		}
+		
+		/**
+		 * <p>This method replaces the best plan by the offered plan if the offered plan is better.</p>
+		 * 
+		 * @param index - the index of the offered plan.
+		 * @param meanSquaredError - the mean squared error of the offered plan.
+		 * @param randomAgenda - the offered plan without travel activities.
+		 * @param randomAgendaWithTravelActivities - the offered plan with travel activities.
+		 */
+		private synchronized void offer(int index, BigDecimal meanSquaredError, ActivityAgenda randomAgenda, ActivityAgenda randomAgendaWithTravelActivities) {
+			if (m_meanSquaredError != null) {
+				int comparison = meanSquaredError.compareTo(m_meanSquaredError);
+				if (comparison > 0 || (comparison == 0 && index > m_index)) {
+					return;
+				}
+			}
+			m_index = index;
+			m_meanSquaredError = meanSquaredError;
+			m_randomAgenda = randomAgenda;
+			m_randomAgendaWithTravelActivities = randomAgendaWithTravelActivities;
+			m_maxLowerBoundOfBetterPlans = meanSquaredError.doubleValue() + ISimulationSettings.TOLERANCE_OF_LOWER_BOUND_OF_MEAN_SQUARED_ERROR;
+		}
+		
+		/**
+		 * @param lowerBound - the lower bound of the mean squared error of a plan.
+		 * @return boolean - <code>true</code> if the plan may be better than the best plan or if pruning is disabled, <code>false</code> otherwise.
+		 */
+		boolean canBeImprovedBy(double lowerBound) {
+			return !m_isPruningEnabled || lowerBound <= m_maxLowerBoundOfBetterPlans;
+		}
+	}
+
+	/**
+	 * <p>An activity of a plan of the local search (see {@link Individual#planIndividualActivitiesByLocalSearch(MersenneTwisterFast, ActivityAgenda)}).</p>
+	 * 
+	 * <p>{@link PlannedActivity#m_interval}: The interval (in real time) during which the activity is executed.</p>
+	 * <p>{@link PlannedActivity#m_activity}: The activity.</p>
+	 * <p>{@link PlannedActivity#m_node}: The location where the activity is executed.</p>
+	 * <p>{@link PlannedActivity#m_isFixed}: Whether or not the activity is part of {@link Individual#m_activityAgenda} already and thus must not be changed.</p>
+	 */
+	static final class PlannedActivity {
+		
+		final Interval m_interval;
+		final Activity m_activity;
+		final Node m_node;
+		final boolean m_isFixed;
+		
+		private PlannedActivity(Interval interval, Activity activity, Node node, boolean isFixed) {
+			m_interval = interval;
+			m_activity = activity;
+			m_node = node;
+			m_isFixed = isFixed;
+		}
+	}
+	
+	/**
+	 * <p>A move of the local search, which replaces some adjacent activities of a plan by others covering the same time (see {@link Individual#chooseMove(ArrayList, MersenneTwisterFast)}).</p>
+	 * 
+	 * <p>{@link Move#m_index}: The index of the first activity replaced.</p>
+	 * <p>{@link Move#m_numberOfRemovedActivities}: The number of activities replaced.</p>
+	 * <p>{@link Move#m_addedActivities}: The activities replacing them.</p>
+	 */
+	static final class Move {
+		
+		final int m_index;
+		final int m_numberOfRemovedActivities;
+		final List<PlannedActivity> m_addedActivities;
+		
+		private Move(int index, int numberOfRemovedActivities, PlannedActivity... addedActivities) {
+			m_index = index;
+			m_numberOfRemovedActivities = numberOfRemovedActivities;
+			m_addedActivities = Arrays.asList(addedActivities);
+		}
+		
+		/**
+		 * @param plan - the plan to which the move is applied. It is not changed.
+		 * @return ArrayList<PlannedActivity> - a copy of the plan with the move applied.
+		 */
+		ArrayList<PlannedActivity> applyTo(ArrayList<PlannedActivity> plan) {
+			ArrayList<PlannedActivity> changedPlan = new ArrayList<>(plan.size() - m_numberOfRemovedActivities + m_addedActivities.size());
+			changedPlan.addAll(plan.subList(0, m_index));
+			changedPlan.addAll(m_addedActivities);
+			changedPlan.addAll(plan.subList(m_index + m_numberOfRemovedActivities, plan.size()));
+			return changedPlan;
+		}
+	}
+	
+	/**
+	 * <p>The types of moves of the local search (see {@link Individual#chooseMove(ArrayList, int, TypeOfMove, MersenneTwisterFast)}).</p>
+	 */
+	enum TypeOfMove {
+		SWAP,
+		RESIZE,
+		RELOCATE,
+		SPLIT
+	}
+
 	/**
 	 * @category Builder
 	 */
@@ -922,7 +1086,7 @@ public class Individual {
 	 * 		<li>Determine which members of the network are willing to participate. If no other member wants to participate, then do not plan activities for the specified type of network.</li>
 	 * 		<li>Try to find some interval on which all the participating network members can agree. If no interval can be found that fits all of the individuals wanting to participate, then planning is aborted.</li>
 	 * 		<li>Choose one of the available activities at random (at this point there should always be at least one activity available).</li>
-	 * 		<li>Choose on of the possible locations for the activity (see {@link Individual#chooseActivityNode(Activity)} for more details.</li>
+	 * 		<li>Choose on of the possible locations for the activity (see {@link Individual#chooseActivityNode(Activity, MersenneTwisterFast)} for more details.</li>
 	 * 		<li>For each of the participating individuals: write the activity and its location into the joint activity agenda {@link Individual#m_jointActivityAgenda} and update the number of network activities planned accordingly.</li>
 	 * 	</ol>
 	 * 
@@ -962,10 +1126,7 @@ public class Individual {
 	 * @return boolean - <code>true</code> if at least one activity is available, <code>otherwise</code>.
 	 */
 	private boolean isAnyActivityAvailable(ActivityCategory activityCategory) {
-		long numberOfActivitiesAvailableAtWeekDay = m_environment.getAllActivities().values().stream()
-				.filter(activity -> activity.getActivityCategory() == activityCategory)
-				.filter(activity -> activity.isAvailableAt(getCurrentDayOfWeek()))
-				.count();
+		int numberOfActivitiesAvailableAtWeekDay = m_environment.getActivityCandidateIndex().getNumberOfActivitiesAvailableAt(getCurrentDayOfWeek(), activityCategory);
 		// no activity available at this day of week for given category
 		if (numberOfActivitiesAvailableAtWeekDay > 1) {
 			return true;
@@ -986,7 +1147,7 @@ public class Individual {
 	private void setupJointActivity(NetworkType type, ArrayList<Individual> networkMemberParticipating, ArrayList<Activity> availableActivities, Interval baseIntervalOfJointActivity) {
 		Interval realIntervalOfJointActivity = TimeUtility.convertToRealInterval(getCurrentDateTime(), baseIntervalOfJointActivity);
 		Activity jointActivity = availableActivities.get(getRandomInt(availableActivities.size()));
-		Node jointActivityNode = chooseActivityNode(jointActivity);
+		Node jointActivityNode = chooseActivityNode(jointActivity, m_environment.random);
 		for (Individual individual: networkMemberParticipating) {
 			individual.getJointActivityAgenda().addActivityForInterval(realIntervalOfJointActivity, jointActivity);
 			individual.getJointActivityAgenda().addNodeForInterval(realIntervalOfJointActivity, jointActivityNode);
@@ -1119,7 +1280,22 @@ public class Individual {
 	 * @return double - the number of minutes 
 	 */
 	private int sampleDurationForCategory(ActivityCategory activityCategory) {
-		double durationSampleForCategory = ISimulationSettings.s_ActivityCategoryToDurationDistributionMap.get(activityCategory).sample();
+		return convertToDuration(activityCategory, ISimulationSettings.s_ActivityCategoryToDurationDistributionMap.get(activityCategory).sample());
+	}
+	
+	/**
+	 * <p>This method samples an activity duration for a specified category like {@link Individual#sampleDurationForCategory(ActivityCategory)}, but draws the sample from the provided random number generator instead of the one of the distribution.
+	 * This is done by inverting the distribution, since the distributions of {@link ISimulationSettings} can not be shared by several threads when sampling.</p>
+	 * 
+	 * @param activityCategory - the activity category for which you want to sample a duration.
+	 * @param random - the random number generator from which the sample is drawn.
+	 * @return double - the number of minutes 
+	 */
+	private int sampleDurationForCategory(ActivityCategory activityCategory, MersenneTwisterFast random) {
+		return convertToDuration(activityCategory, ISimulationSettings.s_ActivityCategoryToDurationDistributionMap.get(activityCategory).inverseCumulativeProbability(random.nextDouble(false, false)));
+	}
+	
+	private int convertToDuration(ActivityCategory activityCategory, double durationSampleForCategory) {
 		if (durationSampleForCategory < 1) {
 			LOG.log(Level.SEVERE, String.format("Sampled a negative activity duration for activty category: %s .The distribution must not sample negative durations! Make sure you handle this case by either changing the distribution parameters or resampling.", activityCategory.toString()));
 		}
@@ -1130,20 +1306,21 @@ public class Individual {
 	 * <p>This method randomly chooses an activity location for the specified activity.</p>
 	 * 
 	 * @param activity - the activity for which a location is chosen at random.
+	 * @param random - the random number generator used to choose the location.
 	 * @return Node - the Node representing the location where the activity will be executed.
 	 */
-	private Node chooseActivityNode(Activity activity) {
+	private Node chooseActivityNode(Activity activity, MersenneTwisterFast random) {
 		switch (activity.getActivityLocation()) {
 		case HOME:
 			return m_homeNode;
 		case OTHER_PLACE_FOR_HOUSEHOLD_AND_FAMILY_CARE:
-			return m_otherPlacesForHouseholdAndFamilyCareNodes.get(getRandomInt(m_otherPlacesForHouseholdAndFamilyCareNodes.size()));
+			return m_otherPlacesForHouseholdAndFamilyCareNodes.get(random.nextInt(m_otherPlacesForHouseholdAndFamilyCareNodes.size()));
 		case LEISURE:
 			return m_leisureNode;
 		case OTHER_PLACE_FOR_LEISURE:
-			return m_otherPlacesForLeisureNodes.get(getRandomInt(m_otherPlacesForLeisureNodes.size()));
+			return m_otherPlacesForLeisureNodes.get(random.nextInt(m_otherPlacesForLeisureNodes.size()));
 		case OTHER_PLACE_FOR_WORK:
-			return m_otherPlacesForWorkNodes.get(getRandomInt(m_otherPlacesForWorkNodes.size()));
+			return m_otherPlacesForWorkNodes.get(random.nextInt(m_otherPlacesForWorkNodes.size()));
 		case WORK:
 			return m_workPlaceNode;
 		default:
@@ -1167,41 +1344,677 @@ public class Individual {
 	 * 			 <b>Note:</b> At this point the agenda has to following entries: all activities executed until the current simulation time, the one which is currently being executed and all joint activities planned for the current day.</li>
 	 * 		<li>As long as the cloned agenda is not completely filled with activities (i.e. has any gap in the time span from 0:00 - 23:59) do the following:
 	 * 			<ol>
-	 * 				<li>Randomly choose the next activity to be added to the agenda as well as its interval (see {@link Individual#chooseActivityAndIntervalInRealTime(Interval, ActivityAgenda)} for more details.</li>
+	 * 				<li>Randomly choose the next activity to be added to the agenda as well as its interval (see {@link Individual#chooseActivityAndIntervalInRealTime(ActivityAgenda, Interval, MersenneTwisterFast)} for more details.</li>
 	 * 				<li>Randomly choose the activity node for the activity.</li>
 	 * 				<li>Write the activity and its location into the random agenda.</li>
 	 * 				<li>Update the actual need time split of the random agenda to reflect the newly added activity.</li>
 	 * 			</ol>
-	 * 		<li>Calculate the travel time for each of the generated random plans and store it along with the plan without travel time in {@link Individual#m_allDayPlans}.</li>
+	 * 		<li>Calculate the travel time for each of the generated random plans and its mean squared error (see {@link Individual#chooseBestAgenda()}).
+	 * 			Only the best plan is kept and stored along with the plan without travel time in {@link Individual#m_allDayPlans}.</li>
 	 * 	</ol>
+	 * 
+	 * <p>A plan is abandoned as soon as it is certain that it can not be chosen, i.e. once it includes too many different locations (see {@link ISimulationSettings#MAX_NUMBER_OF_TRAVEL_ACTIVITIES})
+	 * or a lower bound of its mean squared error exceeds the one of the best plan completed so far (see {@link Individual#calculateLowerBoundOfMeanSquaredError(ActivityAgenda, int, AbsoluteNeedTimeSplit)}).
+	 * The latter is checked after each activity added to the random agenda and before each travel time is calculated, which saves most of the work on plans which are not chosen anyway.</p>
+	 * 
+	 * <p><b>Note:</b> The plans are generated concurrently on {@link Individual#s_planningPool}. 
+	 * Each plan draws all of its random choices from its own random number generator, whose seed is drawn from the random number generator of the {@link Environment} in the order of the plans.
+	 * Thus, the same seed results in the same plans (and the same chosen agenda) regardless of the number of threads (see {@link ISimulationSettings#NUMBER_OF_PLANNING_THREADS}).</p>
+	 * 
+	 * <p>The above describes {@link AgendaPlanner#RANDOM_SAMPLING}. 
+	 * See {@link Individual#planIndividualActivitiesByLocalSearch(MersenneTwisterFast, ActivityAgenda)} for {@link AgendaPlanner#LOCAL_SEARCH} (see {@link ISimulationSettings#AGENDA_PLANNER}).</p>
+	 * 
+	 * <p>If the individual has chosen an agenda in the same context before (see {@link AgendaMemo}), this agenda competes with the generated plans resp. is the starting point of the local search.
+	 * Once planning anew has not resulted in a better agenda as often as defined by {@link ISimulationSettings#NUMBER_OF_CONFIRMATIONS_TO_REUSE_MEMOIZED_AGENDA}, it is chosen without planning.</p>
 	 */
 	public void planIndividualActivities() {
+		planIndividualActivities(m_environment.random);
+	}
+	
+	/**
+	 * <p>This method plans the individual activities like {@link Individual#planIndividualActivities()}, but draws the seeds of the plans from the provided random number generator.
+	 * Thus, several individuals can plan concurrently if each of them uses its own random number generator (see {@link ISimulationSettings#IS_PARALLEL_PLANNING_ENABLED}).</p>
+	 * 
+	 * @param random - the random number generator from which the seeds of the plans (resp. all random choices of the local search) are drawn.
+	 */
+	public void planIndividualActivities(MersenneTwisterFast random) {
+		String key = null;
+		MemoizedAgenda memoizedAgenda = null;
+		ActivityAgenda agendaOfMemo = null;
+		if (ISimulationSettings.IS_AGENDA_MEMO_ENABLED) {
+			key = AgendaMemo.createKey(getCurrentDayOfWeek(), getCurrentDateTime(), m_activityAgenda);
+			memoizedAgenda = m_agendaMemo.get(key);
+			if (memoizedAgenda != null) {
+				agendaOfMemo = memoizedAgenda.createAgenda(m_activityAgenda, getCurrentDateTime(), getCurrentDayOfWeek());
+				// the memoized agenda is not valid anymore
+				if (agendaOfMemo == null || !TimeUtility.isDayFullyPlanned(m_environment, agendaOfMemo)) {
+					m_agendaMemo.remove(key);
+					memoizedAgenda = null;
+					agendaOfMemo = null;
+				}
+				else if (memoizedAgenda.getNumberOfConfirmations() >= ISimulationSettings.NUMBER_OF_CONFIRMATIONS_TO_REUSE_MEMOIZED_AGENDA) {
+					m_allDayPlans.clear();
+					m_allDayPlans.put(createAgendaWithTravelActivities(agendaOfMemo, new BestPlan()), agendaOfMemo);
+					if (ISimulationSettings.IS_DEBUG) {
+						System.out.println(String.format("Individual %d chose the memoized agenda without planning (hit rate of its memo: %.2f %%).", m_id, m_agendaMemo.getHitRate() * 100));
+					}
+					return;
+				}
+			}
+		}
+		Tuple<BigDecimal, BigDecimal> meanSquaredErrors = null;
+		switch (ISimulationSettings.AGENDA_PLANNER) {
+		case RANDOM_SAMPLING:
+			meanSquaredErrors = planIndividualActivitiesByRandomSampling(random, agendaOfMemo);
+			break;
+		case LOCAL_SEARCH:
+			meanSquaredErrors = planIndividualActivitiesByLocalSearch(random, agendaOfMemo);
+			break;
+		default:
+			LOG.log(Level.SEVERE, String.format("Could not plan individual activities with agenda planner: %s", ISimulationSettings.AGENDA_PLANNER));
+		}
+		if (ISimulationSettings.IS_AGENDA_MEMO_ENABLED && meanSquaredErrors != null) {
+			memoizeChosenAgenda(key, memoizedAgenda, meanSquaredErrors.getKey(), meanSquaredErrors.getValue());
+		}
+	}
+	
+	/**
+	 * <p>This method updates the memo with the agenda which has been planned (see {@link AgendaMemo}).
+	 * If the planned agenda is better than the memoized one, it replaces the memoized one. Otherwise the memoized agenda is confirmed.</p>
+	 * 
+	 * @param key - the key of the context in which the agenda has been planned (see {@link AgendaMemo#createKey(int, DateTime, ActivityAgenda)}).
+	 * @param memoizedAgenda - the agenda memoized for the context or <code>null</code> if there is none.
+	 * @param meanSquaredErrorOfChosenAgenda - the mean squared error of the planned agenda as calculated by the planner.
+	 * @param meanSquaredErrorOfMemo - the mean squared error of the memoized agenda as calculated by the planner or <code>null</code> if there is none.
+	 */
+	private void memoizeChosenAgenda(String key, MemoizedAgenda memoizedAgenda, BigDecimal meanSquaredErrorOfChosenAgenda, BigDecimal meanSquaredErrorOfMemo) {
+		if (m_allDayPlans.isEmpty()) {
+			return;
+		}
+		Entry<ActivityAgenda, ActivityAgenda> chosenPlan = m_allDayPlans.entrySet().iterator().next();
+		if (memoizedAgenda != null) {
+			if (meanSquaredErrorOfChosenAgenda.compareTo(meanSquaredErrorOfMemo) >= 0) {
+				memoizedAgenda.confirm();
+				return;
+			}
+		}
+		m_agendaMemo.put(key, chosenPlan.getValue(), m_activityAgenda, getCurrentDateTime());
+	}
+	
+	/**
+	 * <p>This method generates the random plans and keeps the best one (see {@link AgendaPlanner#RANDOM_SAMPLING} and {@link Individual#planIndividualActivities()}).</p>
+	 * 
+	 * @param random - the random number generator from which the seeds of the plans are drawn.
+	 * @param agendaOfMemo - the memoized agenda, which is kept unless a random plan is better, or <code>null</code> if there is none.
+	 * @return Tuple - the mean squared error of the best plan and the one of the memoized agenda (or <code>null</code> if there is none).
+	 */
+	private Tuple<BigDecimal, BigDecimal> planIndividualActivitiesByRandomSampling(MersenneTwisterFast random, ActivityAgenda agendaOfMemo) {
+		return planIndividualActivitiesByRandomSampling(random, agendaOfMemo, s_planningPool, ISimulationSettings.IS_PRUNING_OF_PLANS_ENABLED);
+	}
+	
+	/**
+	 * <p>This method generates the random plans on the provided pool instead of {@link Individual#s_planningPool}. 
+	 * The best plan neither depends on the number of threads of the pool nor on whether or not pruning is enabled.</p>
+	 * 
+	 * @param random - the random number generator from which the seeds of the plans are drawn.
+	 * @param agendaOfMemo - the memoized agenda, which is kept unless a random plan is better, or <code>null</code> if there is none.
+	 * @param planningPool - the pool on which the plans are generated.
+	 * @param isPruningEnabled - whether or not plans are abandoned once they can not be better than the best plan (see {@link ISimulationSettings#IS_PRUNING_OF_PLANS_ENABLED}).
+	 * @return Tuple - the mean squared error of the best plan and the one of the memoized agenda (or <code>null</code> if there is none).
+	 */
+	Tuple<BigDecimal, BigDecimal> planIndividualActivitiesByRandomSampling(MersenneTwisterFast random, ActivityAgenda agendaOfMemo, ForkJoinPool planningPool, boolean isPruningEnabled) {
 		long start = System.nanoTime();
-		int numberOfDiscardedPlans = 0;
 		m_allDayPlans.clear();
-		while (m_allDayPlans.size() < ISimulationSettings.NUMBER_OF_PLANS_TO_GENERATE) {
-			ActivityAgenda randomAgenda = ActivityAgenda.newInstance(m_activityAgenda);
-			while (!TimeUtility.isDayFullyPlanned(m_environment, randomAgenda)) {
-				Interval availableInterval = TimeUtility.getFirstAvailableInterval(m_environment, randomAgenda);
-				Tuple<Activity, Interval> activityAndIntervalInRealTime = chooseActivityAndIntervalInRealTime(randomAgenda, availableInterval);
-				Activity chosenActivity = activityAndIntervalInRealTime.getKey();
-				Interval chosenIntervalInRealTime = activityAndIntervalInRealTime.getValue();
-				Node activityNode = chooseActivityNode(chosenActivity);
-				randomAgenda.addActivityForInterval(chosenIntervalInRealTime, chosenActivity);
-				randomAgenda.addNodeForInterval(chosenIntervalInRealTime, activityNode);
-			}
-			ActivityAgenda randomAgendaWithTravelActivities = createAgendaWithTravelActivities(randomAgenda);
-			if (randomAgendaWithTravelActivities == null) {
-				numberOfDiscardedPlans++;
-				randomAgendaWithTravelActivities = new ActivityAgenda();
-			}
-			m_allDayPlans.put(randomAgendaWithTravelActivities, randomAgenda);
-		}
-		double fractionOfInvalidPlans = (double) numberOfDiscardedPlans / ISimulationSettings.NUMBER_OF_PLANS_TO_GENERATE * 100;
+		long[] seeds = new long[ISimulationSettings.NUMBER_OF_PLANS_TO_GENERATE];
+		for (int i = 0; i < seeds.length; i++) {
+			seeds[i] = random.nextLong();
+		}
+		BestPlan bestPlan = new BestPlan(isPruningEnabled);
+		BigDecimal meanSquaredErrorOfMemo = null;
+		if (agendaOfMemo != null) {
+			ActivityAgenda agendaOfMemoWithTravelActivities = createAgendaWithTravelActivities(agendaOfMemo, bestPlan);
+			meanSquaredErrorOfMemo = CalculationUtility.calculateMeanSquaredError(agendaOfMemoWithTravelActivities.getAbsoluteNeedTimeSplit(), getTargetNeedTimeSplit());
+			bestPlan.offer(-1, meanSquaredErrorOfMemo, agendaOfMemo, agendaOfMemoWithTravelActivities);
+		}
+		planningPool.submit(() -> IntStream.range(0, seeds.length).parallel().forEach(i -> {
+			createRandomPlan(i, new MersenneTwisterFast(seeds[i]), bestPlan);
+		})).join();
+		if (bestPlan.m_randomAgendaWithTravelActivities != null) {
+			m_allDayPlans.put(bestPlan.m_randomAgendaWithTravelActivities, bestPlan.m_randomAgenda);
+		}
+		double fractionOfInvalidPlans = (double) bestPlan.m_numberOfDiscardedPlans.get() / ISimulationSettings.NUMBER_OF_PLANS_TO_GENERATE * 100;
+		double fractionOfPrunedPlans = (double) bestPlan.m_numberOfPrunedPlans.get() / ISimulationSettings.NUMBER_OF_PLANS_TO_GENERATE * 100;
 		long executionTime = (System.nanoTime() - start) / 1000000000;
 		if (ISimulationSettings.IS_DEBUG) {
-			System.out.println(String.format("It took %d s to plan the individual activities of individual %d and %.2f %% of the plans were discareded because they included too many different locations.", executionTime, m_id, fractionOfInvalidPlans));
+			System.out.println(String.format("It took %d s to plan the individual activities of individual %d and %.2f %% of the plans were discareded because they included too many different locations and %.2f %% because they could not be better than the best plan.", executionTime, m_id, fractionOfInvalidPlans, fractionOfPrunedPlans));
+		}
+		return new Tuple<>(bestPlan.m_meanSquaredError, meanSquaredErrorOfMemo);
+	}
+	
+	/**
+	 * <p>This method creates one random plan by filling the gaps of a copy of the current activity agenda (see steps 3 - 5 of {@link Individual#planIndividualActivities()}) and offers it to the best plan.
+	 * It is executed by the threads of {@link Individual#s_planningPool} and therefore only reads the state of the individual.</p>
+	 * 
+	 * @param index - the index of the plan, i.e. the order in which the plan has been seeded.
+	 * @param random - the random number generator of the plan, from which all random choices are drawn.
+	 * @param bestPlan - the best plan completed so far.
+	 */
+	private void createRandomPlan(int index, MersenneTwisterFast random, BestPlan bestPlan) {
+		ActivityAgenda randomAgenda = ActivityAgenda.newInstance(m_activityAgenda);
+		while (!TimeUtility.isDayFullyPlanned(m_environment, randomAgenda)) {
+			Interval availableInterval = TimeUtility.getFirstAvailableInterval(m_environment, randomAgenda);
+			Tuple<Activity, Interval> activityAndIntervalInRealTime = chooseActivityAndIntervalInRealTime(randomAgenda, availableInterval, random);
+			Activity chosenActivity = activityAndIntervalInRealTime.getKey();
+			Interval chosenIntervalInRealTime = activityAndIntervalInRealTime.getValue();
+			Node activityNode = chooseActivityNode(chosenActivity, random);
+			randomAgenda.addActivityForInterval(chosenIntervalInRealTime, chosenActivity);
+			randomAgenda.addNodeForInterval(chosenIntervalInRealTime, activityNode);
+			// the locations of adjacent activities do not change anymore
+			if (countChangesOfLocation(randomAgenda) > ISimulationSettings.MAX_NUMBER_OF_TRAVEL_ACTIVITIES) {
+				bestPlan.m_numberOfDiscardedPlans.incrementAndGet();
+				return;
+			}
+			if (!bestPlan.canBeImprovedBy(calculateLowerBoundOfMeanSquaredError(randomAgenda, 0, null))) {
+				bestPlan.m_numberOfPrunedPlans.incrementAndGet();
+				return;
+			}
+		}
+		// the agenda may have been fully planned before any activity was added
+		if (countChangesOfLocation(randomAgenda) > ISimulationSettings.MAX_NUMBER_OF_TRAVEL_ACTIVITIES) {
+			bestPlan.m_numberOfDiscardedPlans.incrementAndGet();
+			return;
+		}
+		ActivityAgenda randomAgendaWithTravelActivities = createAgendaWithTravelActivities(randomAgenda, bestPlan);
+		if (randomAgendaWithTravelActivities == null) {
+			bestPlan.m_numberOfPrunedPlans.incrementAndGet();
+			return;
+		}
+		BigDecimal meanSquaredError = CalculationUtility.calculateMeanSquaredError(randomAgendaWithTravelActivities.getAbsoluteNeedTimeSplit(), getTargetNeedTimeSplit());
+		bestPlan.offer(index, meanSquaredError, randomAgenda, randomAgendaWithTravelActivities);
+	}
+	
+	/**
+	 * <p>This method calculates a lower bound of the mean squared error of all agendas with travel activities which may result from the provided (possibly incomplete) agenda (see {@link CalculationUtility#calculateMeanSquaredError(AbsoluteNeedTimeSplit, NeedTimeSplit)}).</p>
+	 * 
+	 * <p>The time which is spent on each need is bounded as follows:
+	 * <ol>
+	 * 	<li>The time of the intervals which are followed by an activity at the same location (or which end at the end of the day) is spent on the needs of their activity.</li>
+	 * 	<li>The time of the other intervals may be spent on the needs of their activity as well as on the needs of the travel activity, since the travel time is not known yet.</li>
+	 * 	<li>The time which is not planned yet may be spent on any need.</li>
+	 * </ol>
+	 * Relative to the length of the planned day, this gives an interval for the fraction of each need. The lower bound is the sum of the squared distances of the target fractions to these intervals.</p>
+	 * 
+	 * @param agenda - the agenda without travel activities.
+	 * @param numberOfIntervalsWithTravel - the number of intervals at the start of the agenda whose travel activities have already been determined.
+	 * @param needTimeSplitOfIntervalsWithTravel - the absolute need time split of these intervals including their travel activities, or <code>null</code> if there are none.
+	 * @return double - the lower bound of the mean squared error.
+	 */
+	double calculateLowerBoundOfMeanSquaredError(ActivityAgenda agenda, int numberOfIntervalsWithTravel, AbsoluteNeedTimeSplit needTimeSplitOfIntervalsWithTravel) {
+		double[] minimumTimeSpentOnNeed = new double[Need.values().length];
+		double[] uncertainTimeSpentOnNeed = new double[Need.values().length];
+		if (needTimeSplitOfIntervalsWithTravel != null) {
+			for (Need need: needTimeSplitOfIntervalsWithTravel.getAbsoluteNeedTimeSplit().keySet()) {
+				minimumTimeSpentOnNeed[need.ordinal()] += needTimeSplitOfIntervalsWithTravel.getAbsoluteNeedTimeSplit().get(need).doubleValue();
+			}
+		}
+		Activity travelActivity = m_environment.getAllActivities().get(ISimulationSettings.TRAVEL);
+		DateTime endOfDay = TimeUtility.getEndOfCurrentDay(getCurrentDateTime());
+		DateTime startOfPlannedDay = getCurrentDateTime();
+		long plannedMinutes = 0;
+		int numberOfIntervals = 0;
+		for (Interval interval: agenda.getIntervals()) {
+			long durationInMinutes = interval.toDuration().getStandardMinutes();
+			plannedMinutes += durationInMinutes;
+			if (interval.getStart().isBefore(startOfPlannedDay)) {
+				startOfPlannedDay = interval.getStart();
+			}
+			if (numberOfIntervals++ < numberOfIntervalsWithTravel) {
+				continue;
+			}
+			Activity activity = agenda.getActivityForInterval(interval);
+			Node activityNode = agenda.getNodeForInterval(interval);
+			Node nextActivityNode = agenda.getNodeForDateTime(interval.getEnd().plusMinutes(1));
+			boolean isTravelPossible = nextActivityNode == null ? interval.getEnd().isBefore(endOfDay) : !activityNode.getCoordinate().equals(nextActivityNode.getCoordinate());
+			double[] timeSpentOnNeed = isTravelPossible ? uncertainTimeSpentOnNeed : minimumTimeSpentOnNeed;
+			for (Need need: activity.getNeedTimeSplit().keySet()) {
+				timeSpentOnNeed[need.ordinal()] += durationInMinutes * activity.getFractionForNeed(need).doubleValue();
+			}
+			if (isTravelPossible) {
+				for (Need need: travelActivity.getNeedTimeSplit().keySet()) {
+					uncertainTimeSpentOnNeed[need.ordinal()] += durationInMinutes * travelActivity.getFractionForNeed(need).doubleValue();
+				}
+			}
+		}
+		long lengthOfDayInMinutes = new Interval(startOfPlannedDay, endOfDay).toDuration().getStandardMinutes();
+		long unplannedMinutes = Math.max(lengthOfDayInMinutes - plannedMinutes, 0);
+		if (lengthOfDayInMinutes == 0) {
+			return 0;
+		}
+		double lowerBound = 0;
+		for (Need need: getTargetNeedTimeSplit().getNeedTimeSplit().keySet()) {
+			double targetFraction = getTargetNeedTimeSplit().getFractionForNeed(need).doubleValue();
+			double minimumFraction = minimumTimeSpentOnNeed[need.ordinal()] / lengthOfDayInMinutes;
+			double maximumFraction = (minimumTimeSpentOnNeed[need.ordinal()] + uncertainTimeSpentOnNeed[need.ordinal()] + unplannedMinutes) / lengthOfDayInMinutes;
+			double distance = Math.max(0, Math.max(minimumFraction - targetFraction, targetFraction - maximumFraction));
+			lowerBound += distance * distance;
+		}
+		return lowerBound;
+	}
+	
+	/**
+	 * <p>This method counts the number of times the location changes between two adjacent activities of the agenda, i.e. the number of travel activities it implies.
+	 * Activities which are followed by a gap are not counted.</p>
+	 * 
+	 * @param agenda - the agenda without travel activities.
+	 * @return int - the number of changes of location.
+	 */
+	private int countChangesOfLocation(ActivityAgenda agenda) {
+		int numberOfDifferentLocations = 0;
+		for (Interval interval: agenda.getIntervals()) {
+			Node activityNode = agenda.getNodeForInterval(interval);
+			Node nextActivityNode = agenda.getNodeForDateTime(interval.getEnd().plusMinutes(1));
+			// there is a next activity (last entry has no next node) and it is conducted at a different location
+			if (nextActivityNode != null && !activityNode.getCoordinate().equals(nextActivityNode.getCoordinate())) {
+				numberOfDifferentLocations++;
+			}
+		}
+		return numberOfDifferentLocations;
+	}
+	
+	/**
+	 * <p>This method plans the individual activities by improving a single plan step by step (see {@link AgendaPlanner#LOCAL_SEARCH}).</p>
+	 * 
+	 * <p>This works as follows:
+	 * 	<ol>
+	 * 		<li>Create the initial plan (see {@link Individual#createInitialPlanForLocalSearch(MersenneTwisterFast, ActivityAgenda)}).</li>
+	 * 		<li>As long as not the number of moves as defined by {@link ISimulationSettings#NUMBER_OF_EVALUATIONS_OF_LOCAL_SEARCH} have been tried, repeat the steps 3 & 4.</li>
+	 * 		<li>Choose a move at random (see {@link Individual#chooseMove(ArrayList, MersenneTwisterFast)}) and update the time spent on each need for the activities changed by the move only 
+	 * 			(see {@link Individual#calculateTimeSpentOnNeedsAfterMove(ArrayList, ArrayList, Move, double[])}).</li>
+	 * 		<li>Accept the move if it does not increase the mean squared error of the plan. 
+	 * 			Otherwise accept it with a probability which decreases with the increase of the mean squared error and with the number of moves tried (see {@link ISimulationSettings#INITIAL_TEMPERATURE_OF_LOCAL_SEARCH}).</li>
+	 * 		<li>Derive the travel activities of the best plan found and store it along with the plan without travel time in {@link Individual#m_allDayPlans}.</li>
+	 * 	</ol></p>
+	 * 
+	 * <p><b>Note:</b> The moves only change the activities which are not in {@link Individual#m_activityAgenda} yet, i.e. neither the activities executed already nor the joint activities.
+	 * They keep the constraints of the random plans: each activity must be available at its start, short activities must be executed where the previous activity is executed (see {@link Individual#getAllAvailableActivitiesForCategoryAndInterval(ActivityAgenda, ActivityCategory, Interval)}) 
+	 * and the number of travel activities must not exceed {@link ISimulationSettings#MAX_NUMBER_OF_TRAVEL_ACTIVITIES} (unless the initial plan does already).</p>
+	 * 
+	 * @param random - the random number generator from which all random choices are drawn.
+	 * @param agendaOfMemo - the memoized agenda, which is used as the initial plan, or <code>null</code> if there is none.
+	 * @return Tuple - the mean squared error of the best plan and the one of the initial plan if it is the memoized agenda (or <code>null</code> otherwise).
+	 */
+	private Tuple<BigDecimal, BigDecimal> planIndividualActivitiesByLocalSearch(MersenneTwisterFast random, ActivityAgenda agendaOfMemo) {
+		return planIndividualActivitiesByLocalSearch(random, agendaOfMemo, ISimulationSettings.NUMBER_OF_EVALUATIONS_OF_LOCAL_SEARCH, ISimulationSettings.MAX_NUMBER_OF_TRAVEL_ACTIVITIES);
+	}
+	
+	/**
+	 * <p>This method plans the individual activities like {@link Individual#planIndividualActivitiesByLocalSearch(MersenneTwisterFast, ActivityAgenda)}, 
+	 * but with the provided number of moves and maximum number of travel activities instead of {@link ISimulationSettings#NUMBER_OF_EVALUATIONS_OF_LOCAL_SEARCH} and {@link ISimulationSettings#MAX_NUMBER_OF_TRAVEL_ACTIVITIES}.</p>
+	 * 
+	 * @param random - the random number generator from which all random choices are drawn.
+	 * @param agendaOfMemo - the memoized agenda, which is used as the initial plan, or <code>null</code> if there is none.
+	 * @param numberOfEvaluations - the number of moves which are tried.
+	 * @param maxNumberOfTravelActivities - the maximum number of travel activities of the plan.
+	 * @return Tuple - the mean squared error of the best plan and the one of the initial plan if it is the memoized agenda (or <code>null</code> otherwise).
+	 */
+	Tuple<BigDecimal, BigDecimal> planIndividualActivitiesByLocalSearch(MersenneTwisterFast random, ActivityAgenda agendaOfMemo, int numberOfEvaluations, int maxNumberOfTravelActivities) {
+		long start = System.nanoTime();
+		m_allDayPlans.clear();
+		ArrayList<PlannedActivity> plan = createInitialPlanForLocalSearch(random, agendaOfMemo);
+		double[] timeSpentOnNeeds = calculateTimeSpentOnNeeds(plan);
+		int numberOfChangesOfLocation = countChangesOfLocation(plan, 0, plan.size());
+		double meanSquaredError = CalculationUtility.calculateMeanSquaredError(timeSpentOnNeeds, getTargetNeedTimeSplit());
+		double initialMeanSquaredError = meanSquaredError;
+		ArrayList<PlannedActivity> bestPlan = plan;
+		double minimumMeanSquaredError = meanSquaredError;
+		int numberOfAcceptedMoves = 0;
+		for (int evaluation = 0; evaluation < numberOfEvaluations; evaluation++) {
+			Move move = chooseMove(plan, random);
+			if (move == null) {
+				continue;
+			}
+			ArrayList<PlannedActivity> changedPlan = move.applyTo(plan);
+			int changedNumberOfChangesOfLocation = countChangesOfLocationAfterMove(plan, changedPlan, move, numberOfChangesOfLocation);
+			if (changedNumberOfChangesOfLocation > maxNumberOfTravelActivities && changedNumberOfChangesOfLocation > numberOfChangesOfLocation) {
+				continue;
+			}
+			if (!isValidMove(plan, changedPlan, move)) {
+				continue;
+			}
+			double[] changedTimeSpentOnNeeds = calculateTimeSpentOnNeedsAfterMove(plan, changedPlan, move, timeSpentOnNeeds);
+			double changedMeanSquaredError = CalculationUtility.calculateMeanSquaredError(changedTimeSpentOnNeeds, getTargetNeedTimeSplit());
+			double temperature = ISimulationSettings.INITIAL_TEMPERATURE_OF_LOCAL_SEARCH * (1 - (double) evaluation / numberOfEvaluations);
+			if (changedMeanSquaredError <= meanSquaredError || (temperature > 0 && random.nextDouble() < Math.exp((meanSquaredError - changedMeanSquaredError) / temperature))) {
+				plan = changedPlan;
+				timeSpentOnNeeds = changedTimeSpentOnNeeds;
+				meanSquaredError = changedMeanSquaredError;
+				numberOfChangesOfLocation = changedNumberOfChangesOfLocation;
+				numberOfAcceptedMoves++;
+				if (meanSquaredError < minimumMeanSquaredError) {
+					bestPlan = plan;
+					minimumMeanSquaredError = meanSquaredError;
+				}
+			}
+		}
+		ActivityAgenda bestAgenda = new ActivityAgenda();
+		for (PlannedActivity plannedActivity: bestPlan) {
+			bestAgenda.addActivityForInterval(plannedActivity.m_interval, plannedActivity.m_activity);
+			bestAgenda.addNodeForInterval(plannedActivity.m_interval, plannedActivity.m_node);
+		}
+		// nothing to compare with, hence the agenda with travel activities is always created
+		m_allDayPlans.put(createAgendaWithTravelActivities(bestAgenda, new BestPlan()), bestAgenda);
+		long executionTime = (System.nanoTime() - start) / 1000000;
+		if (ISimulationSettings.IS_DEBUG) {
+			System.out.println(String.format("It took %d ms to plan the individual activities of individual %d by local search. %d of %d moves were accepted and the mean squared error decreased from %.6f to %.6f.", executionTime, m_id, numberOfAcceptedMoves, numberOfEvaluations, initialMeanSquaredError, minimumMeanSquaredError));
+		}
+		// both are calculated from the time spent on each need of the plans, such that the memoized agenda is only replaced if a better plan has been found
+		return new Tuple<>(CalculationUtility.createBigDecimal(minimumMeanSquaredError), agendaOfMemo != null ? CalculationUtility.createBigDecimal(initialMeanSquaredError) : null);
+	}
+	
+	/**
+	 * <p>This method creates the plan from which the local search starts (see {@link Individual#planIndividualActivitiesByLocalSearch(MersenneTwisterFast, ActivityAgenda)}).</p>
+	 * 
+	 * <p>This works as follows (unless there is a memoized agenda, which is used as it is):
+	 * 	<ol>
+	 * 		<li>Clone the current activity agenda.</li>
+	 * 		<li>Add the individual activities of the previous day (see {@link Individual#m_activityAgendaOfPreviousDay}) at the same time of day, if they start after the current time, do not overlap any planned activity and are available on the current day.</li>
+	 * 		<li>Fill the remaining gaps at random like the random plans (see {@link Individual#createRandomPlan(int, MersenneTwisterFast, BestPlan)}).</li>
+	 * 	</ol></p>
+	 * 
+	 * @param random - the random number generator from which all random choices are drawn.
+	 * @param agendaOfMemo - the memoized agenda or <code>null</code> if there is none.
+	 * @return ArrayList<PlannedActivity> - the activities of the initial plan sorted by their start.
+	 */
+	ArrayList<PlannedActivity> createInitialPlanForLocalSearch(MersenneTwisterFast random, ActivityAgenda agendaOfMemo) {
+		ActivityAgenda initialAgenda = agendaOfMemo != null ? agendaOfMemo : ActivityAgenda.newInstance(m_activityAgenda);
+		DateTime currentDateTime = getCurrentDateTime();
+		// the memoized agenda is fully planned already
+		for (Interval intervalOfPreviousDay: agendaOfMemo != null ? Collections.<Interval>emptySet() : m_activityAgendaOfPreviousDay.getIntervals()) {
+			Activity activity = m_activityAgendaOfPreviousDay.getAgenda().get(intervalOfPreviousDay);
+			Interval interval = new Interval(intervalOfPreviousDay.getStart().plusDays(1), intervalOfPreviousDay.getEnd().plusDays(1));
+			if (activity.isJointActivity() 
+					|| interval.getStart().isBefore(currentDateTime) 
+					|| !activity.isAvailableAt(getCurrentDayOfWeek(), TimeUtility.convertToBaseInterval(interval).getStart())
+					|| initialAgenda.getIntervals().stream().anyMatch(plannedInterval -> plannedInterval.overlaps(interval))) {
+				continue;
+			}
+			initialAgenda.addActivityForInterval(interval, activity);
+			initialAgenda.addNodeForInterval(interval, m_activityAgendaOfPreviousDay.getNodes().get(intervalOfPreviousDay));
+		}
+		while (!TimeUtility.isDayFullyPlanned(m_environment, initialAgenda)) {
+			Interval availableInterval = TimeUtility.getFirstAvailableInterval(m_environment, initialAgenda);
+			Tuple<Activity, Interval> activityAndIntervalInRealTime = chooseActivityAndIntervalInRealTime(initialAgenda, availableInterval, random);
+			initialAgenda.addActivityForInterval(activityAndIntervalInRealTime.getValue(), activityAndIntervalInRealTime.getKey());
+			initialAgenda.addNodeForInterval(activityAndIntervalInRealTime.getValue(), chooseActivityNode(activityAndIntervalInRealTime.getKey(), random));
+		}
+		ArrayList<PlannedActivity> plan = new ArrayList<>();
+		for (Interval interval: initialAgenda.getIntervals()) {
+			boolean isFixed = m_activityAgenda.getAgenda().containsKey(interval);
+			plan.add(new PlannedActivity(interval, initialAgenda.getAgenda().get(interval), initialAgenda.getNodes().get(interval), isFixed));
+		}
+		return plan;
+	}
+	
+	/**
+	 * <p>This method chooses a move of a random type (see {@link TypeOfMove}) at random for an activity of the plan which is not fixed (see {@link Individual#chooseMove(ArrayList, int, TypeOfMove, MersenneTwisterFast)}).</p>
+	 * 
+	 * @param plan - the plan for which a move is chosen.
+	 * @param random - the random number generator from which all random choices are drawn.
+	 * @return Move - the move or <code>null</code> if the chosen move is not possible (e.g. the next activity is fixed).
+	 */
+	private Move chooseMove(ArrayList<PlannedActivity> plan, MersenneTwisterFast random) {
+		ArrayList<Integer> indicesOfActivitiesNotFixed = new ArrayList<>();
+		for (int i = 0; i < plan.size(); i++) {
+			if (!plan.get(i).m_isFixed) {
+				indicesOfActivitiesNotFixed.add(i);
+			}
+		}
+		if (indicesOfActivitiesNotFixed.isEmpty()) {
+			return null;
+		}
+		int index = indicesOfActivitiesNotFixed.get(random.nextInt(indicesOfActivitiesNotFixed.size()));
+		return chooseMove(plan, index, TypeOfMove.values()[random.nextInt(TypeOfMove.values().length)], random);
+	}
+	
+	/**
+	 * <p>This method chooses a move of the provided type at random for the activity at the provided index of the plan, which must not be fixed:
+	 * 	<ol>
+	 * 		<li>Swap: Swap the activity with the next one (including their durations).</li>
+	 * 		<li>Resize: Shift the end of the activity and the start of the next one by up to {@link ISimulationSettings#MAX_NUMBER_OF_MINUTES_TO_RESIZE_ACTIVITY} minutes. 
+	 * 			If one of the two activities is shifted out of the plan, the other one takes its time.</li>
+	 * 		<li>Relocate: Replace the activity by an activity which is available at its start (or execute it at another location).</li>
+	 * 		<li>Split: Replace the second part of the activity by an activity which is available at the start of this part.</li>
+	 * 	</ol></p>
+	 * 
+	 * @param plan - the plan for which a move is chosen.
+	 * @param index - the index of the activity for which a move is chosen.
+	 * @param typeOfMove - the type of the move.
+	 * @param random - the random number generator from which all random choices are drawn.
+	 * @return Move - the move or <code>null</code> if the chosen move is not possible (e.g. the next activity is fixed).
+	 */
+	Move chooseMove(ArrayList<PlannedActivity> plan, int index, TypeOfMove typeOfMove, MersenneTwisterFast random) {
+		PlannedActivity plannedActivity = plan.get(index);
+		PlannedActivity nextPlannedActivity = index + 1 < plan.size() && !plan.get(index + 1).m_isFixed ? plan.get(index + 1) : null;
+		PlannedActivity previousPlannedActivity = index > 0 ? plan.get(index - 1) : null;
+		switch (typeOfMove) {
+		case SWAP: {
+			if (nextPlannedActivity == null 
+					|| (nextPlannedActivity.m_activity == plannedActivity.m_activity && nextPlannedActivity.m_node == plannedActivity.m_node)) {
+				return null;
+			}
+			DateTime endOfFirstActivity = plannedActivity.m_interval.getStart().plus(nextPlannedActivity.m_interval.toDuration());
+			return new Move(index, 2, 
+					new PlannedActivity(new Interval(plannedActivity.m_interval.getStart(), endOfFirstActivity), nextPlannedActivity.m_activity, nextPlannedActivity.m_node, false),
+					new PlannedActivity(new Interval(endOfFirstActivity, nextPlannedActivity.m_interval.getEnd()), plannedActivity.m_activity, plannedActivity.m_node, false));
+		}
+		case RESIZE: {
+			if (nextPlannedActivity == null) {
+				return null;
+			}
+			int shiftInMinutes = random.nextInt(2 * ISimulationSettings.MAX_NUMBER_OF_MINUTES_TO_RESIZE_ACTIVITY) - ISimulationSettings.MAX_NUMBER_OF_MINUTES_TO_RESIZE_ACTIVITY;
+			if (shiftInMinutes >= 0) {
+				shiftInMinutes++;
+			}
+			DateTime endOfActivity = plannedActivity.m_interval.getEnd().plusMinutes(shiftInMinutes);
+			Interval intervalOfBothActivities = new Interval(plannedActivity.m_interval.getStart(), nextPlannedActivity.m_interval.getEnd());
+			if (!endOfActivity.isAfter(plannedActivity.m_interval.getStart())) {
+				return new Move(index, 2, new PlannedActivity(intervalOfBothActivities, nextPlannedActivity.m_activity, nextPlannedActivity.m_node, false));
+			}
+			if (!endOfActivity.isBefore(nextPlannedActivity.m_interval.getEnd())) {
+				return new Move(index, 2, new PlannedActivity(intervalOfBothActivities, plannedActivity.m_activity, plannedActivity.m_node, false));
+			}
+			return new Move(index, 2, 
+					new PlannedActivity(new Interval(plannedActivity.m_interval.getStart(), endOfActivity), plannedActivity.m_activity, plannedActivity.m_node, false),
+					new PlannedActivity(new Interval(endOfActivity, nextPlannedActivity.m_interval.getEnd()), nextPlannedActivity.m_activity, nextPlannedActivity.m_node, false));
+		}
+		case RELOCATE: {
+			PlannedActivity relocatedActivity = choosePlannedActivity(previousPlannedActivity, plannedActivity.m_interval, random);
+			if (relocatedActivity == null 
+					|| (relocatedActivity.m_activity == plannedActivity.m_activity && relocatedActivity.m_node == plannedActivity.m_node)) {
+				return null;
+			}
+			return new Move(index, 1, relocatedActivity);
+		}
+		case SPLIT: {
+			int durationInMinutes = (int) plannedActivity.m_interval.toDuration().getStandardMinutes();
+			if (durationInMinutes < 2) {
+				return null;
+			}
+			DateTime endOfFirstPart = plannedActivity.m_interval.getStart().plusMinutes(1 + random.nextInt(durationInMinutes - 1));
+			PlannedActivity firstPart = new PlannedActivity(new Interval(plannedActivity.m_interval.getStart(), endOfFirstPart), plannedActivity.m_activity, plannedActivity.m_node, false);
+			PlannedActivity secondPart = choosePlannedActivity(firstPart, new Interval(endOfFirstPart, plannedActivity.m_interval.getEnd()), random);
+			if (secondPart == null) {
+				return null;
+			}
+			return new Move(index, 1, firstPart, secondPart);
+		}
+		default:
+			LOG.log(Level.SEVERE, String.format("Could not choose move of type: %s", typeOfMove));
+			return null;
+		}
+	}
+	
+	/**
+	 * <p>This method chooses an activity and its location at random out of all activities which can be planned for the provided interval (see {@link Individual#getAllAvailableActivitiesForLocalSearch(PlannedActivity, Interval)}).</p>
+	 * 
+	 * @param previousPlannedActivity - the activity planned before the interval or <code>null</code> if there is none.
+	 * @param intervalInRealTime - the interval for which an activity is chosen.
+	 * @param random - the random number generator from which all random choices are drawn.
+	 * @return PlannedActivity - the chosen activity or <code>null</code> if no activity can be planned for the interval.
+	 */
+	private PlannedActivity choosePlannedActivity(PlannedActivity previousPlannedActivity, Interval intervalInRealTime, MersenneTwisterFast random) {
+		ArrayList<Activity> availableActivities = getAllAvailableActivitiesForLocalSearch(previousPlannedActivity, intervalInRealTime);
+		if (availableActivities.isEmpty()) {
+			return null;
+		}
+		Activity chosenActivity = availableActivities.get(random.nextInt(availableActivities.size()));
+		return new PlannedActivity(intervalInRealTime, chosenActivity, chooseActivityNode(chosenActivity, random), false);
+	}
+	
+	/**
+	 * <p>This method determines all activities which can be planned for the provided interval under the same constraints as for the random plans (see {@link Individual#getAllAvailableActivitiesForCategoryAndInterval(ActivityAgenda, ActivityCategory, Interval)}).</p>
+	 * 
+	 * @param previousPlannedActivity - the activity planned before the interval or <code>null</code> if there is none.
+	 * @param intervalInRealTime - the interval for which the activities must be available.
+	 * @return ArrayList<Activity> - a list with all activities which can be planned for the interval.
+	 */
+	private ArrayList<Activity> getAllAvailableActivitiesForLocalSearch(PlannedActivity previousPlannedActivity, Interval intervalInRealTime) {
+		DateTime startInBaseTime = TimeUtility.convertToBaseInterval(intervalInRealTime).getStart();
+		boolean isLocationConstrained = previousPlannedActivity != null 
+				&& (int) intervalInRealTime.toDuration().getStandardMinutes() <= ISimulationSettings.MIN_DURATION_OF_ACTIVITY_TO_TRAVEL_TO_DIFFERENT_LOCATION;
+		ArrayList<Activity> availableActivities = new ArrayList<>();
+		for (ActivityCategory activityCategory: ActivityCategory.values()) {
+			if (isLocationConstrained) {
+				availableActivities.addAll(Arrays.asList(m_environment.getActivityCandidateIndex().getActivities(getCurrentDayOfWeek(), startInBaseTime, activityCategory, previousPlannedActivity.m_activity.getActivityLocation(), false)));
+			}
+			else if (activityCategory != ActivityCategory.IDLE) {
+				availableActivities.addAll(Arrays.asList(m_environment.getActivityCandidateIndex().getActivities(getCurrentDayOfWeek(), startInBaseTime, activityCategory, false)));
+			}
+		}
+		return availableActivities;
+	}
+	
+	/**
+	 * <p>This method checks that the activities added by the move can be planned where they are (see {@link Individual#getAllAvailableActivitiesForLocalSearch(PlannedActivity, Interval)}).
+	 * Since the activity after the move may be constrained by the location of the previous activity, it must stay valid as well (if it was valid before the move).</p>
+	 * 
+	 * @param plan - the plan before the move.
+	 * @param changedPlan - the plan after the move.
+	 * @param move - the move.
+	 * @return boolean - <code>true</code> if the move results in a valid plan, <code>false</code> otherwise.
+	 */
+	boolean isValidMove(ArrayList<PlannedActivity> plan, ArrayList<PlannedActivity> changedPlan, Move move) {
+		for (int i = move.m_index; i < move.m_index + move.m_addedActivities.size(); i++) {
+			if (!isValidPlannedActivity(changedPlan, i)) {
+				return false;
+			}
+		}
+		int indexAfterMove = move.m_index + move.m_addedActivities.size();
+		if (indexAfterMove < changedPlan.size() && !changedPlan.get(indexAfterMove).m_isFixed) {
+			return isValidPlannedActivity(changedPlan, indexAfterMove) || !isValidPlannedActivity(plan, move.m_index + move.m_numberOfRemovedActivities);
+		}
+		return true;
+	}
+	
+	private boolean isValidPlannedActivity(ArrayList<PlannedActivity> plan, int index) {
+		PlannedActivity plannedActivity = plan.get(index);
+		PlannedActivity previousPlannedActivity = index > 0 ? plan.get(index - 1) : null;
+		return getAllAvailableActivitiesForLocalSearch(previousPlannedActivity, plannedActivity.m_interval).contains(plannedActivity.m_activity);
+	}
+	
+	/**
+	 * @param plan - the plan.
+	 * @return double[] - the time spent on each need by all activities of the plan in minutes (indexed by the ordinal of the need).
+	 */
+	double[] calculateTimeSpentOnNeeds(ArrayList<PlannedActivity> plan) {
+		double[] timeSpentOnNeeds = new double[Need.values().length];
+		for (int i = 0; i < plan.size(); i++) {
+			updateTimeSpentOnNeeds(plan, i, timeSpentOnNeeds, 1);
 		}
+		return timeSpentOnNeeds;
+	}
+	
+	/**
+	 * <p>This method updates the time spent on each need for the activities changed by the move only. 
+	 * <b>Note:</b> This includes the activity before the move, since its travel activity depends on the location of the first activity changed by the move.</p>
+	 * 
+	 * @param plan - the plan before the move.
+	 * @param changedPlan - the plan after the move.
+	 * @param move - the move.
+	 * @param timeSpentOnNeeds - the time spent on each need by the plan before the move. It is not changed.
+	 * @return double[] - the time spent on each need by the plan after the move.
+	 */
+	double[] calculateTimeSpentOnNeedsAfterMove(ArrayList<PlannedActivity> plan, ArrayList<PlannedActivity> changedPlan, Move move, double[] timeSpentOnNeeds) {
+		double[] changedTimeSpentOnNeeds = timeSpentOnNeeds.clone();
+		for (int i = Math.max(move.m_index - 1, 0); i < move.m_index + move.m_numberOfRemovedActivities; i++) {
+			updateTimeSpentOnNeeds(plan, i, changedTimeSpentOnNeeds, -1);
+		}
+		for (int i = Math.max(move.m_index - 1, 0); i < move.m_index + move.m_addedActivities.size(); i++) {
+			updateTimeSpentOnNeeds(changedPlan, i, changedTimeSpentOnNeeds, 1);
+		}
+		return changedTimeSpentOnNeeds;
+	}
+	
+	/**
+	 * <p>This method adds (resp. subtracts) the time spent on each need by the activity at the provided index of the plan to (resp. from) the provided time spent on each need.
+	 * The time of the activity is split into travel time and effective activity time like in {@link Individual#createAgendaWithTravelActivities(ActivityAgenda, BestPlan)}.</p>
+	 * 
+	 * @param plan - the plan.
+	 * @param index - the index of the activity.
+	 * @param timeSpentOnNeeds - the time spent on each need in minutes (indexed by the ordinal of the need).
+	 * @param sign - <code>1</code> to add the time of the activity, <code>-1</code> to subtract it.
+	 */
+	private void updateTimeSpentOnNeeds(ArrayList<PlannedActivity> plan, int index, double[] timeSpentOnNeeds, int sign) {
+		PlannedActivity plannedActivity = plan.get(index);
+		long durationInMinutes = plannedActivity.m_interval.toDuration().getStandardMinutes();
+		long travelDurationInMinutes = 0;
+		if (index + 1 < plan.size() && isChangeOfLocation(plannedActivity, plan.get(index + 1))) {
+			travelDurationInMinutes = Math.min(determineTravelDurationInMinutes(plannedActivity.m_node, plan.get(index + 1).m_node), durationInMinutes);
+			Activity travelActivity = m_environment.getAllActivities().get(ISimulationSettings.TRAVEL);
+			for (Need need: travelActivity.getNeedTimeSplit().keySet()) {
+				timeSpentOnNeeds[need.ordinal()] += sign * travelDurationInMinutes * travelActivity.getFractionForNeed(need).doubleValue();
+			}
+		}
+		for (Need need: plannedActivity.m_activity.getNeedTimeSplit().keySet()) {
+			timeSpentOnNeeds[need.ordinal()] += sign * (durationInMinutes - travelDurationInMinutes) * plannedActivity.m_activity.getFractionForNeed(need).doubleValue();
+		}
+	}
+	
+	/**
+	 * <p>This method counts the number of times the location changes between two adjacent activities of the plan, starting with the activity before the provided start index and ending with the activity at the provided end index.</p>
+	 * 
+	 * @param plan - the plan.
+	 * @param startIndex - the index of the first activity whose change of location from the previous activity is counted.
+	 * @param endIndex - the index of the last activity whose change of location from the previous activity is counted.
+	 * @return int - the number of changes of location.
+	 */
+	int countChangesOfLocation(ArrayList<PlannedActivity> plan, int startIndex, int endIndex) {
+		int numberOfChangesOfLocation = 0;
+		for (int i = Math.max(startIndex - 1, 0); i < endIndex && i + 1 < plan.size(); i++) {
+			if (isChangeOfLocation(plan.get(i), plan.get(i + 1))) {
+				numberOfChangesOfLocation++;
+			}
+		}
+		return numberOfChangesOfLocation;
+	}
+	
+	/**
+	 * <p>This method updates the number of changes of location for the activities changed by the move only (see {@link Individual#countChangesOfLocation(ArrayList, int, int)}).</p>
+	 * 
+	 * @param plan - the plan before the move.
+	 * @param changedPlan - the plan after the move.
+	 * @param move - the move.
+	 * @param numberOfChangesOfLocation - the number of changes of location of the plan before the move.
+	 * @return int - the number of changes of location of the plan after the move.
+	 */
+	int countChangesOfLocationAfterMove(ArrayList<PlannedActivity> plan, ArrayList<PlannedActivity> changedPlan, Move move, int numberOfChangesOfLocation) {
+		return numberOfChangesOfLocation 
+				- countChangesOfLocation(plan, move.m_index, move.m_index + move.m_numberOfRemovedActivities) 
+				+ countChangesOfLocation(changedPlan, move.m_index, move.m_index + move.m_addedActivities.size());
+	}
+	
+	private boolean isChangeOfLocation(PlannedActivity plannedActivity, PlannedActivity nextPlannedActivity) {
+		return !plannedActivity.m_node.getCoordinate().equals(nextPlannedActivity.m_node.getCoordinate());
 	}
 	
 	/**
@@ -1225,17 +2038,18 @@ public class Individual {
 	 * 
 	 * @param availableIntervalInRealTime - the first gap between two activities in the random agenda or the time between the end of the last planned activity and the end of the current day.
 	 * @param randomAgenda - the random agenda currently being constructed.
+	 * @param random - the random number generator of the random agenda.
 	 * @return AbstractMap.SimpleImmutableEntry<Activity, Interval> - the combination of activity and interval which has been chosen randomly, or <code>null</code> if no activity was available.
 	 */
-	private Tuple<Activity, Interval> chooseActivityAndIntervalInRealTime(ActivityAgenda randomAgenda, Interval availableIntervalInRealTime) {
+	private Tuple<Activity, Interval> chooseActivityAndIntervalInRealTime(ActivityAgenda randomAgenda, Interval availableIntervalInRealTime, MersenneTwisterFast random) {
 		Interval availableIntervalInBaseTime = TimeUtility.convertToBaseInterval(availableIntervalInRealTime);
 		// draw sample duration for each category
-		HashMap<ActivityCategory, Interval> allCategoriesToIntervalSamples = sampleIntervalsForCategories(availableIntervalInBaseTime.getStart());
+		HashMap<ActivityCategory, Interval> allCategoriesToIntervalSamples = sampleIntervalsForCategories(availableIntervalInBaseTime.getStart(), random);
 		// determine all available activities
 		ArrayList<Activity> availableActivities = determineAvailableActivities(randomAgenda, availableIntervalInRealTime, allCategoriesToIntervalSamples);
 		// there are some duration samples that fit into the available interval
 		if (availableActivities.size() > 0) {
-			Activity chosenActivity = availableActivities.get(getRandomInt(availableActivities.size()));
+			Activity chosenActivity = availableActivities.get(random.nextInt(availableActivities.size()));
 			Interval chosenIntervalInBaseTime = allCategoriesToIntervalSamples.get(chosenActivity.getActivityCategory());
 			Interval chosenIntervalInRealTime = TimeUtility.convertToRealInterval(getCurrentDateTime(), chosenIntervalInBaseTime);
 			return new Tuple<Activity, Interval>(chosenActivity, chosenIntervalInRealTime);
@@ -1246,7 +2060,7 @@ public class Individual {
 			availableActivities.addAll(availableActivitiesOfCategory);
 		}
 		if (availableActivities.size() > 0) {
-			Activity chosenActivity = availableActivities.get(getRandomInt(availableActivities.size()));
+			Activity chosenActivity = availableActivities.get(random.nextInt(availableActivities.size()));
 			return new Tuple<Activity, Interval>(chosenActivity, availableIntervalInRealTime);
 		}
 		else {
@@ -1255,10 +2069,10 @@ public class Individual {
 		}
 	}
 	
-	private HashMap<ActivityCategory, Interval> sampleIntervalsForCategories(DateTime startOfAvailableIntervalInBaseTime) {
+	private HashMap<ActivityCategory, Interval> sampleIntervalsForCategories(DateTime startOfAvailableIntervalInBaseTime, MersenneTwisterFast random) {
 		HashMap<ActivityCategory, Interval> allCategoriesToIntervalSamples = new HashMap<>();
 		for (ActivityCategory activityCategory: ISimulationSettings.s_ActivityCategoryToDurationDistributionMap.keySet()) {
-			int sampleDuration = sampleDurationForCategory(activityCategory);
+			int sampleDuration = sampleDurationForCategory(activityCategory, random);
 			Interval intervalOfInterestInBaseTime = null;
 			if (startOfAvailableIntervalInBaseTime.plusMinutes(sampleDuration).isAfter(ISimulationSettings.END_OF_DAY)) {
 				intervalOfInterestInBaseTime = new Interval(startOfAvailableIntervalInBaseTime, ISimulationSettings.END_OF_DAY);
@@ -1303,24 +2117,14 @@ public class Individual {
 		// if duration is smaller than minimum duration, then stay at current location
 		Activity previousActivity = getPreviousActivity(randomAgenda, intervalOfInterestInBaseTime);
 		if ((int) intervalOfInterestInBaseTime.toDuration().getStandardMinutes() <= ISimulationSettings.MIN_DURATION_OF_ACTIVITY_TO_TRAVEL_TO_DIFFERENT_LOCATION  && previousActivity != null) {
-			return m_environment.getAllActivities().values().stream()
-				.filter(activity -> activity.getActivityCategory() == activityCategory)
-				.filter(activity -> activity.getActivityCategory() == activityCategory || activity.getActivityCategory() == ActivityCategory.IDLE)
-				.filter(activity -> activity.getActivityLocation() == previousActivity.getActivityLocation())
-				.filter(activity -> !(activity.getActivityLocation() == ActivityLocation.TRAVEL))
-				.filter(activity -> !activity.isJointActivity())
-				.filter(activity -> activity.isAvailableAt(getCurrentDayOfWeek(), intervalOfInterestInBaseTime.getStart()))
-				.collect(Collectors.toList());
+			return Arrays.asList(m_environment.getActivityCandidateIndex().getActivities(getCurrentDayOfWeek(), intervalOfInterestInBaseTime.getStart(), activityCategory, previousActivity.getActivityLocation(), false));
 		}
 		// no constraint in terms of location
+		else if (activityCategory == ActivityCategory.IDLE) {
+			return Collections.emptyList();
+		}
 		else {
-			return m_environment.getAllActivities().values().stream()
-					.filter(activity -> activity.getActivityCategory() == activityCategory)
-					.filter(activity -> !(activity.getActivityCategory() == ActivityCategory.IDLE))
-					.filter(activity -> !activity.isJointActivity())
-					.filter(activity -> !(activity.getActivityLocation() == ActivityLocation.TRAVEL))
-					.filter(activity -> activity.isAvailableAt(getCurrentDayOfWeek(), intervalOfInterestInBaseTime.getStart()))
-					.collect(Collectors.toList());
+			return Arrays.asList(m_environment.getActivityCandidateIndex().getActivities(getCurrentDayOfWeek(), intervalOfInterestInBaseTime.getStart(), activityCategory, false));
 		}
 	}
 	
@@ -1337,50 +2141,36 @@ public class Individual {
 	 * 
 	 * <p>This works as follows:
 	 * 	<ol>
-	 * 		<li>Check that the number of travel activities for the input agenda is not higher than {@link ISimulationSettings#MAX_NUMBER_OF_TRAVEL_ACTIVITIES}. 
-	 * 			Otherwise abort the creation of an agenda with travel activities.
-	 * 			<b>Note:</b> The reason for this is that agendas with a large number of travel activities require a lot of computing resources (to find all paths and caluculate the travel times etc.) but are unlikely to be chosen since travel activities do not satisfy any need.</li>
 	 * 		<li>Split each of the activities into a travel activity and effective activity if necessary.
 	 * 			<b>Note:</b> This is not necessary when the individual stays at the same location. 
 	 * 						 However, if it does change its location then we can calculate the exact path it will take and based on this path derive the duration it will take to get to this location.
 	 * 						 Using this information we can split the original activity interval into a travel interval and an effective activity interval (or only travel interval if the distance is high).</li>
+	 * 		<li>Before each travel duration is calculated, check that the agenda can still be better than the best plan. Otherwise abort the creation of an agenda with travel activities.</li>
 	 * 	</ol></p>
 	 * 
+	 * <p><b>Note:</b> The number of travel activities of the input agenda must have been checked against {@link ISimulationSettings#MAX_NUMBER_OF_TRAVEL_ACTIVITIES} before (see {@link Individual#countChangesOfLocation(ActivityAgenda)}).
+	 * The reason for this is that agendas with a large number of travel activities require a lot of computing resources (to find all paths and caluculate the travel times etc.) but are unlikely to be chosen since travel activities do not satisfy any need.</p>
+	 * 
 	 * @param agenda - the agenda for which travel activities should be derived.
-	 * @return ActivityAgenda - a copy of the agenda but with all the travel activities as required by the input agenda, or <code>null</code> if the agenda implies more travel activities than allowed by {@link ISimulationSettings#MAX_NUMBER_OF_TRAVEL_ACTIVITIES}.
+	 * @param bestPlan - the best plan completed so far.
+	 * @return ActivityAgenda - a copy of the agenda but with all the travel activities as required by the input agenda, or <code>null</code> if the agenda can not be better than the best plan.
 	 */
-	private ActivityAgenda createAgendaWithTravelActivities(ActivityAgenda agenda) {
+	ActivityAgenda createAgendaWithTravelActivities(ActivityAgenda agenda, BestPlan bestPlan) {
 		ActivityAgenda activityAgendaWithTravelTimes = ActivityAgenda.newInstance(agenda);
 		Activity travelActivity = m_environment.getAllActivities().get(ISimulationSettings.TRAVEL);
-		
-		// check number of travel episodes in agenda
-		int numberOfDifferentLocations = 0;
-		for (Interval interval: agenda.getIntervals()) {
-			Node activityNode = agenda.getNodeForInterval(interval);
-			Node nextActivityNode = agenda.getNodeForDateTime(interval.getEnd().plusMinutes(1));
-			// there is a next activity (last entry has no next node) and it is conducted at a different location
-			if (nextActivityNode != null && !activityNode.getCoordinate().equals(nextActivityNode.getCoordinate())) {
-				numberOfDifferentLocations++;
-			}
-		}
-		if (numberOfDifferentLocations > ISimulationSettings.MAX_NUMBER_OF_TRAVEL_ACTIVITIES) {
-			return null;
-		}
 		// create activities for travel time
+		int numberOfIntervalsWithTravel = 0;
 		for (Interval interval: agenda.getIntervals()) {
 			Activity currentActivity = agenda.getActivityForInterval(interval);
 			Node activityNode = agenda.getNodeForInterval(interval);
 			Node nextActivityNode = agenda.getNodeForDateTime(interval.getEnd().plusMinutes(1));
 			// there is a next activity (last entry has no next node) and it is conducted at a different location
 			if (nextActivityNode != null && !activityNode.getCoordinate().equals(nextActivityNode.getCoordinate())) {
-				ArrayList<GeomPlanarGraphDirectedEdge> pathToNextActivity = GraphUtility.astarPath(activityNode, nextActivityNode);
-				double lengthOfPathToNextActivity = 0;
-				for (int i = 0; i<pathToNextActivity.size(); i++) {
-					GeomPlanarGraphEdge edge = (GeomPlanarGraphEdge) pathToNextActivity.get(i).getEdge();
-					lengthOfPathToNextActivity += edge.getLine().getLength();
+				if (!bestPlan.canBeImprovedBy(calculateLowerBoundOfMeanSquaredError(agenda, numberOfIntervalsWithTravel, activityAgendaWithTravelTimes.getAbsoluteNeedTimeSplit()))) {
+					return null;
 				}
 				activityAgendaWithTravelTimes.getAgenda().remove(interval);
-				int travelDurationInMinutes = Math.toIntExact(Math.round(lengthOfPathToNextActivity / ISimulationSettings.MAX_VELOCITY));
+				int travelDurationInMinutes = determineTravelDurationInMinutes(activityNode, nextActivityNode);
 				// only travel time
 				if (travelDurationInMinutes >= interval.toDuration().getStandardMinutes()) {
 					Interval travelInterval = interval;
@@ -1405,10 +2195,85 @@ public class Individual {
 				// no travel time -> just copy the entry to the agenda with travel times
 				updateActualNeedTimeSplit(activityAgendaWithTravelTimes, currentActivity, interval);
 			}
+			numberOfIntervalsWithTravel++;
 		}
 		return activityAgendaWithTravelTimes;
 	}
 	
+	/**
+	 * <p>This method initializes the distances and travel durations between all locations where the individual can execute activities (see {@link TravelDistanceMatrix}).
+	 * It has to be called once all locations of the individual have been initialized.</p>
+	 */
+	public void initTravelDistanceMatrix() {
+		m_travelDistanceMatrix = GraphUtility.createTravelDistanceMatrix(getActivityLocationNodes());
+	}
+	
+	/**
+	 * <p>This method requests the distances which are required to plan individual activities but which are not contained in {@link Individual#m_travelDistanceMatrix} (see {@link BatchRouter}).
+	 * These are the distances between the locations of the joint activities carried over to the individual agenda (which may have been chosen by another network member) and all other locations of the individual.
+	 * It has to be called after {@link Individual#carryOverJointActivities()}. The batch is used to look up travel durations until the next planning phase.</p>
+	 * 
+	 * @param batchRouter - the batch collecting the distances of all individuals.
+	 */
+	public void requestTravelDistances(BatchRouter batchRouter) {
+		m_batchRouter = batchRouter;
+		ArrayList<Node> activityLocationNodes = getActivityLocationNodes();
+		ArrayList<Node> otherNodes = new ArrayList<>();
+		for (Node node: m_activityAgenda.getNodes().values()) {
+			if (node != null && !otherNodes.contains(node) && (m_travelDistanceMatrix == null || !m_travelDistanceMatrix.isAnchor(node))) {
+				otherNodes.add(node);
+			}
+		}
+		for (int i = 0; i < otherNodes.size(); i++) {
+			for (Node activityLocationNode: activityLocationNodes) {
+				batchRouter.addRequest(otherNodes.get(i), activityLocationNode);
+			}
+			for (int j = i + 1; j < otherNodes.size(); j++) {
+				batchRouter.addRequest(otherNodes.get(i), otherNodes.get(j));
+			}
+		}
+	}
+	
+	/**
+	 * @return ArrayList<Node> - the nodes of all locations where the individual can execute activities (i.e. home, work place, preferred place for leisure and the other places for these activities).
+	 */
+	private ArrayList<Node> getActivityLocationNodes() {
+		ArrayList<Node> activityLocationNodes = new ArrayList<>();
+		activityLocationNodes.add(m_homeNode);
+		activityLocationNodes.addAll(m_otherPlacesForHouseholdAndFamilyCareNodes);
+		activityLocationNodes.add(m_workPlaceNode);
+		activityLocationNodes.addAll(m_otherPlacesForWorkNodes);
+		activityLocationNodes.add(m_leisureNode);
+		activityLocationNodes.addAll(m_otherPlacesForLeisureNodes);
+		return activityLocationNodes;
+	}
+	
+	/**
+	 * <p>This method determines the time it takes to travel from one node to another.
+	 * The travel duration is looked up in {@link Individual#m_travelDistanceMatrix} if both nodes are locations of the individual
+	 * and in {@link Individual#m_batchRouter} if one of them is the location of a joint activity chosen by another individual. 
+	 * Otherwise the length of the path is searched.</p>
+	 * 
+	 * @param activityNode - the node at which the travel starts.
+	 * @param nextActivityNode - the node at which the travel ends.
+	 * @return int - the travel duration in minutes.
+	 */
+	private int determineTravelDurationInMinutes(Node activityNode, Node nextActivityNode) {
+		if (m_travelDistanceMatrix != null) {
+			int travelDurationInMinutes = m_travelDistanceMatrix.getTravelDurationInMinutes(activityNode, nextActivityNode);
+			if (travelDurationInMinutes >= 0) {
+				return travelDurationInMinutes;
+			}
+		}
+		if (m_batchRouter != null) {
+			int travelDurationInMinutes = m_batchRouter.getTravelDurationInMinutes(activityNode, nextActivityNode);
+			if (travelDurationInMinutes >= 0) {
+				return travelDurationInMinutes;
+			}
+		}
+		return GraphUtility.findTravelDurationInMinutes(activityNode, nextActivityNode);
+	}
+	
 	private void updateActualNeedTimeSplit(ActivityAgenda agenda, Activity activity, Interval interval) {
 		for (Need needSatisfiedByActivity: activity.getNeedTimeSplit().keySet()) {
 			BigDecimal fractionForNeed = activity.getFractionForNeed(needSatisfiedByActivity);
@@ -1498,7 +2363,8 @@ public class Individual {
 	 * 	</ol>
 	 * </p>
 	 * 
-	 * <p><b>Note:</b> Check out the line comments for more details on the individual steps.</p>
+	 * <p><b>Note:</b> Check out the line comments for more details on the individual steps. 
+	 * The individual is moved along the path together with all other traveling individuals after all of them have initialized their paths (see {@link PopulationMovementStore#step(SimState)}).</p>
 	 * 
 	 */
 	public void move() {
@@ -1511,9 +2377,6 @@ public class Individual {
 			if (m_pathToNextTarget.isEmpty()) {
 				initPathToTarget(m_currentNode, m_currentTargetNode);
 			}
-			if (!hasReachedTarget()) {
-				moveTowardsTarget();
-			}
 		}
 		if (ISimulationSettings.IS_DEBUG) {
 			DebugUtility.labelTargetBuilding(m_environment.getClosestBuildingToNode(m_currentTargetNode), m_id, m_currentActivity);
@@ -1543,7 +2406,7 @@ public class Individual {
 			// move individual to target location
 			if (!m_currentNode.getCoordinate().equals(m_currentTargetNode.getCoordinate())) {
 				updatePosition(m_currentTargetNode.getCoordinate());
-				m_currentNode = new Node(m_currentTargetNode.getCoordinate(), m_currentTargetNode.getOutEdges());
+				m_currentNode = m_currentTargetNode;
 			}
 			// update actual need time split for individual activity
 			if (!m_currentActivity.isJointActivity()) {
@@ -1610,6 +2473,54 @@ public class Individual {
 		return false;
 	}
 	
+	/**
+	 * <p>This method calculates for how many of the following minutes the individual can be skipped, i.e. it neither moves nor changes its activity (see {@link WakeUpScheduler}). 
+	 * This is the case if it has reached the location of its current activity and the activity is not a joint activity 
+	 * (whether or not a joint activity is executed depends on the other network members in each minute).</p>
+	 * 
+	 * <p>The individual has to be stepped again in the first minute in which any of the following might change:
+	 * 	<ol>
+	 * 		<li>its activity, i.e. the minute after the end of the interval of the current activity in its agenda.</li>
+	 * 		<li>its agenda, i.e. the next of the {@link ISimulationSettings#AVAILABLE_TIME_POINTS_FOR_PLANNING_ACTIVITIES} or the start of the next day.</li>
+	 * 	</ol>
+	 * </p>
+	 * 
+	 * @return int - the number of minutes which can be skipped or <code>0</code> if the individual has to be stepped in the next minute.
+	 */
+	public int calculateNumberOfMinutesToSkip() {
+		if (m_currentActivity == null || m_currentActivity.isJointActivity() || !hasReachedTarget() 
+				|| m_currentTargetNode == null || !m_currentNode.getCoordinate().equals(m_currentTargetNode.getCoordinate())) {
+			return 0;
+		}
+		DateTime currentDateTime = getCurrentDateTime();
+		Interval intervalOfCurrentActivity = m_activityAgenda.getIntervalForDateTime(currentDateTime);
+		if (intervalOfCurrentActivity == null) {
+			return 0;
+		}
+		long minutesUntilNextStep = (intervalOfCurrentActivity.getEndMillis() - currentDateTime.getMillis()) / DateTimeConstants.MILLIS_PER_MINUTE + 1;
+		int minuteOfDay = currentDateTime.getMinuteOfDay();
+		minutesUntilNextStep = Math.min(minutesUntilNextStep, DateTimeConstants.MINUTES_PER_DAY - minuteOfDay);
+		for (DateTime timePoint: ISimulationSettings.AVAILABLE_TIME_POINTS_FOR_PLANNING_ACTIVITIES) {
+			if (timePoint.getMinuteOfDay() > minuteOfDay) {
+				minutesUntilNextStep = Math.min(minutesUntilNextStep, timePoint.getMinuteOfDay() - minuteOfDay);
+			}
+		}
+		return (int) Math.max(0, minutesUntilNextStep - 1);
+	}
+	
+	/**
+	 * <p>This method accounts the minutes in which the individual has been skipped in bulk, i.e. it updates the actual need time split as if the current activity had been executed in each of them 
+	 * (see {@link Individual#calculateNumberOfMinutesToSkip()}). The output of the skipped minutes is recorded by the {@link WakeUpScheduler}.</p>
+	 * 
+	 * @param numberOfMinutes - the number of minutes which have been skipped.
+	 */
+	public void executeSkippedMinutes(int numberOfMinutes) {
+		BigDecimal minutes = BigDecimal.valueOf(numberOfMinutes);
+		for (Need needSatisfiedByCurrentActivity: m_currentActivity.getNeedTimeSplit().keySet()) {
+			m_actualNeedTimeSplit.updateNeedTimeSplit(needSatisfiedByCurrentActivity, m_currentActivity.getFractionForNeed(needSatisfiedByCurrentActivity).multiply(minutes));
+		}
+	}
+	
 	/**
 	 * @category Moving on paths of the environment
 	 * 
@@ -1622,6 +2533,7 @@ public class Individual {
 	 /**
 	 * <p>This method initializes the path to the next activity location (resp. the corresponding node).
 	 * The <a href="https://en.wikipedia.org/wiki/A*_search_algorithm">A* search algorithm</a> is used to find the path.
+	 * If {@link ISimulationSettings#IS_CONGESTION_ENABLED} is set, the path with the lowest cost with respect to the current traffic is found by an incremental search instead (see {@link Individual#m_incrementalSearch}).
 	 * Afterwards the path is setup such that the individual can travel on it to its target node.</p>
 	 * 
 	 * @param currentNode - the node on which the individual currently is located.
@@ -1636,69 +2548,98 @@ public class Individual {
 		if (currentNode == null || targetNode == null) {
 			LOG.log(Level.WARNING, String.format("Can not initialize path to target building. Got values currentNode=%s; targetNode=%s.", String.valueOf(currentNode), String.valueOf(targetNode)));
 		}
-		ArrayList<GeomPlanarGraphDirectedEdge> pathToTarget = GraphUtility.astarPath(currentNode, targetNode);
+		ArrayList<GeomPlanarGraphDirectedEdge> pathToTarget;
+		if (ISimulationSettings.IS_CONGESTION_ENABLED) {
+			m_incrementalSearch = GraphUtility.createIncrementalSearch(currentNode, targetNode);
+			pathToTarget = m_incrementalSearch == null ? new ArrayList<GeomPlanarGraphDirectedEdge>() : m_incrementalSearch.getPath();
+		}
+		else {
+			pathToTarget = GraphUtility.astarPath(currentNode, targetNode);
+		}
 		if (!pathToTarget.isEmpty()) {
 			m_pathToNextTarget = pathToTarget;
-			m_currentEdge = (GeomPlanarGraphEdge) pathToTarget.get(0).getEdge();
+			m_movementStore.setPath(m_id, m_pathToNextTarget);
 			setupEdgeOfPath(0);
-			updatePosition(m_lengthIndexedLineOfEdge.extractPoint(m_currentIndexOnLineOfEdge));
+			m_movementStore.updatePosition(m_id);
+			if (m_environment.isEventDrivenTravelEnabled()) {
+				scheduleArrival();
+			}
+			else {
+				m_movementStore.startTraveling(m_id);
+			}
 			if (ISimulationSettings.IS_DEBUG) {
 				DebugUtility.colorPathToTarget(m_environment, m_pathToNextTarget);
 			}
 		} 
+		else if (currentNode != null && targetNode != null && !currentNode.getCoordinate().equals2D(targetNode.getCoordinate())) {
+			LOG.log(Level.WARNING, String.format("There is no path to the target node. The individual stays at its current location. Got values currentNode=%s; targetNode=%s.", String.valueOf(currentNode), String.valueOf(targetNode)));
+		}
 		else { // already at the target location
 			// nop
 		}
 	}
 	
 	/**
-	 * <p>Sets up the edge on which the individual continues to its target location based on {@link Individual#m_pathToNextTarget}.</p>
+	 * <p>Sets up the edge on which the individual continues to its target location based on {@link Individual#m_pathToNextTarget}.
+	 * The direction in which the individual travels on the line of the edge is the one of the directed edge of the path (see {@link PopulationMovementStore#setUpArcOfPath(int, int)}).</p>
 	 */
 	private void setupEdgeOfPath(int indexOfEdgeToSetUp) {
-		GeomPlanarGraphEdge edge = (GeomPlanarGraphEdge) m_pathToNextTarget.get(indexOfEdgeToSetUp).getEdge();
-//		updateEdgeTraffic(nextEdge);
-		m_currentEdge = edge;
-		m_lengthIndexedLineOfEdge = new LengthIndexedLine(m_currentEdge.getLine());
-		m_startIndexOfCurrentEdge = m_lengthIndexedLineOfEdge.getStartIndex();
-		m_endIndexOfCurrentEdge = m_lengthIndexedLineOfEdge.getEndIndex();
-		double distanceToStart = m_currentEdge.getLine().getStartPoint().distance(m_currentLocationPoint.getGeometry());
-		double distanceToEnd = m_currentEdge.getLine().getEndPoint().distance(m_currentLocationPoint.getGeometry());
-		if (distanceToStart <= distanceToEnd) {
-			m_currentIndexOnLineOfEdge = m_lengthIndexedLineOfEdge.getStartIndex();
-			m_edgeDirection = 1;
-		} else {
-			m_currentIndexOnLineOfEdge = m_lengthIndexedLineOfEdge.getEndIndex();
-			m_edgeDirection = -1;
-		}
+		m_movementStore.setUpArcOfPath(m_id, indexOfEdgeToSetUp);
 	}
 	
 	/**
-	 * <p>This method can be used to keep track on how many individuals are currently travelling on a given edge. 
-	 * <br><b>Note:</b> It is currently not used but provides a basic mechanism to incorporate a traffic in a later stage of simulation development.</p>
+	 * <p>This method is called by the {@link PopulationMovementStore} once the individual has reached the node at the start of the edge at the provided index of {@link Individual#m_pathToNextTarget} while {@link ISimulationSettings#IS_CONGESTION_ENABLED} is set.
+	 * The individual is re-routed, if necessary, and continues on the edge at the provided index.</p>
 	 * 
-	 * @param nextEdge - the next edge on the individual's path to its target.
+	 * @param indexOfNextEdge - the index of the edge which starts at the node the individual has just reached.
 	 */
-	@SuppressWarnings("unused")
-	private void updateEdgeTraffic(GeomPlanarGraphEdge nextEdge) {
-		if (m_environment.getEdgeTraffic().get(m_currentEdge) != null) {
-			m_environment.getEdgeTraffic().get(m_currentEdge).remove(this); // current edge is actually the old edge here
+	void continueOnArcOfPath(int indexOfNextEdge) {
+		rerouteIfTrafficChanged(indexOfNextEdge);
+		setupEdgeOfPath(indexOfNextEdge);
+	}
+	
+	/**
+	 * <p>This method re-routes the individual on the node it has just reached if the costs of the edges have changed since its path was found (see {@link DStarLite}).
+	 * The remaining part of {@link Individual#m_pathToNextTarget} is replaced by the path with the lowest cost with respect to the current traffic.</p>
+	 * 
+	 * @param indexOfNextEdge - the index of the edge which starts at the node the individual has just reached.
+	 */
+	private void rerouteIfTrafficChanged(int indexOfNextEdge) {
+		if (m_incrementalSearch == null) {
+			return;
 		}
-		if (m_environment.getEdgeTraffic().get(nextEdge) == null) {
-			m_environment.getEdgeTraffic().put(nextEdge, new ArrayList<Individual>());
+		Node reachedNode = m_pathToNextTarget.get(indexOfNextEdge).getFromNode();
+		m_incrementalSearch.moveTo(m_incrementalSearch.getGraph().getNodeId(reachedNode));
+		if (m_incrementalSearch.update()) {
+			ArrayList<GeomPlanarGraphDirectedEdge> remainingPath = m_incrementalSearch.getPath();
+			if (!remainingPath.isEmpty()) {
+				if (ISimulationSettings.IS_DEBUG) {
+					DebugUtility.removeColorFromPathToTarget(m_environment, m_pathToNextTarget);
+				}
+				m_pathToNextTarget.subList(indexOfNextEdge, m_pathToNextTarget.size()).clear();
+				m_pathToNextTarget.addAll(remainingPath);
+				m_movementStore.setPath(m_id, m_pathToNextTarget);
+				if (ISimulationSettings.IS_DEBUG) {
+					DebugUtility.colorPathToTarget(m_environment, m_pathToNextTarget);
+				}
+			}
 		}
-		m_environment.getEdgeTraffic().get(nextEdge).add(this);
 	}
 	
 	/**
 	 * <p>Update the position of this individual by moving it to to the provided coordinate.</p>
 	 * 
+	 * <p><b>Note:</b> The point of the individual is moved directly instead of looking it up in the individuals field (which might find another individual at the same location). 
+	 * The individual is only marked as moved in the individuals field, which puts it into the cell of its new position before the field is queried the next time (see {@link IndividualsField}).</p>
+	 * 
 	 * @param targetCoordinate - The coordinate to which the individual is moved to.
 	 */
-	private void updatePosition(Coordinate targetCoordinate) {
-		Coordinate copy = new Coordinate(targetCoordinate);
-		m_pointMoveTo.setCoordinate(copy);
-		m_environment.getIndividualsField().setGeometryLocation(m_currentLocationPoint, m_pointMoveTo);
-		m_environment.getIndividualsField().updateSpatialIndex();
+	void updatePosition(Coordinate targetCoordinate) {
+		m_movementStore.setPosition(m_id, targetCoordinate.x, targetCoordinate.y);
+		m_pointMoveTo.setCoordinate(targetCoordinate);
+		m_currentLocationPoint.getGeometry().apply(m_pointMoveTo);
+		m_currentLocationPoint.getGeometry().geometryChanged();
+		m_environment.getIndividualsField().markAsMoved(m_id);
 	}
 	
 	/**
@@ -1710,71 +2651,134 @@ public class Individual {
 		if (m_pathToNextTarget.isEmpty()) { // current location is target location
 			return true;
 		}
-		// positive movement -> at end of edge and on last edge of path
-		else if (m_edgeDirection == 1 && m_currentIndexOnLineOfEdge >= m_endIndexOfCurrentEdge && m_currentIndexOnPathToNextTarget >= m_pathToNextTarget.size()) {
-				return true;
-			}
-		// negative movement -> at start of edge and on last edge of path 
-		else if (m_edgeDirection == -1 && m_currentIndexOnLineOfEdge <= m_startIndexOfCurrentEdge && m_currentIndexOnPathToNextTarget >= m_pathToNextTarget.size()) {
-			return true;
-		}
-		// not at target yet
+		// at the end of the last edge of the path
 		else {
-			return false;
+			return m_movementStore.hasReachedEndOfPath(m_id);
 		}
 	}
 	
 	/**
-	 * <p>This method moves the individual towards its target. 
-	 * It does so by first calculating the distance the individual can travel in the current step. 
-	 * Then, depending on the direction the individual travels on the current edge, it delegates the movement on the edges to.
-	 * Finally, it updates the individual's position.</p>
-	 * 
+	 * <p>This method is called once the individual has reached the end of the last edge of {@link Individual#m_pathToNextTarget}, i.e. its target.</p>
 	 */
-	private void moveTowardsTarget() {
-		double directedTravellingDistance = calculateDirectedTravellingDistance();
-		while (directedTravellingDistance != 0) {
-			double directedOverrun = calculateDirectedOverrun(directedTravellingDistance);
-			if (!hasReachedLastEdge() && (m_edgeDirection == POSITIVE_MOVEMENT && directedOverrun > 0 || m_edgeDirection == NEGATIVE_MOVEMENT && directedOverrun < 0)) {
-				m_currentIndexOnPathToNextTarget++;
-				if (!hasReachedLastEdge()) {
-					setupEdgeOfPath(m_currentIndexOnPathToNextTarget); // updates edge direction
-				}
-				if (m_edgeDirection == POSITIVE_MOVEMENT) {
-					directedTravellingDistance = Math.abs(directedOverrun);
-				}
-				else {
-					directedTravellingDistance = -Math.abs(directedOverrun);
-				}
-			} 
-			else if (hasReachedLastEdge() && (m_edgeDirection == POSITIVE_MOVEMENT && directedOverrun > 0 || m_edgeDirection == NEGATIVE_MOVEMENT && directedOverrun < 0)) {
-				directedTravellingDistance = 0;
-				if (m_edgeDirection == -1) {
-					m_currentIndexOnLineOfEdge = m_lengthIndexedLineOfEdge.getStartIndex();
-				}
-				else {
-					m_currentIndexOnLineOfEdge = m_lengthIndexedLineOfEdge.getEndIndex();
+	void arriveAtTarget() {
+		m_currentNode = m_pathToNextTarget.get(m_pathToNextTarget.size() - 1).getToNode();
+		m_pathToNextTarget.clear();
+		m_movementStore.clearPath(m_id);
+		m_movementStore.stopTraveling(m_id);
+		m_incrementalSearch = null;
+		m_arrivalTime = -1;
+	}
+	
+	/**
+	 * <p>This method computes when the individual reaches its target if it travels the whole path at {@link ISimulationSettings#MAX_VELOCITY} 
+	 * and schedules its arrival as a single event instead of moving it in every step (see {@link ISimulationSettings#IS_EVENT_DRIVEN_TRAVEL_ENABLED}).
+	 * The individual travels in the current step as well, hence it arrives in the current step already if the path is shorter than the distance travelled per step.
+	 * The event is executed by the {@link TravelEventScheduler}, such that it arrives in the same step and in the same order as if it was moved in every step.</p>
+	 * 
+	 * <p><b>Note:</b> The event is ignored if the individual has started to travel to another target in the meantime.</p>
+	 */
+	private void scheduleArrival() {
+		double lengthOfPath = m_movementStore.getLengthOfPath(m_id);
+		int numberOfSteps = Math.max(1, (int) Math.ceil(lengthOfPath / calculateTravellingDistance()));
+		m_departureTime = m_environment.schedule.getTime();
+		m_arrivalTime = m_departureTime + numberOfSteps - 1;
+		double arrivalTime = m_arrivalTime;
+		// the individual is not counted on the edges while traveling, but it contributes to their link volumes
+		traverseEdgesOfPath(arrivalTime);
+		m_environment.getTravelEventScheduler().scheduleEvent(arrivalTime, this, new Steppable() {
+			private static final long serialVersionUID = 1L;
+			@Override
+			public void step(SimState state) {
+				if (m_arrivalTime == arrivalTime) {
+					arriveByEvent();
 				}
-				m_currentIndexOnPathToNextTarget = 0;
-				m_pathToNextTarget.clear();
 			}
-			else {
-				m_currentIndexOnLineOfEdge += directedTravellingDistance;
-				directedTravellingDistance = 0;
+		});
+	}
+	
+	/**
+	 * <p>This method counts an individual traveling event-driven on the edges of {@link Individual#m_pathToNextTarget} for their link volumes (see {@link EdgeTraffic#traverse(int)}).
+	 * Each edge is counted in the hour in which the individual would enter it if it was moved in every step.
+	 * Hence, the edges entered in the current hour are counted immediately, whereas the edges entered in each later hour are counted by a single event at the start of that hour (i.e. after the snapshot of the link volumes has been taken).
+	 * The events are executed by the {@link TravelEventScheduler} before the arrival.</p>
+	 * 
+	 * @param arrivalTime - the time of the schedule at which the individual arrives. The events are ignored if the individual has started to travel to another target in the meantime.
+	 */
+	private void traverseEdgesOfPath(double arrivalTime) {
+		RoutingGraph routingGraph = GraphUtility.getRoutingGraph();
+		int minuteOfHour = m_environment.getSimulationTime().getCurrentTime().getMinuteOfHour();
+		int[] edgeIds = new int[m_pathToNextTarget.size()];
+		int indexOfFirstEdgeOfHour = 0;
+		int hourOfEntry = 0;
+		double distanceToStartOfEdge = 0.0;
+		for (int i = 0; i < edgeIds.length; i++) {
+			int arc = routingGraph.getArcId(m_pathToNextTarget.get(i));
+			edgeIds[i] = routingGraph.getArcEdge(arc);
+			// an individual moved in every step enters the edge in the step in which it reaches its start, but in the first step at the latest
+			int stepOfEntry = Math.max(0, (int) Math.ceil(distanceToStartOfEdge / calculateTravellingDistance()) - 1);
+			int hour = (minuteOfHour + stepOfEntry) / DateTimeConstants.MINUTES_PER_HOUR;
+			if (hour != hourOfEntry) {
+				traverseEdgesInHour(Arrays.copyOfRange(edgeIds, indexOfFirstEdgeOfHour, i), hourOfEntry, minuteOfHour, arrivalTime);
+				indexOfFirstEdgeOfHour = i;
+				hourOfEntry = hour;
 			}
-			updatePosition(m_lengthIndexedLineOfEdge.extractPoint(m_currentIndexOnLineOfEdge));
+			distanceToStartOfEdge += routingGraph.getArcLength(arc);
 		}
+		traverseEdgesInHour(Arrays.copyOfRange(edgeIds, indexOfFirstEdgeOfHour, edgeIds.length), hourOfEntry, minuteOfHour, arrivalTime);
 	}
 	
-	private double calculateDirectedOverrun(double directedTravellingDistance) {
-		if (m_edgeDirection == POSITIVE_MOVEMENT) {
-			return m_currentIndexOnLineOfEdge + directedTravellingDistance - m_endIndexOfCurrentEdge;
+	/**
+	 * @param edgeIds - the ids of the edges the individual enters in the provided hour.
+	 * @param hourOfEntry - the number of hours after the current hour in which the edges are entered.
+	 * @param minuteOfHour - the current minute of the hour.
+	 * @param arrivalTime - the time of the schedule at which the individual arrives.
+	 */
+	private void traverseEdgesInHour(int[] edgeIds, int hourOfEntry, int minuteOfHour, double arrivalTime) {
+		if (hourOfEntry == 0) {
+			for (int edgeId: edgeIds) {
+				m_environment.getEdgeTraffic().traverse(edgeId);
+			}
+			return;
 		}
-		else {
-			return m_currentIndexOnLineOfEdge + directedTravellingDistance - m_startIndexOfCurrentEdge;
+		double startOfHour = m_departureTime + hourOfEntry * DateTimeConstants.MINUTES_PER_HOUR - minuteOfHour;
+		m_environment.getTravelEventScheduler().scheduleEvent(startOfHour, this, new Steppable() {
+			private static final long serialVersionUID = 1L;
+			@Override
+			public void step(SimState state) {
+				if (m_arrivalTime == arrivalTime) {
+					for (int edgeId: edgeIds) {
+						m_environment.getEdgeTraffic().traverse(edgeId);
+					}
+				}
+			}
+		});
+	}
+	
+	/**
+	 * <p>This method moves an individual traveling event-driven to the end of its path and lets it arrive at its target.</p>
+	 */
+	private void arriveByEvent() {
+		m_movementStore.moveAlongPath(m_id, Double.POSITIVE_INFINITY);
+		arriveAtTarget();
+	}
+	
+	/**
+	 * <p>This method interpolates the position of an individual traveling event-driven, i.e. it moves the individual to the position it would have reached by moving in every step since it has started to travel.
+	 * Since the positions are not updated while traveling event-driven, it has to be called whenever the current position is required (e.g. by the UI).</p>
+	 */
+	public void updatePositionWhileTraveling() {
+		if (isTravelingEventDriven()) {
+			m_movementStore.moveAlongPath(m_id, (m_environment.schedule.getTime() - m_departureTime + 1) * calculateTravellingDistance());
 		}
 	}
 	
+	/**
+	 * @return boolean - <code>true</code> if the individual travels event-driven to its target, i.e. its arrival is scheduled, <code>false</code> otherwise.
+	 */
+	private boolean isTravelingEventDriven() {
+		return m_arrivalTime >= 0;
+	}
+	
 	/**
 	 * <p>This method calculates the travel distance. 
 	 * Currently individuals travel always at max velocity. 
@@ -1782,12 +2786,8 @@ public class Individual {
 	 * 
 	 * @return the travelling distance for this step
 	 */
-	private double calculateDirectedTravellingDistance() {
-		return m_edgeDirection * ISimulationSettings.MAX_VELOCITY;
-	}
-	
-	private boolean hasReachedLastEdge() {
-		return m_currentIndexOnPathToNextTarget >= m_pathToNextTarget.size() - 1;
+	double calculateTravellingDistance() {
+		return ISimulationSettings.MAX_VELOCITY;
 	}
 	
 	/**
@@ -1824,6 +2824,7 @@ public class Individual {
 		m_numberOfWorkColleguesNetworkActivitiesPlanned = 0;
 		m_numberOfFriendsNetworkActivitiesPlanned = 0;
 		m_actualNeedTimeSplit.clear();
+		m_activityAgendaOfPreviousDay = ActivityAgenda.newInstance(m_activityAgenda);
 		m_activityAgenda.clear();
 		m_jointActivityAgenda.clear();
 		m_allDayPlans.clear();
@@ -1851,12 +2852,7 @@ public class Individual {
 	 * @return ArrayList<Activity> - the available activities.
 	 */
 	private ArrayList<Activity> getJointActivitiesAvailable(ActivityCategory activityCategory, Interval intervalInBaseTime) {
-		return m_environment.getAllActivities().values().stream()
-				.filter(activity -> activity.isJointActivity())
-				.filter(activity -> activity.getActivityCategory() == activityCategory)
-				.filter(activity -> activity.isAvailableAt(getCurrentDayOfWeek(), intervalInBaseTime.getStart()))
-				.filter(activity -> !(activity.getActivityLocation() == ActivityLocation.TRAVEL))
-				.collect(Collectors.toCollection(ArrayList::new));
+		return new ArrayList<>(Arrays.asList(m_environment.getActivityCandidateIndex().getActivities(getCurrentDayOfWeek(), intervalInBaseTime.getStart(), activityCategory, true)));
 	}
 	
 	/**
@@ -1874,6 +2870,13 @@ public class Individual {
 	 * @category Getter and setter
 	 */
 	
+	/**
+	 * @return ForkJoinPool - the pool on which the individuals plan (see {@link Individual#planIndividualActivities()}).
+	 */
+	public static ForkJoinPool getPlanningPool() {
+		return s_planningPool;
+	}
+	
 	public Environment getEnvironment() {
 		return m_environment;
 	}
@@ -2006,6 +3009,10 @@ public class Individual {
 		m_activityAgenda = activityAgenda;
 	}
 
+	public AgendaMemo getAgendaMemo() {
+		return m_agendaMemo;
+	}
+
 	public ActivityAgenda getJointActivityAgenda() {
 		return m_jointActivityAgenda;
 	}
@@ -2070,44 +3077,36 @@ public class Individual {
 		m_otherPlacesForLeisureNodes = otherPlaceForLeisureNodes;
 	}
 
-	public MasonGeometry getCurrentLocationPoint() {
-		return m_currentLocationPoint;
-	}
-
-	public void setCurrentLocationPoint(MasonGeometry currentLocationPoint) {
-		m_currentLocationPoint = currentLocationPoint;
+	public TravelDistanceMatrix getTravelDistanceMatrix() {
+		return m_travelDistanceMatrix;
 	}
 
-	public LengthIndexedLine getSegment() {
-		return m_lengthIndexedLineOfEdge;
+	public BatchRouter getBatchRouter() {
+		return m_batchRouter;
 	}
 
-	public void setSegment(LengthIndexedLine segment) {
-		m_lengthIndexedLineOfEdge = segment;
+	public MasonGeometry getCurrentLocationPoint() {
+		return m_currentLocationPoint;
 	}
 
-	public double getEndIndexOfCurrentEdge() {
-		return m_endIndexOfCurrentEdge;
+	public void setCurrentLocationPoint(MasonGeometry currentLocationPoint) {
+		m_currentLocationPoint = currentLocationPoint;
 	}
 
-	public void setEndIndexOfCurrentEdge(double endIndexOfCurrentEdge) {
-		m_endIndexOfCurrentEdge = endIndexOfCurrentEdge;
+	public PopulationMovementStore getMovementStore() {
+		return m_movementStore;
 	}
 
-	public double getStartIndexOfCurrentEdge() {
-		return m_startIndexOfCurrentEdge;
+	void setMovementStore(PopulationMovementStore movementStore) {
+		m_movementStore = movementStore;
 	}
 
-	public void setStartIndexOfCurrentEdge(double startIndexOfCurrentEdge) {
-		m_startIndexOfCurrentEdge = startIndexOfCurrentEdge;
+	public int getCurrentEdgeId() {
+		return m_movementStore.getEdgeId(m_id);
 	}
 
 	public double getCurrentIndexOnLineOfEdge() {
-		return m_currentIndexOnLineOfEdge;
-	}
-
-	public void setCurrentIndexOnLineOfEdge(double currentIndexOnLineOfEdge) {
-		m_currentIndexOnLineOfEdge = currentIndexOnLineOfEdge;
+		return m_movementStore.getOffset(m_id);
 	}
 
 	public PointMoveTo getPointMoveTo() {
@@ -2126,28 +3125,20 @@ public class Individual {
 		m_pathToNextTarget = pathToNextTarget;
 	}
 
+	/**
+	 * @return GeomPlanarGraphEdge - the edge on which the individual currently is traveling on or <code>null</code> if it has not traveled yet.
+	 */
 	public GeomPlanarGraphEdge getCurrentEdge() {
-		return m_currentEdge;
-	}
-
-	public void setCurrentEdge(GeomPlanarGraphEdge currentEdge) {
-		m_currentEdge = currentEdge;
+		int currentEdgeId = m_movementStore.getEdgeId(m_id);
+		return currentEdgeId == -1 ? null : GraphUtility.getRoutingGraph().getEdge(currentEdgeId);
 	}
 
 	public int getEdgeDirection() {
-		return m_edgeDirection;
-	}
-
-	public void setEdgeDirection(int edgeDirection) {
-		m_edgeDirection = edgeDirection;
+		return m_movementStore.getDirection(m_id);
 	}
 
 	public int getCurrentIndexOnPathToNextTarget() {
-		return m_currentIndexOnPathToNextTarget;
-	}
-
-	public void setCurrentIndexOnPathToNextTarget(int currentIndexOnPathToNextTarget) {
-		m_currentIndexOnPathToNextTarget = currentIndexOnPathToNextTarget;
+		return m_movementStore.getPathCursor(m_id);
 	}
 	
 	public Node getCurrentNode() {
@@ -88,6 +88,7 @@ public final class IndividualInitializer {
 		initWorkRelatedAspects();
 		initLeisureRelatedAspects();
 		initTargetNeedTimeSplits();
+		initTravelDistanceMatrices();
 		return m_allIndividuals;
 	}
 	
@@ -202,7 +203,17 @@ public final class IndividualInitializer {
 					.buildAndValidate();
 		}
 	}
-	
+
+	/**
+	 * <p>This method initializes the distances and travel durations between the locations of each individual (see {@link Individual#initTravelDistanceMatrix()}).
+	 * <b>Note:</b> It must be called after all locations of the individuals have been initialized.</p>
+	 */
+	private void initTravelDistanceMatrices() {
+		for (Individual individual: m_allIndividuals) {
+			individual.initTravelDistanceMatrix();
+		}
+	}
+
 	/**
 	 * <p>This method creates a network containing all individuals provided by the method's parameter.</p>
 	 * 
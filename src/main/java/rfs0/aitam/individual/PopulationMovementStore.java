@@ -0,0 +1,380 @@
+package rfs0.aitam.individual;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import com.vividsolutions.jts.geom.Coordinate;
+
+import rfs0.aitam.settings.ISimulationSettings;
+import rfs0.aitam.utilities.EdgeTraffic;
+import rfs0.aitam.utilities.GraphUtility;
+import rfs0.aitam.utilities.RoutingGraph;
+import sim.engine.SimState;
+import sim.engine.Steppable;
+import sim.util.geo.GeomPlanarGraphDirectedEdge;
+
+/**
+ * <p>This class stores the movement state of all {@link Individual}s in primitive arrays which are indexed by the id of the individual (see {@link Individual#getId()}).
+ * Thus, the state required to move the individuals is stored consecutively instead of being spread over the individuals, which is why all traveling individuals are moved at once (see {@link PopulationMovementStore#step(SimState)}).
+ * It relies on the following attributes:</p>
+ *
+ * <p>{@link PopulationMovementStore#m_individuals}: The individuals indexed by their id.</p>
+ * <p>{@link PopulationMovementStore#m_x} and {@link PopulationMovementStore#m_y}: The coordinates of the current position of each individual.</p>
+ * <p>{@link PopulationMovementStore#m_edgeId}: The id of the edge each individual is currently traveling on in the {@link RoutingGraph} or <code>-1</code> if it has not traveled yet.</p>
+ * <p>{@link PopulationMovementStore#m_offset}: The position of each individual on the current edge, i.e. the distance along the line of the edge from its start point.</p>
+ * <p>{@link PopulationMovementStore#m_direction}: The direction in which each individual is traveling on the current edge.
+ * It can either be positive or negative and indicates whether the line of the edge is traversed from its start point or from its end point.</p>
+ * <p>{@link PopulationMovementStore#m_pathArcs}: The arcs of the path to the next target of each individual. Only the first {@link PopulationMovementStore#m_pathLength} arcs are used, such that the arrays are reused for the next paths.</p>
+ * <p>{@link PopulationMovementStore#m_pathCursor}: The index of the arc each individual is currently traveling on.
+ * If this value is equal to the length of the path, then the individual has reached its target.</p>
+ * <p>{@link PopulationMovementStore#m_travelingIds}: The ids of the individuals which are moved in every step.
+ * Individuals traveling event-driven are not moved in every step (see {@link ISimulationSettings#IS_EVENT_DRIVEN_TRAVEL_ENABLED}).</p>
+ * <p>{@link PopulationMovementStore#m_edgeTraffic}: The traffic on the edges. The individuals which are moved in every step are counted on the edges they are traveling on.</p>
+ */
+public class PopulationMovementStore implements Steppable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final byte POSITIVE_MOVEMENT = 1;
+	private static final byte NEGATIVE_MOVEMENT = -1;
+
+	/**
+	 * <p>The individuals indexed by their id.</p>
+	 */
+	private final Individual[] m_individuals;
+	/**
+	 * <p>The x-coordinate of the current position of each individual.</p>
+	 */
+	private final double[] m_x;
+	/**
+	 * <p>The y-coordinate of the current position of each individual.</p>
+	 */
+	private final double[] m_y;
+	/**
+	 * <p>The id of the edge each individual is currently traveling on in the {@link RoutingGraph} or <code>-1</code> if it has not traveled yet.</p>
+	 */
+	private final int[] m_edgeId;
+	/**
+	 * <p>The position of each individual on the current edge, i.e. the distance along the line of the edge from its start point.</p>
+	 */
+	private final double[] m_offset;
+	/**
+	 * <p>The direction in which each individual is traveling on the current edge.</p>
+	 */
+	private final byte[] m_direction;
+	/**
+	 * <p>The arcs of the path to the next target of each individual.</p>
+	 */
+	private final int[][] m_pathArcs;
+	/**
+	 * <p>The number of arcs of the path to the next target of each individual.</p>
+	 */
+	private final int[] m_pathLength;
+	/**
+	 * <p>The index of the arc each individual is currently traveling on.</p>
+	 */
+	private final int[] m_pathCursor;
+	/**
+	 * <p>The ids of the individuals which are moved in every step. Only the first {@link PopulationMovementStore#m_numberOfTravelingIndividuals} entries are used.</p>
+	 */
+	private final int[] m_travelingIds;
+	/**
+	 * <p>The index of each individual in {@link PopulationMovementStore#m_travelingIds} or <code>-1</code> if it is not moved in every step.</p>
+	 */
+	private final int[] m_indexInTravelingIds;
+	private int m_numberOfTravelingIndividuals = 0;
+	/**
+	 * <p>The traffic on the edges. The individuals which are moved in every step are counted on the edges they are traveling on.</p>
+	 */
+	private final EdgeTraffic m_edgeTraffic;
+	/**
+	 * <p>The coordinate the individuals are moved to. It is reused for all individuals, such that moving does not create any objects.</p>
+	 */
+	private final Coordinate m_coordinate = new Coordinate();
+
+	/**
+	 * <p>Creates the store for the provided individuals and sets their initial positions to their current locations.</p>
+	 *
+	 * @param individuals - all individuals of the environment. Their ids have to be unique and should be dense (see {@link IndividualInitializer}).
+	 * @param edgeTraffic - the traffic on the edges of the {@link RoutingGraph}.
+	 */
+	public PopulationMovementStore(ArrayList<Individual> individuals, EdgeTraffic edgeTraffic) {
+		m_edgeTraffic = edgeTraffic;
+		int size = 0;
+		for (Individual individual: individuals) {
+			size = Math.max(size, individual.getId() + 1);
+		}
+		m_individuals = new Individual[size];
+		m_x = new double[size];
+		m_y = new double[size];
+		m_edgeId = new int[size];
+		Arrays.fill(m_edgeId, -1);
+		m_offset = new double[size];
+		m_direction = new byte[size];
+		m_pathArcs = new int[size][];
+		m_pathLength = new int[size];
+		m_pathCursor = new int[size];
+		m_travelingIds = new int[size];
+		m_indexInTravelingIds = new int[size];
+		Arrays.fill(m_indexInTravelingIds, -1);
+		for (Individual individual: individuals) {
+			int id = individual.getId();
+			m_individuals[id] = individual;
+			Coordinate coordinate = individual.getCurrentLocationPoint().getGeometry().getCoordinate();
+			m_x[id] = coordinate.x;
+			m_y[id] = coordinate.y;
+			individual.setMovementStore(this);
+		}
+	}
+
+	/**
+	 * @category Moving
+	 */
+
+	/**
+	 * <p>This method moves all individuals which are moved in every step by the distance they travel in one step (see {@link Individual#calculateTravellingDistance()}).
+	 * Whenever the end of the current edge is reached, the next arc of the path is set up and the remaining distance is travelled on it.
+	 * Once the end of the last arc is reached, the individual arrives at its target.
+	 * Finally, the position of each individual is updated.</p>
+	 *
+	 * <p><b>Note:</b> Only the arrays (and the counters of the {@link EdgeTraffic}) are accessed while moving, except when an individual reaches a node while {@link ISimulationSettings#IS_CONGESTION_ENABLED} is set
+	 * (it might be re-routed, see {@link Individual#continueOnArcOfPath(int)}) and when it arrives at its target.
+	 * The individuals are moved in reverse order, such that an individual which arrives can be removed from the traveling individuals while iterating.</p>
+	 */
+	@Override
+	public void step(SimState state) {
+		RoutingGraph routingGraph = GraphUtility.getRoutingGraph();
+		for (int i = m_numberOfTravelingIndividuals - 1; i >= 0; i--) {
+			int id = m_travelingIds[i];
+			double travellingDistance = m_individuals[id].calculateTravellingDistance();
+			while (travellingDistance > 0) {
+				double lengthOfEdge = routingGraph.getEdgeLength(m_edgeId[id]);
+				double distanceToEndOfEdge = m_direction[id] == POSITIVE_MOVEMENT ? lengthOfEdge - m_offset[id] : m_offset[id];
+				if (travellingDistance < distanceToEndOfEdge) {
+					m_offset[id] += m_direction[id] * travellingDistance;
+					travellingDistance = 0;
+				}
+				else {
+					travellingDistance -= distanceToEndOfEdge;
+					m_offset[id] = m_direction[id] == POSITIVE_MOVEMENT ? lengthOfEdge : 0.0;
+					m_pathCursor[id]++;
+					if (m_pathCursor[id] < m_pathLength[id]) {
+						m_edgeTraffic.leave(m_edgeId[id]);
+						if (ISimulationSettings.IS_CONGESTION_ENABLED) {
+							m_individuals[id].continueOnArcOfPath(m_pathCursor[id]);
+						}
+						else {
+							setUpArcOfPath(id, m_pathCursor[id]);
+						}
+						m_edgeTraffic.enter(m_edgeId[id]);
+					}
+					else { // reached the end of the last arc i.e. the target
+						travellingDistance = 0;
+						m_individuals[id].arriveAtTarget();
+					}
+				}
+			}
+			updatePosition(id);
+		}
+	}
+
+	/**
+	 * <p>This method moves the individual to the position at the provided distance along its path.
+	 * The arc containing the position is set up as the current arc.</p>
+	 *
+	 * @param id - the id of the individual.
+	 * @param distance - the distance from the start of the path. It is clamped to the length of the path.
+	 */
+	public void moveAlongPath(int id, double distance) {
+		RoutingGraph routingGraph = GraphUtility.getRoutingGraph();
+		int[] pathArcs = m_pathArcs[id];
+		int indexOfArc = 0;
+		double remainingDistance = distance;
+		for (; indexOfArc < m_pathLength[id] - 1; indexOfArc++) {
+			double lengthOfArc = routingGraph.getArcLength(pathArcs[indexOfArc]);
+			if (remainingDistance < lengthOfArc) {
+				break;
+			}
+			remainingDistance -= lengthOfArc;
+		}
+		setUpArcOfPath(id, indexOfArc);
+		double lengthOfEdge = routingGraph.getEdgeLength(m_edgeId[id]);
+		double distanceOnEdge = Math.min(remainingDistance, lengthOfEdge);
+		m_offset[id] = m_direction[id] == POSITIVE_MOVEMENT ? distanceOnEdge : lengthOfEdge - distanceOnEdge;
+		updatePosition(id);
+	}
+
+	/**
+	 * <p>This method updates the position of the individual by moving it to its offset on the current edge (see {@link RoutingGraph#locatePointOnEdge(int, double, Coordinate)}).</p>
+	 *
+	 * @param id - the id of the individual.
+	 */
+	public void updatePosition(int id) {
+		GraphUtility.getRoutingGraph().locatePointOnEdge(m_edgeId[id], m_offset[id], m_coordinate);
+		m_individuals[id].updatePosition(m_coordinate);
+	}
+
+	/**
+	 * @category Paths
+	 */
+
+	/**
+	 * <p>This method stores the arcs of the provided path as the path of the individual. The current arc is not changed.</p>
+	 *
+	 * @param id - the id of the individual.
+	 * @param path - the path to the next target of the individual.
+	 */
+	public void setPath(int id, ArrayList<GeomPlanarGraphDirectedEdge> path) {
+		RoutingGraph routingGraph = GraphUtility.getRoutingGraph();
+		if (m_pathArcs[id] == null || m_pathArcs[id].length < path.size()) {
+			m_pathArcs[id] = new int[Math.max(path.size(), m_pathArcs[id] == null ? 0 : 2 * m_pathArcs[id].length)];
+		}
+		for (int i = 0; i < path.size(); i++) {
+			m_pathArcs[id][i] = routingGraph.getArcId(path.get(i));
+		}
+		m_pathLength[id] = path.size();
+	}
+
+	/**
+	 * <p>This method clears the path of the individual. The current edge and the offset on it are kept.</p>
+	 *
+	 * @param id - the id of the individual.
+	 */
+	public void clearPath(int id) {
+		m_pathLength[id] = 0;
+		m_pathCursor[id] = 0;
+	}
+
+	/**
+	 * <p>This method sets up the arc at the provided index of the path as the arc on which the individual continues to its target.
+	 * The individual is put at the start of the arc, i.e. at the start point of the line of the edge if it traverses the line in its direction and at its end point otherwise.</p>
+	 *
+	 * @param id - the id of the individual.
+	 * @param indexOfArc - the index of the arc on the path.
+	 */
+	public void setUpArcOfPath(int id, int indexOfArc) {
+		RoutingGraph routingGraph = GraphUtility.getRoutingGraph();
+		int arc = m_pathArcs[id][indexOfArc];
+		m_pathCursor[id] = indexOfArc;
+		m_edgeId[id] = routingGraph.getArcEdge(arc);
+		if (routingGraph.isArcInDirectionOfLine(arc)) {
+			m_offset[id] = 0.0;
+			m_direction[id] = POSITIVE_MOVEMENT;
+		}
+		else {
+			m_offset[id] = routingGraph.getEdgeLength(m_edgeId[id]);
+			m_direction[id] = NEGATIVE_MOVEMENT;
+		}
+	}
+
+	/**
+	 * @param id - the id of the individual.
+	 * @return double - the length of the path of the individual.
+	 */
+	public double getLengthOfPath(int id) {
+		RoutingGraph routingGraph = GraphUtility.getRoutingGraph();
+		double lengthOfPath = 0.0;
+		for (int i = 0; i < m_pathLength[id]; i++) {
+			lengthOfPath += routingGraph.getArcLength(m_pathArcs[id][i]);
+		}
+		return lengthOfPath;
+	}
+
+	/**
+	 * @param id - the id of the individual.
+	 * @return boolean - <code>true</code> if the individual has reached the end of the last arc of its path, <code>false</code> otherwise.
+	 */
+	public boolean hasReachedEndOfPath(int id) {
+		if (m_pathCursor[id] < m_pathLength[id] - 1) {
+			return false;
+		}
+		if (m_pathCursor[id] >= m_pathLength[id]) {
+			return true;
+		}
+		return m_direction[id] == POSITIVE_MOVEMENT ? m_offset[id] >= GraphUtility.getRoutingGraph().getEdgeLength(m_edgeId[id]) : m_offset[id] <= 0.0;
+	}
+
+	/**
+	 * @category Traveling individuals
+	 */
+
+	/**
+	 * <p>This method adds the individual to the individuals which are moved in every step. It is counted on the current edge, which has to be set up already.</p>
+	 *
+	 * @param id - the id of the individual.
+	 */
+	public void startTraveling(int id) {
+		if (m_indexInTravelingIds[id] != -1) {
+			return;
+		}
+		m_indexInTravelingIds[id] = m_numberOfTravelingIndividuals;
+		m_travelingIds[m_numberOfTravelingIndividuals++] = id;
+		m_edgeTraffic.enter(m_edgeId[id]);
+	}
+
+	/**
+	 * <p>This method removes the individual from the individuals which are moved in every step and from the traffic on the current edge.
+	 * The last of the traveling individuals takes its place.</p>
+	 *
+	 * @param id - the id of the individual.
+	 */
+	public void stopTraveling(int id) {
+		int index = m_indexInTravelingIds[id];
+		if (index == -1) {
+			return;
+		}
+		int lastId = m_travelingIds[--m_numberOfTravelingIndividuals];
+		m_travelingIds[index] = lastId;
+		m_indexInTravelingIds[lastId] = index;
+		m_indexInTravelingIds[id] = -1;
+		m_edgeTraffic.leave(m_edgeId[id]);
+	}
+
+	/**
+	 * @category Getters and setters
+	 */
+
+	public int getNumberOfTravelingIndividuals() {
+		return m_numberOfTravelingIndividuals;
+	}
+
+	public double getX(int id) {
+		return m_x[id];
+	}
+
+	public double getY(int id) {
+		return m_y[id];
+	}
+
+	/**
+	 * <p>This method sets the coordinates of the current position of the individual. It does not move the point of the individual (see {@link Individual#updatePosition(Coordinate)}).</p>
+	 *
+	 * @param id - the id of the individual.
+	 * @param x - the x-coordinate.
+	 * @param y - the y-coordinate.
+	 */
+	public void setPosition(int id, double x, double y) {
+		m_x[id] = x;
+		m_y[id] = y;
+	}
+
+	public int getEdgeId(int id) {
+		return m_edgeId[id];
+	}
+
+	public double getOffset(int id) {
+		return m_offset[id];
+	}
+
+	public int getDirection(int id) {
+		return m_direction[id];
+	}
+
+	public int getPathCursor(int id) {
+		return m_pathCursor[id];
+	}
+
+	public int getPathLength(int id) {
+		return m_pathLength[id];
+	}
+}
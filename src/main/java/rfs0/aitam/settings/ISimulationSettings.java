@@ -19,8 +19,24 @@ import rfs0.aitam.activity.ActivityCategory;
 import rfs0.aitam.environment.Environment;
 import rfs0.aitam.environment.EnvironmentOutputRecorder;
 import rfs0.aitam.environment.EnvironmentWithUI;
+import rfs0.aitam.environment.IndividualsField;
+import rfs0.aitam.environment.TravelEventScheduler;
+import rfs0.aitam.environment.WakeUpScheduler;
+import rfs0.aitam.individual.AgendaMemo;
+import rfs0.aitam.individual.AgendaPlanner;
 import rfs0.aitam.individual.Individual;
+import rfs0.aitam.utilities.AStarHeuristic;
+import rfs0.aitam.utilities.BatchRouter;
+import rfs0.aitam.utilities.BidirectionalSearch;
 import rfs0.aitam.utilities.CalculationUtility;
+import rfs0.aitam.utilities.ChainCollapsedGraph;
+import rfs0.aitam.utilities.ContractionHierarchy;
+import rfs0.aitam.utilities.DStarLite;
+import rfs0.aitam.utilities.GraphUtility;
+import rfs0.aitam.utilities.Landmarks;
+import rfs0.aitam.utilities.RouteCache;
+import rfs0.aitam.utilities.RoutingStatistics;
+import rfs0.aitam.utilities.TrafficCosts;
 import sim.field.network.Network;
 import sim.util.geo.MasonGeometry;
 
@@ -110,9 +126,123 @@ public interface ISimulationSettings {
 	 * <p>{@link ISimulationSettings#MAX_VELOCITY}: The maximum velocity an {@link Individual} can travel on the paths of the environment. 
 	 * Additionally, the velocity is used to calculate travel times in {@link Individual#createAgendaWithTravelTime}.
 	 * <br><b>Note:</b> Currently the simulation does not model traffic and thus all {@link Individual}'s travel constantly at {@link ISimulationSettings#MAX_VELOCITY}</p>
+	 * <p>{@link ISimulationSettings#IS_EVENT_DRIVEN_TRAVEL_ENABLED}: Flag for whether or not the arrival of a traveling {@link Individual} is computed once its path is known and scheduled as a single event instead of moving the individual in every step. 
+	 * Its position while traveling is only interpolated on request (e.g. by the UI). 
+	 * The arrivals are executed in the order of the ids of the individuals by the {@link TravelEventScheduler}, which is stepped in every minute regardless of the flag. Hence, the random numbers drawn by the schedule and thus the output of a seeded simulation run do not depend on it.
+	 * <br><b>Note:</b> It has no effect if {@link ISimulationSettings#IS_CONGESTION_ENABLED} is set, since congestion requires the individuals to move along the edges.</p>
+	 * <p>{@link ISimulationSettings#IS_CONGESTION_ENABLED}: Flag for whether or not traveling {@link Individual}'s choose their paths with respect to the number of individuals on the edges (see {@link TrafficCosts})
+	 * and are re-routed when the traffic changes (see {@link DStarLite}). 
+	 * <br><b>Note:</b> Congestion only influences the paths but not the velocity. Travel times are still planned without traffic.</p>
+	 * <p>{@link ISimulationSettings#CONGESTION_UPDATE_INTERVAL_IN_MINUTES}: The number of minutes after which the costs of the edges are updated according to the current traffic.</p>
+	 * <p>{@link ISimulationSettings#NUMBER_OF_INDIVIDUALS_PER_METER_AT_CAPACITY}: The number of individuals per meter of an edge at which the edge reaches its capacity.</p>
+	 * <p>{@link ISimulationSettings#BPR_ALPHA}: The factor by which the cost of an edge exceeds its length at capacity.</p>
+	 * <p>{@link ISimulationSettings#BPR_BETA}: The exponent determining how fast the cost of an edge increases with its traffic.</p>
+	 * <p>{@link ISimulationSettings#MIN_RELATIVE_CHANGE_OF_TRAFFIC_COST}: The minimum change of the cost of an edge (relative to its length) which is applied when the costs are updated.</p>
 	 */
 	public static final double MAX_VELOCITY = 333.33333; // max velocity in m/min (equivalent to 20 km/h)
-	
+	/**
+	 * <p>Flag for whether or not the arrival of a traveling {@link Individual} is computed once its path is known and scheduled as a single event instead of moving the individual in every step.
+	 * It has no effect if {@link ISimulationSettings#IS_CONGESTION_ENABLED} is set.</p>
+	 */
+	public static final boolean IS_EVENT_DRIVEN_TRAVEL_ENABLED = true;
+	/**
+	 * <p>Flag for whether or not traveling {@link Individual}'s choose their paths with respect to the number of individuals on the edges (see {@link TrafficCosts})
+	 * and are re-routed when the traffic changes (see {@link DStarLite}).</p>
+	 */
+	public static final boolean IS_CONGESTION_ENABLED = false;
+	/**
+	 * <p>The number of minutes after which the costs of the edges are updated according to the current traffic.</p>
+	 */
+	public static final int CONGESTION_UPDATE_INTERVAL_IN_MINUTES = 5;
+	/**
+	 * <p>The number of individuals per meter of an edge at which the edge reaches its capacity (i.e. one individual every 5 meters).</p>
+	 */
+	public static final double NUMBER_OF_INDIVIDUALS_PER_METER_AT_CAPACITY = 0.2;
+	/**
+	 * <p>The factor by which the cost of an edge exceeds its length at capacity (the usual value of the BPR function).</p>
+	 */
+	public static final double BPR_ALPHA = 0.15;
+	/**
+	 * <p>The exponent determining how fast the cost of an edge increases with its traffic (the usual value of the BPR function).</p>
+	 */
+	public static final double BPR_BETA = 4;
+	/**
+	 * <p>The minimum change of the cost of an edge (relative to its length) which is applied when the costs are updated.</p>
+	 */
+	public static final double MIN_RELATIVE_CHANGE_OF_TRAFFIC_COST = 0.05;
+
+	/**
+	 * @category Configuration of routing related aspects
+	 *
+	 * <p>This section contains all constants used to configure or handle aspects related to finding paths in the environment (see {@link GraphUtility}).</p>
+	 *
+	 * <p>{@link ISimulationSettings#IS_ROUTE_CACHE_ENABLED}: Flag for whether or not the paths found are cached (see {@link RouteCache}).</p>
+	 * <p>{@link ISimulationSettings#MAX_NUMBER_OF_CACHED_ROUTES}: The maximum number of paths kept in the cache. If the cache is full, the least recently used path is evicted.</p>
+	 * <p>{@link ISimulationSettings#IS_CONTRACTION_HIERARCHY_ENABLED}: Flag for whether or not the paths graph is preprocessed into a {@link ContractionHierarchy} which is then used to find paths.
+	 * <br><b>Note:</b> The preprocessing takes some time, but pays off for large path networks resp. many individuals.</p>
+	 * <p>{@link ISimulationSettings#ASTAR_HEURISTIC}: The heuristic used by the A* search to estimate the remaining distance to the target (only used if no {@link ContractionHierarchy} is used).</p>
+	 * <p>{@link ISimulationSettings#NUMBER_OF_LANDMARKS}: The number of {@link Landmarks} selected if {@link AStarHeuristic#LANDMARKS} is used.</p>
+	 * <p>{@link ISimulationSettings#IS_CHAIN_COLLAPSING_ENABLED}: Flag for whether or not the A* search skips chains of nodes which do not offer any routing choice (see {@link ChainCollapsedGraph}).</p>
+	 * <p>{@link ISimulationSettings#IS_BIDIRECTIONAL_SEARCH_ENABLED}: Flag for whether or not paths are found by a {@link BidirectionalSearch} instead of the A* search (only used if no {@link ContractionHierarchy} is used).</p>
+	 * <p>{@link ISimulationSettings#IS_BIDIRECTIONAL_SEARCH_PARALLEL}: Flag for whether or not the backward part of the {@link BidirectionalSearch} runs concurrently on another thread.</p>
+	 * <p>{@link ISimulationSettings#IS_BATCH_ROUTING_ENABLED}: Flag for whether or not the distances required while planning are found at once before the individuals plan (see {@link BatchRouter}).</p>
+	 * <p>{@link ISimulationSettings#NUMBER_OF_BATCH_ROUTING_THREADS}: The number of threads on which the searches of the {@link BatchRouter} run.</p>
+	 * <p>{@link ISimulationSettings#MIN_NUMBER_OF_TARGETS_FOR_ONE_TO_MANY_SEARCH}: The minimum number of targets for which the {@link BatchRouter} finds the distances from a node by a single Dijkstra search instead of one search per target.</p>
+	 * <p>{@link ISimulationSettings#MIN_SHARE_OF_NODES_IN_LARGEST_COMPONENT}: The share of nodes of the paths graph which are expected to be connected to each other. A warning is logged at startup if the largest connected component is smaller.</p>
+	 * <p>{@link ISimulationSettings#IS_ROUTING_STATISTICS_ENABLED}: Flag for whether or not the work and the wall time of each search are recorded and summarized once the simulation is finished (see {@link RoutingStatistics}).</p>
+	 */
+	public static final boolean IS_ROUTE_CACHE_ENABLED = true;
+	/**
+	 * <p>The maximum number of paths kept in the cache. If the cache is full, the least recently used path is evicted.</p>
+	 */
+	public static final int MAX_NUMBER_OF_CACHED_ROUTES = 50000;
+	/**
+	 * <p>Flag for whether or not the paths graph is preprocessed into a {@link ContractionHierarchy} which is then used to find paths.</p>
+	 */
+	public static final boolean IS_CONTRACTION_HIERARCHY_ENABLED = false;
+	/**
+	 * <p>The heuristic used by the A* search to estimate the remaining distance to the target (only used if no {@link ContractionHierarchy} is used).</p>
+	 */
+	public static final AStarHeuristic ASTAR_HEURISTIC = AStarHeuristic.LANDMARKS;
+	/**
+	 * <p>The number of {@link Landmarks} selected if {@link AStarHeuristic#LANDMARKS} is used.</p>
+	 */
+	public static final int NUMBER_OF_LANDMARKS = 16;
+	/**
+	 * <p>Flag for whether or not the A* search skips chains of nodes which do not offer any routing choice (see {@link ChainCollapsedGraph}).</p>
+	 */
+	public static final boolean IS_CHAIN_COLLAPSING_ENABLED = true;
+	/**
+	 * <p>Flag for whether or not paths are found by a {@link BidirectionalSearch} instead of the A* search (only used if no {@link ContractionHierarchy} is used).</p>
+	 */
+	public static final boolean IS_BIDIRECTIONAL_SEARCH_ENABLED = false;
+	/**
+	 * <p>Flag for whether or not the backward part of the {@link BidirectionalSearch} runs concurrently on another thread.</p>
+	 */
+	public static final boolean IS_BIDIRECTIONAL_SEARCH_PARALLEL = false;
+	/**
+	 * <p>Flag for whether or not the distances required while planning are found at once before the individuals plan (see {@link BatchRouter}).</p>
+	 */
+	public static final boolean IS_BATCH_ROUTING_ENABLED = true;
+	/**
+	 * <p>The number of threads on which the searches of the {@link BatchRouter} run.</p>
+	 */
+	public static final int NUMBER_OF_BATCH_ROUTING_THREADS = Runtime.getRuntime().availableProcessors();
+	/**
+	 * <p>The minimum number of targets for which the {@link BatchRouter} finds the distances from a node by a single Dijkstra search instead of one search per target.
+	 * <br><b>Note:</b> The Dijkstra search settles most of the path network if the targets are spread over the environment, which takes about as long as 30 searches using {@link AStarHeuristic#LANDMARKS}.</p>
+	 */
+	public static final int MIN_NUMBER_OF_TARGETS_FOR_ONE_TO_MANY_SEARCH = 32;
+	/**
+	 * <p>The share of nodes of the paths graph which are expected to be connected to each other. A warning is logged at startup if the largest connected component is smaller.
+	 * <br><b>Note:</b> Buildings are only assigned to nodes of the largest connected component, since there is no path to the other nodes from most of the environment.</p>
+	 */
+	public static final double MIN_SHARE_OF_NODES_IN_LARGEST_COMPONENT = 0.95;
+	/**
+	 * <p>Flag for whether or not the work and the wall time of each search are recorded and summarized once the simulation is finished (see {@link RoutingStatistics}).</p>
+	 */
+	public static final boolean IS_ROUTING_STATISTICS_ENABLED = true;
+
 	/**
 	 * @category Configuration of time related aspects
 	 * 
@@ -140,6 +270,10 @@ public interface ISimulationSettings {
 	 * <p>{@link ISimulationSettings#WEEK}: The days of a week, i.e. Monday - Sunday.</p>
 	 * <p>{@link ISimulationSettings#WORK_WEEK}: The days of a work week, i.e. Monday - Friday.</p> 
 	 * <p>{@link ISimulationSettings#WEEKEND}: The weekend, i.e. Saturday & Sunday</p>
+	 * <p>{@link ISimulationSettings#IS_SKIP_AHEAD_SCHEDULING_ENABLED}: Flag for whether or not an {@link Individual} which stays at the location of an individual activity is not stepped until its activity or agenda might change (see {@link WakeUpScheduler}). 
+	 * The skipped minutes are accounted in bulk once it is woken up.
+	 * <br><b>Note:</b> The schedule shuffles the steps of the individuals sharing the same minute by the random number generator of the {@link Environment}, which is used for planning as well. 
+	 * Since skipped individuals are missing from these steps, skipping changes the random numbers drawn for planning and thus the agendas of a seeded simulation run. Hence, it is disabled by default.</p>
 	 */
 	public static final int BASE_YEAR = 2019;
 	/**
@@ -203,6 +337,11 @@ public interface ISimulationSettings {
 			DateTimeConstants.SATURDAY, 
 			DateTimeConstants.SUNDAY)
 			.collect(Collectors.toCollection(ArrayList::new));	
+	/**
+	 * <p>Flag for whether or not an {@link Individual} which stays at the location of an individual activity is not stepped until its activity or agenda might change (see {@link WakeUpScheduler}).
+	 * Skipping changes the random numbers drawn for planning, hence it must be enabled explicitly.</p>
+	 */
+	public static final boolean IS_SKIP_AHEAD_SCHEDULING_ENABLED = false;
 	
 	/**
 	 * @category Configuration of aspects related to individuals
@@ -222,6 +361,7 @@ public interface ISimulationSettings {
 	 * <p>{@link ISimulationSettings#MAX_NUMBER_OF_FRIENDS}: The maximum number of {@link Individual}s in each {@link Network} representing friends.</p>
 	 * <p>{@link ISimulationSettings#MAX_NUMBER_OF_FRIENDS_NETWORK_ACTIVITIES_PER_DAY}: The maximum number of {@link Activity}s with friends an {@link Individual} is willing to participate in.</p>
 	 * <p>{@link ISimulationSettings#PROBABILITY_OF_PLANNING_FRIENDS_NETWORK_ACTIVITY}: The probability of an {@link Individual} participating in an {@link Activity} with friends upon request by some other member of the same household network.</p>
+	 * <p>{@link ISimulationSettings#SIZE_OF_CELLS_OF_INDIVIDUALS_FIELD}: The width and height in meters of the cells of the grid by which the positions of the {@link Individual}s are indexed (see {@link IndividualsField}).</p>
 	 */
 	public static final int NUMBER_OF_INDIVIDUALS = 20;
 	/**
@@ -272,6 +412,11 @@ public interface ISimulationSettings {
 	 * <p>The probability of an {@link Individual} participating in an {@link Activity} with friends upon request by some other member of the same household network.</p>
 	 */
 	public static final double PROBABILITY_OF_PLANNING_FRIENDS_NETWORK_ACTIVITY = 0.8;
+	/**
+	 * <p>The width and height in meters of the cells of the grid by which the positions of the {@link Individual}s are indexed (see {@link IndividualsField}).
+	 * Queries for nearby individuals look at the individuals of the cells around the queried location, hence cells should be in the order of the distances queried.</p>
+	 */
+	public static final double SIZE_OF_CELLS_OF_INDIVIDUALS_FIELD = 100.0;
 	
 	
 	/**
@@ -526,7 +671,18 @@ public interface ISimulationSettings {
 	 * 
 	 * <p>This section contains all constants used to configure or handle aspects related to planning {@link Activity}s.</p>
 	 * 
+	 * <p>{@link ISimulationSettings#AGENDA_PLANNER}: The strategy each {@link Individual} uses to plan its own {@link Activity}s for the rest of a day.</p>
 	 * <p>{@link ISimulationSettings#NUMBER_OF_PLANS_TO_GENERATE}: The number of plans that each {@link Individual} generates when planning its own {@link Activity}s for the rest of a day (see {@link Individual#planIndividualActivities()}).</p>
+	 * <p>{@link ISimulationSettings#NUMBER_OF_PLANNING_THREADS}: The number of threads on which the plans of the {@link Individual}s are generated.</p>
+	 * <p>{@link ISimulationSettings#IS_PARALLEL_PLANNING_ENABLED}: Flag for whether or not all {@link Individual}s plan their individual {@link Activity}s concurrently instead of one after another (see {@link Environment#start()}).</p>
+	 * <p>{@link ISimulationSettings#IS_PRUNING_OF_PLANS_ENABLED}: Flag for whether or not plans are abandoned as soon as they can not be better than the best plan generated so far.</p>
+	 * <p>{@link ISimulationSettings#TOLERANCE_OF_LOWER_BOUND_OF_MEAN_SQUARED_ERROR}: The margin by which the lower bound of the mean squared error of a plan must exceed the mean squared error of the best plan for the plan to be abandoned.</p>
+	 * <p>{@link ISimulationSettings#NUMBER_OF_EVALUATIONS_OF_LOCAL_SEARCH}: The number of moves an {@link Individual} tries when planning its own {@link Activity}s by {@link AgendaPlanner#LOCAL_SEARCH}.</p>
+	 * <p>{@link ISimulationSettings#INITIAL_TEMPERATURE_OF_LOCAL_SEARCH}: The temperature at which the simulated annealing of {@link AgendaPlanner#LOCAL_SEARCH} starts.</p>
+	 * <p>{@link ISimulationSettings#MAX_NUMBER_OF_MINUTES_TO_RESIZE_ACTIVITY}: The maximum number of minutes by which a move of {@link AgendaPlanner#LOCAL_SEARCH} shifts the end of an {@link Activity}.</p>
+	 * <p>{@link ISimulationSettings#IS_AGENDA_MEMO_ENABLED}: Flag for whether or not each {@link Individual} memoizes the agendas it has chosen and re-uses them in the same context (see {@link AgendaMemo}).</p>
+	 * <p>{@link ISimulationSettings#MAX_NUMBER_OF_MEMOIZED_AGENDAS}: The maximum number of agendas each {@link Individual} memoizes.</p>
+	 * <p>{@link ISimulationSettings#NUMBER_OF_CONFIRMATIONS_TO_REUSE_MEMOIZED_AGENDA}: The number of times planning anew must not have resulted in a better agenda until a memoized agenda is chosen without planning.</p>
 	 * <p>{@link ISimulationSettings#AVAILABLE_TIME_POINTS_FOR_PLANNING_ACTIVITIES}: The time points an {@link Individual} can plan resp. replan it's activities for the current day (see {@link Environment#start()}).</p>
 	 * <p>{@link ISimulationSettings#MAX_NUMBER_OF_TRIALS_TO_FIND_TIME_SLOT_FOR_JOINT_ACTIVITY}: The maximum number of trials to find a time slot for a joint activity.
 	 * This is necessary, since it is possible that all of the network members potentially participating in the proposed joint activity have already planned some other activity for the proposed time slot.</p>
@@ -534,7 +690,64 @@ public interface ISimulationSettings {
 	 * This is used to improve the performance of the simulation since calculating the travel time for plans with many travel activities consumes a lot of computing resources to calculate travel times, but those plans are not likely to be selected since travel time decreases the time the individual can spend on satisfying its needs.</p>
 	 * <p>{@link ISimulationSettings#MIN_DURATION_OF_ACTIVITY_TO_TRAVEL_TO_DIFFERENT_LOCATION}: If the duration of an {@link Activity} is smaller than this constant, the {@link Individual} must stay at it's current location, since traveling would otherwise consume most or all of the time the {@link Individual} intends to spend on the activity.</p>
 	 */
+	public static final AgendaPlanner AGENDA_PLANNER = AgendaPlanner.RANDOM_SAMPLING;
+	/**
+	 * <p>The number of plans that each {@link Individual} generates when planning its own {@link Activity}s by {@link AgendaPlanner#RANDOM_SAMPLING}.</p>
+	 */
 	public static final int NUMBER_OF_PLANS_TO_GENERATE = 100;
+	/**
+	 * <p>The number of threads on which the plans of the {@link Individual}s are generated (see {@link Individual#planIndividualActivities()}).
+	 * <br><b>Note:</b> The chosen agendas do not depend on the number of threads.</p>
+	 */
+	public static final int NUMBER_OF_PLANNING_THREADS = Runtime.getRuntime().availableProcessors();
+	/**
+	 * <p>Flag for whether or not all {@link Individual}s plan their individual {@link Activity}s and choose their best agenda concurrently instead of one after another (see {@link Environment#start()}).
+	 * <br><b>Note:</b> Each individual draws the seeds of its plans from its own random number generator in this case. Hence, the chosen agendas do not depend on the number of threads either, but differ from the ones chosen if the individuals plan one after another.
+	 * It is disabled by default, such that the output of a simulation run does not change unless it is enabled explicitly.</p>
+	 */
+	public static final boolean IS_PARALLEL_PLANNING_ENABLED = false;
+	/**
+	 * <p>Flag for whether or not plans are abandoned as soon as they can not be better than the best plan generated so far (see {@link Individual#planIndividualActivities()}).
+	 * <br><b>Note:</b> The chosen agendas are the same in both cases, only the computing resources spent on hopeless plans are saved.</p>
+	 */
+	public static final boolean IS_PRUNING_OF_PLANS_ENABLED = true;
+	/**
+	 * <p>The margin by which the lower bound of the mean squared error of a plan must exceed the mean squared error of the best plan for the plan to be abandoned.
+	 * It covers the rounding of the mean squared error to {@link ISimulationSettings#PRECISION_USED_FOR_BIG_DECIMAL} digits.</p>
+	 */
+	public static final double TOLERANCE_OF_LOWER_BOUND_OF_MEAN_SQUARED_ERROR = 1e-4;
+	/**
+	 * <p>The number of moves an {@link Individual} tries when planning its own {@link Activity}s by {@link AgendaPlanner#LOCAL_SEARCH}.
+	 * Moves which would result in an invalid plan are counted as well, such that the planning always ends.
+	 * <br><b>Note:</b> A move changes at most two activities and only their time spent on each need is evaluated anew. Hence, a move takes a small fraction of the time it takes to generate a random plan.</p>
+	 */
+	public static final int NUMBER_OF_EVALUATIONS_OF_LOCAL_SEARCH = 1000;
+	/**
+	 * <p>The temperature at which the simulated annealing of {@link AgendaPlanner#LOCAL_SEARCH} starts. It decreases linearly to zero with the number of moves tried.
+	 * A move which increases the mean squared error of the plan by some amount is accepted with the probability <code>exp(-amount / temperature)</code>.
+	 * A temperature of zero only accepts moves which do not increase the mean squared error.</p>
+	 */
+	public static final double INITIAL_TEMPERATURE_OF_LOCAL_SEARCH = 1e-3;
+	/**
+	 * <p>The maximum number of minutes by which a move of {@link AgendaPlanner#LOCAL_SEARCH} shifts the end of an {@link Activity} (and the start of the next one).</p>
+	 */
+	public static final int MAX_NUMBER_OF_MINUTES_TO_RESIZE_ACTIVITY = 60;
+	/**
+	 * <p>Flag for whether or not each {@link Individual} memoizes the agendas it has chosen and re-uses them in the same context, i.e. on the same day of week, at the same time of day and with the same joint activities (see {@link AgendaMemo}).
+	 * A memoized agenda competes with the plans generated (resp. is the starting point of the local search) and is chosen without planning once it has been confirmed often enough.
+	 * <br><b>Note:</b> Reusing memoized agendas changes which agendas are chosen compared to planning anew every time. Hence, the memo must be enabled explicitly.</p>
+	 */
+	public static final boolean IS_AGENDA_MEMO_ENABLED = false;
+	/**
+	 * <p>The maximum number of agendas each {@link Individual} memoizes. The least recently used agenda is evicted once this number is exceeded.
+	 * <br><b>Note:</b> Each day of week has two contexts if the individuals plan at two time points (see {@link ISimulationSettings#AVAILABLE_TIME_POINTS_FOR_PLANNING_ACTIVITIES}).</p>
+	 */
+	public static final int MAX_NUMBER_OF_MEMOIZED_AGENDAS = 14;
+	/**
+	 * <p>The number of times planning anew must not have resulted in a better agenda until a memoized agenda is chosen without planning.
+	 * With a value of <code>1</code> an agenda is planned anew in the second week and chosen without planning from the third week on (unless the context changes).</p>
+	 */
+	public static final int NUMBER_OF_CONFIRMATIONS_TO_REUSE_MEMOIZED_AGENDA = 1;
 	/**
 	 * <p>The time points an {@link Individual} can plan resp. plan its activities anew for the current day (see {@link Environment#start()}).</p>
 	 */
@@ -0,0 +1,11 @@
+package rfs0.aitam.utilities;
+
+/**
+ * This enumeration contains all heuristics the A* search of {@link GraphUtility} can use to estimate the distance to the goal.
+ * <p>{@link AStarHeuristic#EUCLIDEAN}: The straight-line distance between a node and the goal.</p>
+ * <p>{@link AStarHeuristic#LANDMARKS}: The best of the straight-line distance and the lower bounds derived from the distances to a set of {@link Landmarks} (ALT).</p>
+ */
+public enum AStarHeuristic {
+	EUCLIDEAN,
+	LANDMARKS
+}
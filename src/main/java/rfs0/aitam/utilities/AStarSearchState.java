@@ -0,0 +1,118 @@
+package rfs0.aitam.utilities;
+
+import java.util.Arrays;
+
+/**
+ * <p>This class contains the A* meta information of all nodes of a {@link RoutingGraph} for one search.
+ * The meta information is kept in arrays indexed by node id and is reused for subsequent searches.
+ * To avoid clearing the arrays before each search, each search gets a new id and a node's meta information is only valid if it has been stamped with the current search id.</p>
+ *
+ * <p><b>Note:</b> Instances are not thread safe. {@link GraphUtility} keeps one instance per thread.</p>
+ */
+public final class AStarSearchState {
+
+	/**
+	 * <p>The cost of the cheapest path found so far from the start node to each node.</p>
+	 */
+	double[] m_gx = new double[0];
+	/**
+	 * <p>The arc (resp. the edge of a {@link ContractionHierarchy}) by which each node was most profitably linked (<code>-1</code> for the start node).</p>
+	 */
+	int[] m_arcFrom = new int[0];
+	/**
+	 * <p>The id of the search in which each node has been discovered.</p>
+	 */
+	private int[] m_discoveredInSearch = new int[0];
+	/**
+	 * <p>The id of the search in which each node has been closed.</p>
+	 */
+	private int[] m_closedInSearch = new int[0];
+	/**
+	 * <p>The nodes which have to be investigated, ordered by <code>g(x) + h(x)</code>.</p>
+	 */
+	final IndexedMinHeap m_openSet = new IndexedMinHeap(0);
+	/**
+	 * <p>The id of the current search.</p>
+	 */
+	private int m_searchId = 0;
+	/**
+	 * <p>The number of nodes closed by the current search.</p>
+	 */
+	private int m_numberOfSettledNodes = 0;
+	/**
+	 * <p>The number of times the current search has found a cheaper way to a node (including the start node).</p>
+	 */
+	private int m_numberOfRelaxedArcs = 0;
+	/**
+	 * <p>The number of operations of {@link AStarSearchState#m_openSet} before the current search.</p>
+	 */
+	private long m_numberOfHeapOperationsBeforeSearch = 0;
+
+	/**
+	 * <p>This method prepares the state for a new search on a graph with the provided number of nodes.</p>
+	 *
+	 * @param numberOfNodes - the number of nodes of the graph which is searched.
+	 */
+	void prepare(int numberOfNodes) {
+		if (m_gx.length < numberOfNodes) {
+			m_gx = new double[numberOfNodes];
+			m_arcFrom = new int[numberOfNodes];
+			m_discoveredInSearch = new int[numberOfNodes];
+			m_closedInSearch = new int[numberOfNodes];
+			m_searchId = 0;
+		}
+		m_openSet.ensureCapacity(numberOfNodes);
+		m_openSet.clear();
+		m_numberOfSettledNodes = 0;
+		m_numberOfRelaxedArcs = 0;
+		m_numberOfHeapOperationsBeforeSearch = m_openSet.getNumberOfOperations();
+		m_searchId++;
+		if (m_searchId == Integer.MAX_VALUE) { // stamps would overflow -> start over
+			Arrays.fill(m_discoveredInSearch, 0);
+			Arrays.fill(m_closedInSearch, 0);
+			m_searchId = 1;
+		}
+	}
+
+	int getNumberOfSettledNodes() {
+		return m_numberOfSettledNodes;
+	}
+
+	int getNumberOfRelaxedArcs() {
+		return m_numberOfRelaxedArcs;
+	}
+
+	/**
+	 * @return long - the number of insertions, decreases and removals of the open set during the current search.
+	 */
+	long getNumberOfHeapOperations() {
+		return m_openSet.getNumberOfOperations() - m_numberOfHeapOperationsBeforeSearch;
+	}
+
+	boolean isDiscovered(int nodeId) {
+		return m_discoveredInSearch[nodeId] == m_searchId;
+	}
+
+	boolean isClosed(int nodeId) {
+		return m_closedInSearch[nodeId] == m_searchId;
+	}
+
+	/**
+	 * <p>This method records the cheapest known way to reach the provided node.</p>
+	 *
+	 * @param nodeId - the node which has been reached.
+	 * @param gx - the cost of reaching it.
+	 * @param arcFrom - the arc by which it has been reached or <code>-1</code> for the start node.
+	 */
+	void discover(int nodeId, double gx, int arcFrom) {
+		m_numberOfRelaxedArcs++;
+		m_discoveredInSearch[nodeId] = m_searchId;
+		m_gx[nodeId] = gx;
+		m_arcFrom[nodeId] = arcFrom;
+	}
+
+	void close(int nodeId) {
+		m_numberOfSettledNodes++;
+		m_closedInSearch[nodeId] = m_searchId;
+	}
+}
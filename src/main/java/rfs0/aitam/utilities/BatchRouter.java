@@ -0,0 +1,211 @@
+package rfs0.aitam.utilities;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+import com.vividsolutions.jts.planargraph.Node;
+
+import rfs0.aitam.settings.ISimulationSettings;
+
+/**
+ * <p>This class collects the distances which are required during a planning phase and finds all of them at once.</p>
+ *
+ * <p>At each point in time at which planning is possible, all individuals plan in the same step.
+ * Instead of searching the paths one by one while the individuals plan, the required pairs of nodes are requested up front (see {@link BatchRouter#addRequest(Node, Node)}).
+ * The requests are grouped by the node at which the paths start and {@link BatchRouter#solve()} runs one Dijkstra search per start node which stops as soon as all of its targets have been settled
+ * (see {@link GraphUtility#dijkstraDistances(RoutingGraph, AStarSearchState, int, int[], double[])}).
+ * Since the targets are usually spread over the whole environment, such a search settles most of the graph. 
+ * Hence, start nodes with less than {@link ISimulationSettings#MIN_NUMBER_OF_TARGETS_FOR_ONE_TO_MANY_SEARCH} targets search the path to each target separately instead (which is faster due to the A* heuristic).
+ * The searches run concurrently on a {@link ForkJoinPool} with {@link ISimulationSettings#NUMBER_OF_BATCH_ROUTING_THREADS} threads.
+ * Each search only writes its own results, hence the results do not depend on the number of threads or the order in which the searches are executed.</p>
+ *
+ * <p>Afterwards, the distance and the travel duration between each requested pair can be looked up.
+ * The path network is undirected, hence the pair can be looked up in either direction.
+ * The distance between two nodes which are not connected is <code>0</code> (i.e. the same as the length of {@link Route#EMPTY}).</p>
+ *
+ * <p><b>Note:</b> Requests have to be added by a single thread. Once solved, the batch can no longer be modified and may be used by several threads.</p>
+ */
+public final class BatchRouter {
+
+	private static final Logger LOG = Logger.getLogger(BatchRouter.class.getName());
+
+	/**
+	 * <p>The pool on which the searches of all batches are executed.</p>
+	 */
+	private static final ForkJoinPool s_routingPool = new ForkJoinPool(ISimulationSettings.NUMBER_OF_BATCH_ROUTING_THREADS);
+
+	/**
+	 * <p>The graph on which the distances are calculated.</p>
+	 */
+	private final RoutingGraph m_graph;
+	/**
+	 * <p>The ids of the nodes to which paths are requested grouped by the id of the node at which the paths start (in the order in which they have been requested).</p>
+	 */
+	private final LinkedHashMap<Integer, LinkedHashSet<Integer>> m_targetsByOrigin = new LinkedHashMap<>();
+	/**
+	 * <p>The ids of the targets of each origin in ascending order. Only available once the batch has been solved.</p>
+	 */
+	private final LinkedHashMap<Integer, int[]> m_sortedTargetsByOrigin = new LinkedHashMap<>();
+	/**
+	 * <p>The lengths of the shortest paths from each origin to its targets (indexed like {@link BatchRouter#m_sortedTargetsByOrigin}). Only available once the batch has been solved.</p>
+	 */
+	private final LinkedHashMap<Integer, double[]> m_distancesByOrigin = new LinkedHashMap<>();
+	/**
+	 * <p>Flag for whether or not {@link BatchRouter#solve()} has been called.</p>
+	 */
+	private boolean m_isSolved = false;
+
+	/**
+	 * @param graph - the graph on which the distances are calculated.
+	 */
+	BatchRouter(RoutingGraph graph) {
+		m_graph = graph;
+	}
+
+	public RoutingGraph getGraph() {
+		return m_graph;
+	}
+
+	public boolean isSolved() {
+		return m_isSolved;
+	}
+
+	/**
+	 * @return int - the number of searches executed by {@link BatchRouter#solve()}, i.e. the number of different nodes at which the requested paths start.
+	 */
+	public int getNumberOfOrigins() {
+		return m_targetsByOrigin.size();
+	}
+
+	/**
+	 * <p>This method requests the distance between the provided nodes. Requests for the same pair of nodes or for a node and itself are ignored.</p>
+	 *
+	 * @param from - the node at which the path starts.
+	 * @param to - the node to which the path leads.
+	 */
+	public void addRequest(Node from, Node to) {
+		if (m_isSolved) {
+			LOG.log(Level.SEVERE, "The batch has already been solved. Create a new batch to request further distances!");
+			return;
+		}
+		int fromId = from == null ? -1 : m_graph.getNodeId(from);
+		int toId = to == null ? -1 : m_graph.getNodeId(to);
+		if (fromId < 0 || toId < 0) {
+			LOG.log(Level.SEVERE, String.format("Node is not part of the routing graph. Got values from=%s; to=%s.", String.valueOf(from), String.valueOf(to)));
+			return;
+		}
+		if (fromId == toId || isRequested(toId, fromId)) {
+			return;
+		}
+		m_targetsByOrigin.computeIfAbsent(fromId, origin -> new LinkedHashSet<>()).add(toId);
+	}
+
+	/**
+	 * <p>This method finds the distances of all requested pairs of nodes. The method blocks until all searches are done.</p>
+	 */
+	public void solve() {
+		if (m_isSolved) {
+			return;
+		}
+		int[] origins = new int[m_targetsByOrigin.size()];
+		int[][] sortedTargets = new int[origins.length][];
+		int i = 0;
+		for (Map.Entry<Integer, LinkedHashSet<Integer>> targetsOfOrigin: m_targetsByOrigin.entrySet()) {
+			origins[i] = targetsOfOrigin.getKey();
+			sortedTargets[i] = targetsOfOrigin.getValue().stream().mapToInt(Integer::intValue).sorted().toArray();
+			i++;
+		}
+		double[][] distances = new double[origins.length][];
+		s_routingPool.submit(() -> IntStream.range(0, origins.length).parallel().forEach(originIndex -> {
+			distances[originIndex] = calculateDistances(origins[originIndex], sortedTargets[originIndex]);
+		})).join();
+		for (i = 0; i < origins.length; i++) {
+			m_sortedTargetsByOrigin.put(origins[i], sortedTargets[i]);
+			m_distancesByOrigin.put(origins[i], distances[i]);
+		}
+		m_isSolved = true;
+	}
+
+	/**
+	 * <p>This method finds the distances from one origin to all of its targets. It is executed by the threads of {@link BatchRouter#s_routingPool}.</p>
+	 *
+	 * @param origin - the id of the node at which the paths start.
+	 * @param sortedTargets - the ids of the nodes to which the paths lead in ascending order.
+	 * @return double[] - the length of the shortest path to each target (indexed like the targets).
+	 */
+	private double[] calculateDistances(int origin, int[] sortedTargets) {
+		double[] distances = new double[sortedTargets.length];
+		RoutingStatistics routingStatistics = GraphUtility.getRoutingStatistics();
+		long startTime = routingStatistics == null ? 0 : RoutingStatistics.startQuery();
+		if (sortedTargets.length >= ISimulationSettings.MIN_NUMBER_OF_TARGETS_FOR_ONE_TO_MANY_SEARCH) {
+			GraphUtility.dijkstraDistances(m_graph, GraphUtility.getSearchState(), origin, sortedTargets, distances);
+		}
+		else {
+			for (int i = 0; i < sortedTargets.length; i++) {
+				distances[i] = m_graph.isConnected(origin, sortedTargets[i]) ? GraphUtility.searchDistance(m_graph, origin, sortedTargets[i]) : 0;
+			}
+		}
+		if (routingStatistics != null) {
+			routingStatistics.record(RoutingCaller.BATCH, startTime, distances, distances.length);
+		}
+		return distances;
+	}
+
+	/**
+	 * @param from - the node at which the path starts.
+	 * @param to - the node to which the path leads.
+	 * @return double - the length of the shortest path between both nodes or {@link Double#NaN} if the pair has not been requested or the batch has not been solved yet.
+	 * The length is <code>0</code> if both nodes are the same node.
+	 */
+	public double getDistance(Node from, Node to) {
+		if (from == null || to == null || !m_isSolved) {
+			return Double.NaN;
+		}
+		int fromId = m_graph.getNodeId(from);
+		int toId = m_graph.getNodeId(to);
+		if (fromId < 0 || toId < 0) {
+			return Double.NaN;
+		}
+		if (fromId == toId) {
+			return 0;
+		}
+		double distance = lookUpDistance(fromId, toId);
+		return Double.isNaN(distance) ? lookUpDistance(toId, fromId) : distance;
+	}
+
+	/**
+	 * @param from - the node at which the path starts.
+	 * @param to - the node to which the path leads.
+	 * @return int - the minutes it takes to travel the shortest path between both nodes at {@link ISimulationSettings#MAX_VELOCITY} or <code>-1</code> if the pair has not been requested or the batch has not been solved yet.
+	 */
+	public int getTravelDurationInMinutes(Node from, Node to) {
+		double distance = getDistance(from, to);
+		return Double.isNaN(distance) ? -1 : GraphUtility.calculateTravelDurationInMinutes(distance);
+	}
+
+	/**
+	 * @return boolean - <code>true</code> if the path from the node with the id <code>fromId</code> to the node with the id <code>toId</code> has been requested and <code>false</code> otherwise.
+	 */
+	private boolean isRequested(int fromId, int toId) {
+		LinkedHashSet<Integer> targets = m_targetsByOrigin.get(fromId);
+		return targets != null && targets.contains(toId);
+	}
+
+	/**
+	 * @return double - the distance found by the search from the node with the id <code>fromId</code> or {@link Double#NaN} if the node with the id <code>toId</code> has not been one of its targets.
+	 */
+	private double lookUpDistance(int fromId, int toId) {
+		int[] sortedTargets = m_sortedTargetsByOrigin.get(fromId);
+		if (sortedTargets == null) {
+			return Double.NaN;
+		}
+		int targetIndex = Arrays.binarySearch(sortedTargets, toId);
+		return targetIndex < 0 ? Double.NaN : m_distancesByOrigin.get(fromId)[targetIndex];
+	}
+}
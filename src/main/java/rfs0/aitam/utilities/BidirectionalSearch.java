@@ -0,0 +1,361 @@
+package rfs0.aitam.utilities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import sim.util.geo.GeomPlanarGraphDirectedEdge;
+
+/**
+ * <p>This class implements a bidirectional variant of the <a href="https://en.wikipedia.org/wiki/A*_search_algorithm">A* search</a> on a {@link RoutingGraph}.</p>
+ *
+ * <p>A forward search starts at the start node and a backward search starts at the goal node until both frontiers meet in the middle.
+ * Both searches are guided by the average of the heuristic towards the goal and the heuristic towards the start
+ * (i.e. the forward search uses the potential <code>(h(v, goal) - h(v, start)) / 2</code> and the backward search its negation).
+ * As a consequence both searches use consistent potentials and the search can stop as soon as the sum of the smallest keys of both open sets is at least the length of the shortest path found so far.
+ * Each time one of the searches settles a node or reaches a node which has already been settled by the other search, the length of the path via that node resp. arc is offered as a candidate.</p>
+ *
+ * <p>The two searches can either alternate on the calling thread or run concurrently on two threads (see {@link BidirectionalSearch#findRoute(int, int, boolean)}).
+ * In the latter case, the searches only exchange the nodes they have settled (whose distances do not change anymore), the smallest keys of their open sets and the best path found so far.</p>
+ *
+ * <p><b>Note:</b> Instances are not thread safe, i.e. each thread needs its own instance. The instance can be reused for subsequent searches on the same graph.</p>
+ */
+public final class BidirectionalSearch {
+
+	private static final Logger LOG = Logger.getLogger(BidirectionalSearch.class.getName());
+
+	/**
+	 * <p>The threads on which the backward searches are executed if the searches run concurrently.</p>
+	 */
+	private static final ExecutorService s_backwardSearchExecutor = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "backward-search");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * <p>The graph which is searched.</p>
+	 */
+	private final RoutingGraph m_graph;
+	/**
+	 * <p>The landmarks used to calculate the potentials or <code>null</code> if only the straight-line distance is used.</p>
+	 */
+	private final Landmarks m_landmarks;
+	/**
+	 * <p>The search which starts at the start node and follows the arcs in their direction.</p>
+	 */
+	private final Frontier m_forward;
+	/**
+	 * <p>The search which starts at the goal node and follows the arcs in opposite direction.</p>
+	 */
+	private final Frontier m_backward;
+	/**
+	 * <p>The id of the current search. A node has been settled by one of the searches in the current search if it has been stamped with this id.</p>
+	 */
+	private int m_searchId = 0;
+	/**
+	 * <p>The ids of the start and goal node of the current search.</p>
+	 */
+	private int m_startId;
+	private int m_goalId;
+	/**
+	 * <p>The length of the shortest path found so far or {@link Double#POSITIVE_INFINITY} if no path has been found yet.</p>
+	 */
+	private volatile double m_bestLength;
+	/**
+	 * <p>The node of the shortest path found so far at which the forward part of the path ends.</p>
+	 */
+	private int m_meetingForwardNode;
+	/**
+	 * <p>The arc of the shortest path found so far which connects the forward and the backward part or <code>-1</code> if both parts end in the same node.</p>
+	 */
+	private int m_meetingArc;
+	/**
+	 * <p>The node of the shortest path found so far at which the backward part of the path ends.</p>
+	 */
+	private int m_meetingBackwardNode;
+
+	/**
+	 * @param graph - the graph to search.
+	 * @param landmarks - the landmarks of the graph or <code>null</code> if only the straight-line distance should be used as heuristic.
+	 */
+	public BidirectionalSearch(RoutingGraph graph, Landmarks landmarks) {
+		m_graph = graph;
+		m_landmarks = landmarks != null && landmarks.getGraph() == graph ? landmarks : null;
+		m_forward = new Frontier(true, graph.getNumberOfNodes());
+		m_backward = new Frontier(false, graph.getNumberOfNodes());
+	}
+
+	public RoutingGraph getGraph() {
+		return m_graph;
+	}
+
+	public Landmarks getLandmarks() {
+		return m_landmarks;
+	}
+
+	/**
+	 * <p>This method finds the shortest path between two nodes.</p>
+	 *
+	 * @param startId - the id of the node at which the path starts.
+	 * @param goalId - the id of the node to which the path should lead.
+	 * @param isParallel - whether or not the backward search runs concurrently to the forward search on another thread.
+	 * @return Route - the path from the start node to the goal node or {@link Route#EMPTY} if start and goal are the same node or if there is no path between them.
+	 */
+	public Route findRoute(int startId, int goalId, boolean isParallel) {
+		if (startId == goalId || !m_graph.isConnected(startId, goalId)) {
+			return Route.EMPTY;
+		}
+		search(startId, goalId, isParallel);
+		RoutingStatistics.addWork(m_forward.m_state);
+		RoutingStatistics.addWork(m_backward.m_state);
+		return reconstructRoute();
+	}
+
+	/**
+	 * <p>This method calculates the length of the shortest path between two nodes without reconstructing the path.</p>
+	 *
+	 * @param startId - the id of the node at which the path starts.
+	 * @param goalId - the id of the node to which the path should lead.
+	 * @param isParallel - whether or not the backward search runs concurrently to the forward search on another thread.
+	 * @return double - the length of the path found by {@link BidirectionalSearch#findRoute(int, int, boolean)}, i.e. <code>0</code> if start and goal are the same node or if there is no path between them.
+	 */
+	public double findDistance(int startId, int goalId, boolean isParallel) {
+		if (startId == goalId || !m_graph.isConnected(startId, goalId)) {
+			return 0;
+		}
+		search(startId, goalId, isParallel);
+		RoutingStatistics.addWork(m_forward.m_state);
+		RoutingStatistics.addWork(m_backward.m_state);
+		return m_meetingForwardNode == -1 ? 0 : m_bestLength;
+	}
+
+	/**
+	 * <p>This method runs both searches until the shortest path has been found.</p>
+	 */
+	private void search(int startId, int goalId, boolean isParallel) {
+		prepare(startId, goalId);
+		if (!isParallel) {
+			while (m_forward.settleNext() && m_backward.settleNext()) {
+				// the searches alternate until one of them is done
+			}
+			return;
+		}
+		Future<?> backwardSearch = s_backwardSearchExecutor.submit(m_backward::settleAll);
+		m_forward.settleAll();
+		boolean isInterrupted = false;
+		try {
+			while (true) {
+				try {
+					backwardSearch.get();
+					break;
+				}
+				catch (InterruptedException e) { // the backward search still uses the state -> wait for it anyway
+					isInterrupted = true;
+				}
+			}
+		}
+		catch (ExecutionException e) {
+			LOG.log(Level.SEVERE, "The backward search failed. Searching the path on a single thread instead.", e.getCause());
+			search(startId, goalId, false);
+		}
+		finally {
+			if (isInterrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * <p>This method resets both searches and the best path found so far.</p>
+	 */
+	private void prepare(int startId, int goalId) {
+		m_searchId++;
+		if (m_searchId == Integer.MAX_VALUE) { // stamps would overflow -> start over
+			m_forward.clearStamps();
+			m_backward.clearStamps();
+			m_searchId = 1;
+		}
+		m_startId = startId;
+		m_goalId = goalId;
+		m_bestLength = Double.POSITIVE_INFINITY;
+		m_meetingForwardNode = -1;
+		m_meetingArc = -1;
+		m_meetingBackwardNode = -1;
+		m_forward.prepare(startId);
+		m_backward.prepare(goalId);
+	}
+
+	/**
+	 * <p>This method records a path between start and goal if it is shorter than the shortest path found so far.</p>
+	 *
+	 * @param length - the length of the path.
+	 * @param forwardNode - the node at which the forward part of the path ends.
+	 * @param arc - the arc from the forward node to the backward node or <code>-1</code> if both are the same node.
+	 * @param backwardNode - the node at which the backward part of the path ends.
+	 */
+	private synchronized void offer(double length, int forwardNode, int arc, int backwardNode) {
+		if (length < m_bestLength) {
+			m_meetingForwardNode = forwardNode;
+			m_meetingArc = arc;
+			m_meetingBackwardNode = backwardNode;
+			m_bestLength = length;
+		}
+	}
+
+	/**
+	 * @return double - the potential of the node in the forward search. The potential in the backward search is its negation.
+	 */
+	private double potential(int nodeId) {
+		return (GraphUtility.heuristic(m_graph, m_landmarks, nodeId, m_goalId) - GraphUtility.heuristic(m_graph, m_landmarks, nodeId, m_startId)) / 2;
+	}
+
+	/**
+	 * <p>Joins the path of the forward search to the meeting point with the path of the backward search from the meeting point.</p>
+	 *
+	 * @return Route - the shortest path found or {@link Route#EMPTY} if no path has been found.
+	 */
+	private Route reconstructRoute() {
+		if (m_meetingForwardNode == -1) {
+			return Route.EMPTY;
+		}
+		ArrayList<GeomPlanarGraphDirectedEdge> result = new ArrayList<GeomPlanarGraphDirectedEdge>();
+		AStarSearchState forwardState = m_forward.m_state;
+		int x = m_meetingForwardNode;
+		while (forwardState.m_arcFrom[x] != -1) {
+			result.add(m_graph.getDirectedEdge(forwardState.m_arcFrom[x]));
+			x = m_graph.getArcSource(forwardState.m_arcFrom[x]);
+		}
+		Collections.reverse(result);
+		if (m_meetingArc != -1) {
+			result.add(m_graph.getDirectedEdge(m_meetingArc));
+		}
+		AStarSearchState backwardState = m_backward.m_state;
+		x = m_meetingBackwardNode;
+		while (backwardState.m_arcFrom[x] != -1) { // the backward search reached x by the arc from its predecessor to x -> the path traverses the reverse arc
+			result.add(m_graph.getDirectedEdge(m_graph.getReverseArc(backwardState.m_arcFrom[x])));
+			x = m_graph.getArcSource(backwardState.m_arcFrom[x]);
+		}
+		return new Route(result, m_bestLength);
+	}
+
+	/**
+	 * <p>This class represents one of the two searches.</p>
+	 */
+	private final class Frontier {
+
+		/**
+		 * <p>Whether this is the forward or the backward search.</p>
+		 */
+		private final boolean m_isForward;
+		/**
+		 * <p>The meta information of the nodes of this search. The distance of a node never changes once it has been settled.</p>
+		 */
+		private final AStarSearchState m_state = new AStarSearchState();
+		/**
+		 * <p>The id of the search in which each node has been settled by this search. It is used by the other search to find out whether a node has been settled concurrently.
+		 * The distance of a node is stored before the node is stamped and can thus be read by the other search once the stamp is visible.</p>
+		 */
+		private AtomicIntegerArray m_settledInSearch;
+		/**
+		 * <p>The smallest key of the open set of this search (or {@link Double#POSITIVE_INFINITY} if it is empty).
+		 * The key never decreases during a search, hence an outdated value is still a lower bound.</p>
+		 */
+		private volatile double m_minKey;
+		/**
+		 * <p>The potential of each node discovered by this search. It is calculated once when the node is discovered.</p>
+		 */
+		private final double[] m_potential;
+
+		private Frontier(boolean isForward, int numberOfNodes) {
+			m_isForward = isForward;
+			m_settledInSearch = new AtomicIntegerArray(numberOfNodes);
+			m_potential = new double[numberOfNodes];
+		}
+
+		private void clearStamps() {
+			m_settledInSearch = new AtomicIntegerArray(m_settledInSearch.length());
+		}
+
+		/**
+		 * <p>This method prepares the search to start at the provided node.
+		 * The source is stamped as settled right away such that the other search finds the path as soon as it reaches the source, even if this search has not started yet.</p>
+		 */
+		private void prepare(int sourceId) {
+			m_state.prepare(m_graph.getNumberOfNodes());
+			m_state.discover(sourceId, 0, -1);
+			m_settledInSearch.set(sourceId, m_searchId);
+			m_potential[sourceId] = m_isForward ? potential(sourceId) : -potential(sourceId);
+			double key = m_potential[sourceId];
+			m_state.m_openSet.insertOrDecrease(sourceId, key);
+			m_minKey = key;
+		}
+
+		private Frontier other() {
+			return m_isForward ? m_backward : m_forward;
+		}
+
+		private boolean isSettled(int nodeId) {
+			return m_settledInSearch.get(nodeId) == m_searchId;
+		}
+
+		private void settleAll() {
+			while (settleNext()) {
+				// keep going until the search is done
+			}
+		}
+
+		/**
+		 * <p>This method settles the node with the smallest key of the open set and relaxes its arcs.</p>
+		 *
+		 * @return boolean - <code>false</code> if this search is done, i.e. the open set is empty or the shortest path has been found, and <code>true</code> otherwise.
+		 */
+		private boolean settleNext() {
+			IndexedMinHeap openSet = m_state.m_openSet;
+			Frontier other = other();
+			if (openSet.isEmpty() || openSet.peekKey() + other.m_minKey >= m_bestLength) {
+				m_minKey = Double.POSITIVE_INFINITY;
+				return false;
+			}
+			int x = openSet.poll();
+			m_state.close(x);
+			m_settledInSearch.set(x, m_searchId);
+			double gx = m_state.m_gx[x];
+			if (other.isSettled(x) && gx + other.m_state.m_gx[x] < m_bestLength) {
+				offer(gx + other.m_state.m_gx[x], x, -1, x);
+			}
+
+			for (int arc = m_graph.getFirstOutArc(x); arc < m_graph.getEndOutArc(x); arc++) {
+				int next = m_graph.getArcTarget(arc);
+				double tentativeCost = gx + m_graph.getArcLength(arc);
+				if (other.isSettled(next) && tentativeCost + other.m_state.m_gx[next] < m_bestLength) { // the frontiers meet at this arc
+					if (m_isForward) {
+						offer(tentativeCost + other.m_state.m_gx[next], x, arc, next);
+					}
+					else {
+						offer(tentativeCost + other.m_state.m_gx[next], next, m_graph.getReverseArc(arc), x);
+					}
+				}
+				if (m_state.isClosed(next)) {
+					continue;
+				}
+				if (!m_state.isDiscovered(next)) {
+					m_potential[next] = m_isForward ? potential(next) : -potential(next);
+				}
+				else if (tentativeCost >= m_state.m_gx[next]) {
+					continue;
+				}
+				m_state.discover(next, tentativeCost, arc);
+				openSet.insertOrDecrease(next, tentativeCost + m_potential[next]);
+			}
+			m_minKey = openSet.isEmpty() ? Double.POSITIVE_INFINITY : openSet.peekKey();
+			return true;
+		}
+	}
+}
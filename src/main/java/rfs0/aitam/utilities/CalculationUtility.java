@@ -94,6 +94,28 @@ public final class CalculationUtility {
 		return meanSquaredError;
 	}
 	
+	/**
+	 * <p>Calculates the mean squared error like {@link CalculationUtility#calculateMeanSquaredError(AbsoluteNeedTimeSplit, NeedTimeSplit)}, but for the time spent on each need given in minutes as <code>double</code>s.
+	 * This allows to compare many slightly different agendas quickly, since the time spent on each need can be updated instead of being recorded anew for each agenda.</p>
+	 * 
+	 * @param timeSpentOnNeeds - the time spent on each need in minutes (indexed by the ordinal of the need).
+	 * @param targetNeedTimeSplit - the target need time split.
+	 * @return double - the mean squared error.
+	 */
+	public static double calculateMeanSquaredError(double[] timeSpentOnNeeds, NeedTimeSplit targetNeedTimeSplit) {
+		double totalTimeSpentOnAllNeeds = 0;
+		for (double timeSpentOnNeed: timeSpentOnNeeds) {
+			totalTimeSpentOnAllNeeds += timeSpentOnNeed;
+		}
+		double meanSquaredError = 0;
+		for (Need need: targetNeedTimeSplit.getNeedTimeSplit().keySet()) {
+			double actualFractionForNeed = totalTimeSpentOnAllNeeds > 0 ? timeSpentOnNeeds[need.ordinal()] / totalTimeSpentOnAllNeeds : 0;
+			double deviation = actualFractionForNeed - targetNeedTimeSplit.getFractionForNeed(need).doubleValue();
+			meanSquaredError += deviation * deviation;
+		}
+		return meanSquaredError;
+	}
+	
 	public static double map(MersenneTwisterFast random, double rangeStart, double rangeEnd) {
 		return rangeStart + (rangeEnd - rangeStart) * random.nextDouble();
 	}
@@ -0,0 +1,286 @@
+package rfs0.aitam.utilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import sim.util.geo.GeomPlanarGraphDirectedEdge;
+
+/**
+ * <p>This class is a preprocessed view of a {@link RoutingGraph} in which chains of nodes with exactly two arcs are collapsed into super-arcs.</p>
+ *
+ * <p>The path network is split into many short segments. A node with exactly two arcs (an interior node) does not offer any routing choice, but a search still has to put it into its open set.
+ * Thus, the nodes with any other number of arcs (the core nodes) are linked directly by super-arcs which skip the interior nodes of a chain.
+ * Each super-arc keeps the ordered list of arcs of the {@link RoutingGraph} it consists of, hence a path of super-arcs can be expanded to the exact directed edges an individual walks along.</p>
+ *
+ * <p>The ids of the nodes are the ids of the {@link RoutingGraph}:</p>
+ * <ul>
+ * 	<li>Each arc leaving a core node becomes a super-arc leading to the next core node along the chain.</li>
+ * 	<li>Each interior node keeps two super-arcs leading to both ends of its chain. This way a search can start at an interior node.</li>
+ * 	<li>No super-arc leads to an interior node. A search whose goal is an interior node enters the goal from the ends of its chain by the reversed super-arcs of the goal.</li>
+ * </ul>
+ *
+ * <p>A chain which forms a ring without any core node gets one of its nodes as core node.
+ * The path between two interior nodes of the same chain does not necessarily pass a core node, hence such queries are not supported (see {@link ChainCollapsedGraph#canSearch(int, int)}).</p>
+ *
+ * <p><b>Note:</b> Instances are immutable once constructed and can be used by several threads.</p>
+ */
+public final class ChainCollapsedGraph {
+
+	/**
+	 * <p>Stored in {@link AStarSearchState#m_arcFrom} of the goal if it has been entered by the reverse of the goal's super-arc <code>a</code>: <code>REVERSED_SUPER_ARC - a</code>.</p>
+	 */
+	private static final int REVERSED_SUPER_ARC = -2;
+
+	/**
+	 * <p>The graph which is collapsed.</p>
+	 */
+	private final RoutingGraph m_graph;
+	/**
+	 * <p>The id of the chain of each interior node or <code>-1</code> for core nodes.</p>
+	 */
+	private final int[] m_chainOf;
+	/**
+	 * <p>The number of core nodes.</p>
+	 */
+	private final int m_numberOfCoreNodes;
+	/**
+	 * <p>The core node at the end of each super-arc.</p>
+	 */
+	private final int[] m_superArcTarget;
+	/**
+	 * <p>The length of each super-arc, i.e. the sum of the lengths of its arcs.</p>
+	 */
+	private final double[] m_superArcLength;
+	/**
+	 * <p>The first entry of {@link ChainCollapsedGraph#m_arcsOfSuperArc} of each super-arc. The entry at index <code>number of super-arcs</code> is the total number of entries.</p>
+	 */
+	private final int[] m_firstArcOfSuperArc;
+	/**
+	 * <p>The arcs of the {@link RoutingGraph} each super-arc consists of in the order they are traversed.</p>
+	 */
+	private final int[] m_arcsOfSuperArc;
+
+	/**
+	 * <p>This constructor collapses all chains of the provided graph.</p>
+	 *
+	 * @param graph - the graph to collapse.
+	 */
+	public ChainCollapsedGraph(RoutingGraph graph) {
+		m_graph = graph;
+		int numberOfNodes = graph.getNumberOfNodes();
+		m_chainOf = new int[numberOfNodes];
+		for (int node = 0; node < numberOfNodes; node++) {
+			m_chainOf[node] = isInteriorNode(node) ? -2 : -1;
+		}
+		int numberOfChains = 0;
+		for (int node = 0; node < numberOfNodes; node++) {
+			if (m_chainOf[node] != -2) { // the node is a core node or it has already been assigned to a chain
+				continue;
+			}
+			int chain = numberOfChains++;
+			m_chainOf[node] = chain;
+			if (assignChain(graph.getFirstOutArc(node), chain) == node) { // the chain forms a ring
+				m_chainOf[node] = -1;
+			}
+			else {
+				assignChain(graph.getFirstOutArc(node) + 1, chain);
+			}
+		}
+		int numberOfCoreNodes = 0;
+		for (int node = 0; node < numberOfNodes; node++) {
+			if (m_chainOf[node] == -1) {
+				numberOfCoreNodes++;
+			}
+		}
+		m_numberOfCoreNodes = numberOfCoreNodes;
+
+		// each arc of the graph becomes the first arc of a super-arc with the same id, i.e. the super-arcs of a node are its arcs
+		int numberOfSuperArcs = graph.getNumberOfArcs();
+		m_superArcTarget = new int[numberOfSuperArcs];
+		m_superArcLength = new double[numberOfSuperArcs];
+		m_firstArcOfSuperArc = new int[numberOfSuperArcs + 1];
+		int[] arcsOfSuperArc = new int[Math.max(16, numberOfSuperArcs)];
+		int numberOfEntries = 0;
+		for (int superArc = 0; superArc < numberOfSuperArcs; superArc++) {
+			m_firstArcOfSuperArc[superArc] = numberOfEntries;
+			int arc = superArc;
+			double length = 0;
+			while (true) {
+				if (numberOfEntries == arcsOfSuperArc.length) {
+					arcsOfSuperArc = Arrays.copyOf(arcsOfSuperArc, 2 * numberOfEntries);
+				}
+				arcsOfSuperArc[numberOfEntries++] = arc;
+				length += graph.getArcLength(arc);
+				int target = graph.getArcTarget(arc);
+				if (m_chainOf[target] == -1) {
+					m_superArcTarget[superArc] = target;
+					break;
+				}
+				arc = getNextArcOfChain(arc);
+			}
+			m_superArcLength[superArc] = length;
+		}
+		m_firstArcOfSuperArc[numberOfSuperArcs] = numberOfEntries;
+		m_arcsOfSuperArc = Arrays.copyOf(arcsOfSuperArc, numberOfEntries);
+	}
+
+	public RoutingGraph getGraph() {
+		return m_graph;
+	}
+
+	/**
+	 * @return int - the number of nodes which are not part of the interior of a chain.
+	 */
+	public int getNumberOfCoreNodes() {
+		return m_numberOfCoreNodes;
+	}
+
+	/**
+	 * @param startId - the id of the node at which the path starts.
+	 * @param goalId - the id of the node to which the path should lead.
+	 * @return boolean - <code>false</code> if both nodes are interior nodes of the same chain and <code>true</code> otherwise.
+	 */
+	public boolean canSearch(int startId, int goalId) {
+		return m_chainOf[startId] == -1 || m_chainOf[startId] != m_chainOf[goalId];
+	}
+
+	/**
+	 * <p>This method finds the shortest path between two nodes by an <a href="https://en.wikipedia.org/wiki/A*_search_algorithm">A* search</a> on the super-arcs.</p>
+	 *
+	 * @param state - the state used for the search.
+	 * @param startId - the id of the node at which the path starts.
+	 * @param goalId - the id of the node to which the path should lead.
+	 * @param landmarks - the landmarks used by the heuristic or <code>null</code>.
+	 * @return Route - the path from the start node to the goal node or {@link Route#EMPTY} if start and goal are the same node or if there is no path between them.
+	 */
+	Route findRoute(AStarSearchState state, int startId, int goalId, Landmarks landmarks) {
+		if (startId == goalId || !search(state, startId, goalId, landmarks)) {
+			return Route.EMPTY;
+		}
+		return reconstructRoute(state, goalId);
+	}
+
+	/**
+	 * <p>This method calculates the length of the shortest path between two nodes without reconstructing the path (see {@link ChainCollapsedGraph#findRoute(AStarSearchState, int, int, Landmarks)}).</p>
+	 *
+	 * @return double - the length of the shortest path or <code>0</code> if start and goal are the same node or if there is no path between them.
+	 */
+	double findDistance(AStarSearchState state, int startId, int goalId, Landmarks landmarks) {
+		if (startId == goalId || !search(state, startId, goalId, landmarks)) {
+			return 0;
+		}
+		return state.m_gx[goalId];
+	}
+
+	/**
+	 * <p>This method executes the A* search until the goal is closed.
+	 * If the goal is an interior node, it is entered from the ends of its chain.</p>
+	 *
+	 * @return boolean - <code>true</code> if a path to the goal has been found and <code>false</code> otherwise.
+	 */
+	private boolean search(AStarSearchState state, int startId, int goalId, Landmarks landmarks) {
+		int firstEntryArc = -1;
+		int endEntryArc = -1;
+		if (m_chainOf[goalId] != -1) {
+			firstEntryArc = m_graph.getFirstOutArc(goalId);
+			endEntryArc = m_graph.getEndOutArc(goalId);
+		}
+		state.prepare(m_graph.getNumberOfNodes());
+		IndexedMinHeap openSet = state.m_openSet;
+		state.discover(startId, 0, -1);
+		openSet.insertOrDecrease(startId, GraphUtility.heuristic(m_graph, landmarks, startId, goalId));
+
+		while (!openSet.isEmpty()) {
+			int x = openSet.poll();
+			if (x == goalId) {
+				RoutingStatistics.addWork(state);
+				return true;
+			}
+			state.close(x);
+			for (int superArc = m_graph.getFirstOutArc(x); superArc < m_graph.getEndOutArc(x); superArc++) {
+				int next = m_superArcTarget[superArc];
+				if (state.isClosed(next)) {
+					continue;
+				}
+				double tentativeCost = state.m_gx[x] + m_superArcLength[superArc];
+				if (!state.isDiscovered(next) || tentativeCost < state.m_gx[next]) {
+					state.discover(next, tentativeCost, superArc);
+					openSet.insertOrDecrease(next, tentativeCost + GraphUtility.heuristic(m_graph, landmarks, next, goalId));
+				}
+			}
+			for (int entryArc = firstEntryArc; entryArc < endEntryArc; entryArc++) {
+				if (m_superArcTarget[entryArc] != x) {
+					continue;
+				}
+				double tentativeCost = state.m_gx[x] + m_superArcLength[entryArc];
+				if (!state.isDiscovered(goalId) || tentativeCost < state.m_gx[goalId]) {
+					state.discover(goalId, tentativeCost, REVERSED_SUPER_ARC - entryArc);
+					openSet.insertOrDecrease(goalId, tentativeCost);
+				}
+			}
+		}
+		RoutingStatistics.addWork(state);
+		return false;
+	}
+
+	/**
+	 * <p>This method expands the super-arcs which lead to the goal to the directed edges of the original graph.</p>
+	 *
+	 * @param state - the state of the search which found the goal.
+	 * @param goalId - the id of the goal.
+	 * @return Route - the directed edges which lead from the start node to the goal.
+	 */
+	private Route reconstructRoute(AStarSearchState state, int goalId) {
+		ArrayList<GeomPlanarGraphDirectedEdge> result = new ArrayList<GeomPlanarGraphDirectedEdge>();
+		int x = goalId;
+		if (state.m_arcFrom[x] <= REVERSED_SUPER_ARC) { // the goal has been entered from the end of its chain
+			int entryArc = REVERSED_SUPER_ARC - state.m_arcFrom[x];
+			for (int i = m_firstArcOfSuperArc[entryArc]; i < m_firstArcOfSuperArc[entryArc + 1]; i++) {
+				result.add(m_graph.getDirectedEdge(m_graph.getReverseArc(m_arcsOfSuperArc[i])));
+			}
+			x = m_superArcTarget[entryArc];
+		}
+		while (state.m_arcFrom[x] != -1) {
+			int superArc = state.m_arcFrom[x];
+			for (int i = m_firstArcOfSuperArc[superArc + 1] - 1; i >= m_firstArcOfSuperArc[superArc]; i--) {
+				result.add(m_graph.getDirectedEdge(m_arcsOfSuperArc[i]));
+			}
+			x = m_graph.getArcSource(superArc);
+		}
+		Collections.reverse(result);
+		return new Route(result, state.m_gx[goalId]);
+	}
+
+	private boolean isInteriorNode(int node) {
+		return m_graph.getEndOutArc(node) - m_graph.getFirstOutArc(node) == 2;
+	}
+
+	/**
+	 * @param arc - an arc which leads to an interior node.
+	 * @return int - the other arc of the interior node, i.e. the arc by which the chain continues.
+	 */
+	private int getNextArcOfChain(int arc) {
+		int node = m_graph.getArcTarget(arc);
+		int firstArc = m_graph.getFirstOutArc(node);
+		return firstArc == m_graph.getReverseArc(arc) ? firstArc + 1 : firstArc;
+	}
+
+	/**
+	 * <p>This method follows the chain starting with the provided arc and assigns all interior nodes to the provided chain.</p>
+	 *
+	 * @param arc - the arc at which the chain starts.
+	 * @param chain - the id of the chain.
+	 * @return int - the node at which the chain ends, i.e. a core node or the node at which it started if the chain forms a ring.
+	 */
+	private int assignChain(int arc, int chain) {
+		int source = m_graph.getArcSource(arc);
+		int node = m_graph.getArcTarget(arc);
+		while (node != source && m_chainOf[node] == -2) {
+			m_chainOf[node] = chain;
+			arc = getNextArcOfChain(arc);
+			node = m_graph.getArcTarget(arc);
+		}
+		return node;
+	}
+}
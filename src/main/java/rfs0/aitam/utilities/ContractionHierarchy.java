@@ -0,0 +1,628 @@
+package rfs0.aitam.utilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+
+import sim.util.geo.GeomPlanarGraphDirectedEdge;
+
+/**
+ * <p>This class implements <a href="https://en.wikipedia.org/wiki/Contraction_hierarchies">contraction hierarchies</a> on a {@link RoutingGraph}.
+ * Contraction hierarchies trade a preprocessing step for queries which are orders of magnitude faster than the A* search of {@link GraphUtility} on large graphs.</p>
+ *
+ * <p><b>Preprocessing</b></p>
+ *
+ * <p>The nodes are contracted one after another, i.e. they are removed from the graph and shortcuts are added between their remaining neighbors
+ * if the path via the contracted node is the only shortest path between those neighbors (which is checked by a local witness search).
+ * The next node to contract is the one with the smallest priority, which is the sum of
+ * <ul>
+ * 	<li>its depth in the hierarchy (i.e. the length of the longest chain of contracted nodes below it),</li>
+ * 	<li>the number of shortcuts required divided by the number of edges removed and</li>
+ * 	<li>the number of original edges represented by these shortcuts divided by the number of original edges represented by the removed edges.</li>
+ * </ul>
+ * This keeps the hierarchy flat and the number of shortcuts small. The position of a node in the contraction order is its rank.</p>
+ *
+ * <p><b>Queries</b></p>
+ *
+ * <p>A query runs a bidirectional Dijkstra search which only follows edges leading to nodes of higher rank.
+ * The paths network is undirected, hence both directions use the same upward edges.
+ * Finally, all shortcuts of the shortest path found are unpacked into the directed edges of the original graph.</p>
+ *
+ * <p><b>Note:</b> Instances are immutable once constructed and queries are thread safe.</p>
+ */
+public final class ContractionHierarchy {
+
+	/**
+	 * <p>The maximum number of nodes a witness search settles before giving up, in which case a shortcut is added.
+	 * This only affects the number of shortcuts and never the correctness of the queries.</p>
+	 */
+	private static final int MAX_SETTLED_NODES_OF_WITNESS_SEARCH = 250;
+	private static final int NO_EDGE = -1;
+
+	/**
+	 * <p>The graph which has been contracted.</p>
+	 */
+	private final RoutingGraph m_graph;
+
+	/**
+	 * @category Edges
+	 *
+	 * <p>The number of edges of the hierarchy (i.e. edges of the original graph and shortcuts).</p>
+	 */
+	private int m_numberOfEdges = 0;
+	/**
+	 * <p>One end node of each edge.</p>
+	 */
+	private int[] m_edgeTail;
+	/**
+	 * <p>The other end node of each edge.</p>
+	 */
+	private int[] m_edgeHead;
+	/**
+	 * <p>The length of each edge.</p>
+	 */
+	private double[] m_edgeWeight;
+	/**
+	 * <p>The arc of the original graph leading from tail to head, or {@link ContractionHierarchy#NO_EDGE} for shortcuts.</p>
+	 */
+	private int[] m_edgeArc;
+	/**
+	 * <p>The contracted node bypassed by each shortcut.</p>
+	 */
+	private int[] m_edgeMiddle;
+	/**
+	 * <p>The edge between tail and middle node of each shortcut.</p>
+	 */
+	private int[] m_edgeFirstChild;
+	/**
+	 * <p>The edge between middle node and head of each shortcut.</p>
+	 */
+	private int[] m_edgeSecondChild;
+	/**
+	 * <p>The number of edges of the original graph represented by each edge.</p>
+	 */
+	private int[] m_edgeHops;
+
+	/**
+	 * @category Hierarchy
+	 *
+	 * <p>The position of each node in the contraction order.</p>
+	 */
+	private final int[] m_rank;
+	/**
+	 * <p>The first upward edge of each node. The entry at index <code>number of nodes</code> is the total number of upward edges.</p>
+	 */
+	private final int[] m_firstUpEdge;
+	/**
+	 * <p>The edges leading to nodes of higher rank, grouped by node.</p>
+	 */
+	private final int[] m_upEdges;
+	/**
+	 * <p>The node of higher rank at the end of each upward edge.</p>
+	 */
+	private final int[] m_upTargets;
+
+	/**
+	 * @category Queries
+	 *
+	 * <p>The state of the forward and the backward search of each thread.</p>
+	 */
+	private final ThreadLocal<AStarSearchState[]> m_searchStates = ThreadLocal.withInitial(() -> new AStarSearchState[] { new AStarSearchState(), new AStarSearchState() });
+
+	/**
+	 * <p>This constructor contracts the provided graph.</p>
+	 *
+	 * @param graph - the graph to contract.
+	 */
+	public ContractionHierarchy(RoutingGraph graph) {
+		m_graph = graph;
+		int numberOfNodes = graph.getNumberOfNodes();
+		int initialCapacity = Math.max(16, graph.getNumberOfArcs());
+		m_edgeTail = new int[initialCapacity];
+		m_edgeHead = new int[initialCapacity];
+		m_edgeWeight = new double[initialCapacity];
+		m_edgeArc = new int[initialCapacity];
+		m_edgeMiddle = new int[initialCapacity];
+		m_edgeFirstChild = new int[initialCapacity];
+		m_edgeSecondChild = new int[initialCapacity];
+		m_edgeHops = new int[initialCapacity];
+		m_rank = new int[numberOfNodes];
+
+		Contractor contractor = new Contractor(numberOfNodes);
+		contractor.addEdgesOfGraph();
+		contractor.contractAllNodes();
+
+		// collect the edges leading upwards in the hierarchy for each node
+		m_firstUpEdge = new int[numberOfNodes + 1];
+		for (int edge = 0; edge < m_numberOfEdges; edge++) {
+			m_firstUpEdge[getLowerNode(edge) + 1]++;
+		}
+		for (int node = 0; node < numberOfNodes; node++) {
+			m_firstUpEdge[node + 1] += m_firstUpEdge[node];
+		}
+		m_upEdges = new int[m_numberOfEdges];
+		m_upTargets = new int[m_numberOfEdges];
+		int[] nextUpEdge = Arrays.copyOf(m_firstUpEdge, numberOfNodes);
+		for (int edge = 0; edge < m_numberOfEdges; edge++) {
+			int lowerNode = getLowerNode(edge);
+			m_upEdges[nextUpEdge[lowerNode]] = edge;
+			m_upTargets[nextUpEdge[lowerNode]] = getOtherNode(edge, lowerNode);
+			nextUpEdge[lowerNode]++;
+		}
+	}
+
+	public RoutingGraph getGraph() {
+		return m_graph;
+	}
+
+	/**
+	 * @return int - the number of edges of the hierarchy (i.e. edges of the original graph and shortcuts).
+	 */
+	public int getNumberOfEdges() {
+		return m_numberOfEdges;
+	}
+
+	/**
+	 * <p>This method finds the shortest path between two nodes of {@link ContractionHierarchy#getGraph()}.</p>
+	 *
+	 * @param startId - the id of the node at which the path starts.
+	 * @param goalId - the id of the node to which the path should lead.
+	 * @return Route - the path from the start node to the target node or {@link Route#EMPTY} if start and goal are the same node or if there is no path between them.
+	 */
+	public Route findRoute(int startId, int goalId) {
+		if (startId == goalId) {
+			return Route.EMPTY;
+		}
+		AStarSearchState[] states = m_searchStates.get();
+		int meetingNode = search(states[0], states[1], startId, goalId);
+		RoutingStatistics.addWork(states[0]);
+		RoutingStatistics.addWork(states[1]);
+		if (meetingNode == -1) { // there is no path
+			return Route.EMPTY;
+		}
+		return new Route(unpackPath(states[0], states[1], meetingNode), states[0].m_gx[meetingNode] + states[1].m_gx[meetingNode]);
+	}
+
+	/**
+	 * <p>This method calculates the length of the shortest path between two nodes of {@link ContractionHierarchy#getGraph()} without unpacking the path.</p>
+	 *
+	 * @param startId - the id of the node at which the path starts.
+	 * @param goalId - the id of the node to which the path should lead.
+	 * @return double - the length of the path found by {@link ContractionHierarchy#findRoute(int, int)}, i.e. <code>0</code> if start and goal are the same node or if there is no path between them.
+	 */
+	public double findDistance(int startId, int goalId) {
+		if (startId == goalId) {
+			return 0;
+		}
+		AStarSearchState[] states = m_searchStates.get();
+		int meetingNode = search(states[0], states[1], startId, goalId);
+		RoutingStatistics.addWork(states[0]);
+		RoutingStatistics.addWork(states[1]);
+		if (meetingNode == -1) { // there is no path
+			return 0;
+		}
+		return states[0].m_gx[meetingNode] + states[1].m_gx[meetingNode];
+	}
+
+	/**
+	 * <p>This method runs the bidirectional upward search between two nodes.</p>
+	 *
+	 * @param forward - the state used for the search from the start node.
+	 * @param backward - the state used for the search from the goal node.
+	 * @param startId - the id of the node at which the path starts.
+	 * @param goalId - the id of the node to which the path should lead.
+	 * @return int - the node at which the shortest path found by both searches meet or <code>-1</code> if there is no path.
+	 */
+	private int search(AStarSearchState forward, AStarSearchState backward, int startId, int goalId) {
+		forward.prepare(m_rank.length);
+		backward.prepare(m_rank.length);
+		forward.discover(startId, 0, NO_EDGE);
+		forward.m_openSet.insertOrDecrease(startId, 0);
+		backward.discover(goalId, 0, NO_EDGE);
+		backward.m_openSet.insertOrDecrease(goalId, 0);
+
+		double lengthOfShortestPath = Double.POSITIVE_INFINITY;
+		int meetingNode = -1;
+		boolean isForwardSearchDone = false;
+		boolean isBackwardSearchDone = false;
+		while (!isForwardSearchDone || !isBackwardSearchDone) {
+			isForwardSearchDone = isForwardSearchDone || forward.m_openSet.isEmpty() || forward.m_openSet.peekKey() >= lengthOfShortestPath;
+			if (!isForwardSearchDone) {
+				int node = settleNextNode(forward);
+				if (backward.isDiscovered(node) && forward.m_gx[node] + backward.m_gx[node] < lengthOfShortestPath) {
+					lengthOfShortestPath = forward.m_gx[node] + backward.m_gx[node];
+					meetingNode = node;
+				}
+			}
+			isBackwardSearchDone = isBackwardSearchDone || backward.m_openSet.isEmpty() || backward.m_openSet.peekKey() >= lengthOfShortestPath;
+			if (!isBackwardSearchDone) {
+				int node = settleNextNode(backward);
+				if (forward.isDiscovered(node) && forward.m_gx[node] + backward.m_gx[node] < lengthOfShortestPath) {
+					lengthOfShortestPath = forward.m_gx[node] + backward.m_gx[node];
+					meetingNode = node;
+				}
+			}
+		}
+		return meetingNode;
+	}
+
+	/**
+	 * <p>This method settles the node with the smallest distance of the provided search and relaxes all edges leading upwards from it.</p>
+	 *
+	 * @param state - the state of the search.
+	 * @return int - the id of the settled node.
+	 */
+	private int settleNextNode(AStarSearchState state) {
+		int node = state.m_openSet.poll();
+		state.close(node);
+		// stall on demand: the node can not be part of a shortest path if a node of higher rank offers a shorter way to it
+		for (int i = m_firstUpEdge[node]; i < m_firstUpEdge[node + 1]; i++) {
+			int higherNode = m_upTargets[i];
+			if (state.isDiscovered(higherNode) && state.m_gx[higherNode] + m_edgeWeight[m_upEdges[i]] < state.m_gx[node]) {
+				return node;
+			}
+		}
+		for (int i = m_firstUpEdge[node]; i < m_firstUpEdge[node + 1]; i++) {
+			int next = m_upTargets[i];
+			double tentativeCost = state.m_gx[node] + m_edgeWeight[m_upEdges[i]];
+			if (!state.isDiscovered(next) || tentativeCost < state.m_gx[next]) {
+				state.discover(next, tentativeCost, m_upEdges[i]);
+				state.m_openSet.insertOrDecrease(next, tentativeCost);
+			}
+		}
+		return node;
+	}
+
+	/**
+	 * <p>This method assembles the path found by a query and unpacks all of its shortcuts.</p>
+	 *
+	 * @param forward - the state of the forward search.
+	 * @param backward - the state of the backward search.
+	 * @param meetingNode - the node where the shortest path found by the searches meet.
+	 * @return ArrayList<GeomPlanarGraphDirectedEdge> - the directed edges of the original graph which make up the path.
+	 */
+	private ArrayList<GeomPlanarGraphDirectedEdge> unpackPath(AStarSearchState forward, AStarSearchState backward, int meetingNode) {
+		// the forward search stores the path from the meeting node back to the start node
+		ArrayList<Integer> forwardEdges = new ArrayList<>();
+		ArrayList<Integer> forwardEdgeStartNodes = new ArrayList<>();
+		int node = meetingNode;
+		while (forward.m_arcFrom[node] != NO_EDGE) {
+			int edge = forward.m_arcFrom[node];
+			node = getOtherNode(edge, node);
+			forwardEdges.add(edge);
+			forwardEdgeStartNodes.add(node);
+		}
+		Collections.reverse(forwardEdges);
+		Collections.reverse(forwardEdgeStartNodes);
+		ArrayList<GeomPlanarGraphDirectedEdge> path = new ArrayList<>();
+		for (int i = 0; i < forwardEdges.size(); i++) {
+			unpackEdge(forwardEdges.get(i), forwardEdgeStartNodes.get(i), path);
+		}
+		// the backward search stores the path from the meeting node on to the goal node
+		node = meetingNode;
+		while (backward.m_arcFrom[node] != NO_EDGE) {
+			int edge = backward.m_arcFrom[node];
+			unpackEdge(edge, node, path);
+			node = getOtherNode(edge, node);
+		}
+		return path;
+	}
+
+	/**
+	 * <p>This method recursively replaces a shortcut by the edges it bypasses until only edges of the original graph remain.</p>
+	 *
+	 * @param edge - the edge to unpack.
+	 * @param fromNode - the end node of the edge at which its traversal starts.
+	 * @param path - the list to which the directed edges of the original graph are appended.
+	 */
+	private void unpackEdge(int edge, int fromNode, ArrayList<GeomPlanarGraphDirectedEdge> path) {
+		if (m_edgeArc[edge] != NO_EDGE) {
+			int arc = m_edgeTail[edge] == fromNode ? m_edgeArc[edge] : m_graph.getReverseArc(m_edgeArc[edge]);
+			path.add(m_graph.getDirectedEdge(arc));
+		}
+		else if (m_edgeTail[edge] == fromNode) {
+			unpackEdge(m_edgeFirstChild[edge], fromNode, path);
+			unpackEdge(m_edgeSecondChild[edge], m_edgeMiddle[edge], path);
+		}
+		else {
+			unpackEdge(m_edgeSecondChild[edge], fromNode, path);
+			unpackEdge(m_edgeFirstChild[edge], m_edgeMiddle[edge], path);
+		}
+	}
+
+	private int getOtherNode(int edge, int node) {
+		return m_edgeTail[edge] == node ? m_edgeHead[edge] : m_edgeTail[edge];
+	}
+
+	private int getLowerNode(int edge) {
+		return m_rank[m_edgeTail[edge]] < m_rank[m_edgeHead[edge]] ? m_edgeTail[edge] : m_edgeHead[edge];
+	}
+
+	private int addEdge(int tail, int head, double weight, int arc, int middle, int firstChild, int secondChild) {
+		if (m_numberOfEdges == m_edgeTail.length) {
+			int capacity = 2 * m_edgeTail.length;
+			m_edgeTail = Arrays.copyOf(m_edgeTail, capacity);
+			m_edgeHead = Arrays.copyOf(m_edgeHead, capacity);
+			m_edgeWeight = Arrays.copyOf(m_edgeWeight, capacity);
+			m_edgeArc = Arrays.copyOf(m_edgeArc, capacity);
+			m_edgeMiddle = Arrays.copyOf(m_edgeMiddle, capacity);
+			m_edgeFirstChild = Arrays.copyOf(m_edgeFirstChild, capacity);
+			m_edgeSecondChild = Arrays.copyOf(m_edgeSecondChild, capacity);
+			m_edgeHops = Arrays.copyOf(m_edgeHops, capacity);
+		}
+		int edge = m_numberOfEdges++;
+		setEdge(edge, tail, head, weight, arc, middle, firstChild, secondChild);
+		return edge;
+	}
+
+	private void setEdge(int edge, int tail, int head, double weight, int arc, int middle, int firstChild, int secondChild) {
+		m_edgeTail[edge] = tail;
+		m_edgeHead[edge] = head;
+		m_edgeWeight[edge] = weight;
+		m_edgeArc[edge] = arc;
+		m_edgeMiddle[edge] = middle;
+		m_edgeFirstChild[edge] = firstChild;
+		m_edgeSecondChild[edge] = secondChild;
+		m_edgeHops[edge] = arc != NO_EDGE ? 1 : m_edgeHops[firstChild] + m_edgeHops[secondChild];
+	}
+
+	/**
+	 * <p>This class holds everything that is only needed while the graph is contracted.</p>
+	 */
+	private final class Contractor {
+
+		/**
+		 * <p>The edges incident to each node. Edges to contracted nodes are removed from the lists of the remaining nodes.</p>
+		 */
+		private final int[][] m_incidentEdges;
+		private final int[] m_numberOfIncidentEdges;
+		private final boolean[] m_isContracted;
+		/**
+		 * <p>The depth of each node in the hierarchy, i.e. the length of the longest chain of contracted nodes below it.</p>
+		 */
+		private final int[] m_depth;
+		/**
+		 * <p>The nodes which still have to be contracted ordered by their priority.</p>
+		 */
+		private final IndexedMinHeap m_queue;
+		private final AStarSearchState m_witnessSearch = new AStarSearchState();
+		/**
+		 * <p>The id of the witness search for which each node is a target.</p>
+		 */
+		private final int[] m_witnessSearchOfTarget;
+		private int m_witnessSearchId = 0;
+
+		/**
+		 * <p>The uncontracted neighbors of the node which is currently (simulated to be) contracted and the edges leading to them.</p>
+		 */
+		private int[] m_neighbors = new int[16];
+		private int[] m_neighborEdges = new int[16];
+		/**
+		 * <p>The number of original edges represented by the shortcuts required by the last (simulated) contraction.</p>
+		 */
+		private int m_hopsOfShortcuts;
+
+		private Contractor(int numberOfNodes) {
+			m_incidentEdges = new int[numberOfNodes][];
+			m_numberOfIncidentEdges = new int[numberOfNodes];
+			m_isContracted = new boolean[numberOfNodes];
+			m_depth = new int[numberOfNodes];
+			m_queue = new IndexedMinHeap(numberOfNodes);
+			m_witnessSearchOfTarget = new int[numberOfNodes];
+			for (int node = 0; node < numberOfNodes; node++) {
+				m_incidentEdges[node] = new int[4];
+			}
+		}
+
+		/**
+		 * <p>This method adds an edge for each pair of adjacent nodes of the original graph.
+		 * If there are several edges between two nodes, only the shortest one is kept. Loops are ignored.</p>
+		 */
+		private void addEdgesOfGraph() {
+			HashMap<Long, Integer> nodePairToEdge = new HashMap<>();
+			for (int node = 0; node < m_graph.getNumberOfNodes(); node++) {
+				for (int arc = m_graph.getFirstOutArc(node); arc < m_graph.getEndOutArc(node); arc++) {
+					int target = m_graph.getArcTarget(arc);
+					if (target <= node) { // loop or already added from the other end
+						continue;
+					}
+					Long nodePair = Long.valueOf(((long) node << 32) | target);
+					Integer edge = nodePairToEdge.get(nodePair);
+					if (edge == null) {
+						int newEdge = addEdge(node, target, m_graph.getArcLength(arc), arc, -1, NO_EDGE, NO_EDGE);
+						nodePairToEdge.put(nodePair, newEdge);
+						addIncidentEdge(node, newEdge);
+						addIncidentEdge(target, newEdge);
+					}
+					else if (m_graph.getArcLength(arc) < m_edgeWeight[edge]) {
+						setEdge(edge, node, target, m_graph.getArcLength(arc), arc, -1, NO_EDGE, NO_EDGE);
+					}
+				}
+			}
+		}
+
+		/**
+		 * <p>This method contracts all nodes in the order of their priority.
+		 * After a node has been contracted, the priorities of its neighbors are updated.
+		 * Since this does not cover all changes, the priority of a node is recalculated once more when it is about to be contracted and the node is put back into the queue if it is no longer the smallest one.</p>
+		 */
+		private void contractAllNodes() {
+			int numberOfNodes = m_rank.length;
+			for (int node = 0; node < numberOfNodes; node++) {
+				m_queue.insertOrDecrease(node, calculatePriority(node));
+			}
+			int rank = 0;
+			while (!m_queue.isEmpty()) {
+				int node = m_queue.poll();
+				double priority = calculatePriority(node);
+				if (!m_queue.isEmpty() && priority > m_queue.peekKey()) {
+					m_queue.insertOrDecrease(node, priority);
+					continue;
+				}
+				contractNode(node, false);
+				m_isContracted[node] = true;
+				m_rank[node] = rank++;
+				for (int i = 0; i < m_numberOfIncidentEdges[node]; i++) {
+					int neighbor = getOtherNode(m_incidentEdges[node][i], node);
+					if (!m_isContracted[neighbor]) {
+						removeEdgesToContractedNodes(neighbor);
+						m_depth[neighbor] = Math.max(m_depth[neighbor], m_depth[node] + 1);
+						m_queue.insertOrDecrease(neighbor, calculatePriority(neighbor));
+					}
+				}
+			}
+		}
+
+		/**
+		 * @param node - some uncontracted node.
+		 * @return double - the priority of the node (the smaller the earlier it is contracted).
+		 */
+		private double calculatePriority(int node) {
+			int numberOfShortcuts = contractNode(node, true);
+			int numberOfRemovedEdges = collectNeighbors(node);
+			int hopsOfRemovedEdges = 0;
+			for (int i = 0; i < numberOfRemovedEdges; i++) {
+				hopsOfRemovedEdges += m_edgeHops[m_neighborEdges[i]];
+			}
+			return m_depth[node] + (double) numberOfShortcuts / Math.max(1, numberOfRemovedEdges) + (double) m_hopsOfShortcuts / Math.max(1, hopsOfRemovedEdges);
+		}
+
+		/**
+		 * <p>This method contracts the provided node, i.e. it adds a shortcut between each pair of its uncontracted neighbors unless a witness search finds a path which is at most as long without passing the node.</p>
+		 *
+		 * @param node - the node to contract.
+		 * @param isSimulation - if <code>true</code>, the shortcuts are only counted but not added.
+		 * @return int - the number of shortcuts required.
+		 */
+		private int contractNode(int node, boolean isSimulation) {
+			int numberOfNeighbors = collectNeighbors(node);
+			int[] neighbors = Arrays.copyOf(m_neighbors, numberOfNeighbors);
+			int[] neighborEdges = Arrays.copyOf(m_neighborEdges, numberOfNeighbors);
+			int numberOfShortcuts = 0;
+			m_hopsOfShortcuts = 0;
+			for (int i = 0; i < numberOfNeighbors - 1; i++) {
+				// search the paths from the i-th neighbor to all subsequent neighbors
+				m_witnessSearchId++;
+				double maxLengthOfPathViaNode = 0;
+				for (int j = i + 1; j < numberOfNeighbors; j++) {
+					m_witnessSearchOfTarget[neighbors[j]] = m_witnessSearchId;
+					maxLengthOfPathViaNode = Math.max(maxLengthOfPathViaNode, m_edgeWeight[neighborEdges[j]]);
+				}
+				maxLengthOfPathViaNode += m_edgeWeight[neighborEdges[i]];
+				searchWitnesses(neighbors[i], node, maxLengthOfPathViaNode, numberOfNeighbors - i - 1);
+				for (int j = i + 1; j < numberOfNeighbors; j++) {
+					double lengthOfPathViaNode = m_edgeWeight[neighborEdges[i]] + m_edgeWeight[neighborEdges[j]];
+					if (m_witnessSearch.isDiscovered(neighbors[j]) && m_witnessSearch.m_gx[neighbors[j]] <= lengthOfPathViaNode) { // there is a witness
+						continue;
+					}
+					numberOfShortcuts++;
+					m_hopsOfShortcuts += m_edgeHops[neighborEdges[i]] + m_edgeHops[neighborEdges[j]];
+					if (!isSimulation) {
+						addShortcut(neighbors[i], neighbors[j], lengthOfPathViaNode, node, neighborEdges[i], neighborEdges[j]);
+					}
+				}
+			}
+			return numberOfShortcuts;
+		}
+
+		/**
+		 * <p>This method collects the uncontracted neighbors of the provided node in {@link Contractor#m_neighbors}.</p>
+		 *
+		 * @param node - some node.
+		 * @return int - the number of uncontracted neighbors.
+		 */
+		private int collectNeighbors(int node) {
+			int numberOfNeighbors = 0;
+			for (int i = 0; i < m_numberOfIncidentEdges[node]; i++) {
+				int edge = m_incidentEdges[node][i];
+				int neighbor = getOtherNode(edge, node);
+				if (m_isContracted[neighbor]) {
+					continue;
+				}
+				if (numberOfNeighbors == m_neighbors.length) {
+					m_neighbors = Arrays.copyOf(m_neighbors, 2 * numberOfNeighbors);
+					m_neighborEdges = Arrays.copyOf(m_neighborEdges, 2 * numberOfNeighbors);
+				}
+				m_neighbors[numberOfNeighbors] = neighbor;
+				m_neighborEdges[numberOfNeighbors] = edge;
+				numberOfNeighbors++;
+			}
+			return numberOfNeighbors;
+		}
+
+		/**
+		 * <p>This method runs a Dijkstra search on the uncontracted nodes without passing the node which is contracted.
+		 * The search stops once all targets have been settled or no path of interest is left.</p>
+		 *
+		 * @param source - the node at which the search starts.
+		 * @param ignoredNode - the node which is contracted.
+		 * @param maxLength - the length beyond which paths are no longer of interest.
+		 * @param numberOfTargets - the number of nodes marked as targets of the current witness search.
+		 */
+		private void searchWitnesses(int source, int ignoredNode, double maxLength, int numberOfTargets) {
+			AStarSearchState state = m_witnessSearch;
+			state.prepare(m_rank.length);
+			state.discover(source, 0, NO_EDGE);
+			state.m_openSet.insertOrDecrease(source, 0);
+			int numberOfSettledNodes = 0;
+			int numberOfUnsettledTargets = numberOfTargets;
+			while (!state.m_openSet.isEmpty() && state.m_openSet.peekKey() <= maxLength && numberOfSettledNodes < MAX_SETTLED_NODES_OF_WITNESS_SEARCH) {
+				int node = state.m_openSet.poll();
+				state.close(node);
+				numberOfSettledNodes++;
+				if (m_witnessSearchOfTarget[node] == m_witnessSearchId && --numberOfUnsettledTargets == 0) {
+					return;
+				}
+				for (int i = 0; i < m_numberOfIncidentEdges[node]; i++) {
+					int edge = m_incidentEdges[node][i];
+					int next = getOtherNode(edge, node);
+					if (next == ignoredNode || m_isContracted[next] || state.isClosed(next)) {
+						continue;
+					}
+					double tentativeCost = state.m_gx[node] + m_edgeWeight[edge];
+					if (!state.isDiscovered(next) || tentativeCost < state.m_gx[next]) {
+						state.discover(next, tentativeCost, edge);
+						state.m_openSet.insertOrDecrease(next, tentativeCost);
+					}
+				}
+			}
+		}
+
+		/**
+		 * <p>This method adds a shortcut between two nodes or shortens the existing edge between them.</p>
+		 */
+		private void addShortcut(int tail, int head, double weight, int middle, int firstChild, int secondChild) {
+			for (int i = 0; i < m_numberOfIncidentEdges[tail]; i++) {
+				int edge = m_incidentEdges[tail][i];
+				if (getOtherNode(edge, tail) == head) {
+					if (weight < m_edgeWeight[edge]) {
+						setEdge(edge, tail, head, weight, NO_EDGE, middle, firstChild, secondChild);
+					}
+					return;
+				}
+			}
+			int shortcut = addEdge(tail, head, weight, NO_EDGE, middle, firstChild, secondChild);
+			addIncidentEdge(tail, shortcut);
+			addIncidentEdge(head, shortcut);
+		}
+
+		private void removeEdgesToContractedNodes(int node) {
+			int numberOfIncidentEdges = 0;
+			for (int i = 0; i < m_numberOfIncidentEdges[node]; i++) {
+				int edge = m_incidentEdges[node][i];
+				if (!m_isContracted[getOtherNode(edge, node)]) {
+					m_incidentEdges[node][numberOfIncidentEdges++] = edge;
+				}
+			}
+			m_numberOfIncidentEdges[node] = numberOfIncidentEdges;
+		}
+
+		private void addIncidentEdge(int node, int edge) {
+			if (m_numberOfIncidentEdges[node] == m_incidentEdges[node].length) {
+				m_incidentEdges[node] = Arrays.copyOf(m_incidentEdges[node], 2 * m_incidentEdges[node].length);
+			}
+			m_incidentEdges[node][m_numberOfIncidentEdges[node]++] = edge;
+		}
+	}
+}
@@ -0,0 +1,404 @@
+package rfs0.aitam.utilities;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.PriorityQueue;
+
+import sim.util.geo.GeomPlanarGraphDirectedEdge;
+
+/**
+ * <p>This class finds the shortest path from a moving start node to a fixed goal node with respect to the {@link TrafficCosts} and repairs it incrementally when the costs change.
+ * It is an implementation of <a href="http://idm-lab.org/bib/abstracts/papers/aaai02b.pdf">D* Lite</a> by Koenig and Likhachev.</p>
+ *
+ * <p>The search runs backwards from the goal node. For each node touched, it keeps the cost of the path to the goal found so far (<code>g</code>)
+ * as well as the one-step lookahead based on the costs of its neighbors (<code>rhs</code>). A node whose values differ is inconsistent and kept in the open set.
+ * When the costs of some edges change, only the nodes at their ends become inconsistent and the search only has to repair the part of the search tree that depends on them
+ * instead of searching the whole path again. The keys of the open set are not recalculated when the start node moves, instead the distance the start node moved is added to all new keys (<code>km</code>).</p>
+ *
+ * <p>The heuristic is the one of the A* search (see {@link GraphUtility#heuristic(RoutingGraph, Landmarks, int, int)}).
+ * It is a lower bound of the length of the path, hence also of its cost, since traffic only ever increases the cost of an edge.</p>
+ *
+ * <p><b>Note:</b> Each individual traveling has its own search. Therefore, the values are only kept for the nodes touched (instead of using arrays sized to the graph).
+ * An instance must only be used by one thread at a time.</p>
+ */
+public final class DStarLite {
+
+	/**
+	 * <p>The difference up to which the first components of two keys are considered equal when deciding whether the search is done.
+	 * The heuristic equals the length of straight edges, hence the keys of a node and its successor on the path are often equal up to rounding errors.</p>
+	 */
+	private static final double KEY_TOLERANCE = 1e-6;
+
+	/**
+	 * <p>The graph to search.</p>
+	 */
+	private final RoutingGraph m_graph;
+	/**
+	 * <p>The costs of the arcs of the graph.</p>
+	 */
+	private final TrafficCosts m_trafficCosts;
+	/**
+	 * <p>The landmarks used by the heuristic or <code>null</code>.</p>
+	 */
+	private final Landmarks m_landmarks;
+	/**
+	 * <p>The node to which the path leads.</p>
+	 */
+	private final int m_goal;
+	/**
+	 * <p>The node at which the path currently starts.</p>
+	 */
+	private int m_start;
+	/**
+	 * <p>The start node at the time of the last repair of the search.</p>
+	 */
+	private int m_lastStart;
+	/**
+	 * <p>The sum of the heuristic distances the start node has moved at each repair of the search.</p>
+	 */
+	private double m_km = 0;
+	/**
+	 * <p>The version of the {@link TrafficCosts} the search is consistent with.</p>
+	 */
+	private long m_version;
+	/**
+	 * <p>The values of each node touched by the search.</p>
+	 */
+	private final HashMap<Integer, NodeState> m_nodeStates = new HashMap<>();
+	/**
+	 * <p>The inconsistent nodes ordered by their key. Entries are not removed from the queue but marked as removed instead.</p>
+	 */
+	private final PriorityQueue<OpenEntry> m_openSet = new PriorityQueue<>();
+	/**
+	 * <p>The number of nodes expanded by the current search resp. repair (used for {@link RoutingStatistics}).</p>
+	 */
+	private int m_numberOfExpandedNodes = 0;
+	/**
+	 * <p>The number of times the one-step lookahead of a node has been recalculated by the current search resp. repair.</p>
+	 */
+	private int m_numberOfUpdatedNodes = 0;
+	/**
+	 * <p>The number of insertions into and removals from the open set by the current search resp. repair.</p>
+	 */
+	private int m_numberOfQueueOperations = 0;
+
+	/**
+	 * <p>This constructor searches the shortest path between the provided nodes.</p>
+	 *
+	 * @param graph - the graph to search.
+	 * @param trafficCosts - the costs of the arcs of the graph.
+	 * @param landmarks - the landmarks used by the heuristic or <code>null</code> if only the euclidean distance is used.
+	 * @param startId - the id of the node at which the path starts.
+	 * @param goalId - the id of the node to which the path should lead.
+	 */
+	DStarLite(RoutingGraph graph, TrafficCosts trafficCosts, Landmarks landmarks, int startId, int goalId) {
+		m_graph = graph;
+		m_trafficCosts = trafficCosts;
+		m_landmarks = landmarks;
+		m_goal = goalId;
+		m_start = startId;
+		m_lastStart = startId;
+		m_version = trafficCosts.getVersion();
+		long startTime = startQuery();
+		getOrCreateState(goalId).m_rhs = 0;
+		insert(goalId);
+		computeShortestPath();
+		recordQuery(startTime);
+	}
+
+	public RoutingGraph getGraph() {
+		return m_graph;
+	}
+
+	public int getGoal() {
+		return m_goal;
+	}
+
+	public int getStart() {
+		return m_start;
+	}
+
+	/**
+	 * @return int - the number of nodes touched by the search so far.
+	 */
+	public int getNumberOfNodesTouched() {
+		return m_nodeStates.size();
+	}
+
+	/**
+	 * <p>This method moves the start of the path to the provided node (e.g. the node the individual has just reached).</p>
+	 *
+	 * @param nodeId - the id of the new start node.
+	 */
+	public void moveTo(int nodeId) {
+		m_start = nodeId;
+	}
+
+	/**
+	 * <p>This method repairs the search if the costs of some edges have changed since the last repair.</p>
+	 *
+	 * @return boolean - <code>true</code> if the costs have changed (i.e. the path may have changed) and <code>false</code> otherwise.
+	 */
+	public boolean update() {
+		long version = m_trafficCosts.getVersion();
+		if (version == m_version) {
+			return false;
+		}
+		int[] changedEdges = m_trafficCosts.getChangedEdgesSince(m_version);
+		m_version = version;
+		long startTime = startQuery();
+		if (changedEdges == null) { // the changes are no longer known -> start over
+			m_nodeStates.clear();
+			m_openSet.clear();
+			m_km = 0;
+			m_lastStart = m_start;
+			getOrCreateState(m_goal).m_rhs = 0;
+			insert(m_goal);
+			computeShortestPath();
+			recordQuery(startTime);
+			return true;
+		}
+		m_km += heuristic(m_lastStart, m_start);
+		m_lastStart = m_start;
+		for (int edgeId: changedEdges) {
+			GeomPlanarGraphDirectedEdge directedEdge = (GeomPlanarGraphDirectedEdge) m_graph.getEdge(edgeId).getDirEdge(0);
+			int arc = m_graph.getArcId(directedEdge);
+			// the graph is undirected, hence the cost of both arcs of the edge has changed
+			updateNode(m_graph.getArcSource(arc));
+			updateNode(m_graph.getArcTarget(arc));
+		}
+		computeShortestPath();
+		recordQuery(startTime);
+		return true;
+	}
+
+	/**
+	 * <p>This method extracts the shortest path from the current start node to the goal node by following the neighbor with the lowest cost to the goal.</p>
+	 *
+	 * @return ArrayList<GeomPlanarGraphDirectedEdge> - the edges of the path in the order in which they are traversed.
+	 * The list is empty if the start node is the goal node or if there is no path between them.
+	 */
+	public ArrayList<GeomPlanarGraphDirectedEdge> getPath() {
+		ArrayList<GeomPlanarGraphDirectedEdge> path = new ArrayList<>();
+		if (getG(m_start) == Double.POSITIVE_INFINITY) {
+			return path;
+		}
+		int node = m_start;
+		// the path can not contain more edges than there are nodes
+		while (node != m_goal && path.size() < m_graph.getNumberOfNodes()) {
+			int bestArc = -1;
+			double bestCost = Double.POSITIVE_INFINITY;
+			for (int arc = m_graph.getFirstOutArc(node); arc < m_graph.getEndOutArc(node); arc++) {
+				double cost = m_trafficCosts.getArcCost(arc) + getG(m_graph.getArcTarget(arc));
+				if (cost < bestCost) {
+					bestCost = cost;
+					bestArc = arc;
+				}
+			}
+			if (bestArc == -1) {
+				return new ArrayList<>();
+			}
+			path.add(m_graph.getDirectedEdge(bestArc));
+			node = m_graph.getArcTarget(bestArc);
+		}
+		return node == m_goal ? path : new ArrayList<>();
+	}
+
+	/**
+	 * <p>This method expands the inconsistent nodes in the order of their keys until the start node is consistent and no inconsistent node with a lower key is left.</p>
+	 */
+	private void computeShortestPath() {
+		while (true) {
+			OpenEntry top = peek();
+			NodeState startState = m_nodeStates.get(m_start);
+			boolean isStartConsistent = startState == null || startState.m_g == startState.m_rhs;
+			if (top == null || (!isLessThanStartKey(top) && isStartConsistent)) {
+				return;
+			}
+			m_openSet.poll();
+			m_numberOfQueueOperations++;
+			m_numberOfExpandedNodes++;
+			int u = top.m_node;
+			NodeState state = m_nodeStates.get(u);
+			state.m_openEntry = null;
+			double k1 = calculateK1(u);
+			double k2 = calculateK2(u);
+			if (compare(top.m_k1, top.m_k2, k1, k2) < 0) { // the key is outdated
+				insert(u);
+			}
+			else if (state.m_g > state.m_rhs) { // the cost to the goal has decreased
+				state.m_g = state.m_rhs;
+				for (int arc = m_graph.getFirstOutArc(u); arc < m_graph.getEndOutArc(u); arc++) {
+					updateNode(m_graph.getArcTarget(arc));
+				}
+			}
+			else { // the cost to the goal has increased
+				state.m_g = Double.POSITIVE_INFINITY;
+				updateNode(u);
+				for (int arc = m_graph.getFirstOutArc(u); arc < m_graph.getEndOutArc(u); arc++) {
+					updateNode(m_graph.getArcTarget(arc));
+				}
+			}
+		}
+	}
+
+	/**
+	 * <p>This method recalculates the one-step lookahead of the provided node and updates its entry in the open set accordingly.</p>
+	 *
+	 * @param nodeId - the id of some node.
+	 */
+	private void updateNode(int nodeId) {
+		m_numberOfUpdatedNodes++;
+		NodeState state = getOrCreateState(nodeId);
+		if (nodeId != m_goal) {
+			double rhs = Double.POSITIVE_INFINITY;
+			for (int arc = m_graph.getFirstOutArc(nodeId); arc < m_graph.getEndOutArc(nodeId); arc++) {
+				rhs = Math.min(rhs, m_trafficCosts.getArcCost(arc) + getG(m_graph.getArcTarget(arc)));
+			}
+			state.m_rhs = rhs;
+		}
+		if (state.m_openEntry != null) {
+			state.m_openEntry.m_isRemoved = true;
+			state.m_openEntry = null;
+		}
+		if (state.m_g != state.m_rhs) {
+			insert(nodeId);
+		}
+	}
+
+	/**
+	 * <p>This method adds the provided node to the open set with its current key.</p>
+	 */
+	private void insert(int nodeId) {
+		OpenEntry entry = new OpenEntry(nodeId, calculateK1(nodeId), calculateK2(nodeId));
+		m_nodeStates.get(nodeId).m_openEntry = entry;
+		m_openSet.add(entry);
+		m_numberOfQueueOperations++;
+	}
+
+	/**
+	 * @return OpenEntry - the entry with the lowest key which has not been removed or <code>null</code> if the open set is empty.
+	 */
+	private OpenEntry peek() {
+		while (!m_openSet.isEmpty() && m_openSet.peek().m_isRemoved) {
+			m_openSet.poll();
+		}
+		return m_openSet.peek();
+	}
+
+	/**
+	 * <p>This method resets the work counters for a new search resp. repair.</p>
+	 *
+	 * @return long - the start time of the query if {@link RoutingStatistics} are recorded and <code>0</code> otherwise.
+	 */
+	private long startQuery() {
+		m_numberOfExpandedNodes = 0;
+		m_numberOfUpdatedNodes = 0;
+		m_numberOfQueueOperations = 0;
+		return GraphUtility.getRoutingStatistics() == null ? 0 : RoutingStatistics.startQuery();
+	}
+
+	/**
+	 * <p>This method records the work of the current search resp. repair as a query of {@link RoutingCaller#REROUTING}.
+	 * The length recorded is the cost of the path with respect to the current {@link TrafficCosts}.</p>
+	 *
+	 * @param startTime - the value returned by {@link DStarLite#startQuery()}.
+	 */
+	private void recordQuery(long startTime) {
+		RoutingStatistics routingStatistics = GraphUtility.getRoutingStatistics();
+		if (routingStatistics == null) {
+			return;
+		}
+		RoutingStatistics.addWork(m_numberOfExpandedNodes, m_numberOfUpdatedNodes, m_numberOfQueueOperations);
+		double cost = getG(m_start);
+		routingStatistics.record(RoutingCaller.REROUTING, startTime, cost == Double.POSITIVE_INFINITY ? 0 : cost);
+	}
+
+	private double calculateK1(int nodeId) {
+		return calculateK2(nodeId) + heuristic(m_start, nodeId) + m_km;
+	}
+
+	private double calculateK2(int nodeId) {
+		NodeState state = m_nodeStates.get(nodeId);
+		return state == null ? Double.POSITIVE_INFINITY : Math.min(state.m_g, state.m_rhs);
+	}
+
+	private double getG(int nodeId) {
+		NodeState state = m_nodeStates.get(nodeId);
+		return state == null ? Double.POSITIVE_INFINITY : state.m_g;
+	}
+
+	private NodeState getOrCreateState(int nodeId) {
+		NodeState state = m_nodeStates.get(nodeId);
+		if (state == null) {
+			state = new NodeState();
+			m_nodeStates.put(nodeId, state);
+		}
+		return state;
+	}
+
+	private double heuristic(int fromId, int toId) {
+		return GraphUtility.heuristic(m_graph, m_landmarks, fromId, toId);
+	}
+
+	/**
+	 * @return boolean - <code>true</code> if the key of the provided entry is less than the key of the start node (considering {@link DStarLite#KEY_TOLERANCE}) and <code>false</code> otherwise.
+	 */
+	private boolean isLessThanStartKey(OpenEntry entry) {
+		double startK1 = calculateK1(m_start);
+		if (Math.abs(entry.m_k1 - startK1) > KEY_TOLERANCE) {
+			return entry.m_k1 < startK1;
+		}
+		return entry.m_k2 < calculateK2(m_start);
+	}
+
+	/**
+	 * <p>Compares two keys lexicographically.</p>
+	 */
+	private static int compare(double k1, double k2, double otherK1, double otherK2) {
+		int comparison = Double.compare(k1, otherK1);
+		return comparison != 0 ? comparison : Double.compare(k2, otherK2);
+	}
+
+	/**
+	 * <p>The values of a node touched by the search.</p>
+	 */
+	private static final class NodeState {
+
+		/**
+		 * <p>The cost of the path to the goal found so far.</p>
+		 */
+		private double m_g = Double.POSITIVE_INFINITY;
+		/**
+		 * <p>The cost of the path to the goal via the best neighbor.</p>
+		 */
+		private double m_rhs = Double.POSITIVE_INFINITY;
+		/**
+		 * <p>The entry of the node in the open set or <code>null</code> if the node is consistent.</p>
+		 */
+		private OpenEntry m_openEntry;
+	}
+
+	/**
+	 * <p>An entry of the open set. Entries with the same key are ordered by the id of their node to make the search deterministic.</p>
+	 */
+	private static final class OpenEntry implements Comparable<OpenEntry> {
+
+		private final int m_node;
+		private final double m_k1;
+		private final double m_k2;
+		private boolean m_isRemoved = false;
+
+		private OpenEntry(int node, double k1, double k2) {
+			m_node = node;
+			m_k1 = k1;
+			m_k2 = k2;
+		}
+
+		@Override
+		public int compareTo(OpenEntry other) {
+			int comparison = compare(m_k1, m_k2, other.m_k1, other.m_k2);
+			return comparison != 0 ? comparison : Integer.compare(m_node, other.m_node);
+		}
+	}
+}
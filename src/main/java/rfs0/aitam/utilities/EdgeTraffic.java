@@ -0,0 +1,112 @@
+package rfs0.aitam.utilities;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * <p>This class counts the traffic on each edge of a {@link RoutingGraph}. It keeps two counters per edge id:</p>
+ *
+ * <p><b>Occupancy</b></p>
+ *
+ * <p>The number of individuals currently traveling on each edge. It is incremented when an individual enters an edge and decremented when it leaves it.
+ * The costs of the edges are derived from it if congestion is enabled (see {@link TrafficCosts#update(EdgeTraffic)}).</p>
+ *
+ * <p><b>Link volume</b></p>
+ *
+ * <p>The number of individuals which have entered each edge since the last snapshot. A snapshot is taken at the start of each hour, such that the link volumes of the last hour are always available for analysis.</p>
+ *
+ * <p><b>Note:</b> The counters are {@link AtomicIntegerArray}s, hence individuals can enter and leave edges concurrently without locking.
+ * Taking a snapshot while individuals are moving is safe as well, but an individual entering an edge meanwhile might be counted for the next hour.</p>
+ */
+public final class EdgeTraffic {
+
+	/**
+	 * <p>The number of individuals currently traveling on each edge.</p>
+	 */
+	private final AtomicIntegerArray m_numberOfIndividuals;
+	/**
+	 * <p>The number of individuals which have entered each edge since the last snapshot.</p>
+	 */
+	private final AtomicIntegerArray m_volumeSinceLastSnapshot;
+	/**
+	 * <p>The number of individuals which have entered each edge between the last two snapshots.</p>
+	 */
+	private int[] m_volumeOfLastSnapshot;
+
+	/**
+	 * @param numberOfEdges - the number of edges of the graph (see {@link RoutingGraph#getNumberOfEdges()}). Initially, there is no traffic on any edge.
+	 */
+	public EdgeTraffic(int numberOfEdges) {
+		m_numberOfIndividuals = new AtomicIntegerArray(numberOfEdges);
+		m_volumeSinceLastSnapshot = new AtomicIntegerArray(numberOfEdges);
+		m_volumeOfLastSnapshot = new int[numberOfEdges];
+	}
+
+	/**
+	 * <p>This method counts an individual entering the edge.</p>
+	 *
+	 * @param edgeId - the id of the edge.
+	 */
+	public void enter(int edgeId) {
+		m_numberOfIndividuals.incrementAndGet(edgeId);
+		m_volumeSinceLastSnapshot.incrementAndGet(edgeId);
+	}
+
+	/**
+	 * <p>This method counts an individual leaving the edge.</p>
+	 *
+	 * @param edgeId - the id of the edge.
+	 */
+	public void leave(int edgeId) {
+		m_numberOfIndividuals.decrementAndGet(edgeId);
+	}
+
+	/**
+	 * <p>This method counts an individual which traverses the edge without being counted as traveling on it (i.e. an individual traveling event-driven). Only the link volume is incremented.
+	 * It has to be called in the hour in which the individual enters the edge, such that the link volumes do not depend on whether the individuals travel event-driven.</p>
+	 *
+	 * @param edgeId - the id of the edge.
+	 */
+	public void traverse(int edgeId) {
+		m_volumeSinceLastSnapshot.incrementAndGet(edgeId);
+	}
+
+	/**
+	 * <p>This method takes a snapshot of the link volumes, i.e. the number of individuals which have entered each edge since the last snapshot, and starts to count from zero again.</p>
+	 *
+	 * @return int[] - the link volume of each edge since the last snapshot.
+	 */
+	public int[] takeSnapshotOfVolume() {
+		int[] volume = new int[m_volumeSinceLastSnapshot.length()];
+		for (int edgeId = 0; edgeId < volume.length; edgeId++) {
+			volume[edgeId] = m_volumeSinceLastSnapshot.getAndSet(edgeId, 0);
+		}
+		m_volumeOfLastSnapshot = volume;
+		return volume;
+	}
+
+	/**
+	 * @return int[] - the number of individuals currently traveling on each edge.
+	 */
+	public int[] getNumberOfIndividuals() {
+		int[] numberOfIndividuals = new int[m_numberOfIndividuals.length()];
+		for (int edgeId = 0; edgeId < numberOfIndividuals.length; edgeId++) {
+			numberOfIndividuals[edgeId] = m_numberOfIndividuals.get(edgeId);
+		}
+		return numberOfIndividuals;
+	}
+
+	/**
+	 * @param edgeId - the id of some edge.
+	 * @return int - the number of individuals currently traveling on the edge.
+	 */
+	public int getNumberOfIndividuals(int edgeId) {
+		return m_numberOfIndividuals.get(edgeId);
+	}
+
+	/**
+	 * @return int[] - the link volume of each edge between the last two snapshots (i.e. of the last hour).
+	 */
+	public int[] getVolumeOfLastSnapshot() {
+		return m_volumeOfLastSnapshot;
+	}
+}
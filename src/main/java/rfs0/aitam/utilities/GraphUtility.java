@@ -1,175 +1,659 @@
 package rfs0.aitam.utilities;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
-import com.vividsolutions.jts.geom.Coordinate;
-import com.vividsolutions.jts.planargraph.DirectedEdgeStar;
 import com.vividsolutions.jts.planargraph.Node;
 
+import rfs0.aitam.settings.ISimulationSettings;
+import sim.util.geo.GeomPlanarGraph;
 import sim.util.geo.GeomPlanarGraphDirectedEdge;
 
 /**
  * <p>This class is used to handle all operations related to graphs.
  * In particular it provides a method for finding the shortest path between two nodes.
  * This method is an implementation of the <a href="https://en.wikipedia.org/wiki/A*_search_algorithm">A* search algorithm</a>.</p>
- * 
- * <p><b>Note:</b> The code for the A*-Algorithm stems from the <a href="https://github.com/eclab/mason/">Mason repository on GitHub</a> repository. 
- * More specifically from a package called <a href="https://github.com/eclab/mason/tree/master/contrib/geomason/sim/app/geo/gridlock">"GridLock"</a>. 
- * It has been adapted to fit this simulation's purpose. </b></p> 
+ *
+ * <p>The search runs on a {@link RoutingGraph} (i.e. a compact snapshot of the path network) which has to be initialized once via {@link GraphUtility#initRoutingGraph(GeomPlanarGraph)}.
+ * The cost of an edge is the length of its line, which is the distance an individual actually walks when traversing it.
+ * The heuristic is either the straight-line distance or additionally the lower bound provided by {@link Landmarks} if they have been initialized (see {@link AStarHeuristic}).
+ * The open set is an {@link IndexedMinHeap} and the meta information of the nodes is kept in an {@link AStarSearchState} which is reused by all searches of the same thread.
+ * If {@link ISimulationSettings#IS_CHAIN_COLLAPSING_ENABLED} is set, the A* search skips chains of nodes without routing choices (see {@link ChainCollapsedGraph}).</p>
+ *
+ * <p>The paths found are cached in a {@link RouteCache} if {@link ISimulationSettings#IS_ROUTE_CACHE_ENABLED} is set.
+ * The work and the wall time of each query are recorded in the {@link RoutingStatistics} if {@link ISimulationSettings#IS_ROUTING_STATISTICS_ENABLED} is set.</p>
+ *
+ * <p>If {@link ISimulationSettings#IS_CONGESTION_ENABLED} is set, traveling individuals instead follow the path with the lowest cost with respect to the current {@link TrafficCosts},
+ * which is repaired incrementally as the costs change (see {@link GraphUtility#createIncrementalSearch(Node, Node)}).</p>
+ *
+ * <p>For large path networks the routing graph can additionally be preprocessed into a {@link ContractionHierarchy} (see {@link GraphUtility#initContractionHierarchy()}).
+ * If so, paths are found by querying the contraction hierarchy instead of running the A* search.
+ * Otherwise, paths are found by a {@link BidirectionalSearch} instead if {@link ISimulationSettings#IS_BIDIRECTIONAL_SEARCH_ENABLED} is set.</p>
+ *
+ * <p><b>Note:</b> The code for the A*-Algorithm stems from the <a href="https://github.com/eclab/mason/">Mason repository on GitHub</a> repository.
+ * More specifically from a package called <a href="https://github.com/eclab/mason/tree/master/contrib/geomason/sim/app/geo/gridlock">"GridLock"</a>.
+ * It has been adapted to fit this simulation's purpose. </b></p>
  */
 public class GraphUtility {
 
+	private static final Logger LOG = Logger.getLogger(GraphUtility.class.getName());
+
+	/**
+	 * <p>The graph on which all searches are executed.</p>
+	 */
+	private static volatile RoutingGraph s_routingGraph;
+	/**
+	 * <p>The search state of each thread. It is reused for all searches of a thread.</p>
+	 */
+	private static final ThreadLocal<AStarSearchState> s_searchState = ThreadLocal.withInitial(AStarSearchState::new);
+	/**
+	 * <p>The cache of the paths found on {@link GraphUtility#s_routingGraph} or <code>null</code> if caching is disabled.</p>
+	 */
+	private static volatile RouteCache s_routeCache;
+	/**
+	 * <p>The contraction hierarchy of {@link GraphUtility#s_routingGraph} or <code>null</code> if it has not been initialized.</p>
+	 */
+	private static volatile ContractionHierarchy s_contractionHierarchy;
+	/**
+	 * <p>The landmarks of {@link GraphUtility#s_routingGraph} used by the A* heuristic or <code>null</code> if they have not been initialized.</p>
+	 */
+	private static volatile Landmarks s_landmarks;
+	/**
+	 * <p>The routing graph with collapsed chains used by the A* search or <code>null</code> if {@link ISimulationSettings#IS_CHAIN_COLLAPSING_ENABLED} is not set.</p>
+	 */
+	private static volatile ChainCollapsedGraph s_chainCollapsedGraph;
+	/**
+	 * <p>The congestion-dependent costs of the edges used to re-route traveling individuals or <code>null</code> if {@link ISimulationSettings#IS_CONGESTION_ENABLED} is not set.</p>
+	 */
+	private static volatile TrafficCosts s_trafficCosts;
+	/**
+	 * <p>The statistics of all queries or <code>null</code> if {@link ISimulationSettings#IS_ROUTING_STATISTICS_ENABLED} is not set.</p>
+	 */
+	private static volatile RoutingStatistics s_routingStatistics;
+	/**
+	 * <p>The bidirectional search of each thread. It is reused for all bidirectional searches of a thread as long as the graph and the landmarks do not change.</p>
+	 */
+	private static final ThreadLocal<BidirectionalSearch> s_bidirectionalSearch = new ThreadLocal<BidirectionalSearch>();
+
+	/**
+	 * <p>This method initializes the graph on which all subsequent searches are executed.
+	 * It has to be called once the graph has been created and before any path is searched.
+	 * Any paths cached for a previous graph are discarded.</p>
+	 *
+	 * @param graph - the graph representing the path network.
+	 */
+	public static void initRoutingGraph(GeomPlanarGraph graph) {
+		s_routingGraph = new RoutingGraph(graph);
+		s_chainCollapsedGraph = ISimulationSettings.IS_CHAIN_COLLAPSING_ENABLED ? new ChainCollapsedGraph(s_routingGraph) : null;
+		s_trafficCosts = ISimulationSettings.IS_CONGESTION_ENABLED ? new TrafficCosts(s_routingGraph) : null;
+		s_contractionHierarchy = null;
+		s_landmarks = null;
+		s_routeCache = ISimulationSettings.IS_ROUTE_CACHE_ENABLED ? new RouteCache(ISimulationSettings.MAX_NUMBER_OF_CACHED_ROUTES) : null;
+		s_routingStatistics = ISimulationSettings.IS_ROUTING_STATISTICS_ENABLED ? new RoutingStatistics() : null;
+	}
+
+	public static RoutingGraph getRoutingGraph() {
+		return s_routingGraph;
+	}
+
+	/**
+	 * <p>This method preprocesses the routing graph into a {@link ContractionHierarchy} which is used for all subsequent searches.
+	 * It has to be called after {@link GraphUtility#initRoutingGraph(GeomPlanarGraph)}.</p>
+	 */
+	public static void initContractionHierarchy() {
+		if (s_routingGraph == null) {
+			LOG.log(Level.SEVERE, "The routing graph has not been initialized. Make sure GraphUtility.initRoutingGraph is called before initializing the contraction hierarchy!");
+			return;
+		}
+		s_contractionHierarchy = new ContractionHierarchy(s_routingGraph);
+	}
+
+	/**
+	 * <p>This method selects landmarks on the routing graph and precomputes their distances to all nodes.
+	 * Afterwards the A* search uses the lower bounds provided by the landmarks as heuristic (see {@link AStarHeuristic#LANDMARKS}).
+	 * It has to be called after {@link GraphUtility#initRoutingGraph(GeomPlanarGraph)}.</p>
+	 *
+	 * @param numberOfLandmarks - the number of landmarks to select.
+	 */
+	public static void initLandmarks(int numberOfLandmarks) {
+		if (s_routingGraph == null) {
+			LOG.log(Level.SEVERE, "The routing graph has not been initialized. Make sure GraphUtility.initRoutingGraph is called before initializing the landmarks!");
+			return;
+		}
+		s_landmarks = new Landmarks(s_routingGraph, numberOfLandmarks);
+	}
+
+	/**
+	 * @return ChainCollapsedGraph - the routing graph with collapsed chains used by the A* search or <code>null</code> if chain collapsing is disabled.
+	 */
+	public static ChainCollapsedGraph getChainCollapsedGraph() {
+		return s_chainCollapsedGraph;
+	}
+
+	/**
+	 * @return TrafficCosts - the congestion-dependent costs of the edges or <code>null</code> if congestion is disabled.
+	 */
+	public static TrafficCosts getTrafficCosts() {
+		return s_trafficCosts;
+	}
+
+	/**
+	 * @return Landmarks - the landmarks used by the A* heuristic or <code>null</code> if they have not been initialized.
+	 */
+	public static Landmarks getLandmarks() {
+		return s_landmarks;
+	}
+
+	/**
+	 * @return ContractionHierarchy - the contraction hierarchy used for searches or <code>null</code> if it has not been initialized.
+	 */
+	public static ContractionHierarchy getContractionHierarchy() {
+		return s_contractionHierarchy;
+	}
+
 	/**
-	 * <p>This method finds the shortest path between two nodes using the <a href="https://en.wikipedia.org/wiki/A*_search_algorithm">A* search algorithm</a>.</p>
-	 * 
+	 * @return RouteCache - the cache of the paths found or <code>null</code> if caching is disabled.
+	 */
+	public static RouteCache getRouteCache() {
+		return s_routeCache;
+	}
+
+	/**
+	 * @return RoutingStatistics - the statistics of all queries or <code>null</code> if they are not recorded.
+	 */
+	public static RoutingStatistics getRoutingStatistics() {
+		return s_routingStatistics;
+	}
+
+	/**
+	 * <p>This method finds the shortest path between two nodes using the <a href="https://en.wikipedia.org/wiki/A*_search_algorithm">A* search algorithm</a>
+	 * (or the {@link ContractionHierarchy} if it has been initialized).</p>
+	 *
 	 * @param start - the node at which the path starts.
 	 * @param goal - the node to which the path should lead.
-	 * @return ArrayList<GeomPlanarGraphDirectedEdge> - a list of edges which make up the path from the start node to the target node. 
+	 * @return ArrayList<GeomPlanarGraphDirectedEdge> - a list of edges which make up the path from the start node to the target node.
 	 * The indices represent the order in which each of the edges of the path have to be traversed.
+	 * The list is empty if start and goal are the same node or if there is no path between them.
+	 * The list is a copy and may therefore be modified by the caller.
 	 */
 	public static ArrayList<GeomPlanarGraphDirectedEdge> astarPath(Node start, Node goal) {
+		return new ArrayList<GeomPlanarGraphDirectedEdge>(findRoute(start, goal).getEdges());
+	}
+
+	/**
+	 * <p>This method calculates the distances and travel durations between all pairs of the provided nodes (see {@link TravelDistanceMatrix}).</p>
+	 *
+	 * @param anchors - the nodes between which the distances are calculated.
+	 * @return TravelDistanceMatrix - the distances between the nodes or <code>null</code> if the routing graph has not been initialized.
+	 */
+	public static TravelDistanceMatrix createTravelDistanceMatrix(List<Node> anchors) {
+		RoutingGraph graph = s_routingGraph;
+		if (graph == null) {
+			LOG.log(Level.SEVERE, "The routing graph has not been initialized. Make sure GraphUtility.initRoutingGraph is called before calculating distances!");
+			return null;
+		}
+		return new TravelDistanceMatrix(graph, s_searchState.get(), anchors);
+	}
+
+	/**
+	 * <p>This method creates an empty batch for the distances required during a planning phase (see {@link BatchRouter}).</p>
+	 *
+	 * @return BatchRouter - the empty batch or <code>null</code> if the routing graph has not been initialized.
+	 */
+	public static BatchRouter createBatchRouter() {
+		RoutingGraph graph = s_routingGraph;
+		if (graph == null) {
+			LOG.log(Level.SEVERE, "The routing graph has not been initialized. Make sure GraphUtility.initRoutingGraph is called before calculating distances!");
+			return null;
+		}
+		return new BatchRouter(graph);
+	}
+
+	/**
+	 * @return AStarSearchState - the search state of the current thread.
+	 */
+	static AStarSearchState getSearchState() {
+		return s_searchState.get();
+	}
+
+	/**
+	 * <p>This method finds the path between two nodes with the lowest cost with respect to the current {@link TrafficCosts} using {@link DStarLite}.
+	 * The search can be repaired when the costs change while the individual travels along the path, instead of searching the path again.
+	 * It neither uses the cache nor the contraction hierarchy, since the costs differ from the lengths of the edges.</p>
+	 *
+	 * @param start - the node at which the path starts.
+	 * @param goal - the node to which the path should lead.
+	 * @return DStarLite - the search or <code>null</code> if congestion is disabled, start and goal are the same node or if there is no path between them.
+	 */
+	public static DStarLite createIncrementalSearch(Node start, Node goal) {
+		RoutingGraph graph = s_routingGraph;
+		TrafficCosts trafficCosts = s_trafficCosts;
+		if (trafficCosts == null || trafficCosts.getGraph() != graph) {
+			LOG.log(Level.SEVERE, "The traffic costs have not been initialized. Make sure ISimulationSettings.IS_CONGESTION_ENABLED is set before searching paths with respect to congestion!");
+			return null;
+		}
+		if (!isValidQuery(graph, start, goal)) {
+			return null;
+		}
+		int startId = graph.getNodeId(start);
+		int goalId = graph.getNodeId(goal);
+		if (startId == goalId || !graph.isConnected(startId, goalId)) {
+			return null;
+		}
+		return new DStarLite(graph, trafficCosts, getLandmarks(graph), startId, goalId);
+	}
+
+	/**
+	 * <p>This method finds the shortest path between two nodes using a {@link BidirectionalSearch}, i.e. a forward search from the start node and a backward search from the goal node which meet in the middle.
+	 * It neither uses the cache nor the contraction hierarchy.</p>
+	 *
+	 * @param start - the node at which the path starts.
+	 * @param goal - the node to which the path should lead.
+	 * @param isParallel - whether or not the backward search runs concurrently on another thread.
+	 * @return ArrayList<GeomPlanarGraphDirectedEdge> - the same path as {@link GraphUtility#astarPath(Node, Node)} (unless there are several shortest paths of exactly the same length).
+	 * The list is a copy and may therefore be modified by the caller.
+	 */
+	public static ArrayList<GeomPlanarGraphDirectedEdge> bidirectionalPath(Node start, Node goal, boolean isParallel) {
+		RoutingGraph graph = s_routingGraph;
+		if (!isValidQuery(graph, start, goal) || !graph.isConnected(graph.getNodeId(start), graph.getNodeId(goal))) {
+			return new ArrayList<GeomPlanarGraphDirectedEdge>();
+		}
+		RoutingStatistics routingStatistics = s_routingStatistics;
+		long startTime = routingStatistics == null ? 0 : RoutingStatistics.startQuery();
+		Route route = bidirectionalRoute(graph, graph.getNodeId(start), graph.getNodeId(goal), isParallel);
+		if (routingStatistics != null) {
+			routingStatistics.record(RoutingCaller.TRAVELING, startTime, route.getLength());
+		}
+		return new ArrayList<GeomPlanarGraphDirectedEdge>(route.getEdges());
+	}
+
+	/**
+	 * <p>This method finds the shortest path between two nodes (see {@link GraphUtility#astarPath(Node, Node)}).
+	 * If caching is enabled, the path is only searched if it is not cached yet.
+	 * If the nodes are part of different connected components, the empty route is returned without searching (see {@link RoutingGraph#isConnected(int, int)}).</p>
+	 *
+	 * @param start - the node at which the path starts.
+	 * @param goal - the node to which the path should lead.
+	 * @return Route - the path from the start node to the target node and its length.
+	 * The route is empty if start and goal are the same node or if there is no path between them.
+	 */
+	public static Route findRoute(Node start, Node goal) {
+		RoutingGraph graph = s_routingGraph;
+		if (!isValidQuery(graph, start, goal)) {
+			return Route.EMPTY;
+		}
+		RoutingStatistics routingStatistics = s_routingStatistics;
+		long startTime = routingStatistics == null ? 0 : RoutingStatistics.startQuery();
+		Route route = lookUpOrSearchRoute(graph, graph.getNodeId(start), graph.getNodeId(goal));
+		if (routingStatistics != null) {
+			routingStatistics.record(RoutingCaller.TRAVELING, startTime, route.getLength());
+		}
+		return route;
+	}
+
+	/**
+	 * <p>This method looks up the path in the cache and searches it if it is not cached yet (see {@link GraphUtility#findRoute(Node, Node)}).</p>
+	 *
+	 * @param graph - the graph to search.
+	 * @param startId - the id of the node at which the path starts.
+	 * @param goalId - the id of the node to which the path should lead.
+	 * @return Route - the path from the start node to the target node or {@link Route#EMPTY} if start and goal are the same node or if there is no path between them.
+	 */
+	private static Route lookUpOrSearchRoute(RoutingGraph graph, int startId, int goalId) {
+		if (!graph.isConnected(startId, goalId)) {
+			return Route.EMPTY;
+		}
+		RouteCache routeCache = s_routeCache;
+		if (routeCache == null) {
+			return searchRoute(graph, startId, goalId);
+		}
+		Route route = routeCache.get(startId, goalId);
+		if (route == null) {
+			route = searchRoute(graph, startId, goalId);
+			routeCache.put(startId, goalId, route);
+		}
+		return route;
+	}
+
+	/**
+	 * <p>This method calculates the length of the shortest path between two nodes without reconstructing the path (see {@link GraphUtility#findRoute(Node, Node)}).
+	 * If caching is enabled and the path is cached, its length is returned. Otherwise only the length is searched and nothing is added to the cache.</p>
+	 *
+	 * <p><b>Note:</b> The length is the sum of the lengths of the lines of the edges, i.e. the distance an individual actually walks along the path.</p>
+	 *
+	 * @param start - the node at which the path starts.
+	 * @param goal - the node to which the path should lead.
+	 * @return double - the length of the shortest path or <code>0</code> if start and goal are the same node or if there is no path between them (i.e. the length of {@link Route#EMPTY}).
+	 */
+	public static double findDistance(Node start, Node goal) {
+		RoutingGraph graph = s_routingGraph;
+		if (!isValidQuery(graph, start, goal)) {
+			return 0;
+		}
+		RoutingStatistics routingStatistics = s_routingStatistics;
+		long startTime = routingStatistics == null ? 0 : RoutingStatistics.startQuery();
+		double distance = lookUpOrSearchDistance(graph, graph.getNodeId(start), graph.getNodeId(goal));
+		if (routingStatistics != null) {
+			routingStatistics.record(RoutingCaller.PLANNING, startTime, distance);
+		}
+		return distance;
+	}
+
+	/**
+	 * <p>This method looks up the path in the cache and only searches its length if it is not cached (see {@link GraphUtility#findDistance(Node, Node)}).</p>
+	 *
+	 * @param graph - the graph to search.
+	 * @param startId - the id of the node at which the path starts.
+	 * @param goalId - the id of the node to which the path should lead.
+	 * @return double - the length of the shortest path or <code>0</code> if start and goal are the same node or if there is no path between them.
+	 */
+	private static double lookUpOrSearchDistance(RoutingGraph graph, int startId, int goalId) {
+		if (!graph.isConnected(startId, goalId)) {
+			return 0;
+		}
+		RouteCache routeCache = s_routeCache;
+		if (routeCache != null) {
+			Route route = routeCache.get(startId, goalId);
+			if (route != null) {
+				return route.getLength();
+			}
+		}
+		return searchDistance(graph, startId, goalId);
+	}
+
+	/**
+	 * <p>This method calculates how long it takes to travel the shortest path between two nodes (see {@link GraphUtility#findDistance(Node, Node)}).</p>
+	 *
+	 * @param start - the node at which the path starts.
+	 * @param goal - the node to which the path should lead.
+	 * @return int - the travel duration in minutes (see {@link GraphUtility#calculateTravelDurationInMinutes(double)}).
+	 */
+	public static int findTravelDurationInMinutes(Node start, Node goal) {
+		return calculateTravelDurationInMinutes(findDistance(start, goal));
+	}
+
+	/**
+	 * @param distance - the distance to travel in meters.
+	 * @return int - the minutes it takes to travel the distance at {@link ISimulationSettings#MAX_VELOCITY} (rounded to whole minutes).
+	 */
+	public static int calculateTravelDurationInMinutes(double distance) {
+		return Math.toIntExact(Math.round(distance / ISimulationSettings.MAX_VELOCITY));
+	}
+
+	/**
+	 * <p>This method queries the contraction hierarchy if it belongs to the provided graph and executes the bidirectional resp. the A* search otherwise.</p>
+	 *
+	 * @param graph - the graph to search.
+	 * @param startId - the id of the node at which the path starts.
+	 * @param goalId - the id of the node to which the path should lead.
+	 * @return Route - the path from the start node to the target node or {@link Route#EMPTY} if start and goal are the same node or if there is no path between them.
+	 */
+	private static Route searchRoute(RoutingGraph graph, int startId, int goalId) {
+		ContractionHierarchy contractionHierarchy = s_contractionHierarchy;
+		if (contractionHierarchy != null && contractionHierarchy.getGraph() == graph) {
+			return contractionHierarchy.findRoute(startId, goalId);
+		}
+		if (ISimulationSettings.IS_BIDIRECTIONAL_SEARCH_ENABLED) {
+			return bidirectionalRoute(graph, startId, goalId, ISimulationSettings.IS_BIDIRECTIONAL_SEARCH_PARALLEL);
+		}
+		return astarRoute(graph, startId, goalId);
+	}
+
+	/**
+	 * <p>This method calculates the length of the shortest path like {@link GraphUtility#searchRoute(RoutingGraph, int, int)} does, but without reconstructing the path.</p>
+	 *
+	 * @param graph - the graph to search.
+	 * @param startId - the id of the node at which the path starts.
+	 * @param goalId - the id of the node to which the path should lead.
+	 * @return double - the length of the shortest path or <code>0</code> if start and goal are the same node or if there is no path between them.
+	 */
+	static double searchDistance(RoutingGraph graph, int startId, int goalId) {
+		ContractionHierarchy contractionHierarchy = s_contractionHierarchy;
+		if (contractionHierarchy != null && contractionHierarchy.getGraph() == graph) {
+			return contractionHierarchy.findDistance(startId, goalId);
+		}
+		if (ISimulationSettings.IS_BIDIRECTIONAL_SEARCH_ENABLED) {
+			return getBidirectionalSearch(graph).findDistance(startId, goalId, ISimulationSettings.IS_BIDIRECTIONAL_SEARCH_PARALLEL);
+		}
+		return astarDistance(graph, startId, goalId);
+	}
+
+	/**
+	 * <p>This method checks whether the path between the provided nodes can be searched and logs the reason otherwise.</p>
+	 *
+	 * @param graph - the graph to search.
+	 * @param start - the node at which the path starts.
+	 * @param goal - the node to which the path should lead.
+	 * @return boolean - <code>true</code> if the graph has been initialized and both nodes are part of it and <code>false</code> otherwise.
+	 */
+	private static boolean isValidQuery(RoutingGraph graph, Node start, Node goal) {
 		// initial check
 		if (start == null || goal == null) {
-			System.err.println("Error: invalid node provided to AStar");
+			LOG.log(Level.SEVERE, String.format("Invalid node provided to AStar. Got values start=%s; goal=%s.", String.valueOf(start), String.valueOf(goal)));
+			return false;
 		}
+		if (graph == null) {
+			LOG.log(Level.SEVERE, "The routing graph has not been initialized. Make sure GraphUtility.initRoutingGraph is called before searching paths!");
+			return false;
+		}
+		if (graph.getNodeId(start) < 0 || graph.getNodeId(goal) < 0) {
+			LOG.log(Level.SEVERE, String.format("Node is not part of the routing graph. Got values start=%s; goal=%s.", String.valueOf(start), String.valueOf(goal)));
+			return false;
+		}
+		return true;
+	}
 
-		// set up the containers for the result
-		ArrayList<GeomPlanarGraphDirectedEdge> result = new ArrayList<GeomPlanarGraphDirectedEdge>();
-
-		// containers for the meta information about the Nodes relative to the
-		// A* search
-		HashMap<Node, AStarNodeWrapper> foundNodes = new HashMap<Node, AStarNodeWrapper>();
+	/**
+	 * <p>This method executes a {@link BidirectionalSearch} on the provided graph. The search of the current thread is reused if it belongs to the graph and the current landmarks.</p>
+	 *
+	 * @param graph - the graph to search.
+	 * @param startId - the id of the node at which the path starts.
+	 * @param goalId - the id of the node to which the path should lead.
+	 * @param isParallel - whether or not the backward search runs concurrently on another thread.
+	 * @return Route - the path from the start node to the target node or {@link Route#EMPTY} if start and goal are the same node or if there is no path between them.
+	 */
+	private static Route bidirectionalRoute(RoutingGraph graph, int startId, int goalId, boolean isParallel) {
+		return getBidirectionalSearch(graph).findRoute(startId, goalId, isParallel);
+	}
 
-		AStarNodeWrapper startNode = new AStarNodeWrapper(start);
-		AStarNodeWrapper goalNode = new AStarNodeWrapper(goal);
-		foundNodes.put(start, startNode);
-		foundNodes.put(goal, goalNode);
+	/**
+	 * @param graph - the graph to search.
+	 * @return BidirectionalSearch - the bidirectional search of the current thread for the provided graph and the current landmarks.
+	 */
+	private static BidirectionalSearch getBidirectionalSearch(RoutingGraph graph) {
+		Landmarks landmarks = getLandmarks(graph);
+		BidirectionalSearch search = s_bidirectionalSearch.get();
+		if (search == null || search.getGraph() != graph || search.getLandmarks() != landmarks) {
+			search = new BidirectionalSearch(graph, landmarks);
+			s_bidirectionalSearch.set(search);
+		}
+		return search;
+	}
 
-		startNode.m_gx = 0;
-		startNode.m_hx = heuristic(start, goal);
-		startNode.m_fx = heuristic(start, goal);
+	/**
+	 * <p>This method executes the <a href="https://en.wikipedia.org/wiki/A*_search_algorithm">A* search algorithm</a> on the provided graph.</p>
+	 *
+	 * @param graph - the graph to search.
+	 * @param startId - the id of the node at which the path starts.
+	 * @param goalId - the id of the node to which the path should lead.
+	 * @return Route - the path from the start node to the target node or {@link Route#EMPTY} if start and goal are the same node or if there is no path between them.
+	 */
+	private static Route astarRoute(RoutingGraph graph, int startId, int goalId) {
+		ChainCollapsedGraph chainCollapsedGraph = s_chainCollapsedGraph;
+		if (chainCollapsedGraph != null && chainCollapsedGraph.getGraph() == graph && chainCollapsedGraph.canSearch(startId, goalId)) {
+			return chainCollapsedGraph.findRoute(s_searchState.get(), startId, goalId, getLandmarks(graph));
+		}
+		AStarSearchState state = astarSearch(graph, startId, goalId);
+		if (state == null) {
+			return Route.EMPTY;
+		}
+		// we have found the shortest possible path to the goal! Reconstruct the path and send it back.
+		return reconstructRoute(graph, state, goalId);
+	}
 
-		// A* containers: nodes to be investigated, nodes that have been investigated
-		ArrayList<AStarNodeWrapper> closedSet = new ArrayList<AStarNodeWrapper>();
-		ArrayList<AStarNodeWrapper> openSet = new ArrayList<AStarNodeWrapper>();
-		openSet.add(startNode);
+	/**
+	 * <p>This method executes the <a href="https://en.wikipedia.org/wiki/A*_search_algorithm">A* search algorithm</a> on the provided graph but does not reconstruct the path.</p>
+	 *
+	 * @param graph - the graph to search.
+	 * @param startId - the id of the node at which the path starts.
+	 * @param goalId - the id of the node to which the path should lead.
+	 * @return double - the length of the shortest path or <code>0</code> if start and goal are the same node or if there is no path between them.
+	 */
+	private static double astarDistance(RoutingGraph graph, int startId, int goalId) {
+		ChainCollapsedGraph chainCollapsedGraph = s_chainCollapsedGraph;
+		if (chainCollapsedGraph != null && chainCollapsedGraph.getGraph() == graph && chainCollapsedGraph.canSearch(startId, goalId)) {
+			return chainCollapsedGraph.findDistance(s_searchState.get(), startId, goalId, getLandmarks(graph));
+		}
+		AStarSearchState state = astarSearch(graph, startId, goalId);
+		return state == null ? 0 : state.m_gx[goalId];
+	}
 
-		while (openSet.size() > 0) { // while there are reachable nodes to investigate
+	/**
+	 * <p>This method executes the <a href="https://en.wikipedia.org/wiki/A*_search_algorithm">A* search algorithm</a> until the goal node is closed.</p>
+	 *
+	 * @param graph - the graph to search.
+	 * @param startId - the id of the node at which the path starts.
+	 * @param goalId - the id of the node to which the path should lead.
+	 * @return AStarSearchState - the state of the search containing the shortest path to the goal or <code>null</code> if there is no path between them.
+	 */
+	private static AStarSearchState astarSearch(RoutingGraph graph, int startId, int goalId) {
+		Landmarks landmarks = getLandmarks(graph);
+		AStarSearchState state = s_searchState.get();
+		state.prepare(graph.getNumberOfNodes());
+		IndexedMinHeap openSet = state.m_openSet;
+		state.discover(startId, 0, -1);
+		openSet.insertOrDecrease(startId, heuristic(graph, landmarks, startId, goalId));
 
-			AStarNodeWrapper x = findMin(openSet); // find the shortest path so far
-			if (x.m_node == goal) { // we have found the shortest possible path to the goal!
-									// Reconstruct the path and send it back.
-				return reconstructPath(goalNode);
+		while (!openSet.isEmpty()) { // while there are reachable nodes to investigate
+			int x = openSet.poll(); // find the shortest path so far
+			if (x == goalId) { // we have found the shortest possible path to the goal!
+				RoutingStatistics.addWork(state);
+				return state;
 			}
-			openSet.remove(x); // maintain the lists
-			closedSet.add(x);
+			state.close(x);
 
 			// check all the edges out from this Node
-			DirectedEdgeStar des = x.m_node.getOutEdges();
-			for (Object o : des.getEdges().toArray()) {
-				GeomPlanarGraphDirectedEdge l = (GeomPlanarGraphDirectedEdge) o;
-				Node next = null;
-				next = l.getToNode();
-
-				// get the A* meta information about this Node
-				AStarNodeWrapper nextNode;
-				if (foundNodes.containsKey(next)) {
-					nextNode = foundNodes.get(next);
-				} else {
-					nextNode = new AStarNodeWrapper(next);
-					foundNodes.put(next, nextNode);
-				}
-
-				if (closedSet.contains(nextNode)) // it has already been considered
-				{
+			for (int arc = graph.getFirstOutArc(x); arc < graph.getEndOutArc(x); arc++) {
+				int next = graph.getArcTarget(arc);
+				if (state.isClosed(next)) { // it has already been considered
 					continue;
 				}
-
 				// otherwise evaluate the cost of this node/edge combo
-				double tentativeCost = x.m_gx + length(l);
-				boolean better = false;
-
-				if (!openSet.contains(nextNode)) {
-					openSet.add(nextNode);
-					nextNode.m_hx = heuristic(next, goal);
-					better = true;
-				} else if (tentativeCost < nextNode.m_gx) {
-					better = true;
-				}
-
-				// store A* information about this promising candidate node
-				if (better) {
-					nextNode.m_cameFrom = x;
-					nextNode.m_edgeFrom = l;
-					nextNode.m_gx = tentativeCost;
-					nextNode.m_fx = nextNode.m_gx + nextNode.m_hx;
+				double tentativeCost = state.m_gx[x] + graph.getArcLength(arc);
+				if (!state.isDiscovered(next) || tentativeCost < state.m_gx[next]) {
+					// store A* information about this promising candidate node
+					state.discover(next, tentativeCost, arc);
+					openSet.insertOrDecrease(next, tentativeCost + heuristic(graph, landmarks, next, goalId));
 				}
 			}
 		}
-		return result;
+		RoutingStatistics.addWork(state);
+		return null;
 	}
 
 	/**
-	 * <p>Helper method for the A* search algorithm.
-	 * Calculates the euclidean distance between two nodes.
-	 * Is used as a heuristic for the real distance.</p>
-	 * 
-	 * @param startNode - the start node.
-	 * @param endNode - the end node.
-	 * @return double - a heuristic number for the distance between the two nodes.
+	 * <p>This method executes a <a href="https://en.wikipedia.org/wiki/Dijkstra%27s_algorithm">Dijkstra search</a> from the start node until all target nodes in the same component have been settled.
+	 * It is used to find the distances from one node to many others with a single search (see {@link TravelDistanceMatrix} and {@link BatchRouter}).</p>
+	 *
+	 * @param graph - the graph to search.
+	 * @param state - the state used for the search.
+	 * @param startId - the id of the node at which the paths start.
+	 * @param sortedTargetIds - the ids of the nodes to which the paths should lead in ascending order and without duplicates.
+	 * @param distances - the array in which the length of the shortest path to each target is stored (indexed like the targets).
+	 * The length is <code>0</code> if the target is the start node or if there is no path to it (i.e. the length of {@link Route#EMPTY}).
 	 */
-	private static double heuristic(Node startNode, Node endNode) {
-		Coordinate startCoordinate = startNode.getCoordinate();
-		Coordinate endCoordinate = endNode.getCoordinate();
-		return Math.sqrt(Math.pow(startCoordinate.x - endCoordinate.x, 2) + Math.pow(startCoordinate.y - endCoordinate.y, 2));
+	static void dijkstraDistances(RoutingGraph graph, AStarSearchState state, int startId, int[] sortedTargetIds, double[] distances) {
+		Arrays.fill(distances, 0, sortedTargetIds.length, 0);
+		// targets in other components are never settled and must not keep the search going
+		int remainingTargets = 0;
+		for (int targetId: sortedTargetIds) {
+			if (graph.isConnected(startId, targetId)) {
+				remainingTargets++;
+			}
+		}
+		if (remainingTargets == 0) {
+			return;
+		}
+		state.prepare(graph.getNumberOfNodes());
+		IndexedMinHeap openSet = state.m_openSet;
+		state.discover(startId, 0, -1);
+		openSet.insertOrDecrease(startId, 0);
+		while (!openSet.isEmpty() && remainingTargets > 0) {
+			int x = openSet.poll();
+			state.close(x);
+			int targetIndex = Arrays.binarySearch(sortedTargetIds, x);
+			if (targetIndex >= 0) {
+				distances[targetIndex] = state.m_gx[x];
+				remainingTargets--;
+			}
+			for (int arc = graph.getFirstOutArc(x); arc < graph.getEndOutArc(x); arc++) {
+				int next = graph.getArcTarget(arc);
+				if (state.isClosed(next)) {
+					continue;
+				}
+				double tentativeCost = state.m_gx[x] + graph.getArcLength(arc);
+				if (!state.isDiscovered(next) || tentativeCost < state.m_gx[next]) {
+					state.discover(next, tentativeCost, arc);
+					openSet.insertOrDecrease(next, tentativeCost);
+				}
+			}
+		}
+		RoutingStatistics.addWork(state);
 	}
 
 	/**
-	 *<p>Helper method for the A* search algorithm.
-	 * Find wrapper with minimal value for m_fx.</p>
-	 * 
-	 * @param set list of open nodes.
-	 * @return AStarNodeWrapper - the wrapper with the min value for m_fx.
+	 * @param graph - the graph to search.
+	 * @return Landmarks - the landmarks if they belong to the provided graph or <code>null</code> otherwise.
 	 */
-	private static AStarNodeWrapper findMin(ArrayList<AStarNodeWrapper> set) {
-		double min = 100000;
-		AStarNodeWrapper minNode = null;
-		for (AStarNodeWrapper n : set) {
-			if (n.m_fx < min) {
-				min = n.m_fx;
-				minNode = n;
-			}
-		}
-		return minNode;
+	private static Landmarks getLandmarks(RoutingGraph graph) {
+		Landmarks landmarks = s_landmarks;
+		return landmarks != null && landmarks.getGraph() == graph ? landmarks : null;
 	}
 
 	/**
-	 * <p>Takes the information about the given node n and returns the path that found it.</p>
-	 * 
-	 * @param n - the end point of the path.
-	 * @return ArrayList - a list of edges that lead from the given node to the node from which the search began.
+	 * <p>Helper method for the A* search algorithm.
+	 * Calculates the euclidean distance between two nodes and, if landmarks are provided, the better of it and the lower bound provided by the landmarks.
+	 * Is used as a heuristic for the real distance.</p>
+	 *
+	 * @param graph - the graph containing the nodes.
+	 * @param landmarks - the landmarks of the graph or <code>null</code>.
+	 * @param startNodeId - the id of the start node.
+	 * @param endNodeId - the id of the end node.
+	 * @return double - a heuristic number for the distance between the two nodes.
 	 */
-	private static ArrayList<GeomPlanarGraphDirectedEdge> reconstructPath(AStarNodeWrapper n) {
-		ArrayList<GeomPlanarGraphDirectedEdge> result = new ArrayList<GeomPlanarGraphDirectedEdge>();
-		AStarNodeWrapper x = n;
-		while (x.m_cameFrom != null) {
-			result.add(0, x.m_edgeFrom); // add this edge to the front of the list
-			x = x.m_cameFrom;
+	static double heuristic(RoutingGraph graph, Landmarks landmarks, int startNodeId, int endNodeId) {
+		double dx = graph.getX(startNodeId) - graph.getX(endNodeId);
+		double dy = graph.getY(startNodeId) - graph.getY(endNodeId);
+		double euclideanDistance = Math.sqrt(dx * dx + dy * dy);
+		if (landmarks == null) {
+			return euclideanDistance;
 		}
-
-		return result;
+		return Math.max(euclideanDistance, landmarks.getLowerBound(startNodeId, endNodeId));
 	}
 
 	/**
-	 * <p>This method calculates an approximation of the length of an edge.</p>
-	 * 
-	 * @param e - an edge
-	 * @return double - an approximation of the length of an edge.
+	 * <p>Takes the information about the given node and returns the path that found it.</p>
+	 *
+	 * @param graph - the graph which has been searched.
+	 * @param state - the state of the search which found the node.
+	 * @param nodeId - the id of the end point of the path.
+	 * @return Route - the edges that lead from the node from which the search began to the given node.
 	 */
-	private static double length(GeomPlanarGraphDirectedEdge e) {
-		Coordinate xnode = e.getFromNode().getCoordinate();
-		Coordinate ynode = e.getToNode().getCoordinate();
-		return Math.sqrt(Math.pow(xnode.x - ynode.x, 2) + Math.pow(xnode.y - ynode.y, 2));
+	private static Route reconstructRoute(RoutingGraph graph, AStarSearchState state, int nodeId) {
+		if (state.m_arcFrom[nodeId] == -1) {
+			return Route.EMPTY;
+		}
+		ArrayList<GeomPlanarGraphDirectedEdge> result = new ArrayList<GeomPlanarGraphDirectedEdge>();
+		int x = nodeId;
+		while (state.m_arcFrom[x] != -1) {
+			result.add(graph.getDirectedEdge(state.m_arcFrom[x]));
+			x = graph.getArcSource(state.m_arcFrom[x]);
+		}
+		Collections.reverse(result);
+		return new Route(result, state.m_gx[nodeId]);
 	}
 }
@@ -0,0 +1,188 @@
+package rfs0.aitam.utilities;
+
+import java.util.Arrays;
+
+/**
+ * <p>This class implements a binary min-heap over dense integer ids (e.g. the node ids of a {@link RoutingGraph}).
+ * In contrast to {@link java.util.PriorityQueue} it keeps track of the position of each id within the heap.
+ * This allows to decrease the key of an id which is already contained in O(log n) and to check whether an id is contained in O(1).</p>
+ *
+ * <p><b>Note:</b> An instance is meant to be reused for many searches.
+ * Use {@link IndexedMinHeap#clear()} to empty it, which only touches the ids that are still contained.</p>
+ */
+public final class IndexedMinHeap {
+
+	private static final int NOT_CONTAINED = -1;
+
+	/**
+	 * <p>The ids contained in the heap in heap order.</p>
+	 */
+	private int[] m_heap;
+	/**
+	 * <p>The key of each id. Only valid for ids which are contained.</p>
+	 */
+	private double[] m_keys;
+	/**
+	 * <p>The position of each id in {@link IndexedMinHeap#m_heap} or {@link IndexedMinHeap#NOT_CONTAINED}.</p>
+	 */
+	private int[] m_positions;
+	/**
+	 * <p>The number of ids currently contained.</p>
+	 */
+	private int m_size = 0;
+	/**
+	 * <p>The number of insertions, decreases and removals since the heap has been created (used for {@link RoutingStatistics}).</p>
+	 */
+	private long m_numberOfOperations = 0;
+
+	/**
+	 * @param capacity - the number of distinct ids (i.e. ids are in the range <code>0 - capacity - 1</code>).
+	 */
+	public IndexedMinHeap(int capacity) {
+		m_heap = new int[capacity];
+		m_keys = new double[capacity];
+		m_positions = new int[capacity];
+		Arrays.fill(m_positions, NOT_CONTAINED);
+	}
+
+	/**
+	 * <p>This method ensures that the heap can hold ids in the range <code>0 - capacity - 1</code>.
+	 * <b>Note:</b> The heap is cleared if it has to grow.</p>
+	 *
+	 * @param capacity - the required capacity.
+	 */
+	public void ensureCapacity(int capacity) {
+		if (m_positions.length < capacity) {
+			m_heap = new int[capacity];
+			m_keys = new double[capacity];
+			m_positions = new int[capacity];
+			Arrays.fill(m_positions, NOT_CONTAINED);
+			m_size = 0;
+		}
+	}
+
+	public long getNumberOfOperations() {
+		return m_numberOfOperations;
+	}
+
+	public boolean isEmpty() {
+		return m_size == 0;
+	}
+
+	public int size() {
+		return m_size;
+	}
+
+	public boolean contains(int id) {
+		return m_positions[id] != NOT_CONTAINED;
+	}
+
+	public double getKey(int id) {
+		return m_keys[id];
+	}
+
+	/**
+	 * @return double - the smallest key in the heap. Must not be called on an empty heap.
+	 */
+	public double peekKey() {
+		return m_keys[m_heap[0]];
+	}
+
+	/**
+	 * @return int - the id with the smallest key in the heap. Must not be called on an empty heap.
+	 */
+	public int peek() {
+		return m_heap[0];
+	}
+
+	/**
+	 * <p>This method inserts the provided id with the provided key.
+	 * If the id is already contained, its key is decreased to the provided key (or left as it is if the provided key is not smaller).</p>
+	 *
+	 * @param id - the id to insert.
+	 * @param key - the key of the id.
+	 */
+	public void insertOrDecrease(int id, double key) {
+		m_numberOfOperations++;
+		int position = m_positions[id];
+		if (position == NOT_CONTAINED) {
+			m_keys[id] = key;
+			m_heap[m_size] = id;
+			m_positions[id] = m_size;
+			m_size++;
+			siftUp(m_size - 1);
+		}
+		else if (key < m_keys[id]) {
+			m_keys[id] = key;
+			siftUp(position);
+		}
+	}
+
+	/**
+	 * <p>This method removes and returns the id with the smallest key. Must not be called on an empty heap.</p>
+	 *
+	 * @return int - the id with the smallest key.
+	 */
+	public int poll() {
+		m_numberOfOperations++;
+		int minId = m_heap[0];
+		m_size--;
+		if (m_size > 0) {
+			m_heap[0] = m_heap[m_size];
+			m_positions[m_heap[0]] = 0;
+			siftDown(0);
+		}
+		m_positions[minId] = NOT_CONTAINED;
+		return minId;
+	}
+
+	/**
+	 * <p>This method removes all ids from the heap.</p>
+	 */
+	public void clear() {
+		for (int i = 0; i < m_size; i++) {
+			m_positions[m_heap[i]] = NOT_CONTAINED;
+		}
+		m_size = 0;
+	}
+
+	private void siftUp(int position) {
+		int id = m_heap[position];
+		double key = m_keys[id];
+		while (position > 0) {
+			int parentPosition = (position - 1) >>> 1;
+			int parentId = m_heap[parentPosition];
+			if (key >= m_keys[parentId]) {
+				break;
+			}
+			m_heap[position] = parentId;
+			m_positions[parentId] = position;
+			position = parentPosition;
+		}
+		m_heap[position] = id;
+		m_positions[id] = position;
+	}
+
+	private void siftDown(int position) {
+		int id = m_heap[position];
+		double key = m_keys[id];
+		int half = m_size >>> 1;
+		while (position < half) {
+			int childPosition = 2 * position + 1;
+			int childId = m_heap[childPosition];
+			int rightPosition = childPosition + 1;
+			if (rightPosition < m_size && m_keys[m_heap[rightPosition]] < m_keys[childId]) {
+				childPosition = rightPosition;
+				childId = m_heap[childPosition];
+			}
+			if (key <= m_keys[childId]) {
+				break;
+			}
+			m_heap[position] = childId;
+			m_positions[childId] = position;
+			position = childPosition;
+		}
+		m_heap[position] = id;
+		m_positions[id] = position;
+	}
+}
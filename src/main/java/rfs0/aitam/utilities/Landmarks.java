@@ -0,0 +1,171 @@
+package rfs0.aitam.utilities;
+
+import java.util.Arrays;
+
+/**
+ * <p>This class provides the lower bounds for the <a href="https://en.wikipedia.org/wiki/A*_search_algorithm">A* search</a> with landmarks (also known as ALT, i.e. A*, landmarks and triangle inequality).</p>
+ *
+ * <p>The distances from a few landmarks to all nodes of a {@link RoutingGraph} are precomputed.
+ * By the triangle inequality <code>|d(L, t) - d(L, v)|</code> is a lower bound for the distance between the nodes <code>v</code> and <code>t</code> for each landmark <code>L</code>.
+ * In contrast to the straight-line distance, this lower bound takes detours into account (e.g. a river which can only be crossed at a few bridges).
+ * Hence A* expands much fewer nodes, especially for long trips.</p>
+ *
+ * <p>The landmarks are selected by the farthest heuristic: Each landmark is the node which is farthest from all landmarks selected so far.
+ * The first landmark is the node which is farthest from some node of the largest component of the graph.
+ * Thus, all landmarks are placed in the largest component. For nodes of other components no lower bound is provided (i.e. it is <code>0</code>).</p>
+ *
+ * <p><b>Note:</b> The path network is undirected, hence the distance from a landmark to a node equals the distance from the node to the landmark.
+ * Instances are immutable once constructed and can be used by several threads.</p>
+ */
+public final class Landmarks {
+
+	/**
+	 * <p>The graph for which the distances have been precomputed.</p>
+	 */
+	private final RoutingGraph m_graph;
+	/**
+	 * <p>The ids of the nodes selected as landmarks.</p>
+	 */
+	private final int[] m_landmarks;
+	/**
+	 * <p>The distance between each node and each landmark. The distances of a node are stored consecutively, i.e. the distance between node <code>n</code> and the <code>k</code>-th landmark is at index <code>n * number of landmarks + k</code>.
+	 * The distance is {@link Double#POSITIVE_INFINITY} if there is no path between them.</p>
+	 */
+	private final double[] m_distances;
+
+	/**
+	 * <p>This constructor selects the landmarks and precomputes the distances to all nodes.</p>
+	 *
+	 * @param graph - the graph on which the landmarks are selected.
+	 * @param numberOfLandmarks - the maximum number of landmarks to select. Fewer landmarks are selected if the graph does not have enough nodes.
+	 */
+	public Landmarks(RoutingGraph graph, int numberOfLandmarks) {
+		m_graph = graph;
+		int numberOfNodes = graph.getNumberOfNodes();
+		int[] landmarks = new int[Math.min(numberOfLandmarks, numberOfNodes)];
+		double[][] distancesOfLandmarks = new double[landmarks.length][];
+		AStarSearchState state = new AStarSearchState();
+		double[] distanceToClosestLandmark = new double[numberOfNodes];
+		Arrays.fill(distanceToClosestLandmark, Double.POSITIVE_INFINITY);
+
+		int numberOfSelectedLandmarks = 0;
+		int candidate = numberOfNodes == 0 ? -1 : findFarthestNode(calculateDistances(state, findNodeOfLargestComponent()), distanceToClosestLandmark);
+		while (numberOfSelectedLandmarks < landmarks.length && candidate != -1) {
+			double[] distances = calculateDistances(state, candidate);
+			landmarks[numberOfSelectedLandmarks] = candidate;
+			distancesOfLandmarks[numberOfSelectedLandmarks] = distances;
+			numberOfSelectedLandmarks++;
+			for (int node = 0; node < numberOfNodes; node++) {
+				distanceToClosestLandmark[node] = Math.min(distanceToClosestLandmark[node], distances[node]);
+			}
+			candidate = findFarthestNode(distanceToClosestLandmark, distanceToClosestLandmark);
+		}
+
+		m_landmarks = Arrays.copyOf(landmarks, numberOfSelectedLandmarks);
+		m_distances = new double[numberOfNodes * numberOfSelectedLandmarks];
+		for (int node = 0; node < numberOfNodes; node++) {
+			for (int k = 0; k < numberOfSelectedLandmarks; k++) {
+				m_distances[node * numberOfSelectedLandmarks + k] = distancesOfLandmarks[k][node];
+			}
+		}
+	}
+
+	public RoutingGraph getGraph() {
+		return m_graph;
+	}
+
+	public int getNumberOfLandmarks() {
+		return m_landmarks.length;
+	}
+
+	/**
+	 * @param index - the index of some landmark (<code>0 - number of landmarks - 1</code>).
+	 * @return int - the id of the node which is the landmark.
+	 */
+	public int getLandmark(int index) {
+		return m_landmarks[index];
+	}
+
+	/**
+	 * <p>This method calculates a lower bound for the distance between two nodes.</p>
+	 *
+	 * @param nodeId - the id of some node.
+	 * @param goalId - the id of some other node.
+	 * @return double - a lower bound for the distance between the two nodes.
+	 */
+	public double getLowerBound(int nodeId, int goalId) {
+		int numberOfLandmarks = m_landmarks.length;
+		int nodeOffset = nodeId * numberOfLandmarks;
+		int goalOffset = goalId * numberOfLandmarks;
+		double lowerBound = 0;
+		for (int k = 0; k < numberOfLandmarks; k++) {
+			double difference = Math.abs(m_distances[goalOffset + k] - m_distances[nodeOffset + k]);
+			if (difference > lowerBound && difference != Double.POSITIVE_INFINITY) { // NaN (both unreachable) and infinity (different components) do not provide a bound
+				lowerBound = difference;
+			}
+		}
+		return lowerBound;
+	}
+
+	/**
+	 * <p>This method runs a Dijkstra search from the provided node to all nodes of the graph.</p>
+	 *
+	 * @param state - the state used for the search.
+	 * @param source - the id of the node at which the search starts.
+	 * @return double[] - the distance from the source to each node or {@link Double#POSITIVE_INFINITY} if there is no path.
+	 */
+	private double[] calculateDistances(AStarSearchState state, int source) {
+		double[] distances = new double[m_graph.getNumberOfNodes()];
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		state.prepare(m_graph.getNumberOfNodes());
+		state.discover(source, 0, -1);
+		state.m_openSet.insertOrDecrease(source, 0);
+		while (!state.m_openSet.isEmpty()) {
+			int node = state.m_openSet.poll();
+			state.close(node);
+			distances[node] = state.m_gx[node];
+			for (int arc = m_graph.getFirstOutArc(node); arc < m_graph.getEndOutArc(node); arc++) {
+				int next = m_graph.getArcTarget(arc);
+				if (state.isClosed(next)) {
+					continue;
+				}
+				double tentativeCost = state.m_gx[node] + m_graph.getArcLength(arc);
+				if (!state.isDiscovered(next) || tentativeCost < state.m_gx[next]) {
+					state.discover(next, tentativeCost, arc);
+					state.m_openSet.insertOrDecrease(next, tentativeCost);
+				}
+			}
+		}
+		return distances;
+	}
+
+	/**
+	 * @return int - the first node of the component with the most nodes (see {@link RoutingGraph#getLargestComponent()}).
+	 */
+	private int findNodeOfLargestComponent() {
+		for (int node = 0; node < m_graph.getNumberOfNodes(); node++) {
+			if (m_graph.isInLargestComponent(node)) {
+				return node;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * @param distances - the distance of each node.
+	 * @param distanceToClosestLandmark - the distance of each node to the closest landmark selected so far.
+	 * @return int - the reachable node with the largest distance which is not yet a landmark, or <code>-1</code> if there is no such node.
+	 */
+	private static int findFarthestNode(double[] distances, double[] distanceToClosestLandmark) {
+		int farthestNode = -1;
+		for (int node = 0; node < distances.length; node++) {
+			if (distances[node] == Double.POSITIVE_INFINITY || distanceToClosestLandmark[node] == 0) { // the node is not reachable or it is a landmark
+				continue;
+			}
+			if (farthestNode == -1 || distances[node] > distances[farthestNode]) {
+				farthestNode = node;
+			}
+		}
+		return farthestNode;
+	}
+}
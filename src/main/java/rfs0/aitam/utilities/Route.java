@@ -0,0 +1,52 @@
+package rfs0.aitam.utilities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import sim.util.geo.GeomPlanarGraphDirectedEdge;
+
+/**
+ * <p>This class represents the shortest path between two nodes of a {@link RoutingGraph} together with its length.
+ * Instances are immutable and can therefore be shared between all {@link rfs0.aitam.individual.Individual}s (see {@link RouteCache}).</p>
+ */
+public final class Route {
+
+	/**
+	 * <p>The route which is returned if start and goal are the same node or if there is no path between them.</p>
+	 */
+	public static final Route EMPTY = new Route(new ArrayList<GeomPlanarGraphDirectedEdge>(), 0);
+
+	/**
+	 * <p>The edges which make up the path. The indices represent the order in which each of the edges of the path have to be traversed.</p>
+	 */
+	private final List<GeomPlanarGraphDirectedEdge> m_edges;
+	/**
+	 * <p>The sum of the lengths of the lines of all edges of the path.</p>
+	 */
+	private final double m_length;
+
+	/**
+	 * @param edges - the edges which make up the path. The list is not copied, thus it must not be modified afterwards.
+	 * @param length - the length of the path.
+	 */
+	Route(ArrayList<GeomPlanarGraphDirectedEdge> edges, double length) {
+		m_edges = Collections.unmodifiableList(edges);
+		m_length = length;
+	}
+
+	/**
+	 * @return List<GeomPlanarGraphDirectedEdge> - an unmodifiable list of the edges which make up the path.
+	 */
+	public List<GeomPlanarGraphDirectedEdge> getEdges() {
+		return m_edges;
+	}
+
+	public double getLength() {
+		return m_length;
+	}
+
+	public boolean isEmpty() {
+		return m_edges.isEmpty();
+	}
+}
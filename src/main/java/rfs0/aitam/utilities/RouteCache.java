@@ -0,0 +1,133 @@
+package rfs0.aitam.utilities;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>This class is a bounded cache of {@link Route}s keyed by the ids of their origin and destination node in a {@link RoutingGraph}.</p>
+ *
+ * <p>The same origin/destination pairs are routed over and over again (e.g. home to work and back), both when an individual evaluates the travel time of its plans
+ * and when it actually travels. Since household members share their home and work colleagues share their work location, many of these pairs are shared by several individuals.</p>
+ *
+ * <p>Once the cache contains the maximum number of routes, the least recently used route is evicted.
+ * The number of hits and misses is counted in order to be able to assess the effectiveness of the cache.</p>
+ *
+ * <p><b>Note:</b> Instances are thread safe. The routes are immutable and can therefore be shared between threads as well.</p>
+ */
+public final class RouteCache {
+
+	/**
+	 * <p>The maximum number of routes which are kept.</p>
+	 */
+	private final int m_maxSize;
+	/**
+	 * <p>The cached routes in access order, i.e. the least recently used route comes first.</p>
+	 */
+	private final LinkedHashMap<Long, Route> m_routes;
+	/**
+	 * <p>The number of lookups which found a route.</p>
+	 */
+	private final LongAdder m_hits = new LongAdder();
+	/**
+	 * <p>The number of lookups which did not find a route.</p>
+	 */
+	private final LongAdder m_misses = new LongAdder();
+
+	/**
+	 * @param maxSize - the maximum number of routes which are kept. Must be positive.
+	 */
+	public RouteCache(int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException(String.format("The size of the route cache must be positive. Got value maxSize=%d.", maxSize));
+		}
+		m_maxSize = maxSize;
+		m_routes = new LinkedHashMap<Long, Route>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Route> eldest) {
+				return size() > m_maxSize;
+			}
+		};
+	}
+
+	/**
+	 * @param originNodeId - the id of the node at which the route starts.
+	 * @param destinationNodeId - the id of the node at which the route ends.
+	 * @return Route - the cached route between the two nodes, or <code>null</code> if it is not cached.
+	 */
+	public Route get(int originNodeId, int destinationNodeId) {
+		Route route;
+		synchronized (m_routes) {
+			route = m_routes.get(createKey(originNodeId, destinationNodeId));
+		}
+		if (route == null) {
+			m_misses.increment();
+		}
+		else {
+			m_hits.increment();
+		}
+		return route;
+	}
+
+	/**
+	 * <p>This method caches the provided route. The least recently used route is evicted if the cache is full.</p>
+	 *
+	 * @param originNodeId - the id of the node at which the route starts.
+	 * @param destinationNodeId - the id of the node at which the route ends.
+	 * @param route - the route between the two nodes.
+	 */
+	public void put(int originNodeId, int destinationNodeId, Route route) {
+		synchronized (m_routes) {
+			m_routes.put(createKey(originNodeId, destinationNodeId), route);
+		}
+	}
+
+	/**
+	 * <p>This method removes all routes from the cache and resets the counters.</p>
+	 */
+	public void clear() {
+		synchronized (m_routes) {
+			m_routes.clear();
+		}
+		m_hits.reset();
+		m_misses.reset();
+	}
+
+	public int size() {
+		synchronized (m_routes) {
+			return m_routes.size();
+		}
+	}
+
+	public int getMaxSize() {
+		return m_maxSize;
+	}
+
+	public long getHits() {
+		return m_hits.sum();
+	}
+
+	public long getMisses() {
+		return m_misses.sum();
+	}
+
+	/**
+	 * @return double - the fraction of lookups which found a route, or <code>0</code> if there has not been any lookup yet.
+	 */
+	public double getHitRate() {
+		long hits = getHits();
+		long lookups = hits + getMisses();
+		return lookups == 0 ? 0 : (double) hits / lookups;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("RouteCache [size=%d, maxSize=%d, hits=%d, misses=%d, hitRate=%.3f]", size(), m_maxSize, getHits(), getMisses(), getHitRate());
+	}
+
+	private static Long createKey(int originNodeId, int destinationNodeId) {
+		return Long.valueOf(((long) originNodeId << 32) | (destinationNodeId & 0xFFFFFFFFL));
+	}
+}
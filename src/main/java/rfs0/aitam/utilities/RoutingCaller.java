@@ -0,0 +1,17 @@
+package rfs0.aitam.utilities;
+
+/**
+ * This enumeration contains the purposes for which paths are searched. The {@link RoutingStatistics} are broken down by them.
+ * <p>{@link RoutingCaller#PLANNING}: The distance between two activity locations required while planning (see {@link GraphUtility#findDistance(com.vividsolutions.jts.planargraph.Node, com.vividsolutions.jts.planargraph.Node)}).</p>
+ * <p>{@link RoutingCaller#DISTANCE_MATRIX}: The distances from one of the locations of an individual to its other locations (see {@link TravelDistanceMatrix}).</p>
+ * <p>{@link RoutingCaller#BATCH}: The distances from one node to the nodes requested by all individuals during a planning phase (see {@link BatchRouter}).</p>
+ * <p>{@link RoutingCaller#TRAVELING}: The path an individual travels to its next activity location (see {@link GraphUtility#findRoute(com.vividsolutions.jts.planargraph.Node, com.vividsolutions.jts.planargraph.Node)}).</p>
+ * <p>{@link RoutingCaller#REROUTING}: The path with respect to congestion of a traveling individual and its repairs (see {@link DStarLite}). The length recorded is the cost of the path with respect to the current {@link TrafficCosts}.</p>
+ */
+public enum RoutingCaller {
+	PLANNING,
+	DISTANCE_MATRIX,
+	BATCH,
+	TRAVELING,
+	REROUTING
+}
@@ -0,0 +1,503 @@
+package rfs0.aitam.utilities;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.CoordinateSequence;
+import com.vividsolutions.jts.planargraph.Node;
+
+import sim.util.geo.GeomPlanarGraph;
+import sim.util.geo.GeomPlanarGraphDirectedEdge;
+import sim.util.geo.GeomPlanarGraphEdge;
+
+/**
+ * <p>This class is a compact snapshot of a {@link GeomPlanarGraph} which is used for routing.
+ * The graph is stored in <a href="https://en.wikipedia.org/wiki/Sparse_matrix#Compressed_sparse_row_(CSR,_CRS_or_Yale_format)">compressed sparse row</a> format:</p>
+ *
+ * <p><b>Nodes</b></p>
+ *
+ * <p>Each node gets a dense id (<code>0 - number of nodes - 1</code>).
+ * The coordinates of the nodes are kept in primitive arrays.</p>
+ *
+ * <p><b>Arcs</b></p>
+ *
+ * <p>Each {@link GeomPlanarGraphDirectedEdge} becomes an arc with a dense id.
+ * The arcs leaving a node are stored consecutively, i.e. the outgoing arcs of node <code>n</code> are the arcs
+ * {@link RoutingGraph#getFirstOutArc(int)} (inclusive) to {@link RoutingGraph#getEndOutArc(int)} (exclusive).
+ * For each arc the target node, the reverse arc and the length are stored in primitive arrays.
+ * The length of an arc is the length of the line of its {@link GeomPlanarGraphEdge}, i.e. the distance an individual actually walks when traversing it.</p>
+ *
+ * <p><b>Edges</b></p>
+ *
+ * <p>Each {@link GeomPlanarGraphEdge} gets a dense id as well. The two arcs of an edge share the edge's id.</p>
+ *
+ * <p><b>Edge geometry</b></p>
+ *
+ * <p>The vertices of the lines of all edges are stored consecutively as well, i.e. the vertices of edge <code>e</code> are the vertices
+ * <code>m_firstVertexOfEdge[e]</code> (inclusive) to <code>m_firstVertexOfEdge[e + 1]</code> (exclusive).
+ * For each vertex the coordinates and the distance along the line from its start point (i.e. the cumulative arc length) are stored in primitive arrays.
+ * Thus, the point at some distance along an edge is found without creating any objects (see {@link RoutingGraph#locatePointOnEdge(int, double, Coordinate)}), which is used to move individuals.</p>
+ *
+ * <p><b>Components</b></p>
+ *
+ * <p>The connected components are labeled once when the snapshot is taken. Components are numbered in the order of their node with the lowest id.
+ * Thus, whether or not there is a path between two nodes can be answered in constant time (see {@link RoutingGraph#isConnected(int, int)}).</p>
+ *
+ * <p><b>Mapping to JTS</b></p>
+ *
+ * <p>All ids can be mapped back to the corresponding JTS objects (e.g. for movement and the UI) and vice versa.
+ * Nodes are looked up by their coordinate.
+ * Thus, copies of nodes of the graph (e.g. {@link rfs0.aitam.individual.Individual#getCurrentNode()}) are mapped to the same id as the original node.</p>
+ */
+public final class RoutingGraph {
+
+	/**
+	 * @category Nodes
+	 *
+	 * <p>The nodes of the graph indexed by their id.</p>
+	 */
+	private final Node[] m_nodes;
+	/**
+	 * <p>The x-coordinate of each node.</p>
+	 */
+	private final double[] m_x;
+	/**
+	 * <p>The y-coordinate of each node.</p>
+	 */
+	private final double[] m_y;
+	/**
+	 * <p>The id of the node at each coordinate of the graph.</p>
+	 */
+	private final HashMap<Coordinate, Integer> m_coordinateToNodeId;
+
+	/**
+	 * @category Arcs
+	 *
+	 * <p>The first outgoing arc of each node. The entry at index <code>number of nodes</code> is the total number of arcs.</p>
+	 */
+	private final int[] m_firstOutArc;
+	/**
+	 * <p>The node at the end of each arc.</p>
+	 */
+	private final int[] m_arcTarget;
+	/**
+	 * <p>The arc which traverses the same edge in the opposite direction.</p>
+	 */
+	private final int[] m_reverseArc;
+	/**
+	 * <p>The length of each arc.</p>
+	 */
+	private final double[] m_arcLength;
+	/**
+	 * <p>The edge traversed by each arc.</p>
+	 */
+	private final int[] m_arcEdge;
+	/**
+	 * <p>Whether each arc traverses the line of its edge from the start point to the end point.</p>
+	 */
+	private final boolean[] m_arcInDirectionOfLine;
+	/**
+	 * <p>The directed edge represented by each arc.</p>
+	 */
+	private final GeomPlanarGraphDirectedEdge[] m_directedEdges;
+	/**
+	 * <p>The id of the arc representing each directed edge.</p>
+	 */
+	private final IdentityHashMap<GeomPlanarGraphDirectedEdge, Integer> m_directedEdgeToArc;
+
+	/**
+	 * @category Edges
+	 *
+	 * <p>The edges of the graph indexed by their id.</p>
+	 */
+	private final GeomPlanarGraphEdge[] m_edges;
+	/**
+	 * <p>The id of each edge.</p>
+	 */
+	private final IdentityHashMap<GeomPlanarGraphEdge, Integer> m_edgeToId;
+
+	/**
+	 * @category Edge geometry
+	 *
+	 * <p>The index of the first vertex of each edge. The entry at index <code>number of edges</code> is the total number of vertices.</p>
+	 */
+	private final int[] m_firstVertexOfEdge;
+	/**
+	 * <p>The x coordinate of each vertex.</p>
+	 */
+	private final double[] m_vertexX;
+	/**
+	 * <p>The y coordinate of each vertex.</p>
+	 */
+	private final double[] m_vertexY;
+	/**
+	 * <p>The distance along the line of its edge from the start point of the line to each vertex.</p>
+	 */
+	private final double[] m_vertexDistance;
+
+	/**
+	 * @category Components
+	 *
+	 * <p>The connected component of each node.</p>
+	 */
+	private final int[] m_componentOfNode;
+	/**
+	 * <p>The number of nodes of each connected component.</p>
+	 */
+	private final int[] m_componentSize;
+	/**
+	 * <p>The component with the most nodes (the one with the lowest id if there are several) or <code>-1</code> if the graph has no nodes.</p>
+	 */
+	private final int m_largestComponent;
+
+	/**
+	 * @param graph - the graph of which a snapshot is taken.
+	 */
+	public RoutingGraph(GeomPlanarGraph graph) {
+		int numberOfNodes = graph.getNodes().size();
+		m_nodes = new Node[numberOfNodes];
+		m_x = new double[numberOfNodes];
+		m_y = new double[numberOfNodes];
+		m_coordinateToNodeId = new HashMap<>(2 * numberOfNodes);
+		int nodeId = 0;
+		for (Object nodeObj: graph.getNodes()) {
+			Node node = (Node) nodeObj;
+			m_nodes[nodeId] = node;
+			m_x[nodeId] = node.getCoordinate().x;
+			m_y[nodeId] = node.getCoordinate().y;
+			m_coordinateToNodeId.put(node.getCoordinate(), nodeId);
+			nodeId++;
+		}
+
+		m_firstOutArc = new int[numberOfNodes + 1];
+		for (int i = 0; i < numberOfNodes; i++) {
+			m_firstOutArc[i + 1] = m_firstOutArc[i] + m_nodes[i].getOutEdges().getDegree();
+		}
+		int numberOfArcs = m_firstOutArc[numberOfNodes];
+		m_arcTarget = new int[numberOfArcs];
+		m_reverseArc = new int[numberOfArcs];
+		m_arcLength = new double[numberOfArcs];
+		m_arcEdge = new int[numberOfArcs];
+		m_arcInDirectionOfLine = new boolean[numberOfArcs];
+		m_directedEdges = new GeomPlanarGraphDirectedEdge[numberOfArcs];
+		m_directedEdgeToArc = new IdentityHashMap<>(numberOfArcs);
+		// edges are numbered in the order they are first encountered, since the graph keeps its edges in a hash set
+		m_edges = new GeomPlanarGraphEdge[graph.getEdges().size()];
+		m_edgeToId = new IdentityHashMap<>(m_edges.length);
+		for (int i = 0; i < numberOfNodes; i++) {
+			int arc = m_firstOutArc[i];
+			for (Object directedEdgeObj: m_nodes[i].getOutEdges().getEdges()) {
+				GeomPlanarGraphDirectedEdge directedEdge = (GeomPlanarGraphDirectedEdge) directedEdgeObj;
+				GeomPlanarGraphEdge edge = (GeomPlanarGraphEdge) directedEdge.getEdge();
+				Integer edgeId = m_edgeToId.get(edge);
+				if (edgeId == null) {
+					edgeId = m_edgeToId.size();
+					m_edges[edgeId] = edge;
+					m_edgeToId.put(edge, edgeId);
+				}
+				m_arcTarget[arc] = m_coordinateToNodeId.get(directedEdge.getToNode().getCoordinate());
+				m_arcLength[arc] = edge.getLine().getLength();
+				m_arcEdge[arc] = edgeId;
+				m_arcInDirectionOfLine[arc] = directedEdge.getEdgeDirection();
+				m_directedEdges[arc] = directedEdge;
+				m_directedEdgeToArc.put(directedEdge, arc);
+				arc++;
+			}
+		}
+		for (int arc = 0; arc < numberOfArcs; arc++) {
+			m_reverseArc[arc] = m_directedEdgeToArc.get(m_directedEdges[arc].getSym());
+		}
+
+		m_firstVertexOfEdge = new int[m_edges.length + 1];
+		for (int edgeId = 0; edgeId < m_edges.length; edgeId++) {
+			m_firstVertexOfEdge[edgeId + 1] = m_firstVertexOfEdge[edgeId] + m_edges[edgeId].getLine().getNumPoints();
+		}
+		int numberOfVertices = m_firstVertexOfEdge[m_edges.length];
+		m_vertexX = new double[numberOfVertices];
+		m_vertexY = new double[numberOfVertices];
+		m_vertexDistance = new double[numberOfVertices];
+		for (int edgeId = 0; edgeId < m_edges.length; edgeId++) {
+			CoordinateSequence coordinates = m_edges[edgeId].getLine().getCoordinateSequence();
+			int vertex = m_firstVertexOfEdge[edgeId];
+			for (int i = 0; i < coordinates.size(); i++, vertex++) {
+				m_vertexX[vertex] = coordinates.getX(i);
+				m_vertexY[vertex] = coordinates.getY(i);
+				if (i > 0) {
+					double dx = m_vertexX[vertex] - m_vertexX[vertex - 1];
+					double dy = m_vertexY[vertex] - m_vertexY[vertex - 1];
+					m_vertexDistance[vertex] = m_vertexDistance[vertex - 1] + Math.sqrt(dx * dx + dy * dy);
+				}
+			}
+		}
+
+		m_componentOfNode = new int[numberOfNodes];
+		m_componentSize = labelComponents(m_componentOfNode);
+		int largestComponent = -1;
+		for (int component = 0; component < m_componentSize.length; component++) {
+			if (largestComponent == -1 || m_componentSize[component] > m_componentSize[largestComponent]) {
+				largestComponent = component;
+			}
+		}
+		m_largestComponent = largestComponent;
+	}
+
+	/**
+	 * <p>This method finds the connected components of the graph by a breadth-first search from each node which has not been visited yet.</p>
+	 *
+	 * @param componentOfNode - the array in which the component of each node is stored.
+	 * @return int[] - the number of nodes of each component.
+	 */
+	private int[] labelComponents(int[] componentOfNode) {
+		int numberOfNodes = componentOfNode.length;
+		Arrays.fill(componentOfNode, -1);
+		int[] componentSize = new int[numberOfNodes];
+		int[] queue = new int[numberOfNodes];
+		int numberOfComponents = 0;
+		for (int firstNode = 0; firstNode < numberOfNodes; firstNode++) {
+			if (componentOfNode[firstNode] != -1) {
+				continue;
+			}
+			componentOfNode[firstNode] = numberOfComponents;
+			queue[0] = firstNode;
+			int head = 0;
+			int tail = 1;
+			while (head < tail) {
+				int node = queue[head++];
+				for (int arc = getFirstOutArc(node); arc < getEndOutArc(node); arc++) {
+					int next = m_arcTarget[arc];
+					if (componentOfNode[next] == -1) {
+						componentOfNode[next] = numberOfComponents;
+						queue[tail++] = next;
+					}
+				}
+			}
+			componentSize[numberOfComponents++] = tail;
+		}
+		return Arrays.copyOf(componentSize, numberOfComponents);
+	}
+
+	/**
+	 * @category Nodes
+	 */
+
+	public int getNumberOfNodes() {
+		return m_nodes.length;
+	}
+
+	/**
+	 * @param node - some node of the graph (or a copy of it).
+	 * @return int - the id of the node, or <code>-1</code> if there is no node at the node's coordinate.
+	 */
+	public int getNodeId(Node node) {
+		return getNodeId(node.getCoordinate());
+	}
+
+	/**
+	 * @param coordinate - some coordinate.
+	 * @return int - the id of the node at the coordinate, or <code>-1</code> if there is no node at the coordinate.
+	 */
+	public int getNodeId(Coordinate coordinate) {
+		Integer nodeId = m_coordinateToNodeId.get(coordinate);
+		return nodeId == null ? -1 : nodeId.intValue();
+	}
+
+	public Node getNode(int nodeId) {
+		return m_nodes[nodeId];
+	}
+
+	public double getX(int nodeId) {
+		return m_x[nodeId];
+	}
+
+	public double getY(int nodeId) {
+		return m_y[nodeId];
+	}
+
+	/**
+	 * @category Arcs
+	 */
+
+	public int getNumberOfArcs() {
+		return m_arcTarget.length;
+	}
+
+	/**
+	 * @param nodeId - the id of some node.
+	 * @return int - the id of the first arc leaving the node.
+	 */
+	public int getFirstOutArc(int nodeId) {
+		return m_firstOutArc[nodeId];
+	}
+
+	/**
+	 * @param nodeId - the id of some node.
+	 * @return int - the id after the last arc leaving the node.
+	 */
+	public int getEndOutArc(int nodeId) {
+		return m_firstOutArc[nodeId + 1];
+	}
+
+	public int getArcTarget(int arc) {
+		return m_arcTarget[arc];
+	}
+
+	/**
+	 * @param arc - the id of some arc.
+	 * @return int - the id of the node at the start of the arc, which is the target of the reverse arc.
+	 */
+	public int getArcSource(int arc) {
+		return m_arcTarget[m_reverseArc[arc]];
+	}
+
+	public int getReverseArc(int arc) {
+		return m_reverseArc[arc];
+	}
+
+	public double getArcLength(int arc) {
+		return m_arcLength[arc];
+	}
+
+	public int getArcEdge(int arc) {
+		return m_arcEdge[arc];
+	}
+
+	/**
+	 * @param arc - the id of some arc.
+	 * @return boolean - <code>true</code> if the arc traverses the line of its edge from the start point to the end point, <code>false</code> if it traverses it in the opposite direction.
+	 */
+	public boolean isArcInDirectionOfLine(int arc) {
+		return m_arcInDirectionOfLine[arc];
+	}
+
+	public GeomPlanarGraphDirectedEdge getDirectedEdge(int arc) {
+		return m_directedEdges[arc];
+	}
+
+	/**
+	 * @param directedEdge - some directed edge of the graph.
+	 * @return int - the id of the arc representing the directed edge, or <code>-1</code> if it is not part of the graph.
+	 */
+	public int getArcId(GeomPlanarGraphDirectedEdge directedEdge) {
+		Integer arc = m_directedEdgeToArc.get(directedEdge);
+		return arc == null ? -1 : arc.intValue();
+	}
+
+	/**
+	 * @category Edges
+	 */
+
+	public int getNumberOfEdges() {
+		return m_edges.length;
+	}
+
+	public GeomPlanarGraphEdge getEdge(int edgeId) {
+		return m_edges[edgeId];
+	}
+
+	/**
+	 * @param edge - some edge of the graph.
+	 * @return int - the id of the edge, or <code>-1</code> if it is not part of the graph.
+	 */
+	public int getEdgeId(GeomPlanarGraphEdge edge) {
+		Integer edgeId = m_edgeToId.get(edge);
+		return edgeId == null ? -1 : edgeId.intValue();
+	}
+
+	/**
+	 * @category Edge geometry
+	 */
+
+	/**
+	 * @return double - the length of the line of the edge, i.e. the distance along the line from its start point to its end point.
+	 */
+	public double getEdgeLength(int edgeId) {
+		return m_vertexDistance[m_firstVertexOfEdge[edgeId + 1] - 1];
+	}
+
+	/**
+	 * <p>This method sets the provided coordinate to the point at the provided distance along the line of an edge.
+	 * The segment containing the point is found by a binary search on the cumulative arc lengths and the point is interpolated linearly on it.
+	 * No objects are created, hence it is used to move individuals in every step.</p>
+	 *
+	 * @param edgeId - the id of the edge.
+	 * @param distanceFromStart - the distance along the line from its start point. Values outside of <code>[0, length of the edge]</code> are clamped to the start and end point respectively.
+	 * @param result - the coordinate which is set to the point (its z coordinate is not changed).
+	 */
+	public void locatePointOnEdge(int edgeId, double distanceFromStart, Coordinate result) {
+		int low = m_firstVertexOfEdge[edgeId];
+		int high = m_firstVertexOfEdge[edgeId + 1] - 1;
+		if (distanceFromStart <= 0) {
+			result.x = m_vertexX[low];
+			result.y = m_vertexY[low];
+			return;
+		}
+		if (distanceFromStart >= m_vertexDistance[high]) {
+			result.x = m_vertexX[high];
+			result.y = m_vertexY[high];
+			return;
+		}
+		// invariant: m_vertexDistance[low] <= distanceFromStart < m_vertexDistance[high]
+		while (high - low > 1) {
+			int middle = (low + high) >>> 1;
+			if (m_vertexDistance[middle] <= distanceFromStart) {
+				low = middle;
+			}
+			else {
+				high = middle;
+			}
+		}
+		double fraction = (distanceFromStart - m_vertexDistance[low]) / (m_vertexDistance[high] - m_vertexDistance[low]);
+		result.x = m_vertexX[low] + fraction * (m_vertexX[high] - m_vertexX[low]);
+		result.y = m_vertexY[low] + fraction * (m_vertexY[high] - m_vertexY[low]);
+	}
+
+	/**
+	 * @category Components
+	 */
+
+	public int getNumberOfComponents() {
+		return m_componentSize.length;
+	}
+
+	/**
+	 * @param nodeId - the id of some node.
+	 * @return int - the connected component of the node.
+	 */
+	public int getComponent(int nodeId) {
+		return m_componentOfNode[nodeId];
+	}
+
+	/**
+	 * @param component - some component (<code>0 - number of components - 1</code>).
+	 * @return int - the number of nodes of the component.
+	 */
+	public int getComponentSize(int component) {
+		return m_componentSize[component];
+	}
+
+	/**
+	 * @return int - the component with the most nodes or <code>-1</code> if the graph has no nodes.
+	 */
+	public int getLargestComponent() {
+		return m_largestComponent;
+	}
+
+	/**
+	 * @param nodeId - the id of some node.
+	 * @return boolean - <code>true</code> if the node is part of the component with the most nodes and <code>false</code> otherwise.
+	 */
+	public boolean isInLargestComponent(int nodeId) {
+		return m_componentOfNode[nodeId] == m_largestComponent;
+	}
+
+	/**
+	 * @param startNodeId - the id of some node.
+	 * @param endNodeId - the id of another node.
+	 * @return boolean - <code>true</code> if there is a path between both nodes (i.e. they are part of the same component) and <code>false</code> otherwise.
+	 */
+	public boolean isConnected(int startNodeId, int endNodeId) {
+		return m_componentOfNode[startNodeId] == m_componentOfNode[endNodeId];
+	}
+}
@@ -0,0 +1,321 @@
+package rfs0.aitam.utilities;
+
+import java.util.EnumMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import rfs0.aitam.settings.ISimulationSettings;
+
+/**
+ * <p>This class records how much work each search for a path resp. a distance does, broken down by the purpose of the search (see {@link RoutingCaller}).
+ * For each query, it records the number of nodes settled, the number of arcs relaxed, the number of operations on the open set, the length of the path(s) found and the wall time.</p>
+ *
+ * <p>The engines (A* search, {@link ChainCollapsedGraph}, {@link BidirectionalSearch}, {@link ContractionHierarchy}, {@link DStarLite} and the Dijkstra search of {@link GraphUtility})
+ * add the work of each of their searches to the current query of their thread (see {@link RoutingStatistics#addWork(AStarSearchState)}).
+ * The entry points (e.g. {@link GraphUtility#findRoute(com.vividsolutions.jts.planargraph.Node, com.vividsolutions.jts.planargraph.Node)}) start a query before searching
+ * and record it afterwards (see {@link RoutingStatistics#startQuery()} and {@link RoutingStatistics#record(RoutingCaller, long, double)}).
+ * Queries answered by the {@link RouteCache} are recorded as well, hence they appear as queries without any work.</p>
+ *
+ * <p>The values are kept in histograms with logarithmic buckets built from {@link LongAdder}'s. Thus, the searches of several threads can record concurrently without locking.
+ * The percentiles are only approximations: each power of two is split into four buckets, hence a percentile is at most 25% larger than the actual value.</p>
+ *
+ * <p><b>Note:</b> The statistics are only recorded if {@link ISimulationSettings#IS_ROUTING_STATISTICS_ENABLED} is set. The summary is printed once the simulation is finished.</p>
+ */
+public final class RoutingStatistics {
+
+	/**
+	 * <p>The work of the current query of each thread: the number of settled nodes, relaxed arcs and heap operations.</p>
+	 */
+	private static final ThreadLocal<long[]> s_workOfCurrentQuery = ThreadLocal.withInitial(() -> new long[3]);
+
+	/**
+	 * <p>The histograms of each caller.</p>
+	 */
+	private final EnumMap<RoutingCaller, QueryHistograms> m_histogramsByCaller = new EnumMap<>(RoutingCaller.class);
+
+	public RoutingStatistics() {
+		for (RoutingCaller caller: RoutingCaller.values()) {
+			m_histogramsByCaller.put(caller, new QueryHistograms());
+		}
+	}
+
+	/**
+	 * <p>This method starts a new query on the current thread, i.e. it discards any work which has not been recorded.</p>
+	 *
+	 * @return long - the current value of {@link System#nanoTime()}, which has to be passed to {@link RoutingStatistics#record(RoutingCaller, long, double)}.
+	 */
+	public static long startQuery() {
+		long[] work = s_workOfCurrentQuery.get();
+		work[0] = 0;
+		work[1] = 0;
+		work[2] = 0;
+		return System.nanoTime();
+	}
+
+	/**
+	 * <p>This method adds the work of a search to the current query of the current thread.</p>
+	 *
+	 * @param state - the state of a search which has just finished.
+	 */
+	static void addWork(AStarSearchState state) {
+		addWork(state.getNumberOfSettledNodes(), state.getNumberOfRelaxedArcs(), state.getNumberOfHeapOperations());
+	}
+
+	/**
+	 * <p>This method adds the provided work to the current query of the current thread.</p>
+	 *
+	 * @param numberOfSettledNodes - the number of nodes settled resp. expanded.
+	 * @param numberOfRelaxedArcs - the number of times a cheaper way to a node has been found.
+	 * @param numberOfHeapOperations - the number of insertions, decreases and removals of the open set.
+	 */
+	static void addWork(long numberOfSettledNodes, long numberOfRelaxedArcs, long numberOfHeapOperations) {
+		if (!ISimulationSettings.IS_ROUTING_STATISTICS_ENABLED) {
+			return;
+		}
+		long[] work = s_workOfCurrentQuery.get();
+		work[0] += numberOfSettledNodes;
+		work[1] += numberOfRelaxedArcs;
+		work[2] += numberOfHeapOperations;
+	}
+
+	/**
+	 * <p>This method records the current query of the current thread, which found one path.</p>
+	 *
+	 * @param caller - the purpose of the query.
+	 * @param startTime - the value returned by {@link RoutingStatistics#startQuery()}.
+	 * @param pathLength - the length of the path found in meters (<code>0</code> if there is none).
+	 */
+	public void record(RoutingCaller caller, long startTime, double pathLength) {
+		long duration = System.nanoTime() - startTime;
+		QueryHistograms histograms = m_histogramsByCaller.get(caller);
+		recordWork(histograms, duration);
+		histograms.m_pathLengthInMeters.add(Math.round(pathLength));
+	}
+
+	/**
+	 * <p>This method records the current query of the current thread, which found the paths from one node to several others at once.</p>
+	 *
+	 * @param caller - the purpose of the query.
+	 * @param startTime - the value returned by {@link RoutingStatistics#startQuery()}.
+	 * @param pathLengths - the lengths of the paths found in meters.
+	 * @param numberOfPaths - the number of paths found, i.e. the number of leading entries of <code>pathLengths</code> to record.
+	 */
+	public void record(RoutingCaller caller, long startTime, double[] pathLengths, int numberOfPaths) {
+		long duration = System.nanoTime() - startTime;
+		QueryHistograms histograms = m_histogramsByCaller.get(caller);
+		recordWork(histograms, duration);
+		for (int i = 0; i < numberOfPaths; i++) {
+			histograms.m_pathLengthInMeters.add(Math.round(pathLengths[i]));
+		}
+	}
+
+	private void recordWork(QueryHistograms histograms, long durationInNanos) {
+		long[] work = s_workOfCurrentQuery.get();
+		histograms.m_settledNodes.add(work[0]);
+		histograms.m_relaxedArcs.add(work[1]);
+		histograms.m_heapOperations.add(work[2]);
+		histograms.m_latencyInMicroseconds.add(durationInNanos / 1000);
+		work[0] = 0;
+		work[1] = 0;
+		work[2] = 0;
+	}
+
+	/**
+	 * @param caller - the purpose of the queries.
+	 * @return long - the number of queries recorded for the provided caller.
+	 */
+	public long getNumberOfQueries(RoutingCaller caller) {
+		return m_histogramsByCaller.get(caller).m_latencyInMicroseconds.getCount();
+	}
+
+	/**
+	 * @param caller - the purpose of the queries.
+	 * @return Histogram - the number of nodes settled by each query of the provided caller.
+	 */
+	public Histogram getSettledNodes(RoutingCaller caller) {
+		return m_histogramsByCaller.get(caller).m_settledNodes;
+	}
+
+	/**
+	 * @param caller - the purpose of the queries.
+	 * @return Histogram - the number of arcs relaxed by each query of the provided caller.
+	 */
+	public Histogram getRelaxedArcs(RoutingCaller caller) {
+		return m_histogramsByCaller.get(caller).m_relaxedArcs;
+	}
+
+	/**
+	 * @param caller - the purpose of the queries.
+	 * @return Histogram - the number of operations on the open set of each query of the provided caller.
+	 */
+	public Histogram getHeapOperations(RoutingCaller caller) {
+		return m_histogramsByCaller.get(caller).m_heapOperations;
+	}
+
+	/**
+	 * @param caller - the purpose of the queries.
+	 * @return Histogram - the length in meters of each path found by the queries of the provided caller.
+	 */
+	public Histogram getPathLengthInMeters(RoutingCaller caller) {
+		return m_histogramsByCaller.get(caller).m_pathLengthInMeters;
+	}
+
+	/**
+	 * @param caller - the purpose of the queries.
+	 * @return Histogram - the wall time in microseconds of each query of the provided caller.
+	 */
+	public Histogram getLatencyInMicroseconds(RoutingCaller caller) {
+		return m_histogramsByCaller.get(caller).m_latencyInMicroseconds;
+	}
+
+	/**
+	 * @return String - a summary of the histograms of each caller for which at least one query has been recorded.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder summary = new StringBuilder("RoutingStatistics");
+		for (RoutingCaller caller: RoutingCaller.values()) {
+			QueryHistograms histograms = m_histogramsByCaller.get(caller);
+			long numberOfQueries = histograms.m_latencyInMicroseconds.getCount();
+			if (numberOfQueries == 0) {
+				continue;
+			}
+			summary.append(String.format("%n  %s [queries=%d, totalTime=%d ms]", caller, numberOfQueries, histograms.m_latencyInMicroseconds.getSum() / 1000));
+			summary.append(String.format("%n    latency in us:   %s", histograms.m_latencyInMicroseconds));
+			summary.append(String.format("%n    settled nodes:   %s", histograms.m_settledNodes));
+			summary.append(String.format("%n    relaxed arcs:    %s", histograms.m_relaxedArcs));
+			summary.append(String.format("%n    heap operations: %s", histograms.m_heapOperations));
+			summary.append(String.format("%n    path length (m): %s", histograms.m_pathLengthInMeters));
+		}
+		return summary.toString();
+	}
+
+	/**
+	 * <p>The histograms of the queries of one caller.</p>
+	 */
+	private static final class QueryHistograms {
+
+		private final Histogram m_settledNodes = new Histogram();
+		private final Histogram m_relaxedArcs = new Histogram();
+		private final Histogram m_heapOperations = new Histogram();
+		private final Histogram m_pathLengthInMeters = new Histogram();
+		private final Histogram m_latencyInMicroseconds = new Histogram();
+	}
+
+	/**
+	 * <p>A histogram of non-negative values which can be updated concurrently without locking.
+	 * Values up to <code>3</code> have their own bucket. Above, each power of two is split into four buckets of equal width.</p>
+	 */
+	public static final class Histogram {
+
+		/**
+		 * <p>The number of buckets required to hold any non-negative long value.</p>
+		 */
+		private static final int NUMBER_OF_BUCKETS = 4 * 62;
+
+		/**
+		 * <p>The number of values in each bucket.</p>
+		 */
+		private final LongAdder[] m_buckets = new LongAdder[NUMBER_OF_BUCKETS];
+		/**
+		 * <p>The number of values recorded.</p>
+		 */
+		private final LongAdder m_count = new LongAdder();
+		/**
+		 * <p>The sum of the values recorded.</p>
+		 */
+		private final LongAdder m_sum = new LongAdder();
+		/**
+		 * <p>The largest value recorded.</p>
+		 */
+		private final LongAccumulator m_max = new LongAccumulator(Long::max, 0);
+
+		public Histogram() {
+			for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+				m_buckets[i] = new LongAdder();
+			}
+		}
+
+		/**
+		 * @param value - the value to record. Negative values are recorded as <code>0</code>.
+		 */
+		public void add(long value) {
+			value = Math.max(0, value);
+			m_buckets[getBucket(value)].increment();
+			m_count.increment();
+			m_sum.add(value);
+			m_max.accumulate(value);
+		}
+
+		public long getCount() {
+			return m_count.sum();
+		}
+
+		public long getSum() {
+			return m_sum.sum();
+		}
+
+		public long getMax() {
+			return m_max.get();
+		}
+
+		/**
+		 * @return double - the mean of the values recorded or <code>0</code> if none have been recorded.
+		 */
+		public double getMean() {
+			long count = getCount();
+			return count == 0 ? 0 : (double) getSum() / count;
+		}
+
+		/**
+		 * @param percentile - the percentile in the range <code>0 - 100</code>.
+		 * @return long - the upper bound of the bucket containing the percentile (but at most the largest value recorded) or <code>0</code> if no values have been recorded.
+		 */
+		public long getPercentile(double percentile) {
+			long count = getCount();
+			if (count == 0) {
+				return 0;
+			}
+			long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+			long numberOfValues = 0;
+			for (int bucket = 0; bucket < NUMBER_OF_BUCKETS; bucket++) {
+				numberOfValues += m_buckets[bucket].sum();
+				if (numberOfValues >= rank) {
+					return Math.min(getUpperBound(bucket), getMax());
+				}
+			}
+			return getMax();
+		}
+
+		/**
+		 * @param value - some non-negative value.
+		 * @return int - the index of the bucket containing the value.
+		 */
+		static int getBucket(long value) {
+			if (value < 4) {
+				return (int) value;
+			}
+			int exponent = 63 - Long.numberOfLeadingZeros(value);
+			int subBucket = (int) (value >>> (exponent - 2)) & 3;
+			return 4 * (exponent - 1) + subBucket;
+		}
+
+		/**
+		 * @param bucket - the index of some bucket.
+		 * @return long - the largest value contained in the bucket.
+		 */
+		static long getUpperBound(int bucket) {
+			if (bucket < 4) {
+				return bucket;
+			}
+			int exponent = bucket / 4 + 1;
+			int subBucket = bucket % 4;
+			return ((5L + subBucket) << (exponent - 2)) - 1;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("mean=%.1f, p50=%d, p90=%d, p99=%d, max=%d", getMean(), getPercentile(50), getPercentile(90), getPercentile(99), getMax());
+		}
+	}
+}
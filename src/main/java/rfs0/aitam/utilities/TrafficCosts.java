@@ -0,0 +1,172 @@
+package rfs0.aitam.utilities;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+import rfs0.aitam.settings.ISimulationSettings;
+
+/**
+ * <p>This class contains the congestion-dependent cost of each edge of a {@link RoutingGraph}.</p>
+ *
+ * <p>The cost of an edge is derived from the number of individuals currently traveling on it by the BPR function of the Bureau of Public Roads:
+ * <code>length * (1 + {@link ISimulationSettings#BPR_ALPHA} * (individuals / capacity)^{@link ISimulationSettings#BPR_BETA})</code>,
+ * where the capacity of an edge is its length times {@link ISimulationSettings#NUMBER_OF_INDIVIDUALS_PER_METER_AT_CAPACITY}.
+ * Thus, the cost of an edge is never less than its length and the heuristics of the searches remain admissible.</p>
+ *
+ * <p>The costs are not updated each time an individual enters or leaves an edge, but only when {@link TrafficCosts#update(EdgeTraffic)} is called (i.e. every {@link ISimulationSettings#CONGESTION_UPDATE_INTERVAL_IN_MINUTES} minutes).
+ * Only changes of at least {@link ISimulationSettings#MIN_RELATIVE_CHANGE_OF_TRAFFIC_COST} are applied to avoid re-routing due to minor fluctuations.
+ * Each update which changes at least one cost increments the version of the costs and the edges changed by the last updates are kept.
+ * Hence, an incremental search (see {@link DStarLite}) only has to repair the part of its search which is affected by the edges which changed since it last updated.</p>
+ *
+ * <p><b>Note:</b> The costs are neither updated nor read concurrently, since they are updated before the individuals move.</p>
+ */
+public final class TrafficCosts {
+
+	/**
+	 * <p>The number of updates for which the changed edges are kept. Searches which are further behind have to start over.</p>
+	 */
+	private static final int NUMBER_OF_UPDATES_KEPT = 12;
+
+	/**
+	 * <p>The graph of which the edge costs are kept.</p>
+	 */
+	private final RoutingGraph m_graph;
+	/**
+	 * <p>The length of each edge, i.e. its cost if there is no traffic.</p>
+	 */
+	private final double[] m_freeFlowCost;
+	/**
+	 * <p>The current cost of each edge.</p>
+	 */
+	private final double[] m_edgeCost;
+	/**
+	 * <p>The edges whose cost currently differs from the free flow cost.</p>
+	 */
+	private final LinkedHashSet<Integer> m_congestedEdges = new LinkedHashSet<>();
+	/**
+	 * <p>The edges changed by each of the last {@link TrafficCosts#NUMBER_OF_UPDATES_KEPT} updates (the last one at the end).</p>
+	 */
+	private final ArrayDeque<int[]> m_changedEdgesOfLastUpdates = new ArrayDeque<>();
+	/**
+	 * <p>The number of updates which changed at least one cost.</p>
+	 */
+	private long m_version = 0;
+
+	/**
+	 * @param graph - the graph of which the edge costs are kept. Initially, there is no traffic on any edge.
+	 */
+	public TrafficCosts(RoutingGraph graph) {
+		m_graph = graph;
+		m_freeFlowCost = new double[graph.getNumberOfEdges()];
+		for (int arc = 0; arc < graph.getNumberOfArcs(); arc++) {
+			m_freeFlowCost[graph.getArcEdge(arc)] = graph.getArcLength(arc);
+		}
+		m_edgeCost = Arrays.copyOf(m_freeFlowCost, m_freeFlowCost.length);
+	}
+
+	public RoutingGraph getGraph() {
+		return m_graph;
+	}
+
+	public long getVersion() {
+		return m_version;
+	}
+
+	/**
+	 * @param arc - the id of some arc.
+	 * @return double - the current cost of traversing the arc.
+	 */
+	public double getArcCost(int arc) {
+		return m_edgeCost[m_graph.getArcEdge(arc)];
+	}
+
+	/**
+	 * @param edgeId - the id of some edge.
+	 * @return double - the current cost of traversing the edge.
+	 */
+	public double getEdgeCost(int edgeId) {
+		return m_edgeCost[edgeId];
+	}
+
+	/**
+	 * <p>This method updates the costs of the edges based on the number of individuals currently traveling on them as counted by the provided {@link EdgeTraffic}.</p>
+	 *
+	 * @param edgeTraffic - the traffic counted on each edge of the graph.
+	 * @return boolean - <code>true</code> if the cost of at least one edge has changed and <code>false</code> otherwise.
+	 */
+	public boolean update(EdgeTraffic edgeTraffic) {
+		return update(edgeTraffic.getNumberOfIndividuals());
+	}
+
+	/**
+	 * @param numberOfIndividuals - the number of individuals currently traveling on each edge.
+	 * @return boolean - <code>true</code> if the cost of at least one edge has changed and <code>false</code> otherwise.
+	 */
+	private boolean update(int[] numberOfIndividuals) {
+		LinkedHashSet<Integer> edgesToUpdate = new LinkedHashSet<>(m_congestedEdges);
+		for (int edgeId = 0; edgeId < numberOfIndividuals.length; edgeId++) {
+			if (numberOfIndividuals[edgeId] > 0) {
+				edgesToUpdate.add(edgeId);
+			}
+		}
+		int[] changedEdges = new int[edgesToUpdate.size()];
+		int numberOfChangedEdges = 0;
+		for (int edgeId: edgesToUpdate) {
+			double cost = calculateCost(edgeId, numberOfIndividuals[edgeId]);
+			boolean isFreeFlow = cost == m_freeFlowCost[edgeId];
+			if (Math.abs(cost - m_edgeCost[edgeId]) >= ISimulationSettings.MIN_RELATIVE_CHANGE_OF_TRAFFIC_COST * m_freeFlowCost[edgeId] || isFreeFlow && m_edgeCost[edgeId] != cost) {
+				m_edgeCost[edgeId] = cost;
+				changedEdges[numberOfChangedEdges++] = edgeId;
+				if (isFreeFlow) {
+					m_congestedEdges.remove(edgeId);
+				}
+				else {
+					m_congestedEdges.add(edgeId);
+				}
+			}
+		}
+		if (numberOfChangedEdges == 0) {
+			return false;
+		}
+		m_changedEdgesOfLastUpdates.addLast(Arrays.copyOf(changedEdges, numberOfChangedEdges));
+		if (m_changedEdgesOfLastUpdates.size() > NUMBER_OF_UPDATES_KEPT) {
+			m_changedEdgesOfLastUpdates.removeFirst();
+		}
+		m_version++;
+		return true;
+	}
+
+	/**
+	 * @param version - the version of the costs known to the caller.
+	 * @return int[] - the ids of the edges which changed since the provided version (each only once) or <code>null</code> if they are no longer known.
+	 */
+	public int[] getChangedEdgesSince(long version) {
+		long numberOfUpdates = m_version - version;
+		if (numberOfUpdates < 0 || numberOfUpdates > m_changedEdgesOfLastUpdates.size()) {
+			return null;
+		}
+		LinkedHashSet<Integer> changedEdges = new LinkedHashSet<>();
+		Iterator<int[]> lastUpdates = m_changedEdgesOfLastUpdates.descendingIterator();
+		for (long i = 0; i < numberOfUpdates; i++) {
+			for (int edgeId: lastUpdates.next()) {
+				changedEdges.add(edgeId);
+			}
+		}
+		return changedEdges.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * @param edgeId - the id of some edge.
+	 * @param numberOfIndividuals - the number of individuals traveling on the edge.
+	 * @return double - the cost of the edge according to the BPR function.
+	 */
+	private double calculateCost(int edgeId, int numberOfIndividuals) {
+		if (numberOfIndividuals == 0) {
+			return m_freeFlowCost[edgeId];
+		}
+		double capacity = Math.max(1, m_freeFlowCost[edgeId] * ISimulationSettings.NUMBER_OF_INDIVIDUALS_PER_METER_AT_CAPACITY);
+		return m_freeFlowCost[edgeId] * (1 + ISimulationSettings.BPR_ALPHA * Math.pow(numberOfIndividuals / capacity, ISimulationSettings.BPR_BETA));
+	}
+}
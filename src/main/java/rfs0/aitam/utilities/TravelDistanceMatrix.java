@@ -0,0 +1,161 @@
+package rfs0.aitam.utilities;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.vividsolutions.jts.planargraph.Node;
+
+import rfs0.aitam.settings.ISimulationSettings;
+
+/**
+ * <p>This class contains the lengths of the shortest paths between all pairs of a small set of nodes (the anchors) as well as the corresponding travel durations.</p>
+ *
+ * <p>An individual only ever plans activities at a fixed set of locations (its home, work place, preferred place for leisure and the other places for these activities).
+ * Instead of searching a path each time the travel duration between two of these locations is required, the matrix is calculated once by a Dijkstra search from each anchor which stops as soon as all other anchors have been settled.
+ * Afterwards, the distance and the travel duration between two anchors can be looked up in constant time.</p>
+ *
+ * <p><b>Note:</b> The path network is undirected, hence the matrix is symmetric and each search only has to settle the anchors which come after its source.
+ * The distance between two anchors which are not connected is <code>0</code> (i.e. the same as the length of {@link Route#EMPTY}).
+ * Instances are immutable once constructed and can be used by several threads.</p>
+ */
+public final class TravelDistanceMatrix {
+
+	/**
+	 * <p>The graph on which the distances have been calculated.</p>
+	 */
+	private final RoutingGraph m_graph;
+	/**
+	 * <p>The ids of the anchors. Each node occurs only once.</p>
+	 */
+	private final int[] m_anchors;
+	/**
+	 * <p>The length of the shortest path between each pair of anchors. The distance from the <code>i</code>-th to the <code>j</code>-th anchor is stored at index <code>i * number of anchors + j</code>.</p>
+	 */
+	private final double[] m_distances;
+	/**
+	 * <p>The travel duration in minutes between each pair of anchors (indexed like {@link TravelDistanceMatrix#m_distances}).</p>
+	 */
+	private final int[] m_travelDurationsInMinutes;
+
+	/**
+	 * <p>This constructor calculates the distances between all pairs of the provided anchors.</p>
+	 *
+	 * @param graph - the graph on which the distances are calculated.
+	 * @param state - the state used for the searches.
+	 * @param anchors - the nodes between which the distances are calculated. Nodes which are not part of the graph are ignored.
+	 */
+	TravelDistanceMatrix(RoutingGraph graph, AStarSearchState state, List<Node> anchors) {
+		m_graph = graph;
+		int[] anchorIds = new int[anchors.size()];
+		int numberOfAnchors = 0;
+		for (Node anchor: anchors) {
+			int anchorId = anchor == null ? -1 : graph.getNodeId(anchor);
+			if (anchorId >= 0 && indexOf(anchorIds, numberOfAnchors, anchorId) < 0) {
+				anchorIds[numberOfAnchors++] = anchorId;
+			}
+		}
+		m_anchors = Arrays.copyOf(anchorIds, numberOfAnchors);
+		m_distances = new double[numberOfAnchors * numberOfAnchors];
+		for (int i = 0; i < numberOfAnchors; i++) {
+			calculateDistancesFrom(state, i);
+		}
+		m_travelDurationsInMinutes = new int[m_distances.length];
+		for (int i = 0; i < m_distances.length; i++) {
+			m_travelDurationsInMinutes[i] = GraphUtility.calculateTravelDurationInMinutes(m_distances[i]);
+		}
+	}
+
+	public RoutingGraph getGraph() {
+		return m_graph;
+	}
+
+	public int getNumberOfAnchors() {
+		return m_anchors.length;
+	}
+
+	/**
+	 * @param node - some node.
+	 * @return boolean - <code>true</code> if the distances from and to the node are contained in the matrix and <code>false</code> otherwise.
+	 */
+	public boolean isAnchor(Node node) {
+		return node != null && indexOf(m_anchors, m_anchors.length, m_graph.getNodeId(node)) >= 0;
+	}
+
+	/**
+	 * @param from - the node at which the path starts.
+	 * @param to - the node to which the path leads.
+	 * @return double - the length of the shortest path between both nodes or {@link Double#NaN} if one of them is not an anchor.
+	 */
+	public double getDistance(Node from, Node to) {
+		int index = indexOfPair(from, to);
+		return index < 0 ? Double.NaN : m_distances[index];
+	}
+
+	/**
+	 * @param from - the node at which the path starts.
+	 * @param to - the node to which the path leads.
+	 * @return int - the minutes it takes to travel the shortest path between both nodes at {@link ISimulationSettings#MAX_VELOCITY} or <code>-1</code> if one of them is not an anchor.
+	 */
+	public int getTravelDurationInMinutes(Node from, Node to) {
+		int index = indexOfPair(from, to);
+		return index < 0 ? -1 : m_travelDurationsInMinutes[index];
+	}
+
+	/**
+	 * @return int - the index of the pair in {@link TravelDistanceMatrix#m_distances} or <code>-1</code> if one of the nodes is not an anchor.
+	 */
+	private int indexOfPair(Node from, Node to) {
+		if (from == null || to == null) {
+			return -1;
+		}
+		int fromIndex = indexOf(m_anchors, m_anchors.length, m_graph.getNodeId(from));
+		if (fromIndex < 0) {
+			return -1;
+		}
+		int toIndex = indexOf(m_anchors, m_anchors.length, m_graph.getNodeId(to));
+		if (toIndex < 0) {
+			return -1;
+		}
+		return fromIndex * m_anchors.length + toIndex;
+	}
+
+	/**
+	 * <p>The number of anchors is small, hence a linear scan is faster than a hash lookup.</p>
+	 */
+	private static int indexOf(int[] anchors, int numberOfAnchors, int nodeId) {
+		for (int i = 0; i < numberOfAnchors; i++) {
+			if (anchors[i] == nodeId) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * <p>This method runs a Dijkstra search from the anchor with the provided index until all anchors with a higher index in the same component have been settled
+	 * (see {@link GraphUtility#dijkstraDistances(RoutingGraph, AStarSearchState, int, int[], double[])}) and stores the distances symmetrically.</p>
+	 *
+	 * @param state - the state used for the search.
+	 * @param sourceIndex - the index of the anchor at which the search starts.
+	 */
+	private void calculateDistancesFrom(AStarSearchState state, int sourceIndex) {
+		int numberOfAnchors = m_anchors.length;
+		if (sourceIndex == numberOfAnchors - 1) {
+			return;
+		}
+		int[] sortedTargets = Arrays.copyOfRange(m_anchors, sourceIndex + 1, numberOfAnchors);
+		Arrays.sort(sortedTargets);
+		double[] distances = new double[sortedTargets.length];
+		RoutingStatistics routingStatistics = GraphUtility.getRoutingStatistics();
+		long startTime = routingStatistics == null ? 0 : RoutingStatistics.startQuery();
+		GraphUtility.dijkstraDistances(m_graph, state, m_anchors[sourceIndex], sortedTargets, distances);
+		if (routingStatistics != null) {
+			routingStatistics.record(RoutingCaller.DISTANCE_MATRIX, startTime, distances, distances.length);
+		}
+		for (int targetIndex = sourceIndex + 1; targetIndex < numberOfAnchors; targetIndex++) {
+			double distance = distances[Arrays.binarySearch(sortedTargets, m_anchors[targetIndex])];
+			m_distances[sourceIndex * numberOfAnchors + targetIndex] = distance;
+			m_distances[targetIndex * numberOfAnchors + sourceIndex] = distance;
+		}
+	}
+}
@@ -67,6 +67,21 @@ public class ActivityAgendaTest {
 		assertEquals(s_secondInterval, s_plan.getLastPlannedInterval());
 	}
 	
+	@Test
+	public void testGetForDateTime() {
+		DateTime duringFirstInterval = s_startOfFirstInterval.plusMinutes(30);
+		assertEquals(s_firstActivity, s_plan.getActivityForDateTime(duringFirstInterval));
+		assertEquals(s_firstNode, s_plan.getNodeForDateTime(duringFirstInterval));
+		assertEquals(s_firstInterval, s_plan.getIntervalForDateTime(duringFirstInterval));
+		// the end of an interval still belongs to its activity
+		assertEquals(s_firstActivity, s_plan.getActivityForDateTime(s_endOfFirstInterval));
+		assertEquals(s_firstInterval, s_plan.getIntervalForDateTime(s_endOfFirstInterval));
+		assertEquals(s_secondInterval, s_plan.getIntervalForDateTime(s_endOfFirstInterval.plusMinutes(1)));
+		assertEquals(s_secondNode, s_plan.getNodeForDateTime(s_endOfSecondInterval));
+		assertEquals(null, s_plan.getActivityForDateTime(s_endOfSecondInterval.plusMinutes(1)));
+		assertEquals(null, s_plan.getIntervalForDateTime(s_endOfSecondInterval.plusMinutes(1)));
+	}
+	
 	@Test
 	public void testGetLocationForInterval() {
 		Interval invalidInterval = new Interval(s_startOfFirstInterval, s_endOfSecondInterval);
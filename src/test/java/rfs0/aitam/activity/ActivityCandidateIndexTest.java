@@ -0,0 +1,73 @@
+package rfs0.aitam.activity;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.stream.Stream;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeConstants;
+import org.junit.Test;
+
+import rfs0.aitam.settings.ISimulationSettings;
+
+public class ActivityCandidateIndexTest {
+
+	public static final ActivityInitializer ACTIVITY_INITIALIZER = new ActivityInitializer();
+
+	@Test
+	public void testCandidatesMatchAvailability() {
+		ArrayList<Activity> activities = new ArrayList<>();
+		activities.add(ACTIVITY_INITIALIZER.initLeisureAtHomeAloneActivity());
+		activities.add(ACTIVITY_INITIALIZER.initLeisureAtThirdPlaceForLeisureWithFriendsActivity());
+		activities.add(ACTIVITY_INITIALIZER.initWorkAtHomeAloneActivity());
+		activities.add(ACTIVITY_INITIALIZER.initWorkAtWorkPlaceAloneActivity());
+		activities.add(ACTIVITY_INITIALIZER.initWorkAtWorkPlaceWithCoworkers());
+		activities.add(ACTIVITY_INITIALIZER.initPersonalCareAtWorkPlaceAloneActivity());
+		activities.add(ACTIVITY_INITIALIZER.initIdleAtHomeActivity());
+		activities.add(ACTIVITY_INITIALIZER.initTravelActivity());
+		activities.add(ACTIVITY_INITIALIZER.initSleepAtHomeActivity());
+		ActivityCandidateIndex activityCandidateIndex = new ActivityCandidateIndex(activities);
+		for (int dayOfWeek = DateTimeConstants.MONDAY; dayOfWeek <= DateTimeConstants.SUNDAY; dayOfWeek++) {
+			for (int minuteOfDay = 0; minuteOfDay < DateTimeConstants.MINUTES_PER_DAY; minuteOfDay += 15) {
+				DateTime timeInBaseTime = new DateTime(ISimulationSettings.BASE_YEAR, ISimulationSettings.BASE_MONTH, ISimulationSettings.BASE_DAY, minuteOfDay / 60, minuteOfDay % 60);
+				for (ActivityCategory activityCategory: ActivityCategory.values()) {
+					for (boolean isJointActivity: new boolean[] { false, true }) {
+						assertArrayEquals(filter(activities, dayOfWeek, timeInBaseTime, activityCategory, null, isJointActivity), activityCandidateIndex.getActivities(dayOfWeek, timeInBaseTime, activityCategory, isJointActivity));
+						for (ActivityLocation activityLocation: ActivityLocation.values()) {
+							assertArrayEquals(filter(activities, dayOfWeek, timeInBaseTime, activityCategory, activityLocation, isJointActivity), activityCandidateIndex.getActivities(dayOfWeek, timeInBaseTime, activityCategory, activityLocation, isJointActivity));
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testAvailabilityAtBoundsOfInterval() {
+		ArrayList<Activity> activities = new ArrayList<>();
+		activities.add(ACTIVITY_INITIALIZER.initWorkAtWorkPlaceAloneActivity());
+		ActivityCandidateIndex activityCandidateIndex = new ActivityCandidateIndex(activities);
+		Activity workAtWorkPlaceAloneActivity = activities.get(0);
+		for (int hourOfDay = 0; hourOfDay < 24; hourOfDay++) {
+			DateTime timeInBaseTime = new DateTime(ISimulationSettings.BASE_YEAR, ISimulationSettings.BASE_MONTH, ISimulationSettings.BASE_DAY, hourOfDay, 0);
+			boolean isAvailable = workAtWorkPlaceAloneActivity.isAvailableAt(DateTimeConstants.MONDAY, timeInBaseTime);
+			assertEquals(isAvailable ? 1 : 0, activityCandidateIndex.getActivities(DateTimeConstants.MONDAY, timeInBaseTime, ActivityCategory.WORK, ActivityLocation.WORK, false).length);
+		}
+		assertEquals(1, activityCandidateIndex.getNumberOfActivitiesAvailableAt(DateTimeConstants.MONDAY, ActivityCategory.WORK));
+		assertEquals(0, activityCandidateIndex.getNumberOfActivitiesAvailableAt(DateTimeConstants.MONDAY, ActivityCategory.LEISURE));
+	}
+
+	private Activity[] filter(ArrayList<Activity> activities, int dayOfWeek, DateTime timeInBaseTime, ActivityCategory activityCategory, ActivityLocation activityLocation, boolean isJointActivity) {
+		Stream<Activity> candidates = activities.stream()
+				.filter(activity -> activity.getActivityCategory() == activityCategory)
+				.filter(activity -> activity.isJointActivity() == isJointActivity)
+				.filter(activity -> !(activity.getActivityLocation() == ActivityLocation.TRAVEL))
+				.filter(activity -> activity.isAvailableAt(dayOfWeek, timeInBaseTime));
+		if (activityLocation != null) {
+			candidates = candidates.filter(activity -> activity.getActivityLocation() == activityLocation);
+		}
+		return candidates.toArray(Activity[]::new);
+	}
+}
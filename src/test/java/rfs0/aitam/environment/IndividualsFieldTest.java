@@ -0,0 +1,200 @@
+package rfs0.aitam.environment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.Envelope;
+
+import rfs0.aitam.individual.Individual;
+import rfs0.aitam.settings.ISimulationSettings;
+import sim.util.Bag;
+import sim.util.geo.MasonGeometry;
+
+/**
+ * <p>The fields of these tests cover 1000 times 1000 meters, i.e. their grids consist of 10 times 10 cells (see {@link ISimulationSettings#SIZE_OF_CELLS_OF_INDIVIDUALS_FIELD}).</p>
+ */
+public class IndividualsFieldTest {
+
+	private static final double SIZE_OF_FIELD = 1000.0;
+
+	private static IndividualsField createField() {
+		IndividualsField field = new IndividualsField(ISimulationSettings.ENVIRONMENT_WIDTH, ISimulationSettings.ENVIRONMENT_HEIGHT);
+		field.setMBR(new Envelope(0, SIZE_OF_FIELD, 0, SIZE_OF_FIELD));
+		return field;
+	}
+
+	private static MasonGeometry addIndividual(IndividualsField field, int id, double x, double y) {
+		MasonGeometry point = new MasonGeometry(Environment.GEO_FACTORY.createPoint(new Coordinate(x, y)));
+		point.setUserData(new Individual.Builder().withId(id).build());
+		field.addGeometry(point);
+		return point;
+	}
+
+	/**
+	 * <p>Moves the point and marks the individual as moved like {@link Individual#updatePosition(Coordinate)} does.</p>
+	 */
+	private static void move(IndividualsField field, MasonGeometry point, double x, double y) {
+		Coordinate coordinate = point.getGeometry().getCoordinate();
+		coordinate.x = x;
+		coordinate.y = y;
+		point.getGeometry().geometryChanged();
+		field.markAsMoved(((Individual) point.getUserData()).getId());
+	}
+
+	private static ArrayList<Integer> idsWithinDistance(IndividualsField field, double x, double y, double distance) {
+		return field.getIndividualsWithinDistance(x, y, distance).stream()
+				.map(Individual::getId)
+				.sorted()
+				.collect(Collectors.toCollection(ArrayList::new));
+	}
+
+	private static ArrayList<Integer> idsWithinDistanceByBruteForce(ArrayList<MasonGeometry> points, double x, double y, double distance) {
+		return points.stream()
+				.filter(point -> point.getGeometry().getCoordinate().distance(new Coordinate(x, y)) <= distance)
+				.map(point -> ((Individual) point.getUserData()).getId())
+				.sorted()
+				.collect(Collectors.toCollection(ArrayList::new));
+	}
+
+	@Test
+	public void testIndividualsOfSameCell() {
+		IndividualsField field = createField();
+		MasonGeometry first = addIndividual(field, 0, 10, 10);
+		MasonGeometry second = addIndividual(field, 1, 20, 20);
+		MasonGeometry third = addIndividual(field, 2, 30, 30);
+		ArrayList<Integer> allIds = new ArrayList<>();
+		allIds.add(0);
+		allIds.add(1);
+		allIds.add(2);
+		assertEquals(allIds, idsWithinDistance(field, 50, 50, 100));
+		// the individual in the middle of the list of the cell leaves the cell
+		move(field, second, 520, 520);
+		assertEquals(2, idsWithinDistance(field, 50, 50, 100).size());
+		assertEquals(1, idsWithinDistance(field, 520, 520, 10).size());
+		// the first and the last individual of the list leave the cell as well
+		move(field, first, 530, 530);
+		move(field, third, 540, 540);
+		assertEquals(0, idsWithinDistance(field, 50, 50, 100).size());
+		assertEquals(allIds, idsWithinDistance(field, 530, 530, 20));
+		// moving within the cell keeps the individual in the cell
+		move(field, first, 560, 560);
+		assertEquals(1, idsWithinDistance(field, 560, 560, 0).size());
+		assertEquals(3, field.queryField(new Envelope(500, 600, 500, 600)).size());
+	}
+
+	@Test
+	public void testIndividualMarkedAsMovedSeveralTimes() {
+		IndividualsField field = createField();
+		MasonGeometry point = addIndividual(field, 0, 10, 10);
+		addIndividual(field, 1, 990, 990);
+		move(field, point, 150, 150);
+		move(field, point, 250, 250);
+		move(field, point, 350, 350);
+		assertEquals(0, idsWithinDistance(field, 10, 10, 50).size());
+		assertEquals(0, idsWithinDistance(field, 150, 150, 50).size());
+		assertEquals(1, idsWithinDistance(field, 350, 350, 0).size());
+		// the individual is in the grid only once
+		assertEquals(2, field.queryField(new Envelope(0, SIZE_OF_FIELD, 0, SIZE_OF_FIELD)).size());
+		// ids which are not contained in the field are ignored
+		field.markAsMoved(2);
+		field.markAsMoved(100);
+		assertEquals(2, field.queryField(new Envelope(0, SIZE_OF_FIELD, 0, SIZE_OF_FIELD)).size());
+	}
+
+	@Test
+	public void testIndividualsOutsideOfField() {
+		IndividualsField field = createField();
+		MasonGeometry point = addIndividual(field, 0, -50, 500);
+		addIndividual(field, 1, 1200, 1200);
+		assertEquals(1, idsWithinDistance(field, 0, 500, 50).size());
+		assertEquals(1, idsWithinDistance(field, SIZE_OF_FIELD, SIZE_OF_FIELD, 300).size());
+		move(field, point, 500, -300);
+		assertEquals(1, idsWithinDistance(field, 500, 0, 300).size());
+		assertEquals(0, idsWithinDistance(field, 0, 500, 50).size());
+	}
+
+	@Test
+	public void testSetMinimumBoundingRectangle() {
+		IndividualsField field = new IndividualsField(ISimulationSettings.ENVIRONMENT_WIDTH, ISimulationSettings.ENVIRONMENT_HEIGHT);
+		addIndividual(field, 0, 100, 100);
+		addIndividual(field, 1, 900, 900);
+		// the individuals are put into the new grid
+		field.setMBR(new Envelope(0, SIZE_OF_FIELD, 0, SIZE_OF_FIELD));
+		assertEquals(1, idsWithinDistance(field, 100, 100, 10).size());
+		assertEquals(1, idsWithinDistance(field, 900, 900, 10).size());
+		field.clear();
+		assertEquals(0, field.queryField(new Envelope(0, SIZE_OF_FIELD, 0, SIZE_OF_FIELD)).size());
+		assertNull(field.getNearestIndividual(100, 100));
+	}
+
+	/**
+	 * <p>Moves individuals randomly and compares the results of the queries of the grid with the ones of a search of all individuals.</p>
+	 */
+	@Test
+	public void testQueriesAfterRandomMoves() {
+		IndividualsField field = createField();
+		Random random = new Random(42);
+		ArrayList<MasonGeometry> points = new ArrayList<>();
+		for (int id = 0; id < 200; id++) {
+			points.add(addIndividual(field, id, randomCoordinate(random), randomCoordinate(random)));
+		}
+		for (int round = 0; round < 20; round++) {
+			for (int i = 0; i < 50; i++) {
+				move(field, points.get(random.nextInt(points.size())), randomCoordinate(random), randomCoordinate(random));
+			}
+			double x = randomCoordinate(random);
+			double y = randomCoordinate(random);
+			double distance = 300 * random.nextDouble();
+			assertEquals(idsWithinDistanceByBruteForce(points, x, y, distance), idsWithinDistance(field, x, y, distance));
+			Bag pointsInEnvelope = field.queryField(new Envelope(x - distance, x + distance, y - distance, y + distance));
+			assertEquals(points.stream().filter(point -> new Envelope(x - distance, x + distance, y - distance, y + distance).contains(point.getGeometry().getCoordinate())).count(), pointsInEnvelope.size());
+			Coordinate location = new Coordinate(x, y);
+			MasonGeometry nearestPoint = points.stream().min(Comparator.comparingDouble(point -> point.getGeometry().getCoordinate().distance(location))).get();
+			// the points are indexed by the ids of their individuals
+			MasonGeometry pointOfNearestIndividual = points.get(field.getNearestIndividual(x, y).getId());
+			assertEquals(nearestPoint.getGeometry().getCoordinate().distance(location), pointOfNearestIndividual.getGeometry().getCoordinate().distance(location), 1e-9);
+		}
+	}
+
+	@Test
+	public void testNearestIndividualOfEmptyField() {
+		IndividualsField field = createField();
+		assertNull(field.getNearestIndividual(500, 500));
+	}
+
+	@Test
+	public void testNearestIndividualOfSingleIndividual() {
+		IndividualsField field = createField();
+		MasonGeometry point = addIndividual(field, 0, 950, 950);
+		// the individual is found from every cell, including the cells furthest away and locations outside of the field
+		for (double[] location: new double[][] { { 950, 950 }, { 0, 0 }, { 0, 999 }, { -500, -500 }, { 2000, 0 } }) {
+			assertSame(point.getUserData(), field.getNearestIndividual(location[0], location[1]));
+		}
+	}
+
+	/**
+	 * <p>The individual of the cell diagonally adjacent to the cell of the location is found in the first ring around the location,
+	 * but the individual two cells to the right is closer to the location at the right border of its cell.</p>
+	 */
+	@Test
+	public void testNearestIndividualInOuterRing() {
+		IndividualsField field = createField();
+		addIndividual(field, 0, 199, 199);
+		MasonGeometry nearestPoint = addIndividual(field, 1, 201, 50);
+		assertSame(nearestPoint.getUserData(), field.getNearestIndividual(99, 50));
+	}
+
+	private static double randomCoordinate(Random random) {
+		// some of the individuals are outside of the field
+		return -100 + (SIZE_OF_FIELD + 200) * random.nextDouble();
+	}
+}
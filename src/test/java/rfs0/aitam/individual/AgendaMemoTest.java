@@ -0,0 +1,108 @@
+package rfs0.aitam.individual;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeConstants;
+import org.joda.time.Interval;
+import org.junit.Test;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.planargraph.Node;
+
+import rfs0.aitam.activity.Activity;
+import rfs0.aitam.activity.ActivityAgenda;
+import rfs0.aitam.activity.ActivityInitializer;
+import rfs0.aitam.individual.AgendaMemo.MemoizedAgenda;
+
+public class AgendaMemoTest {
+
+	private static final ActivityInitializer ACTIVITY_INITIALIZER = new ActivityInitializer();
+	private static final Activity LEISURE_AT_HOME = ACTIVITY_INITIALIZER.initLeisureAtHomeAloneActivity();
+	private static final Activity WORK_AT_WORK_PLACE = ACTIVITY_INITIALIZER.initWorkAtWorkPlaceAloneActivity();
+	private static final Node HOME = new Node(new Coordinate(0, 0));
+	private static final Node WORK_PLACE = new Node(new Coordinate(100, 0));
+	/**
+	 * <p>Monday, January 1st 2018.</p>
+	 */
+	private static final DateTime MONDAY = new DateTime(2018, 1, 1, 0, 0);
+
+	private static ActivityAgenda createFixedAgenda(DateTime day, Node node) {
+		ActivityAgenda fixedAgenda = new ActivityAgenda();
+		Interval interval = new Interval(day.withTime(6, 0, 0, 0), day.withTime(8, 0, 0, 0));
+		fixedAgenda.addActivityForInterval(interval, LEISURE_AT_HOME);
+		fixedAgenda.addNodeForInterval(interval, node);
+		return fixedAgenda;
+	}
+
+	private static ActivityAgenda createAgenda(DateTime day) {
+		ActivityAgenda agenda = createFixedAgenda(day, HOME);
+		Interval work = new Interval(day.withTime(8, 0, 0, 0), day.withTime(17, 0, 0, 0));
+		Interval leisure = new Interval(day.withTime(17, 0, 0, 0), day.withTime(23, 59, 0, 0));
+		agenda.addActivityForInterval(work, WORK_AT_WORK_PLACE);
+		agenda.addNodeForInterval(work, WORK_PLACE);
+		agenda.addActivityForInterval(leisure, LEISURE_AT_HOME);
+		agenda.addNodeForInterval(leisure, HOME);
+		return agenda;
+	}
+
+	@Test
+	public void testKeyOfContext() {
+		DateTime mondayOfNextWeek = MONDAY.plusWeeks(1);
+		String key = AgendaMemo.createKey(DateTimeConstants.MONDAY, MONDAY, createFixedAgenda(MONDAY, HOME));
+		assertEquals(key, AgendaMemo.createKey(DateTimeConstants.MONDAY, mondayOfNextWeek, createFixedAgenda(mondayOfNextWeek, HOME)));
+		assertNotEquals(key, AgendaMemo.createKey(DateTimeConstants.MONDAY, mondayOfNextWeek, createFixedAgenda(mondayOfNextWeek, WORK_PLACE)));
+		assertNotEquals(key, AgendaMemo.createKey(DateTimeConstants.MONDAY, mondayOfNextWeek.withHourOfDay(12), createFixedAgenda(mondayOfNextWeek, HOME)));
+		assertNotEquals(key, AgendaMemo.createKey(DateTimeConstants.TUESDAY, MONDAY, createFixedAgenda(MONDAY, HOME)));
+	}
+
+	@Test
+	public void testCreateAgendaOfLaterDay() {
+		AgendaMemo memo = new AgendaMemo(10);
+		String key = AgendaMemo.createKey(DateTimeConstants.MONDAY, MONDAY, createFixedAgenda(MONDAY, HOME));
+		memo.put(key, createAgenda(MONDAY), createFixedAgenda(MONDAY, HOME), MONDAY);
+		MemoizedAgenda memoizedAgenda = memo.get(key);
+		assertNotNull(memoizedAgenda);
+		assertEquals(0, memoizedAgenda.getNumberOfConfirmations());
+		// the planned activities are shifted to the current day
+		DateTime mondayOfNextWeek = MONDAY.plusWeeks(1);
+		ActivityAgenda agenda = memoizedAgenda.createAgenda(createFixedAgenda(mondayOfNextWeek, HOME), mondayOfNextWeek, DateTimeConstants.MONDAY);
+		assertNotNull(agenda);
+		assertEquals(3, agenda.getIntervals().size());
+		assertSame(WORK_AT_WORK_PLACE, agenda.getActivityForDateTime(mondayOfNextWeek.withTime(12, 0, 0, 0)));
+		assertSame(WORK_PLACE, agenda.getNodeForDateTime(mondayOfNextWeek.withTime(12, 0, 0, 0)));
+		assertSame(LEISURE_AT_HOME, agenda.getActivityForDateTime(mondayOfNextWeek.withTime(20, 0, 0, 0)));
+		// work is not available on saturdays
+		DateTime saturday = MONDAY.plusDays(5);
+		assertNull(memoizedAgenda.createAgenda(createFixedAgenda(saturday, HOME), saturday, DateTimeConstants.SATURDAY));
+		// work would have started already
+		assertNull(memoizedAgenda.createAgenda(createFixedAgenda(mondayOfNextWeek, HOME), mondayOfNextWeek.withHourOfDay(12), DateTimeConstants.MONDAY));
+		memoizedAgenda.confirm();
+		assertEquals(1, memo.get(key).getNumberOfConfirmations());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedAgendaIsEvicted() {
+		AgendaMemo memo = new AgendaMemo(2);
+		memo.put("a", createAgenda(MONDAY), createFixedAgenda(MONDAY, HOME), MONDAY);
+		memo.put("b", createAgenda(MONDAY), createFixedAgenda(MONDAY, HOME), MONDAY);
+		memo.get("a"); // "b" is now the least recently used agenda
+		memo.put("c", createAgenda(MONDAY), createFixedAgenda(MONDAY, HOME), MONDAY);
+		assertEquals(2, memo.size());
+		assertNull(memo.get("b"));
+		assertNotNull(memo.get("a"));
+		assertNotNull(memo.get("c"));
+		assertEquals(3, memo.getHits());
+		assertEquals(1, memo.getMisses());
+		assertEquals(0.75, memo.getHitRate(), 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidSize() {
+		new AgendaMemo(0);
+	}
+}
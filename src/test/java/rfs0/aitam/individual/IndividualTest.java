@@ -1,18 +1,50 @@
 package rfs0.aitam.individual;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
 
 import org.joda.time.DateTime;
+import org.joda.time.Interval;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.planargraph.Node;
+
+import ec.util.MersenneTwisterFast;
 import rfs0.aitam.activity.ActivityAgenda;
 import rfs0.aitam.environment.Environment;
+import rfs0.aitam.environment.TravelEventScheduler;
+import rfs0.aitam.environment.WakeUpScheduler;
 import rfs0.aitam.individual.Individual;
+import rfs0.aitam.individual.Individual.BestPlan;
+import rfs0.aitam.individual.Individual.Move;
+import rfs0.aitam.individual.Individual.PlannedActivity;
+import rfs0.aitam.individual.Individual.TypeOfMove;
+import rfs0.aitam.need.AbsoluteNeedTimeSplit;
+import rfs0.aitam.need.Need;
+import rfs0.aitam.need.NeedTimeSplit;
 import rfs0.aitam.settings.ISimulationSettings;
+import rfs0.aitam.utilities.CalculationUtility;
+import rfs0.aitam.utilities.GraphUtility;
+import rfs0.aitam.utilities.TimeUtility;
+import rfs0.aitam.utilities.Tuple;
 import sim.engine.SimState;
 import sim.engine.Steppable;
+import sim.util.geo.GeomPlanarGraphEdge;
 
 public class IndividualTest {
 	
@@ -148,5 +180,764 @@ public class IndividualTest {
 		};
 		environment.start();
 		environment.schedule.step(environment);
-	}	
+	}
+	
+	/**
+	 * <p>Lets an individual travel event-driven from its home along the x-axis to each of the other nodes on the x-axis. 
+	 * It must arrive in the step departure + max(1, ceil(length / velocity)) - 1, i.e. in the step of its departure if the path is shorter than the distance travelled per step.</p>
+	 */
+	@Test
+	public void testArrivalOfEventDrivenTravel() {
+		for (int x = 1; x < TestEnvironment.GRID_SIZE; x++) {
+			TestEnvironment environment = createEnvironmentWithEventDrivenTravel();
+			Individual individual = environment.createIndividual(0);
+			new PopulationMovementStore(new ArrayList<>(Arrays.asList(individual)), environment.getEdgeTraffic());
+			startTravelingTo(environment, individual, environment.getNode(x, 0));
+			double lengthOfPath = TestEnvironment.SPACING * x;
+			double arrivalTime = Math.max(1, Math.ceil(lengthOfPath / ISimulationSettings.MAX_VELOCITY)) - 1;
+			
+			environment.schedule.step(environment);
+			assertEquals(0, environment.schedule.getTime(), 0);
+			while (environment.schedule.getTime() < arrivalTime) {
+				assertFalse(individual.hasReachedTarget());
+				environment.schedule.step(environment);
+			}
+			assertEquals(arrivalTime, environment.schedule.getTime(), 0);
+			assertTrue(individual.hasReachedTarget());
+			assertEquals(lengthOfPath, individual.getCurrentLocationPoint().getGeometry().getCoordinate().x, 1e-9);
+			assertTrue(individual.getCurrentNode().getCoordinate().equals2D(environment.getNode(x, 0).getCoordinate()));
+		}
+	}
+	
+	/**
+	 * <p>Lets an individual travel event-driven from its home along the x-axis and interpolates its position in an intermediate step, 
+	 * i.e. it must be where it would be if it had been moved in every step since its departure.</p>
+	 */
+	@Test
+	public void testPositionWhileTravelingEventDriven() {
+		TestEnvironment environment = createEnvironmentWithEventDrivenTravel();
+		Individual individual = environment.createIndividual(0);
+		PopulationMovementStore movementStore = new PopulationMovementStore(new ArrayList<>(Arrays.asList(individual)), environment.getEdgeTraffic());
+		startTravelingTo(environment, individual, environment.getNode(TestEnvironment.GRID_SIZE - 1, 0));
+		Coordinate[] positions = new Coordinate[2];
+		for (int step = 0; step < positions.length; step++) {
+			int index = step;
+			environment.schedule.scheduleOnce(step, 60, new Steppable() {
+				private static final long serialVersionUID = 1L;
+				@Override
+				public void step(SimState state) {
+					individual.updatePositionWhileTraveling();
+					positions[index] = new Coordinate(movementStore.getX(individual.getId()), movementStore.getY(individual.getId()));
+				}
+			});
+		}
+		environment.schedule.step(environment);
+		environment.schedule.step(environment);
+		assertEquals(1, environment.schedule.getTime(), 0);
+		assertFalse(individual.hasReachedTarget());
+		for (int step = 0; step < positions.length; step++) {
+			assertEquals((step + 1) * ISimulationSettings.MAX_VELOCITY, positions[step].x, 1e-9);
+			assertEquals(0, positions[step].y, 0);
+		}
+		assertEquals(positions[1].x, individual.getCurrentLocationPoint().getGeometry().getCoordinate().x, 0);
+	}
+	
+	/**
+	 * <p>Lets an individual travel event-driven along the x-axis from two minutes before the end of an hour, such that it enters the first three edges in that hour and the last edge in the next hour.
+	 * Each edge must be counted for the link volume of the hour in which the individual enters it.</p>
+	 */
+	@Test
+	public void testLinkVolumesOfEventDrivenTravel() {
+		TestEnvironment environment = createEnvironmentWithEventDrivenTravel();
+		Individual individual = environment.createIndividual(0);
+		new PopulationMovementStore(new ArrayList<>(Arrays.asList(individual)), environment.getEdgeTraffic());
+		while (environment.getSimulationTime().getCurrentTime().getMinuteOfHour() < 58) {
+			environment.getSimulationTime().step(environment);
+		}
+		startTravelingTo(environment, individual, environment.getNode(TestEnvironment.GRID_SIZE - 1, 0));
+		environment.schedule.step(environment);
+		int[] edgeIds = GraphUtility.astarPath(environment.getNode(0, 0), environment.getNode(TestEnvironment.GRID_SIZE - 1, 0)).stream()
+				.mapToInt(directedEdge -> GraphUtility.getRoutingGraph().getEdgeId((GeomPlanarGraphEdge) directedEdge.getEdge()))
+				.toArray();
+		// the snapshot at the start of the next hour
+		int[] volumeOfHour = environment.getEdgeTraffic().takeSnapshotOfVolume();
+		assertArrayEquals(new int[] { 1, 1, 1, 0 }, Arrays.stream(edgeIds).map(edgeId -> volumeOfHour[edgeId]).toArray());
+		// the start of the next hour
+		while (environment.schedule.getTime() < 2) {
+			environment.schedule.step(environment);
+		}
+		int[] volumeOfNextHour = environment.getEdgeTraffic().takeSnapshotOfVolume();
+		assertArrayEquals(new int[] { 0, 0, 0, 1 }, Arrays.stream(edgeIds).map(edgeId -> volumeOfNextHour[edgeId]).toArray());
+	}
+	
+	/**
+	 * <p>Lets several individuals travel between the nodes of the grid for three hours with the same seed, once moved in every step and once event-driven.
+	 * Their moves are shuffled by the random number generator of the environment as in {@link Environment#start()}, hence the random numbers drawn afterwards must not depend on event-driven travel.
+	 * Neither must the steps in which the individuals arrive, their positions or the link volumes.</p>
+	 */
+	@Test
+	public void testEventDrivenTravelDoesNotChangeOutput() {
+		ArrayList<String> outputOfMovingInEveryStep = simulateTravel(false);
+		ArrayList<String> outputOfEventDrivenTravel = simulateTravel(true);
+		assertEquals(outputOfMovingInEveryStep.size(), outputOfEventDrivenTravel.size());
+		for (int i = 0; i < outputOfMovingInEveryStep.size(); i++) {
+			assertEquals(outputOfMovingInEveryStep.get(i), outputOfEventDrivenTravel.get(i));
+		}
+	}
+	
+	/**
+	 * <p>Checks for an individual staying at its home for how many minutes it can be skipped, i.e. until the minute after the end of the interval of its activity, the next planning time point or the start of the next day, whichever comes first.
+	 * An individual executing a joint activity must not be skipped at all.</p>
+	 */
+	@Test
+	public void testCalculateNumberOfMinutesToSkip() {
+		// until the end of the interval from 1 am to 2 am
+		assertEquals(30, createIndividualStayingAtHome(ISimulationSettings.PERSONAL_CARE_AT_HOME_ALONE, 60, 120, 90).calculateNumberOfMinutesToSkip());
+		// until the planning time point at noon
+		assertEquals(29, createIndividualStayingAtHome(ISimulationSettings.PERSONAL_CARE_AT_HOME_ALONE, 11 * 60, 14 * 60, 11 * 60 + 30).calculateNumberOfMinutesToSkip());
+		// until the start of the next day
+		assertEquals(29, createIndividualStayingAtHome(ISimulationSettings.SLEEP_AT_HOME, 22 * 60, 25 * 60, 23 * 60 + 30).calculateNumberOfMinutesToSkip());
+		// in the last minute of the interval
+		assertEquals(0, createIndividualStayingAtHome(ISimulationSettings.PERSONAL_CARE_AT_HOME_ALONE, 60, 120, 120).calculateNumberOfMinutesToSkip());
+		assertEquals(0, createIndividualStayingAtHome(ISimulationSettings.LEISURE_AT_HOME_WITH_FRIENDS, 60, 120, 90).calculateNumberOfMinutesToSkip());
+	}
+	
+	/**
+	 * <p>Lets two individuals execute the same activity at their homes, one of them in every minute and the other one in the first minute and the skipped minutes in bulk afterwards.
+	 * Both must end up with the same actual need time split.</p>
+	 */
+	@Test
+	public void testExecuteSkippedMinutes() {
+		Individual individualSteppedEveryMinute = createIndividualStayingAtHome(ISimulationSettings.PERSONAL_CARE_AT_HOME_ALONE, 60, 120, 90);
+		Individual skippedIndividual = createIndividualStayingAtHome(ISimulationSettings.PERSONAL_CARE_AT_HOME_ALONE, 60, 120, 90);
+		int numberOfMinutesToSkip = skippedIndividual.calculateNumberOfMinutesToSkip();
+		skippedIndividual.executeActivity();
+		skippedIndividual.executeSkippedMinutes(numberOfMinutesToSkip);
+		individualSteppedEveryMinute.executeActivity();
+		for (int minute = 0; minute < numberOfMinutesToSkip; minute++) {
+			individualSteppedEveryMinute.getEnvironment().getSimulationTime().step(individualSteppedEveryMinute.getEnvironment());
+			individualSteppedEveryMinute.move();
+			individualSteppedEveryMinute.executeActivity();
+		}
+		for (Need need: Need.values()) {
+			BigDecimal expected = individualSteppedEveryMinute.getActualNeedTimeSplit().getAbsoluteNeedTimeSplit().getOrDefault(need, BigDecimal.ZERO);
+			BigDecimal actual = skippedIndividual.getActualNeedTimeSplit().getAbsoluteNeedTimeSplit().getOrDefault(need, BigDecimal.ZERO);
+			assertEquals(need.toString(), 0, expected.compareTo(actual));
+		}
+		assertTrue(BigDecimal.ZERO.compareTo(skippedIndividual.getActualNeedTimeSplit().getAbsoluteNeedTimeSplit().values().stream().reduce(BigDecimal.ZERO, BigDecimal::add)) < 0);
+	}
+	
+	/**
+	 * <p>Lets several individuals execute a fixed agenda for more than a day, once stepped in every minute and once skipped while they stay at the locations of individual activities (see {@link WakeUpScheduler}).
+	 * The output holder must contain the same counts in every minute and the individuals must have the same actual need time splits whenever none of them is skipped.</p>
+	 */
+	@Test
+	public void testSkipAheadSchedulingDoesNotChangeOutput() {
+		ArrayList<String> outputOfSteppingEveryMinute = simulateFixedAgendas(false);
+		ArrayList<String> outputOfSkipping = simulateFixedAgendas(true);
+		assertEquals(outputOfSteppingEveryMinute.size(), outputOfSkipping.size());
+		for (int i = 0; i < outputOfSteppingEveryMinute.size(); i++) {
+			assertEquals(outputOfSteppingEveryMinute.get(i), outputOfSkipping.get(i));
+		}
+	}
+	
+	/**
+	 * <p>Plans the day of an individual by random sampling with the same seed on pools with different numbers of threads, which must result in the same plan.</p>
+	 */
+	@Test
+	public void testRandomSamplingDoesNotDependOnNumberOfThreads() {
+		Individual individual = createIndividualPlanningNewDay();
+		ForkJoinPool singleThreadedPool = new ForkJoinPool(1);
+		individual.planIndividualActivitiesByRandomSampling(new MersenneTwisterFast(7L), null, singleThreadedPool, true);
+		singleThreadedPool.shutdown();
+		Entry<ActivityAgenda, ActivityAgenda> chosenPlan = getChosenPlan(individual);
+		for (int numberOfThreads: new int[] { 2, 4, 8 }) {
+			ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+			individual.planIndividualActivitiesByRandomSampling(new MersenneTwisterFast(7L), null, pool, true);
+			pool.shutdown();
+			assertSameAgenda(chosenPlan.getKey(), getChosenPlan(individual).getKey());
+			assertSameAgenda(chosenPlan.getValue(), getChosenPlan(individual).getValue());
+		}
+	}
+	
+	/**
+	 * <p>Lets several individuals plan in parallel with the same seed of the environment on pools with different numbers of threads, which must result in the same agendas.
+	 * Each run uses new individuals, such that they do not know the agendas chosen in the previous runs (see {@link AgendaMemo}).</p>
+	 */
+	@Test
+	public void testParallelPlanningDoesNotDependOnNumberOfThreads() {
+		TestEnvironment environment = new TestEnvironment(1L);
+		int numberOfIndividuals = 4;
+		ArrayList<ActivityAgenda> chosenAgendas = new ArrayList<>();
+		int[] numbersOfThreads = new int[] { 1, 2, 4 };
+		for (int run = 0; run < numbersOfThreads.length; run++) {
+			ArrayList<Individual> individuals = new ArrayList<>();
+			for (int i = 0; i < numberOfIndividuals; i++) {
+				Individual individual = environment.createIndividual(run * numberOfIndividuals + i);
+				individual.initNewDay();
+				individuals.add(individual);
+			}
+			environment.random.setSeed(42L);
+			ForkJoinPool pool = new ForkJoinPool(numbersOfThreads[run]);
+			environment.planIndividualActivitiesInParallel(individuals, pool);
+			pool.shutdown();
+			for (int i = 0; i < numberOfIndividuals; i++) {
+				if (run == 0) {
+					chosenAgendas.add(individuals.get(i).getActivityAgenda());
+				}
+				else {
+					assertSameAgenda(chosenAgendas.get(i), individuals.get(i).getActivityAgenda());
+				}
+			}
+		}
+	}
+	
+	/**
+	 * <p>Checks that the lower bound of the mean squared error does not exceed the mean squared error of the chosen plan, 
+	 * neither for any part of the plan without travel activities nor while its travel activities are inserted (see {@link Individual#createAgendaWithTravelActivities(ActivityAgenda, BestPlan)}).</p>
+	 */
+	@Test
+	public void testLowerBoundOfMeanSquaredError() {
+		Individual individual = createIndividualPlanningNewDay();
+		for (long seed = 0; seed < 5; seed++) {
+			individual.planIndividualActivitiesByRandomSampling(new MersenneTwisterFast(seed), null, Individual.getPlanningPool(), false);
+			Entry<ActivityAgenda, ActivityAgenda> chosenPlan = getChosenPlan(individual);
+			double meanSquaredError = CalculationUtility.calculateMeanSquaredError(chosenPlan.getKey().getAbsoluteNeedTimeSplit(), individual.getTargetNeedTimeSplit()).doubleValue();
+			ActivityAgenda partOfPlan = new ActivityAgenda();
+			for (Interval interval: chosenPlan.getValue().getIntervals()) {
+				partOfPlan.addActivityForInterval(interval, chosenPlan.getValue().getActivityForInterval(interval));
+				partOfPlan.addNodeForInterval(interval, chosenPlan.getValue().getNodeForInterval(interval));
+				assertTrue(individual.calculateLowerBoundOfMeanSquaredError(partOfPlan, 0, null) <= meanSquaredError + 1e-9);
+			}
+			// records the lower bounds calculated before each travel activity is inserted without pruning any of them
+			ArrayList<Double> lowerBounds = new ArrayList<>();
+			ActivityAgenda planWithTravelActivities = individual.createAgendaWithTravelActivities(chosenPlan.getValue(), new BestPlan(false) {
+				@Override
+				boolean canBeImprovedBy(double lowerBound) {
+					lowerBounds.add(lowerBound);
+					return true;
+				}
+			});
+			assertSameAgenda(chosenPlan.getKey(), planWithTravelActivities);
+			assertFalse(lowerBounds.isEmpty());
+			for (double lowerBound: lowerBounds) {
+				assertTrue(lowerBound <= meanSquaredError + 1e-9);
+			}
+		}
+	}
+	
+	/**
+	 * <p>Plans the day of an individual by random sampling with the same seed with and without pruning of plans, which must result in the same plan (see {@link ISimulationSettings#IS_PRUNING_OF_PLANS_ENABLED}).</p>
+	 */
+	@Test
+	public void testPruningDoesNotChangeChosenPlan() {
+		Individual individual = createIndividualPlanningNewDay();
+		for (long seed = 0; seed < 5; seed++) {
+			individual.planIndividualActivitiesByRandomSampling(new MersenneTwisterFast(seed), null, Individual.getPlanningPool(), false);
+			Entry<ActivityAgenda, ActivityAgenda> planWithoutPruning = getChosenPlan(individual);
+			individual.planIndividualActivitiesByRandomSampling(new MersenneTwisterFast(seed), null, Individual.getPlanningPool(), true);
+			assertSameAgenda(planWithoutPruning.getKey(), getChosenPlan(individual).getKey());
+			assertSameAgenda(planWithoutPruning.getValue(), getChosenPlan(individual).getValue());
+		}
+	}
+	
+	/**
+	 * <p>Applies valid moves of the local search one after another and compares the time spent on each need and the number of changes of location, 
+	 * which are updated for the activities changed by each move only, with the ones of the whole plan.
+	 * The time spent on each need of the final plan must match the one of its agenda with travel activities (see {@link Individual#createAgendaWithTravelActivities(ActivityAgenda, BestPlan)}).</p>
+	 */
+	@Test
+	public void testTimeSpentOnNeedsAfterMovesOfLocalSearch() {
+		Individual individual = createIndividualWithFixedActivity();
+		MersenneTwisterFast random = new MersenneTwisterFast(3L);
+		ArrayList<PlannedActivity> plan = individual.createInitialPlanForLocalSearch(random, null);
+		double[] timeSpentOnNeeds = individual.calculateTimeSpentOnNeeds(plan);
+		int numberOfChangesOfLocation = individual.countChangesOfLocation(plan, 0, plan.size());
+		int numberOfAppliedMoves = 0;
+		for (int i = 0; i < 2000; i++) {
+			int index = random.nextInt(plan.size());
+			if (plan.get(index).m_isFixed) {
+				continue;
+			}
+			Move move = individual.chooseMove(plan, index, TypeOfMove.values()[random.nextInt(TypeOfMove.values().length)], random);
+			if (move == null) {
+				continue;
+			}
+			ArrayList<PlannedActivity> changedPlan = move.applyTo(plan);
+			if (!individual.isValidMove(plan, changedPlan, move)) {
+				continue;
+			}
+			timeSpentOnNeeds = individual.calculateTimeSpentOnNeedsAfterMove(plan, changedPlan, move, timeSpentOnNeeds);
+			numberOfChangesOfLocation = individual.countChangesOfLocationAfterMove(plan, changedPlan, move, numberOfChangesOfLocation);
+			plan = changedPlan;
+			numberOfAppliedMoves++;
+			assertArrayEquals(individual.calculateTimeSpentOnNeeds(plan), timeSpentOnNeeds, 1e-6);
+			assertEquals(individual.countChangesOfLocation(plan, 0, plan.size()), numberOfChangesOfLocation);
+		}
+		assertTrue(numberOfAppliedMoves > 100);
+		AbsoluteNeedTimeSplit needTimeSplitWithTravelActivities = individual.createAgendaWithTravelActivities(createAgenda(plan), new BestPlan(false)).getAbsoluteNeedTimeSplit();
+		for (Need need: Need.values()) {
+			BigDecimal timeSpentOnNeed = needTimeSplitWithTravelActivities.getAbsoluteNeedTimeSplit().getOrDefault(need, BigDecimal.ZERO);
+			assertEquals(timeSpentOnNeed.doubleValue(), timeSpentOnNeeds[need.ordinal()], 1e-6);
+		}
+	}
+	
+	/**
+	 * <p>Chooses moves of each type for every activity of initial plans of the local search which is not fixed. 
+	 * Each move must keep the plan abutting and leave the fixed activities untouched. 
+	 * The activities added by the valid moves must be available at their start.</p>
+	 */
+	@Test
+	public void testMovesOfLocalSearch() {
+		Individual individual = createIndividualWithFixedActivity();
+		int dayOfWeek = individual.getEnvironment().getSimulationTime().getCurrentWeekDay();
+		for (TypeOfMove typeOfMove: TypeOfMove.values()) {
+			int numberOfValidMoves = 0;
+			for (long seed = 0; seed < 5; seed++) {
+				MersenneTwisterFast random = new MersenneTwisterFast(seed);
+				ArrayList<PlannedActivity> plan = individual.createInitialPlanForLocalSearch(random, null);
+				assertTrue(plan.stream().anyMatch(plannedActivity -> plannedActivity.m_isFixed));
+				for (int index = 0; index < plan.size(); index++) {
+					if (plan.get(index).m_isFixed) {
+						continue;
+					}
+					Move move = individual.chooseMove(plan, index, typeOfMove, random);
+					if (move == null) {
+						continue;
+					}
+					ArrayList<PlannedActivity> changedPlan = move.applyTo(plan);
+					assertMoveOfType(typeOfMove, plan, move);
+					assertAbutting(plan, changedPlan);
+					for (int i = move.m_index; i < move.m_index + move.m_numberOfRemovedActivities; i++) {
+						assertFalse(plan.get(i).m_isFixed);
+					}
+					for (PlannedActivity plannedActivity: plan) {
+						if (plannedActivity.m_isFixed) {
+							assertTrue(changedPlan.contains(plannedActivity));
+						}
+					}
+					for (PlannedActivity addedActivity: move.m_addedActivities) {
+						assertFalse(addedActivity.m_isFixed);
+					}
+					if (!individual.isValidMove(plan, changedPlan, move)) {
+						continue;
+					}
+					numberOfValidMoves++;
+					for (PlannedActivity addedActivity: move.m_addedActivities) {
+						assertTrue(addedActivity.m_activity.isAvailableAt(dayOfWeek, TimeUtility.convertToBaseInterval(addedActivity.m_interval).getStart()));
+					}
+				}
+			}
+			assertTrue(numberOfValidMoves > 0);
+		}
+	}
+	
+	/**
+	 * <p>Plans the day of an individual by local search with different maximum numbers of travel activities. 
+	 * The chosen plan must not change its location more often than allowed, unless the initial plan does already.</p>
+	 */
+	@Test
+	public void testTravelLimitOfLocalSearch() {
+		Individual individual = createIndividualPlanningNewDay();
+		for (long seed = 0; seed < 5; seed++) {
+			// the initial plan is created from the first random choices of the local search
+			ArrayList<PlannedActivity> initialPlan = individual.createInitialPlanForLocalSearch(new MersenneTwisterFast(seed), null);
+			int numberOfChangesOfLocationOfInitialPlan = individual.countChangesOfLocation(initialPlan, 0, initialPlan.size());
+			for (int maxNumberOfTravelActivities: new int[] { 0, 1, 2, 3 }) {
+				individual.planIndividualActivitiesByLocalSearch(new MersenneTwisterFast(seed), null, ISimulationSettings.NUMBER_OF_EVALUATIONS_OF_LOCAL_SEARCH, maxNumberOfTravelActivities);
+				ActivityAgenda chosenAgenda = getChosenPlan(individual).getValue();
+				ArrayList<Node> nodes = new ArrayList<>(chosenAgenda.getNodes().values());
+				int numberOfChangesOfLocation = 0;
+				for (int i = 0; i + 1 < nodes.size(); i++) {
+					if (!nodes.get(i).getCoordinate().equals(nodes.get(i + 1).getCoordinate())) {
+						numberOfChangesOfLocation++;
+					}
+				}
+				assertTrue(numberOfChangesOfLocation <= Math.max(maxNumberOfTravelActivities, numberOfChangesOfLocationOfInitialPlan));
+			}
+		}
+	}
+	
+	/**
+	 * <p>Compares the mean squared error of the plans chosen by local search with the ones chosen by random sampling for several seeds.
+	 * Random sampling evaluates each of its plans (see {@link ISimulationSettings#NUMBER_OF_PLANS_TO_GENERATE}) as a whole and derives the travel activities of each plan which is not pruned, 
+	 * whereas a move only evaluates the few activities it changes and the travel activities are derived for the best plan only. 
+	 * Nevertheless, a fraction of the moves defined by {@link ISimulationSettings#NUMBER_OF_EVALUATIONS_OF_LOCAL_SEARCH}, i.e. three moves per random plan, must fit the target need time split at least as well on average 
+	 * and all of them must fit it at least as well for every seed.</p>
+	 * 
+	 * <p><b>Note:</b> The need time splits are hash maps keyed by {@link Need}, whose hash codes may differ with the tests executed before. 
+	 * Hence, the mean squared errors of the chosen plans are summed up in the order of {@link Need#values()} (see {@link IndividualTest#calculateMeanSquaredErrorOfChosenPlan(Individual)}).
+	 * The planners themselves round their sums, which may still change which of two almost equal plans is chosen, hence the budgets have a margin in any order of the tests.</p>
+	 */
+	@Test
+	public void testFitOfLocalSearch() {
+		Individual individual = createIndividualPlanningNewDay();
+		int numberOfSeeds = 6;
+		double sumOfMeanSquaredErrorsOfRandomSampling = 0;
+		double sumOfMeanSquaredErrorsOfLocalSearch = 0;
+		for (long seed = 0; seed < numberOfSeeds; seed++) {
+			individual.planIndividualActivitiesByRandomSampling(new MersenneTwisterFast(seed), null, Individual.getPlanningPool(), true);
+			double meanSquaredErrorOfRandomSampling = calculateMeanSquaredErrorOfChosenPlan(individual);
+			sumOfMeanSquaredErrorsOfRandomSampling += meanSquaredErrorOfRandomSampling;
+			individual.planIndividualActivitiesByLocalSearch(new MersenneTwisterFast(seed), null, 3 * ISimulationSettings.NUMBER_OF_PLANS_TO_GENERATE, ISimulationSettings.MAX_NUMBER_OF_TRAVEL_ACTIVITIES);
+			sumOfMeanSquaredErrorsOfLocalSearch += calculateMeanSquaredErrorOfChosenPlan(individual);
+			individual.planIndividualActivitiesByLocalSearch(new MersenneTwisterFast(seed), null, ISimulationSettings.NUMBER_OF_EVALUATIONS_OF_LOCAL_SEARCH, ISimulationSettings.MAX_NUMBER_OF_TRAVEL_ACTIVITIES);
+			assertTrue(calculateMeanSquaredErrorOfChosenPlan(individual) <= meanSquaredErrorOfRandomSampling);
+		}
+		assertTrue(3 * ISimulationSettings.NUMBER_OF_PLANS_TO_GENERATE < ISimulationSettings.NUMBER_OF_EVALUATIONS_OF_LOCAL_SEARCH);
+		assertTrue(sumOfMeanSquaredErrorsOfLocalSearch / numberOfSeeds <= sumOfMeanSquaredErrorsOfRandomSampling / numberOfSeeds);
+	}
+	
+	/**
+	 * <p>Plans the day of an individual anew with the plan chosen before as the memoized agenda (see {@link AgendaMemo}).
+	 * The planners must return the mean squared error of the memoized agenda they have calculated while planning, which is not worse than the one of the chosen plan.</p>
+	 */
+	@Test
+	public void testMeanSquaredErrorsOfPlanningWithMemoizedAgenda() {
+		Individual individual = createIndividualPlanningNewDay();
+		individual.planIndividualActivitiesByRandomSampling(new MersenneTwisterFast(1L), null, Individual.getPlanningPool(), true);
+		Entry<ActivityAgenda, ActivityAgenda> planOfMemo = getChosenPlan(individual);
+		BigDecimal meanSquaredErrorOfPlanOfMemo = CalculationUtility.calculateMeanSquaredError(planOfMemo.getKey().getAbsoluteNeedTimeSplit(), individual.getTargetNeedTimeSplit());
+		
+		Tuple<BigDecimal, BigDecimal> meanSquaredErrors = individual.planIndividualActivitiesByRandomSampling(new MersenneTwisterFast(2L), planOfMemo.getValue(), Individual.getPlanningPool(), true);
+		assertEquals(0, meanSquaredErrorOfPlanOfMemo.compareTo(meanSquaredErrors.getValue()));
+		assertTrue(meanSquaredErrors.getKey().compareTo(meanSquaredErrors.getValue()) <= 0);
+		assertEquals(0, meanSquaredErrors.getKey().compareTo(CalculationUtility.calculateMeanSquaredError(getChosenPlan(individual).getKey().getAbsoluteNeedTimeSplit(), individual.getTargetNeedTimeSplit())));
+		
+		meanSquaredErrors = individual.planIndividualActivitiesByLocalSearch(new MersenneTwisterFast(2L), planOfMemo.getValue(), ISimulationSettings.NUMBER_OF_EVALUATIONS_OF_LOCAL_SEARCH, ISimulationSettings.MAX_NUMBER_OF_TRAVEL_ACTIVITIES);
+		// the local search calculates the mean squared errors as doubles, which are rounded to the scale used for big decimals
+		assertEquals(meanSquaredErrorOfPlanOfMemo.doubleValue(), meanSquaredErrors.getValue().doubleValue(), 1e-6);
+		assertTrue(meanSquaredErrors.getKey().compareTo(meanSquaredErrors.getValue()) <= 0);
+		
+		// without a memoized agenda there is no mean squared error of it
+		assertNull(individual.planIndividualActivitiesByRandomSampling(new MersenneTwisterFast(2L), null, Individual.getPlanningPool(), true).getValue());
+		assertNull(individual.planIndividualActivitiesByLocalSearch(new MersenneTwisterFast(2L), null, 100, ISimulationSettings.MAX_NUMBER_OF_TRAVEL_ACTIVITIES).getValue());
+	}
+	
+	/**
+	 * <p>Creates an individual of a {@link TestEnvironment} at the start of the first day, i.e. before any activity has been planned.</p>
+	 */
+	private static Individual createIndividualPlanningNewDay() {
+		TestEnvironment environment = new TestEnvironment(1L);
+		Individual individual = environment.createIndividual(0);
+		new PopulationMovementStore(new ArrayList<>(Arrays.asList(individual)), environment.getEdgeTraffic());
+		individual.initNewDay();
+		return individual;
+	}
+	
+	/**
+	 * <p>Creates an individual like {@link IndividualTest#createIndividualPlanningNewDay()}, which has planned to work at its work place from noon to 1 pm already.</p>
+	 */
+	private static Individual createIndividualWithFixedActivity() {
+		Individual individual = createIndividualPlanningNewDay();
+		TestEnvironment environment = (TestEnvironment) individual.getEnvironment();
+		DateTime noon = environment.getSimulationTime().getCurrentDateTime().plusHours(12);
+		Interval interval = new Interval(noon, noon.plusHours(1));
+		individual.getActivityAgenda().addActivityForInterval(interval, environment.getAllActivities().get(ISimulationSettings.WORK_AT_WORK_PLACE_ALONE));
+		individual.getActivityAgenda().addNodeForInterval(interval, environment.getNode(4, 4));
+		return individual;
+	}
+	
+	private static ActivityAgenda createAgenda(ArrayList<PlannedActivity> plan) {
+		ActivityAgenda agenda = new ActivityAgenda();
+		for (PlannedActivity plannedActivity: plan) {
+			agenda.addActivityForInterval(plannedActivity.m_interval, plannedActivity.m_activity);
+			agenda.addNodeForInterval(plannedActivity.m_interval, plannedActivity.m_node);
+		}
+		return agenda;
+	}
+	
+	/**
+	 * <p>Calculates the mean squared error of the chosen plan like {@link CalculationUtility#calculateMeanSquaredError(AbsoluteNeedTimeSplit, NeedTimeSplit)}, 
+	 * but sums up the errors of the needs in the order of {@link Need#values()} instead of the order of the hash maps.</p>
+	 */
+	private static double calculateMeanSquaredErrorOfChosenPlan(Individual individual) {
+		HashMap<Need, BigDecimal> timeSpentOnNeeds = getChosenPlan(individual).getKey().getAbsoluteNeedTimeSplit().getAbsoluteNeedTimeSplit();
+		double totalTimeSpentOnAllNeeds = 0;
+		for (Need need: Need.values()) {
+			totalTimeSpentOnAllNeeds += timeSpentOnNeeds.getOrDefault(need, BigDecimal.ZERO).doubleValue();
+		}
+		double meanSquaredError = 0;
+		for (Need need: Need.values()) {
+			BigDecimal targetFractionForNeed = individual.getTargetNeedTimeSplit().getNeedTimeSplit().get(need);
+			if (targetFractionForNeed != null) {
+				double deviation = timeSpentOnNeeds.getOrDefault(need, BigDecimal.ZERO).doubleValue() / totalTimeSpentOnAllNeeds - targetFractionForNeed.doubleValue();
+				meanSquaredError += deviation * deviation;
+			}
+		}
+		return meanSquaredError;
+	}
+		
+	/**
+	 * <p>Checks that the move replaces the activities as its type defines (see {@link Individual#chooseMove(ArrayList, int, TypeOfMove, MersenneTwisterFast)}).</p>
+	 */
+	private static void assertMoveOfType(TypeOfMove typeOfMove, ArrayList<PlannedActivity> plan, Move move) {
+		PlannedActivity plannedActivity = plan.get(move.m_index);
+		PlannedActivity firstAddedActivity = move.m_addedActivities.get(0);
+		switch (typeOfMove) {
+		case SWAP: {
+			PlannedActivity nextPlannedActivity = plan.get(move.m_index + 1);
+			assertEquals(2, move.m_numberOfRemovedActivities);
+			assertEquals(2, move.m_addedActivities.size());
+			assertSame(nextPlannedActivity.m_activity, firstAddedActivity.m_activity);
+			assertEquals(nextPlannedActivity.m_interval.toDuration(), firstAddedActivity.m_interval.toDuration());
+			assertSame(plannedActivity.m_activity, move.m_addedActivities.get(1).m_activity);
+			assertEquals(plannedActivity.m_interval.toDuration(), move.m_addedActivities.get(1).m_interval.toDuration());
+			break;
+		}
+		case RESIZE: {
+			PlannedActivity nextPlannedActivity = plan.get(move.m_index + 1);
+			assertEquals(2, move.m_numberOfRemovedActivities);
+			if (move.m_addedActivities.size() == 1) {
+				// one of the activities has been shifted out of the plan and is merged into the other one
+				assertTrue(firstAddedActivity.m_activity == plannedActivity.m_activity || firstAddedActivity.m_activity == nextPlannedActivity.m_activity);
+			}
+			else {
+				assertSame(plannedActivity.m_activity, firstAddedActivity.m_activity);
+				assertSame(nextPlannedActivity.m_activity, move.m_addedActivities.get(1).m_activity);
+				long shiftInMinutes = Math.abs(firstAddedActivity.m_interval.toDuration().getStandardMinutes() - plannedActivity.m_interval.toDuration().getStandardMinutes());
+				assertTrue(shiftInMinutes > 0 && shiftInMinutes <= ISimulationSettings.MAX_NUMBER_OF_MINUTES_TO_RESIZE_ACTIVITY);
+			}
+			break;
+		}
+		case RELOCATE:
+			assertEquals(1, move.m_numberOfRemovedActivities);
+			assertEquals(1, move.m_addedActivities.size());
+			assertEquals(plannedActivity.m_interval, firstAddedActivity.m_interval);
+			assertTrue(firstAddedActivity.m_activity != plannedActivity.m_activity || firstAddedActivity.m_node != plannedActivity.m_node);
+			break;
+		case SPLIT:
+			assertEquals(1, move.m_numberOfRemovedActivities);
+			assertEquals(2, move.m_addedActivities.size());
+			assertSame(plannedActivity.m_activity, firstAddedActivity.m_activity);
+			assertSame(plannedActivity.m_node, firstAddedActivity.m_node);
+			break;
+		}
+	}
+	
+	/**
+	 * <p>Checks that the activities of the changed plan abut each other and cover the same time as the activities of the plan.</p>
+	 */
+	private static void assertAbutting(ArrayList<PlannedActivity> plan, ArrayList<PlannedActivity> changedPlan) {
+		assertEquals(plan.get(0).m_interval.getStart(), changedPlan.get(0).m_interval.getStart());
+		assertEquals(plan.get(plan.size() - 1).m_interval.getEnd(), changedPlan.get(changedPlan.size() - 1).m_interval.getEnd());
+		for (int i = 0; i + 1 < changedPlan.size(); i++) {
+			assertTrue(changedPlan.get(i).m_interval.abuts(changedPlan.get(i + 1).m_interval));
+		}
+	}
+	
+	/**
+	 * @return Entry - the plan with travel activities and the plan without travel activities the individual has planned.
+	 */
+	private static Entry<ActivityAgenda, ActivityAgenda> getChosenPlan(Individual individual) {
+		assertEquals(1, individual.getAllDayPlans().size());
+		return individual.getAllDayPlans().entrySet().iterator().next();
+	}
+	
+	private static void assertSameAgenda(ActivityAgenda expected, ActivityAgenda actual) {
+		assertEquals(expected.getAgenda(), actual.getAgenda());
+		assertEquals(expected.getNodes(), actual.getNodes());
+	}
+	
+	/**
+	 * @return TestEnvironment - an environment whose individuals travel event-driven and whose {@link TravelEventScheduler} is scheduled.
+	 */
+	private static TestEnvironment createEnvironmentWithEventDrivenTravel() {
+		TestEnvironment environment = new TestEnvironment(1L);
+		environment.setEventDrivenTravelEnabled(true);
+		environment.scheduleTravelEvents();
+		return environment;
+	}
+	
+	/**
+	 * <p>Creates an individual which executes the provided activity at its home in the provided interval and lets the simulation time advance to the provided minute, in which the individual moves.</p>
+	 * 
+	 * @param activityDescription - the description of the activity.
+	 * @param startMinute - the start of the interval in minutes since the start of the simulation.
+	 * @param endMinute - the end of the interval in minutes since the start of the simulation.
+	 * @param currentMinute - the current minute since the start of the simulation.
+	 * @return Individual - the individual.
+	 */
+	private static Individual createIndividualStayingAtHome(String activityDescription, int startMinute, int endMinute, int currentMinute) {
+		TestEnvironment environment = new TestEnvironment(1L);
+		Individual individual = environment.createIndividual(0);
+		new PopulationMovementStore(new ArrayList<>(Arrays.asList(individual)), environment.getEdgeTraffic());
+		DateTime start = environment.getSimulationTime().getCurrentDateTime();
+		Interval interval = new Interval(start.plusMinutes(startMinute), start.plusMinutes(endMinute));
+		ActivityAgenda agenda = new ActivityAgenda();
+		agenda.addActivityForInterval(interval, environment.getAllActivities().get(activityDescription));
+		agenda.addNodeForInterval(interval, environment.getNode(0, 0));
+		individual.setActivityAgenda(agenda);
+		for (int minute = 0; minute < currentMinute; minute++) {
+			environment.getSimulationTime().step(environment);
+		}
+		individual.move();
+		return individual;
+	}
+	
+	/**
+	 * <p>Lets four individuals execute fixed agendas of individual and joint activities at their home, work place and leisure place for 26 hours.
+	 * The steps of the individuals are scheduled by a {@link WakeUpScheduler} with the same orderings as in {@link Environment#start()}.</p>
+	 * 
+	 * @param isSkipAheadSchedulingEnabled - whether or not the individuals are skipped while they stay at the location of an individual activity.
+	 * @return ArrayList - the counts of the output holder in each minute as well as the actual need time split of each individual at noon and at the end of the day.
+	 */
+	private static ArrayList<String> simulateFixedAgendas(boolean isSkipAheadSchedulingEnabled) {
+		TestEnvironment environment = new TestEnvironment(5L);
+		String[] activityDescriptions = new String[] { ISimulationSettings.SLEEP_AT_HOME, ISimulationSettings.WORK_AT_WORK_PLACE_ALONE, ISimulationSettings.LEISURE_AT_HOME_WITH_FRIENDS, ISimulationSettings.LEISURE_AT_THIRD_PLACE_ALONE };
+		Node[] nodes = new Node[] { environment.getNode(0, 0), environment.getNode(4, 4), environment.getNode(0, 0), environment.getNode(2, 3) };
+		int durationInMinutes = 26 * 60;
+		ArrayList<Individual> individuals = new ArrayList<>();
+		WakeUpScheduler wakeUpScheduler = new WakeUpScheduler();
+		for (int id = 0; id < 4; id++) {
+			Individual individual = environment.createIndividual(id);
+			ActivityAgenda agenda = new ActivityAgenda();
+			DateTime start = environment.getSimulationTime().getCurrentDateTime();
+			int startMinute = 0;
+			for (int i = 0; startMinute < durationInMinutes; i++) {
+				int endMinute = startMinute + 30 + (61 + 37 * id + 23 * i) % 180;
+				Interval interval = new Interval(start.plusMinutes(startMinute), start.plusMinutes(endMinute));
+				agenda.addActivityForInterval(interval, environment.getAllActivities().get(activityDescriptions[(id + i) % activityDescriptions.length]));
+				agenda.addNodeForInterval(interval, nodes[(id + i) % nodes.length]);
+				startMinute = endMinute;
+			}
+			individual.setActivityAgenda(agenda);
+			individuals.add(individual);
+			wakeUpScheduler.addStep(environment, individual, 50, new Steppable() {
+				private static final long serialVersionUID = 1L;
+				@Override
+				public void step(SimState state) {
+					individual.move();
+				}
+			});
+			wakeUpScheduler.addStep(environment, individual, 60, new Steppable() {
+				private static final long serialVersionUID = 1L;
+				@Override
+				public void step(SimState state) {
+					individual.executeActivity();
+					if (isSkipAheadSchedulingEnabled) {
+						wakeUpScheduler.putToSleepIfPossible(environment, individual);
+					}
+				}
+			});
+		}
+		environment.schedule.scheduleRepeating(0.0, 51, new PopulationMovementStore(individuals, environment.getEdgeTraffic()));
+		environment.scheduleTravelEvents();
+		environment.schedule.scheduleRepeating(0.0, 55, wakeUpScheduler);
+		ArrayList<String> output = new ArrayList<>();
+		environment.schedule.scheduleRepeating(0.0, 90, new Steppable() {
+			private static final long serialVersionUID = 1L;
+			@Override
+			public void step(SimState state) {
+				TreeMap<String, Object> counts = new TreeMap<>();
+				for (Entry<String, Object> entry: environment.getOutputHolder().entrySet()) {
+					if (entry.getValue() instanceof Integer) {
+						counts.put(entry.getKey(), entry.getValue());
+						entry.setValue(Integer.valueOf(0));
+					}
+				}
+				output.add(String.format("%.0f: %s", state.schedule.getTime(), counts));
+			}
+		});
+		environment.schedule.scheduleRepeating(0.0, 100, environment.getSimulationTime());
+		// the skipped individuals are woken up before each planning time point at the latest, i.e. at noon and at the start of the day
+		environment.schedule.scheduleRepeating(0.0, 120, new Steppable() {
+			private static final long serialVersionUID = 1L;
+			@Override
+			public void step(SimState state) {
+				if ((state.schedule.getTime() + 1) % (12 * 60) == 0) {
+					for (Individual individual: individuals) {
+						for (Need need: Need.values()) {
+							BigDecimal timeSpentOnNeed = individual.getActualNeedTimeSplit().getAbsoluteNeedTimeSplit().getOrDefault(need, BigDecimal.ZERO);
+							output.add(String.format("%.0f: individual %d spent %s on %s", state.schedule.getTime(), individual.getId(), timeSpentOnNeed.stripTrailingZeros().toPlainString(), need));
+						}
+					}
+				}
+			}
+		});
+		while (environment.schedule.getTime() < durationInMinutes) {
+			environment.schedule.step(environment);
+		}
+		return output;
+	}
+	
+	/**
+	 * <p>Lets four individuals travel to another node of the grid every 17 minutes, such that some of them travel across the start of an hour.
+	 * The steps are scheduled with the same orderings as in {@link Environment#start()}.</p>
+	 * 
+	 * @param isEventDrivenTravelEnabled - whether or not the individuals travel event-driven.
+	 * @return ArrayList - for each step the positions of the individuals, whether they have reached their targets and a random number drawn afterwards as well as the link volumes of each hour.
+	 */
+	private static ArrayList<String> simulateTravel(boolean isEventDrivenTravelEnabled) {
+		TestEnvironment environment = new TestEnvironment(3L);
+		environment.setEventDrivenTravelEnabled(isEventDrivenTravelEnabled);
+		ArrayList<Individual> individuals = new ArrayList<>();
+		for (int id = 0; id < 4; id++) {
+			Individual individual = environment.createIndividual(id);
+			ActivityAgenda agenda = new ActivityAgenda();
+			DateTime start = environment.getSimulationTime().getCurrentDateTime();
+			for (int i = 0; i < 12; i++) {
+				Interval interval = new Interval(start.plusMinutes(17 * i), start.plusMinutes(17 * (i + 1)));
+				agenda.addActivityForInterval(interval, environment.getAllActivities().get(ISimulationSettings.WORK_AT_THIRD_PLACE_ALONE));
+				agenda.addNodeForInterval(interval, environment.getNode((id + 2 * i) % TestEnvironment.GRID_SIZE, (3 * id + i) % TestEnvironment.GRID_SIZE));
+			}
+			individual.setActivityAgenda(agenda);
+			individuals.add(individual);
+			environment.schedule.scheduleRepeating(0.0, 50, new Steppable() {
+				private static final long serialVersionUID = 1L;
+				@Override
+				public void step(SimState state) {
+					individual.move();
+				}
+			});
+		}
+		ArrayList<String> output = new ArrayList<>();
+		environment.schedule.scheduleRepeating(0.0, 45, new Steppable() {
+			private static final long serialVersionUID = 1L;
+			@Override
+			public void step(SimState state) {
+				if (environment.getSimulationTime().getCurrentTime().getMinuteOfHour() == 0) {
+					output.add(Arrays.toString(environment.getEdgeTraffic().takeSnapshotOfVolume()));
+				}
+			}
+		});
+		environment.schedule.scheduleRepeating(0.0, 51, new PopulationMovementStore(individuals, environment.getEdgeTraffic()));
+		environment.scheduleTravelEvents();
+		environment.schedule.scheduleRepeating(0.0, 80, new Steppable() {
+			private static final long serialVersionUID = 1L;
+			@Override
+			public void step(SimState state) {
+				for (Individual individual: individuals) {
+					individual.updatePositionWhileTraveling();
+					Coordinate position = individual.getCurrentLocationPoint().getGeometry().getCoordinate();
+					output.add(String.format("%.0f: individual %d at (%.3f, %.3f), reached target: %b", state.schedule.getTime(), individual.getId(), position.x, position.y, individual.hasReachedTarget()));
+				}
+				output.add(String.format("%.0f: random number %d", state.schedule.getTime(), state.random.nextInt()));
+			}
+		});
+		environment.schedule.scheduleRepeating(0.0, 100, environment.getSimulationTime());
+		while (environment.schedule.getTime() < 3 * 60) {
+			environment.schedule.step(environment);
+		}
+		return output;
+	}
+	
+	/**
+	 * <p>Plans an activity at the provided node for the first hour of the day and schedules the individual to move in the first step.</p>
+	 */
+	private static void startTravelingTo(TestEnvironment environment, Individual individual, Node targetNode) {
+		DateTime currentDateTime = environment.getSimulationTime().getCurrentDateTime();
+		Interval interval = new Interval(currentDateTime, currentDateTime.plusHours(1));
+		ActivityAgenda agenda = new ActivityAgenda();
+		agenda.addActivityForInterval(interval, environment.getAllActivities().get(ISimulationSettings.WORK_AT_THIRD_PLACE_ALONE));
+		agenda.addNodeForInterval(interval, targetNode);
+		individual.setActivityAgenda(agenda);
+		environment.schedule.scheduleOnce(0, 0, new Steppable() {
+			private static final long serialVersionUID = 1L;
+			@Override
+			public void step(SimState state) {
+				individual.move();
+			}
+		});
+	}
 }
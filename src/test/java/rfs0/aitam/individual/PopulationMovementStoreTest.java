@@ -0,0 +1,199 @@
+package rfs0.aitam.individual;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.vividsolutions.jts.planargraph.Node;
+
+import rfs0.aitam.settings.ISimulationSettings;
+import rfs0.aitam.utilities.GraphUtility;
+import sim.util.geo.GeomPlanarGraphDirectedEdge;
+import sim.util.geo.GeomPlanarGraphEdge;
+
+/**
+ * <p>The individuals of these tests live at (0, 0) of the grid of the {@link TestEnvironment}, whose edges are shorter than the distance travelled per step.</p>
+ */
+public class PopulationMovementStoreTest {
+
+	private static final double DISTANCE_PER_STEP = ISimulationSettings.MAX_VELOCITY;
+
+	@Test
+	public void testStepAcrossEdgeBoundaries() {
+		TestEnvironment environment = new TestEnvironment(1L);
+		Individual individual = environment.createIndividual(0);
+		PopulationMovementStore movementStore = new PopulationMovementStore(new ArrayList<>(Arrays.asList(individual)), environment.getEdgeTraffic());
+		ArrayList<GeomPlanarGraphDirectedEdge> path = startTraveling(movementStore, individual, environment.getNode(0, 0), environment.getNode(4, 0));
+		double lengthOfPath = 4 * TestEnvironment.SPACING;
+		for (int step = 1; step * DISTANCE_PER_STEP < lengthOfPath; step++) {
+			movementStore.step(environment);
+			int indexOfArc = (int) (step * DISTANCE_PER_STEP / TestEnvironment.SPACING);
+			assertEquals(1, movementStore.getNumberOfTravelingIndividuals());
+			assertEquals(indexOfArc, movementStore.getPathCursor(0));
+			assertEquals(step * DISTANCE_PER_STEP - indexOfArc * TestEnvironment.SPACING, movementStore.getOffset(0), 1e-9);
+			assertEquals(step * DISTANCE_PER_STEP, movementStore.getX(0), 1e-9);
+			assertEquals(0, movementStore.getY(0), 0);
+			// the individual is counted on the edge it is traveling on only
+			for (int i = 0; i < path.size(); i++) {
+				assertEquals(i == indexOfArc ? 1 : 0, environment.getEdgeTraffic().getNumberOfIndividuals(getEdgeId(path.get(i))));
+			}
+		}
+		movementStore.step(environment);
+		// arrived at the end of the last edge
+		assertEquals(0, movementStore.getNumberOfTravelingIndividuals());
+		assertEquals(lengthOfPath, movementStore.getX(0), 1e-9);
+		assertTrue(individual.hasReachedTarget());
+		assertSame(environment.getNode(4, 0), individual.getCurrentNode());
+		assertNoTraffic(environment);
+	}
+
+	@Test
+	public void testStepAgainstDirectionOfLines() {
+		TestEnvironment environment = new TestEnvironment(1L);
+		Individual individual = environment.createIndividual(0);
+		PopulationMovementStore movementStore = new PopulationMovementStore(new ArrayList<>(Arrays.asList(individual)), environment.getEdgeTraffic());
+		// the lines of the grid lead from lower to higher coordinates
+		startTraveling(movementStore, individual, environment.getNode(2, 0), environment.getNode(0, 0));
+		assertEquals(-1, movementStore.getDirection(0));
+		assertEquals(TestEnvironment.SPACING, movementStore.getOffset(0), 0);
+		movementStore.step(environment);
+		assertEquals(1, movementStore.getPathCursor(0));
+		assertEquals(-1, movementStore.getDirection(0));
+		assertEquals(2 * TestEnvironment.SPACING - DISTANCE_PER_STEP, movementStore.getOffset(0), 1e-9);
+		assertEquals(2 * TestEnvironment.SPACING - DISTANCE_PER_STEP, movementStore.getX(0), 1e-9);
+		movementStore.step(environment);
+		assertEquals(0, movementStore.getX(0), 1e-9);
+		assertTrue(individual.hasReachedTarget());
+	}
+
+	@Test
+	public void testMoveAlongPathIsClamped() {
+		TestEnvironment environment = new TestEnvironment(1L);
+		Individual individual = environment.createIndividual(0);
+		PopulationMovementStore movementStore = new PopulationMovementStore(new ArrayList<>(Arrays.asList(individual)), environment.getEdgeTraffic());
+		individual.setPathToNextTarget(GraphUtility.astarPath(environment.getNode(0, 0), environment.getNode(2, 0)));
+		movementStore.setPath(0, individual.getPathToNextTarget());
+		assertEquals(2 * TestEnvironment.SPACING, movementStore.getLengthOfPath(0), 1e-9);
+
+		movementStore.moveAlongPath(0, 300);
+		assertEquals(1, movementStore.getPathCursor(0));
+		assertEquals(300 - TestEnvironment.SPACING, movementStore.getOffset(0), 1e-9);
+		assertEquals(300, movementStore.getX(0), 1e-9);
+		assertFalse(movementStore.hasReachedEndOfPath(0));
+
+		movementStore.moveAlongPath(0, 0);
+		assertEquals(0, movementStore.getPathCursor(0));
+		assertEquals(0, movementStore.getX(0), 0);
+
+		// beyond the end of the path the individual stays at the end of the last edge
+		for (double distance: new double[] { 2 * TestEnvironment.SPACING, 1000, Double.POSITIVE_INFINITY }) {
+			movementStore.moveAlongPath(0, distance);
+			assertEquals(1, movementStore.getPathCursor(0));
+			assertEquals(TestEnvironment.SPACING, movementStore.getOffset(0), 1e-9);
+			assertEquals(2 * TestEnvironment.SPACING, movementStore.getX(0), 1e-9);
+			assertTrue(movementStore.hasReachedEndOfPath(0));
+		}
+	}
+
+	@Test
+	public void testStopTravelingSwapsLastIndividual() {
+		TestEnvironment environment = new TestEnvironment(1L);
+		ArrayList<Individual> individuals = createIndividuals(environment, 3);
+		PopulationMovementStore movementStore = new PopulationMovementStore(individuals, environment.getEdgeTraffic());
+		for (Individual individual: individuals) {
+			startTraveling(movementStore, individual, environment.getNode(0, 0), environment.getNode(0, 4));
+		}
+		assertEquals(3, environment.getEdgeTraffic().getNumberOfIndividuals(getEdgeId(individuals.get(0).getPathToNextTarget().get(0))));
+		// the last individual takes the place of the first one
+		movementStore.stopTraveling(0);
+		assertEquals(2, movementStore.getNumberOfTravelingIndividuals());
+		// the last slot is removed without swapping
+		movementStore.stopTraveling(1);
+		assertEquals(1, movementStore.getNumberOfTravelingIndividuals());
+		// individuals which do not travel are ignored
+		movementStore.stopTraveling(1);
+		assertEquals(1, movementStore.getNumberOfTravelingIndividuals());
+		assertEquals(1, environment.getEdgeTraffic().getNumberOfIndividuals(getEdgeId(individuals.get(0).getPathToNextTarget().get(0))));
+
+		movementStore.step(environment);
+		assertEquals(0, movementStore.getY(0), 0);
+		assertEquals(0, movementStore.getY(1), 0);
+		assertEquals(DISTANCE_PER_STEP, movementStore.getY(2), 1e-9);
+
+		// a stopped individual can start traveling again
+		movementStore.startTraveling(1);
+		assertEquals(2, movementStore.getNumberOfTravelingIndividuals());
+		movementStore.step(environment);
+		assertEquals(0, movementStore.getY(0), 0);
+		assertEquals(DISTANCE_PER_STEP, movementStore.getY(1), 1e-9);
+		assertEquals(2 * DISTANCE_PER_STEP, movementStore.getY(2), 1e-9);
+	}
+
+	/**
+	 * <p>Lets individuals arrive while the traveling individuals are iterated in reverse order, such that the last slot as well as a slot which is swapped with the last one are removed.
+	 * Each individual must still be moved exactly once per step.</p>
+	 */
+	@Test
+	public void testArrivalOfSeveralIndividualsInSameStep() {
+		TestEnvironment environment = new TestEnvironment(1L);
+		ArrayList<Individual> individuals = createIndividuals(environment, 4);
+		PopulationMovementStore movementStore = new PopulationMovementStore(individuals, environment.getEdgeTraffic());
+		// the individuals 0, 2 and 3 arrive in the first step, the individual 1 travels along the y-axis
+		for (Individual individual: individuals) {
+			Node targetNode = individual.getId() == 1 ? environment.getNode(0, 4) : environment.getNode(1, 0);
+			startTraveling(movementStore, individual, environment.getNode(0, 0), targetNode);
+		}
+		movementStore.step(environment);
+		assertEquals(1, movementStore.getNumberOfTravelingIndividuals());
+		for (int id: new int[] { 0, 2, 3 }) {
+			assertEquals(TestEnvironment.SPACING, movementStore.getX(id), 1e-9);
+			assertTrue(individuals.get(id).hasReachedTarget());
+		}
+		assertEquals(DISTANCE_PER_STEP, movementStore.getY(1), 1e-9);
+
+		movementStore.step(environment);
+		assertEquals(2 * DISTANCE_PER_STEP, movementStore.getY(1), 1e-9);
+		for (int id: new int[] { 0, 2, 3 }) {
+			assertEquals(TestEnvironment.SPACING, movementStore.getX(id), 1e-9);
+		}
+		assertEquals(1, environment.getEdgeTraffic().getNumberOfIndividuals(movementStore.getEdgeId(1)));
+		movementStore.stopTraveling(1);
+		assertNoTraffic(environment);
+	}
+
+	private static ArrayList<Individual> createIndividuals(TestEnvironment environment, int numberOfIndividuals) {
+		ArrayList<Individual> individuals = new ArrayList<>();
+		for (int id = 0; id < numberOfIndividuals; id++) {
+			individuals.add(environment.createIndividual(id));
+		}
+		return individuals;
+	}
+
+	/**
+	 * <p>Sets up the path from the start node to the target node as the path of the individual and adds it to the individuals which are moved in every step.</p>
+	 */
+	private static ArrayList<GeomPlanarGraphDirectedEdge> startTraveling(PopulationMovementStore movementStore, Individual individual, Node startNode, Node targetNode) {
+		ArrayList<GeomPlanarGraphDirectedEdge> path = GraphUtility.astarPath(startNode, targetNode);
+		individual.setPathToNextTarget(path);
+		movementStore.setPath(individual.getId(), path);
+		movementStore.setUpArcOfPath(individual.getId(), 0);
+		movementStore.startTraveling(individual.getId());
+		return path;
+	}
+
+	private static int getEdgeId(GeomPlanarGraphDirectedEdge directedEdge) {
+		return GraphUtility.getRoutingGraph().getEdgeId((GeomPlanarGraphEdge) directedEdge.getEdge());
+	}
+
+	private static void assertNoTraffic(TestEnvironment environment) {
+		for (int numberOfIndividuals: environment.getEdgeTraffic().getNumberOfIndividuals()) {
+			assertEquals(0, numberOfIndividuals);
+		}
+	}
+}
@@ -0,0 +1,134 @@
+package rfs0.aitam.individual;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.planargraph.Node;
+
+import rfs0.aitam.environment.Environment;
+import rfs0.aitam.environment.TravelEventScheduler;
+import rfs0.aitam.need.Need;
+import rfs0.aitam.need.NeedTimeSplit;
+import rfs0.aitam.utilities.CalculationUtility;
+import sim.field.geo.GeomVectorField;
+import sim.util.geo.MasonGeometry;
+
+/**
+ * <p>This class is an environment on a grid of paths which is created without reading any shape file.
+ * The buildings of the individuals are put next to the nodes of the grid (see {@link TestEnvironment#createIndividual(int)}).</p>
+ */
+class TestEnvironment extends Environment {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * <p>The number of nodes per row and column of the grid.</p>
+	 */
+	static final int GRID_SIZE = 5;
+	/**
+	 * <p>The distance between adjacent nodes of the grid in meters.</p>
+	 */
+	static final double SPACING = 250.0;
+
+	/**
+	 * <p>Whether or not the individuals travel event-driven (see {@link Environment#isEventDrivenTravelEnabled()}).</p>
+	 */
+	private boolean m_isEventDrivenTravelEnabled;
+
+	TestEnvironment(long seed) {
+		super(seed, createPaths());
+		m_isEventDrivenTravelEnabled = super.isEventDrivenTravelEnabled();
+	}
+
+	private static GeomVectorField createPaths() {
+		GeomVectorField paths = new GeomVectorField();
+		for (int x = 0; x < GRID_SIZE; x++) {
+			for (int y = 0; y < GRID_SIZE; y++) {
+				if (x + 1 < GRID_SIZE) {
+					paths.addGeometry(new MasonGeometry(GEO_FACTORY.createLineString(new Coordinate[] { new Coordinate(SPACING * x, SPACING * y), new Coordinate(SPACING * (x + 1), SPACING * y) })));
+				}
+				if (y + 1 < GRID_SIZE) {
+					paths.addGeometry(new MasonGeometry(GEO_FACTORY.createLineString(new Coordinate[] { new Coordinate(SPACING * x, SPACING * y), new Coordinate(SPACING * x, SPACING * (y + 1)) })));
+				}
+			}
+		}
+		return paths;
+	}
+
+	/**
+	 * @param x - the column of the node.
+	 * @param y - the row of the node.
+	 * @return Node - the node of the grid at the provided column and row.
+	 */
+	Node getNode(int x, int y) {
+		return getPathGraph().findNode(new Coordinate(SPACING * x, SPACING * y));
+	}
+
+	/**
+	 * <p>Creates an individual which lives at (0, 0), works at (4, 4) and spends its leisure time at (2, 3).
+	 * It has two other places for each of household and family care, work and leisure.
+	 * Its target need time split is the same for all needs.</p>
+	 *
+	 * @param id - the id of the individual.
+	 * @return Individual - the individual, which has been added to the individuals field.
+	 */
+	Individual createIndividual(int id) {
+		BigDecimal fractionOfNeed = CalculationUtility.divide(BigDecimal.ONE, CalculationUtility.NINE);
+		NeedTimeSplit.Builder needTimeSplitBuilder = new NeedTimeSplit.Builder();
+		for (Need need: Arrays.asList(Need.AFFECTION, Need.CREATION, Need.FREEDOM, Need.IDENTITY, Need.IDLENESS, Need.PARTICIPATION, Need.PROTECTION, Need.SUBSISTENCE, Need.UNDERSTANDING)) {
+			needTimeSplitBuilder.withNeedTimeSplit(need, fractionOfNeed);
+		}
+		Individual individual = new Individual.Builder()
+				.withEnvironment(this)
+				.withId(id)
+				.withTargetNeedTimeSplit(needTimeSplitBuilder.build())
+				.withHomeBuilding(createBuilding(0, 0))
+				.withOtherPlaceForHouseholdAndFamilyCareBuildings(new ArrayList<>(Arrays.asList(createBuilding(1, 0), createBuilding(0, 2))))
+				.withWorkPlaceBuilding(createBuilding(4, 4))
+				.withOtherPlaceForWorkBuildings(new ArrayList<>(Arrays.asList(createBuilding(4, 0), createBuilding(3, 4))))
+				.withLeisureBuilding(createBuilding(2, 3))
+				.withOtherPlaceForLeisureBuildings(new ArrayList<>(Arrays.asList(createBuilding(0, 4), createBuilding(2, 1))))
+				.build();
+		individual.initTravelDistanceMatrix();
+		individual.getCurrentLocationPoint().setUserData(individual);
+		getIndividualsField().addGeometry(individual.getCurrentLocationPoint());
+		return individual;
+	}
+
+	/**
+	 * <p>Schedules the {@link TravelEventScheduler} in every step with the same ordering as {@link Environment#start()} does, such that the individuals traveling event-driven arrive.</p>
+	 */
+	void scheduleTravelEvents() {
+		schedule.scheduleRepeating(0.0, 52, getTravelEventScheduler());
+	}
+
+	@Override
+	public boolean isEventDrivenTravelEnabled() {
+		return m_isEventDrivenTravelEnabled;
+	}
+
+	void setEventDrivenTravelEnabled(boolean isEventDrivenTravelEnabled) {
+		m_isEventDrivenTravelEnabled = isEventDrivenTravelEnabled;
+	}
+
+	/**
+	 * <p>Makes planning in parallel accessible to the tests of this package.</p>
+	 */
+	@Override
+	protected void planIndividualActivitiesInParallel(ArrayList<Individual> individuals, ForkJoinPool planningPool) {
+		super.planIndividualActivitiesInParallel(individuals, planningPool);
+	}
+
+	/**
+	 * <p>Creates a building next to the node at the provided column and row of the grid.</p>
+	 */
+	private MasonGeometry createBuilding(int x, int y) {
+		MasonGeometry building = new MasonGeometry(GEO_FACTORY.createPoint(new Coordinate(SPACING * x + 10, SPACING * y + 10)));
+		getBuildingToClosestNodeMap().put(building, getNode(x, y));
+		getNodeToClosestBuildingMap().put(getNode(x, y), building);
+		return building;
+	}
+}
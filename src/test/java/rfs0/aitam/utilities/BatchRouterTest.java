@@ -0,0 +1,124 @@
+package rfs0.aitam.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.planargraph.Node;
+
+import sim.field.geo.GeomVectorField;
+import sim.util.geo.GeomPlanarGraph;
+
+public class BatchRouterTest {
+
+	private static final int SIZE = 6;
+
+	private static GeomPlanarGraph s_graph;
+	private static RoutingGraph s_routingGraph;
+	private static double[][] s_distances;
+
+	/**
+	 * <p>Creates a 6x6 grid with a spacing of 100 and some diagonal shortcuts as well as a separate path which is not connected to the rest.</p>
+	 */
+	@BeforeClass
+	public static void initGraph() {
+		GeomVectorField paths = new GeomVectorField();
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				if (x + 1 < SIZE) {
+					RoutingTestGraphs.addPath(paths, new Coordinate(100 * x, 100 * y), new Coordinate(100 * (x + 1), 100 * y));
+				}
+				if (y + 1 < SIZE) {
+					RoutingTestGraphs.addPath(paths, new Coordinate(100 * x, 100 * y), new Coordinate(100 * x, 100 * (y + 1)));
+				}
+				if ((x + y) % 3 == 0 && x + 1 < SIZE && y + 1 < SIZE) {
+					RoutingTestGraphs.addPath(paths, new Coordinate(100 * x, 100 * y), new Coordinate(100 * (x + 1), 100 * (y + 1)));
+				}
+			}
+		}
+		RoutingTestGraphs.addPath(paths, new Coordinate(1000, 1000), new Coordinate(1100, 1000));
+		s_graph = RoutingTestGraphs.createGraph(paths);
+		s_routingGraph = new RoutingGraph(s_graph);
+		s_distances = RoutingTestGraphs.calculateDistances(s_routingGraph);
+	}
+
+	private static Node node(double x, double y) {
+		return s_graph.findNode(new Coordinate(x, y));
+	}
+
+	private static double expectedDistance(Node from, Node to) {
+		return s_distances[s_routingGraph.getNodeId(from)][s_routingGraph.getNodeId(to)];
+	}
+
+	@Test
+	public void testDistances() {
+		BatchRouter batchRouter = new BatchRouter(s_routingGraph);
+		Node[] origins = { node(0, 0), node(200, 300), node(500, 100) };
+		for (Node origin: origins) {
+			for (int x = 0; x < SIZE; x++) {
+				for (int y = 0; y < SIZE; y++) {
+					batchRouter.addRequest(origin, node(100 * x, 100 * y));
+				}
+			}
+		}
+		batchRouter.solve();
+		assertTrue(batchRouter.isSolved());
+		assertEquals(origins.length, batchRouter.getNumberOfOrigins());
+		for (Node origin: origins) {
+			for (int x = 0; x < SIZE; x++) {
+				for (int y = 0; y < SIZE; y++) {
+					Node target = node(100 * x, 100 * y);
+					assertEquals(expectedDistance(origin, target), batchRouter.getDistance(origin, target), 1e-9);
+					// the path network is undirected
+					assertEquals(expectedDistance(origin, target), batchRouter.getDistance(target, origin), 1e-9);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testRequestsAreGroupedByOrigin() {
+		BatchRouter batchRouter = new BatchRouter(s_routingGraph);
+		batchRouter.addRequest(node(0, 0), node(500, 500));
+		batchRouter.addRequest(node(0, 0), node(100, 0));
+		batchRouter.addRequest(node(500, 500), node(0, 0));
+		batchRouter.addRequest(node(300, 300), node(300, 300));
+		assertEquals(1, batchRouter.getNumberOfOrigins());
+	}
+
+	@Test
+	public void testTravelDurations() {
+		BatchRouter batchRouter = new BatchRouter(s_routingGraph);
+		batchRouter.addRequest(node(0, 0), node(500, 500));
+		assertEquals(-1, batchRouter.getTravelDurationInMinutes(node(0, 0), node(500, 500)));
+		batchRouter.solve();
+		double distance = expectedDistance(node(0, 0), node(500, 500));
+		assertEquals(GraphUtility.calculateTravelDurationInMinutes(distance), batchRouter.getTravelDurationInMinutes(node(0, 0), node(500, 500)));
+		assertEquals(GraphUtility.calculateTravelDurationInMinutes(distance), batchRouter.getTravelDurationInMinutes(node(500, 500), node(0, 0)));
+	}
+
+	@Test
+	public void testUnreachableNode() {
+		BatchRouter batchRouter = new BatchRouter(s_routingGraph);
+		batchRouter.addRequest(node(0, 0), node(1000, 1000));
+		batchRouter.solve();
+		assertEquals(0, batchRouter.getDistance(node(0, 0), node(1000, 1000)), 0);
+	}
+
+	@Test
+	public void testPairWhichHasNotBeenRequested() {
+		BatchRouter batchRouter = new BatchRouter(s_routingGraph);
+		batchRouter.addRequest(node(0, 0), node(100, 0));
+		batchRouter.solve();
+		assertTrue(Double.isNaN(batchRouter.getDistance(node(0, 0), node(200, 0))));
+		assertEquals(-1, batchRouter.getTravelDurationInMinutes(node(100, 0), node(200, 0)));
+		// the batch can no longer be modified once it has been solved
+		batchRouter.addRequest(node(0, 0), node(200, 0));
+		batchRouter.solve();
+		assertTrue(Double.isNaN(batchRouter.getDistance(node(0, 0), node(200, 0))));
+		assertEquals(0, batchRouter.getDistance(node(0, 0), node(0, 0)), 0);
+	}
+}
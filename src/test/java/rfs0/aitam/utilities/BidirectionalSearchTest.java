@@ -0,0 +1,74 @@
+package rfs0.aitam.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.vividsolutions.jts.geom.Coordinate;
+
+import sim.field.geo.GeomVectorField;
+
+public class BidirectionalSearchTest {
+
+	private static final int GRID_SIZE = 8;
+
+	private static RoutingGraph s_graph;
+	private static Landmarks s_landmarks;
+	private static double[][] s_distances;
+
+	/**
+	 * <p>Creates a grid of paths with detours of random length between adjacent nodes (see {@link RoutingTestGraphs#addGridWithDetours(GeomVectorField, int, Random)}) as well as a separate path which is not connected to the rest.</p>
+	 */
+	@BeforeClass
+	public static void initGraph() {
+		GeomVectorField paths = new GeomVectorField();
+		RoutingTestGraphs.addGridWithDetours(paths, GRID_SIZE, new Random(7));
+		RoutingTestGraphs.addPath(paths, new Coordinate(200, 200), new Coordinate(210, 200));
+		s_graph = new RoutingGraph(RoutingTestGraphs.createGraph(paths));
+		s_landmarks = new Landmarks(s_graph, 4);
+		s_distances = RoutingTestGraphs.calculateDistances(s_graph);
+	}
+
+	@Test
+	public void testFindRouteFindsShortestPaths() {
+		for (Landmarks landmarks: new Landmarks[] { null, s_landmarks }) {
+			BidirectionalSearch search = new BidirectionalSearch(s_graph, landmarks);
+			for (int start = 0; start < s_graph.getNumberOfNodes(); start++) {
+				for (int goal = 0; goal < s_graph.getNumberOfNodes(); goal++) {
+					Route route = search.findRoute(start, goal, false);
+					if (s_distances[start][goal] == Double.POSITIVE_INFINITY) {
+						assertTrue(route.isEmpty());
+						assertEquals(0, search.findDistance(start, goal, false), 0);
+						continue;
+					}
+					assertEquals(s_distances[start][goal], route.getLength(), 1e-9);
+					assertEquals(route.getLength(), search.findDistance(start, goal, false), 0);
+					RoutingTestGraphs.assertPathLeadsFromStartToGoal(s_graph, s_distances, route.getEdges(), start, goal);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testParallelSearchFindsSamePaths() {
+		BidirectionalSearch search = new BidirectionalSearch(s_graph, s_landmarks);
+		for (int start = 0; start < s_graph.getNumberOfNodes(); start++) {
+			for (int goal = 0; goal < s_graph.getNumberOfNodes(); goal++) {
+				Route route = search.findRoute(start, goal, true);
+				assertEquals(search.findRoute(start, goal, false).getEdges(), route.getEdges());
+				if (!route.isEmpty()) {
+					assertEquals(s_distances[start][goal], route.getLength(), 1e-9);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testFindRouteToSameNode() {
+		assertTrue(new BidirectionalSearch(s_graph, s_landmarks).findRoute(3, 3, false).isEmpty());
+	}
+}
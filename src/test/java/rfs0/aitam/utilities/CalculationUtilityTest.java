@@ -11,6 +11,7 @@ import java.util.stream.Stream;
 import org.junit.Test;
 
 import rfs0.aitam.activity.ActivityAgenda;
+import rfs0.aitam.need.AbsoluteNeedTimeSplit;
 import rfs0.aitam.need.Need;
 import rfs0.aitam.need.NeedTimeSplit;
 import rfs0.aitam.settings.ISimulationSettings;
@@ -68,4 +69,25 @@ public class CalculationUtilityTest {
 				.build();
 		assertEquals(BigDecimal.valueOf(0.0275000).setScale(7), CalculationUtility.calculateMeanSquaredError(activityAgenda.getAbsoluteNeedTimeSplit(), targetNeedTimeSplit));
 	}
+	
+	@Test
+	public void testCalculateMeanSquaredErrorOfTimeSpentOnNeeds() {
+		AbsoluteNeedTimeSplit absoluteNeedTimeSplit = new AbsoluteNeedTimeSplit();
+		absoluteNeedTimeSplit.updateNeedTimeSplit(Need.AFFECTION, CalculationUtility.createBigDecimal(90));
+		absoluteNeedTimeSplit.updateNeedTimeSplit(Need.CREATION, CalculationUtility.createBigDecimal(30));
+		absoluteNeedTimeSplit.updateNeedTimeSplit(Need.NONE, CalculationUtility.createBigDecimal(60));
+		double[] timeSpentOnNeeds = new double[Need.values().length];
+		timeSpentOnNeeds[Need.AFFECTION.ordinal()] = 90;
+		timeSpentOnNeeds[Need.CREATION.ordinal()] = 30;
+		timeSpentOnNeeds[Need.NONE.ordinal()] = 60;
+		NeedTimeSplit targetNeedTimeSplit = new NeedTimeSplit.Builder()
+				.withNeedTimeSplit(Need.AFFECTION, CalculationUtility.createBigDecimal(0.25))
+				.withNeedTimeSplit(Need.CREATION, CalculationUtility.createBigDecimal(0.25))
+				.withNeedTimeSplit(Need.FREEDOM, CalculationUtility.createBigDecimal(0.5))
+				.build();
+		// (0.5 - 0.25)^2 + (1/6 - 0.25)^2 + (0 - 0.5)^2
+		assertEquals(0.0625 + 1.0 / 144 + 0.25, CalculationUtility.calculateMeanSquaredError(timeSpentOnNeeds, targetNeedTimeSplit), 1e-9);
+		assertEquals(CalculationUtility.calculateMeanSquaredError(absoluteNeedTimeSplit, targetNeedTimeSplit).doubleValue(), CalculationUtility.calculateMeanSquaredError(timeSpentOnNeeds, targetNeedTimeSplit), 1e-5);
+		assertEquals(0.25 * 0.25 + 0.25 * 0.25 + 0.5 * 0.5, CalculationUtility.calculateMeanSquaredError(new double[Need.values().length], targetNeedTimeSplit), 1e-9);
+	}
 }
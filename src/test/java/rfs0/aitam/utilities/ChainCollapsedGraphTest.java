@@ -0,0 +1,83 @@
+package rfs0.aitam.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.vividsolutions.jts.geom.Coordinate;
+
+import sim.field.geo.GeomVectorField;
+
+public class ChainCollapsedGraphTest {
+
+	private static final int GRID_SIZE = 5;
+
+	private static RoutingGraph s_graph;
+	private static ChainCollapsedGraph s_chainCollapsedGraph;
+	private static double[][] s_distances;
+
+	/**
+	 * <p>Creates a grid of paths where each path between adjacent crossings is split into three segments of random length, a ring which is not connected to the rest and a dead end.
+	 * Afterwards, the distances between all nodes are calculated (see {@link RoutingTestGraphs#calculateDistances(RoutingGraph)}).</p>
+	 */
+	@BeforeClass
+	public static void initGraph() {
+		Random random = new Random(3);
+		GeomVectorField paths = new GeomVectorField();
+		for (int x = 0; x < GRID_SIZE; x++) {
+			for (int y = 0; y < GRID_SIZE; y++) {
+				if (x + 1 < GRID_SIZE) {
+					RoutingTestGraphs.addChain(paths, new Coordinate(100 * x, 100 * y), new Coordinate(100 * x + 30, 100 * y + 40 * random.nextDouble()), new Coordinate(100 * x + 60, 100 * y + 40 * random.nextDouble()), new Coordinate(100 * x + 100, 100 * y));
+				}
+				if (y + 1 < GRID_SIZE) {
+					RoutingTestGraphs.addChain(paths, new Coordinate(100 * x, 100 * y), new Coordinate(100 * x + 40 * random.nextDouble(), 100 * y + 30), new Coordinate(100 * x + 40 * random.nextDouble(), 100 * y + 60), new Coordinate(100 * x, 100 * y + 100));
+				}
+			}
+		}
+		RoutingTestGraphs.addChain(paths, new Coordinate(1000, 1000), new Coordinate(1010, 1000), new Coordinate(1010, 1010), new Coordinate(1000, 1010), new Coordinate(1000, 1000));
+		RoutingTestGraphs.addChain(paths, new Coordinate(0, 0), new Coordinate(-10, -10), new Coordinate(-20, -10), new Coordinate(-30, -10));
+		s_graph = new RoutingGraph(RoutingTestGraphs.createGraph(paths));
+		s_chainCollapsedGraph = new ChainCollapsedGraph(s_graph);
+		s_distances = RoutingTestGraphs.calculateDistances(s_graph);
+	}
+
+	@Test
+	public void testChainsAreCollapsed() {
+		// crossings of the grid except for three corners (only the corner with the dead end has more than two paths), the end of the dead end and one node of the ring
+		assertEquals(GRID_SIZE * GRID_SIZE - 3 + 1 + 1, s_chainCollapsedGraph.getNumberOfCoreNodes());
+	}
+
+	@Test
+	public void testFindRouteFindsShortestPaths() {
+		AStarSearchState state = new AStarSearchState();
+		for (int start = 0; start < s_graph.getNumberOfNodes(); start++) {
+			for (int goal = 0; goal < s_graph.getNumberOfNodes(); goal++) {
+				if (!s_chainCollapsedGraph.canSearch(start, goal)) {
+					continue;
+				}
+				Route route = s_chainCollapsedGraph.findRoute(state, start, goal, null);
+				if (s_distances[start][goal] == Double.POSITIVE_INFINITY || start == goal) {
+					assertTrue(route.isEmpty());
+					continue;
+				}
+				assertEquals(s_distances[start][goal], route.getLength(), 1e-9);
+				assertEquals(route.getLength(), s_chainCollapsedGraph.findDistance(state, start, goal, null), 0);
+				RoutingTestGraphs.assertPathLeadsFromStartToGoal(s_graph, s_distances, route.getEdges(), start, goal);
+			}
+		}
+	}
+
+	@Test
+	public void testCanSearch() {
+		int firstInteriorNode = s_graph.getNodeId(new Coordinate(-10, -10));
+		int secondInteriorNode = s_graph.getNodeId(new Coordinate(-20, -10));
+		assertFalse(s_chainCollapsedGraph.canSearch(firstInteriorNode, secondInteriorNode));
+		assertTrue(s_chainCollapsedGraph.canSearch(firstInteriorNode, s_graph.getNodeId(new Coordinate(0, 0))));
+		assertTrue(s_chainCollapsedGraph.canSearch(s_graph.getNodeId(new Coordinate(0, 0)), firstInteriorNode));
+	}
+}
@@ -0,0 +1,49 @@
+package rfs0.aitam.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import sim.field.geo.GeomVectorField;
+
+public class ContractionHierarchyTest {
+
+	private static final int GRID_SIZE = 8;
+
+	private static RoutingGraph s_graph;
+	private static ContractionHierarchy s_contractionHierarchy;
+	private static double[][] s_distances;
+
+	/**
+	 * <p>Creates a grid of paths with detours of random length between adjacent nodes (see {@link RoutingTestGraphs#addGridWithDetours(GeomVectorField, int, Random)}).</p>
+	 */
+	@BeforeClass
+	public static void initGraph() {
+		GeomVectorField paths = new GeomVectorField();
+		RoutingTestGraphs.addGridWithDetours(paths, GRID_SIZE, new Random(42));
+		s_graph = new RoutingGraph(RoutingTestGraphs.createGraph(paths));
+		s_contractionHierarchy = new ContractionHierarchy(s_graph);
+		s_distances = RoutingTestGraphs.calculateDistances(s_graph);
+	}
+
+	@Test
+	public void testFindRouteFindsShortestPaths() {
+		for (int start = 0; start < s_graph.getNumberOfNodes(); start++) {
+			for (int goal = 0; goal < s_graph.getNumberOfNodes(); goal++) {
+				Route route = s_contractionHierarchy.findRoute(start, goal);
+				assertEquals(s_distances[start][goal], route.getLength(), 1e-9);
+				assertEquals(route.getLength(), s_contractionHierarchy.findDistance(start, goal), 0);
+				RoutingTestGraphs.assertPathLeadsFromStartToGoal(s_graph, s_distances, route.getEdges(), start, goal);
+			}
+		}
+	}
+
+	@Test
+	public void testFindRouteToSameNode() {
+		assertTrue(s_contractionHierarchy.findRoute(3, 3).isEmpty());
+	}
+}
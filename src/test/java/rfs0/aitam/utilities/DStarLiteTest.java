@@ -0,0 +1,210 @@
+package rfs0.aitam.utilities;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.GeometryFactory;
+
+import sim.field.geo.GeomVectorField;
+import sim.util.geo.GeomPlanarGraph;
+import sim.util.geo.GeomPlanarGraphDirectedEdge;
+import sim.util.geo.MasonGeometry;
+
+public class DStarLiteTest {
+
+	private static final GeometryFactory GEO_FACTORY = new GeometryFactory();
+	private static final int SIZE = 8;
+
+	private static GeomPlanarGraph s_graph;
+	private static RoutingGraph s_routingGraph;
+
+	/**
+	 * <p>Creates a 8x8 grid with a spacing of 100 as well as a separate path which is not connected to the rest.</p>
+	 */
+	@BeforeClass
+	public static void initGraph() {
+		GeomVectorField paths = new GeomVectorField();
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				if (x + 1 < SIZE) {
+					addPath(paths, new Coordinate(100 * x, 100 * y), new Coordinate(100 * (x + 1), 100 * y));
+				}
+				if (y + 1 < SIZE) {
+					addPath(paths, new Coordinate(100 * x, 100 * y), new Coordinate(100 * x, 100 * (y + 1)));
+				}
+			}
+		}
+		addPath(paths, new Coordinate(1000, 1000), new Coordinate(1100, 1000));
+		s_graph = new GeomPlanarGraph();
+		s_graph.createFromGeomField(paths);
+		s_routingGraph = new RoutingGraph(s_graph);
+	}
+
+	private static void addPath(GeomVectorField paths, Coordinate from, Coordinate to) {
+		paths.addGeometry(new MasonGeometry(GEO_FACTORY.createLineString(new Coordinate[] { from, to })));
+	}
+
+	private static int nodeId(double x, double y) {
+		return s_routingGraph.getNodeId(new Coordinate(x, y));
+	}
+
+	/**
+	 * @return double - the cost of the cheapest path between both nodes with respect to the current costs (found by Dijkstra's algorithm).
+	 */
+	private static double expectedCost(TrafficCosts trafficCosts, int startId, int goalId) {
+		double[] costs = new double[s_routingGraph.getNumberOfNodes()];
+		boolean[] isSettled = new boolean[costs.length];
+		Arrays.fill(costs, Double.POSITIVE_INFINITY);
+		costs[startId] = 0;
+		while (true) {
+			int node = -1;
+			for (int i = 0; i < costs.length; i++) {
+				if (!isSettled[i] && costs[i] != Double.POSITIVE_INFINITY && (node == -1 || costs[i] < costs[node])) {
+					node = i;
+				}
+			}
+			if (node == -1 || node == goalId) {
+				return costs[goalId];
+			}
+			isSettled[node] = true;
+			for (int arc = s_routingGraph.getFirstOutArc(node); arc < s_routingGraph.getEndOutArc(node); arc++) {
+				int target = s_routingGraph.getArcTarget(arc);
+				costs[target] = Math.min(costs[target], costs[node] + trafficCosts.getArcCost(arc));
+			}
+		}
+	}
+
+	private static double costOf(TrafficCosts trafficCosts, List<GeomPlanarGraphDirectedEdge> path) {
+		double cost = 0;
+		for (GeomPlanarGraphDirectedEdge directedEdge: path) {
+			cost += trafficCosts.getArcCost(s_routingGraph.getArcId(directedEdge));
+		}
+		return cost;
+	}
+
+	private static void assertPathLeadsFromTo(List<GeomPlanarGraphDirectedEdge> path, int startId, int goalId) {
+		int node = startId;
+		for (GeomPlanarGraphDirectedEdge directedEdge: path) {
+			int arc = s_routingGraph.getArcId(directedEdge);
+			assertEquals(node, s_routingGraph.getArcSource(arc));
+			node = s_routingGraph.getArcTarget(arc);
+		}
+		assertEquals(goalId, node);
+	}
+
+	/**
+	 * @return EdgeTraffic - traffic with the provided number of individuals on each edge of the provided path.
+	 */
+	private static EdgeTraffic trafficOn(List<GeomPlanarGraphDirectedEdge> path, int numberOfIndividuals) {
+		EdgeTraffic edgeTraffic = noTraffic();
+		for (GeomPlanarGraphDirectedEdge directedEdge: path) {
+			for (int i = 0; i < numberOfIndividuals; i++) {
+				edgeTraffic.enter(s_routingGraph.getArcEdge(s_routingGraph.getArcId(directedEdge)));
+			}
+		}
+		return edgeTraffic;
+	}
+
+	private static EdgeTraffic noTraffic() {
+		return new EdgeTraffic(s_routingGraph.getNumberOfEdges());
+	}
+
+	@Test
+	public void testPathWithoutTraffic() {
+		TrafficCosts trafficCosts = new TrafficCosts(s_routingGraph);
+		int startId = nodeId(0, 0);
+		int goalId = nodeId(700, 500);
+		DStarLite search = new DStarLite(s_routingGraph, trafficCosts, null, startId, goalId);
+		ArrayList<GeomPlanarGraphDirectedEdge> path = search.getPath();
+		assertPathLeadsFromTo(path, startId, goalId);
+		assertEquals(1200, costOf(trafficCosts, path), 1e-9);
+		assertFalse(search.update());
+	}
+
+	@Test
+	public void testRepairAfterTrafficChanged() {
+		TrafficCosts trafficCosts = new TrafficCosts(s_routingGraph);
+		int startId = nodeId(0, 0);
+		int goalId = nodeId(700, 700);
+		DStarLite search = new DStarLite(s_routingGraph, trafficCosts, null, startId, goalId);
+		ArrayList<GeomPlanarGraphDirectedEdge> path = search.getPath();
+		// the individual travels the first two edges, then the rest of its path is congested
+		int reachedNode = s_routingGraph.getArcTarget(s_routingGraph.getArcId(path.get(1)));
+		assertTrue(trafficCosts.update(trafficOn(path.subList(2, path.size()), 100)));
+		search.moveTo(reachedNode);
+		assertTrue(search.update());
+		ArrayList<GeomPlanarGraphDirectedEdge> repairedPath = search.getPath();
+		assertPathLeadsFromTo(repairedPath, reachedNode, goalId);
+		assertEquals(expectedCost(trafficCosts, reachedNode, goalId), costOf(trafficCosts, repairedPath), 1e-9);
+		// the repaired path is the same as the one found by a new search
+		DStarLite newSearch = new DStarLite(s_routingGraph, trafficCosts, null, reachedNode, goalId);
+		assertEquals(costOf(trafficCosts, newSearch.getPath()), costOf(trafficCosts, repairedPath), 1e-9);
+
+		// once the traffic is gone, the path is as short as possible again
+		assertTrue(trafficCosts.update(noTraffic()));
+		assertTrue(search.update());
+		assertEquals(1200, costOf(trafficCosts, search.getPath()), 1e-9);
+	}
+
+	@Test
+	public void testRepairWithLandmarks() {
+		TrafficCosts trafficCosts = new TrafficCosts(s_routingGraph);
+		Landmarks landmarks = new Landmarks(s_routingGraph, 4);
+		int goalId = nodeId(0, 700);
+		DStarLite search = new DStarLite(s_routingGraph, trafficCosts, landmarks, nodeId(700, 0), goalId);
+		ArrayList<GeomPlanarGraphDirectedEdge> path = search.getPath();
+		for (int i = 0; i < path.size() - 1; i++) {
+			int reachedNode = s_routingGraph.getArcTarget(s_routingGraph.getArcId(path.get(i)));
+			trafficCosts.update(trafficOn(path.subList(i + 1, path.size()), i + 5));
+			search.moveTo(reachedNode);
+			search.update();
+			path = new ArrayList<>(path.subList(0, i + 1));
+			path.addAll(search.getPath());
+			assertEquals(expectedCost(trafficCosts, reachedNode, goalId), costOf(trafficCosts, search.getPath()), 1e-9);
+		}
+	}
+
+	@Test
+	public void testUnreachableGoal() {
+		TrafficCosts trafficCosts = new TrafficCosts(s_routingGraph);
+		DStarLite search = new DStarLite(s_routingGraph, trafficCosts, null, nodeId(0, 0), nodeId(1000, 1000));
+		assertTrue(search.getPath().isEmpty());
+	}
+
+	@Test
+	public void testChangedEdges() {
+		TrafficCosts trafficCosts = new TrafficCosts(s_routingGraph);
+		DStarLite search = new DStarLite(s_routingGraph, trafficCosts, null, nodeId(0, 0), nodeId(100, 0));
+		List<GeomPlanarGraphDirectedEdge> path = search.getPath();
+		int edgeId = s_routingGraph.getArcEdge(s_routingGraph.getArcId(path.get(0)));
+		assertEquals(0, trafficCosts.getVersion());
+		// minor changes are not applied
+		assertFalse(trafficCosts.update(trafficOn(path, 1)));
+		assertTrue(trafficCosts.update(trafficOn(path, 30)));
+		assertTrue(trafficCosts.getEdgeCost(edgeId) > 100);
+		assertFalse(trafficCosts.update(trafficOn(path, 30)));
+		assertTrue(trafficCosts.update(noTraffic()));
+		assertEquals(100, trafficCosts.getEdgeCost(edgeId), 1e-9);
+		assertEquals(2, trafficCosts.getVersion());
+		assertArrayEquals(new int[] { edgeId }, trafficCosts.getChangedEdgesSince(0));
+		assertArrayEquals(new int[0], trafficCosts.getChangedEdgesSince(2));
+		// only the changes of the last updates are kept
+		for (int i = 0; i < 20; i++) {
+			trafficCosts.update(trafficOn(path, i % 2 == 0 ? 30 : 0));
+		}
+		assertNull(trafficCosts.getChangedEdgesSince(0));
+		assertTrue(search.update());
+		assertEquals(trafficCosts.getEdgeCost(edgeId), costOf(trafficCosts, search.getPath()), 1e-9);
+	}
+}
@@ -0,0 +1,94 @@
+package rfs0.aitam.utilities;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.GeometryFactory;
+
+import rfs0.aitam.settings.ISimulationSettings;
+import sim.field.geo.GeomVectorField;
+import sim.util.geo.GeomPlanarGraph;
+import sim.util.geo.MasonGeometry;
+
+public class EdgeTrafficTest {
+
+	private static final GeometryFactory GEO_FACTORY = new GeometryFactory();
+
+	@Test
+	public void testOccupancyAndVolume() {
+		EdgeTraffic edgeTraffic = new EdgeTraffic(3);
+		edgeTraffic.enter(0);
+		edgeTraffic.enter(0);
+		edgeTraffic.leave(0);
+		edgeTraffic.enter(1);
+		edgeTraffic.traverse(2);
+		assertArrayEquals(new int[] { 1, 1, 0 }, edgeTraffic.getNumberOfIndividuals());
+		assertArrayEquals(new int[] { 2, 1, 1 }, edgeTraffic.takeSnapshotOfVolume());
+		assertArrayEquals(new int[] { 2, 1, 1 }, edgeTraffic.getVolumeOfLastSnapshot());
+		// the volume is counted from zero again, whereas the occupancy is kept
+		edgeTraffic.leave(1);
+		edgeTraffic.enter(2);
+		assertArrayEquals(new int[] { 0, 0, 1 }, edgeTraffic.takeSnapshotOfVolume());
+		assertArrayEquals(new int[] { 1, 0, 1 }, edgeTraffic.getNumberOfIndividuals());
+	}
+
+	@Test
+	public void testConcurrentCounting() throws InterruptedException {
+		EdgeTraffic edgeTraffic = new EdgeTraffic(10);
+		ArrayList<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < 100000; i++) {
+					edgeTraffic.enter(i % 10);
+					edgeTraffic.leave((i + 1) % 10);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread: threads) {
+			thread.join();
+		}
+		// each thread enters each edge 10000 times and leaves each edge 10000 times
+		for (int edgeId = 0; edgeId < 10; edgeId++) {
+			assertEquals(0, edgeTraffic.getNumberOfIndividuals(edgeId));
+		}
+		for (int volume: edgeTraffic.takeSnapshotOfVolume()) {
+			assertEquals(40000, volume);
+		}
+	}
+
+	@Test
+	public void testCostsOfCountedTraffic() {
+		GeomVectorField paths = new GeomVectorField();
+		for (int x = 0; x < 4; x++) {
+			paths.addGeometry(new MasonGeometry(GEO_FACTORY.createLineString(new Coordinate[] { new Coordinate(100 * x, 0), new Coordinate(100 * (x + 1), 0) })));
+		}
+		GeomPlanarGraph graph = new GeomPlanarGraph();
+		graph.createFromGeomField(paths);
+		RoutingGraph routingGraph = new RoutingGraph(graph);
+		EdgeTraffic edgeTraffic = new EdgeTraffic(routingGraph.getNumberOfEdges());
+		for (int edgeId = 0; edgeId < routingGraph.getNumberOfEdges(); edgeId++) {
+			for (int i = 0; i < 20 * edgeId; i++) {
+				edgeTraffic.enter(edgeId);
+			}
+			// individuals which have left the edge do not count
+			edgeTraffic.enter(edgeId);
+			edgeTraffic.leave(edgeId);
+		}
+		TrafficCosts costsOfCountedTraffic = new TrafficCosts(routingGraph);
+		assertTrue(costsOfCountedTraffic.update(edgeTraffic));
+		for (int edgeId = 0; edgeId < routingGraph.getNumberOfEdges(); edgeId++) {
+			// the BPR function with a length of 100 for each edge
+			double capacity = Math.max(1, 100 * ISimulationSettings.NUMBER_OF_INDIVIDUALS_PER_METER_AT_CAPACITY);
+			double expectedCost = 100 * (1 + ISimulationSettings.BPR_ALPHA * Math.pow(20 * edgeId / capacity, ISimulationSettings.BPR_BETA));
+			assertEquals(expectedCost, costsOfCountedTraffic.getEdgeCost(edgeId), 1e-9);
+		}
+	}
+}
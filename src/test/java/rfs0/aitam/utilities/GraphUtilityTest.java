@@ -0,0 +1,155 @@
+package rfs0.aitam.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.LineString;
+import com.vividsolutions.jts.linearref.LengthIndexedLine;
+import com.vividsolutions.jts.planargraph.Node;
+
+import sim.field.geo.GeomVectorField;
+import sim.util.geo.GeomPlanarGraph;
+import sim.util.geo.GeomPlanarGraphDirectedEdge;
+import sim.util.geo.GeomPlanarGraphEdge;
+import sim.util.geo.MasonGeometry;
+
+public class GraphUtilityTest {
+
+	private static final GeometryFactory GEO_FACTORY = new GeometryFactory();
+	private static final Coordinate A = new Coordinate(0, 0);
+	private static final Coordinate B = new Coordinate(10, 0);
+	private static final Coordinate C = new Coordinate(20, 0);
+	private static final Coordinate D = new Coordinate(10, 10);
+	private static final Coordinate E = new Coordinate(100, 100);
+	private static final Coordinate F = new Coordinate(110, 100);
+
+	private static GeomPlanarGraph s_graph;
+
+	/**
+	 * <p>Creates the following graph: A - B - C is the short way from A to C, A - D - C is a detour and E - F is not connected to the rest.</p>
+	 */
+	@BeforeClass
+	public static void initGraph() {
+		GeomVectorField paths = new GeomVectorField();
+		addPath(paths, A, B);
+		addPath(paths, B, C);
+		addPath(paths, A, D);
+		addPath(paths, D, C);
+		addPath(paths, E, F);
+		s_graph = new GeomPlanarGraph();
+		s_graph.createFromGeomField(paths);
+		GraphUtility.initRoutingGraph(s_graph);
+	}
+
+	private static void addPath(GeomVectorField paths, Coordinate from, Coordinate to) {
+		paths.addGeometry(new MasonGeometry(GEO_FACTORY.createLineString(new Coordinate[] { from, to })));
+	}
+
+	@Test
+	public void testAstarPath() {
+		ArrayList<GeomPlanarGraphDirectedEdge> path = GraphUtility.astarPath(s_graph.findNode(A), s_graph.findNode(C));
+		assertEquals(2, path.size());
+		assertEquals(A, path.get(0).getFromNode().getCoordinate());
+		assertEquals(B, path.get(0).getToNode().getCoordinate());
+		assertEquals(B, path.get(1).getFromNode().getCoordinate());
+		assertEquals(C, path.get(1).getToNode().getCoordinate());
+	}
+
+	@Test
+	public void testAstarPathFromCopyOfNode() {
+		Node start = s_graph.findNode(C);
+		ArrayList<GeomPlanarGraphDirectedEdge> path = GraphUtility.astarPath(new Node(start.getCoordinate(), start.getOutEdges()), s_graph.findNode(A));
+		assertEquals(2, path.size());
+		assertEquals(C, path.get(0).getFromNode().getCoordinate());
+		assertEquals(A, path.get(1).getToNode().getCoordinate());
+	}
+
+	@Test
+	public void testFindRoute() {
+		Route route = GraphUtility.findRoute(s_graph.findNode(A), s_graph.findNode(C));
+		assertEquals(2, route.getEdges().size());
+		assertEquals(20, route.getLength(), 0);
+		assertSame(route, GraphUtility.findRoute(s_graph.findNode(A), s_graph.findNode(C)));
+	}
+
+	@Test
+	public void testAstarPathReturnsCopy() {
+		ArrayList<GeomPlanarGraphDirectedEdge> path = GraphUtility.astarPath(s_graph.findNode(A), s_graph.findNode(C));
+		path.clear();
+		assertEquals(2, GraphUtility.astarPath(s_graph.findNode(A), s_graph.findNode(C)).size());
+	}
+
+	@Test
+	public void testAstarPathToSameNode() {
+		assertEquals(0, GraphUtility.astarPath(s_graph.findNode(B), s_graph.findNode(B)).size());
+	}
+
+	@Test
+	public void testAstarPathToUnreachableNode() {
+		assertEquals(0, GraphUtility.astarPath(s_graph.findNode(A), s_graph.findNode(E)).size());
+	}
+
+	@Test
+	public void testConnectedComponents() {
+		RoutingGraph graph = GraphUtility.getRoutingGraph();
+		assertEquals(2, graph.getNumberOfComponents());
+		assertEquals(4, graph.getComponentSize(graph.getLargestComponent()));
+		assertTrue(graph.isInLargestComponent(graph.getNodeId(D)));
+		assertFalse(graph.isInLargestComponent(graph.getNodeId(F)));
+		assertTrue(graph.isConnected(graph.getNodeId(A), graph.getNodeId(C)));
+		assertTrue(graph.isConnected(graph.getNodeId(E), graph.getNodeId(F)));
+		assertFalse(graph.isConnected(graph.getNodeId(A), graph.getNodeId(F)));
+	}
+
+	@Test
+	public void testLocatePointOnEdge() {
+		GeomVectorField paths = new GeomVectorField();
+		LineString line = GEO_FACTORY.createLineString(new Coordinate[] { new Coordinate(0, 0), new Coordinate(30, 0), new Coordinate(30, 40), new Coordinate(60, 40) });
+		paths.addGeometry(new MasonGeometry(line));
+		GeomPlanarGraph graph = new GeomPlanarGraph();
+		graph.createFromGeomField(paths);
+		RoutingGraph routingGraph = new RoutingGraph(graph);
+		int edgeId = routingGraph.getEdgeId((GeomPlanarGraphEdge) graph.getEdges().iterator().next());
+		assertEquals(100, routingGraph.getEdgeLength(edgeId), 1e-9);
+		LengthIndexedLine lengthIndexedLine = new LengthIndexedLine(line);
+		Coordinate point = new Coordinate();
+		for (double distance = -10; distance <= 110; distance += 2.5) {
+			routingGraph.locatePointOnEdge(edgeId, distance, point);
+			Coordinate expected = lengthIndexedLine.extractPoint(distance < 0 ? 0 : distance);
+			assertEquals(expected.x, point.x, 1e-9);
+			assertEquals(expected.y, point.y, 1e-9);
+		}
+	}
+
+	@Test
+	public void testBidirectionalPath() {
+		for (boolean isParallel: new boolean[] { false, true }) {
+			assertEquals(GraphUtility.astarPath(s_graph.findNode(A), s_graph.findNode(C)), GraphUtility.bidirectionalPath(s_graph.findNode(A), s_graph.findNode(C), isParallel));
+			assertEquals(GraphUtility.astarPath(s_graph.findNode(C), s_graph.findNode(A)), GraphUtility.bidirectionalPath(s_graph.findNode(C), s_graph.findNode(A), isParallel));
+			assertEquals(0, GraphUtility.bidirectionalPath(s_graph.findNode(A), s_graph.findNode(E), isParallel).size());
+		}
+	}
+
+	@Test
+	public void testFindDistance() {
+		assertEquals(20, GraphUtility.findDistance(s_graph.findNode(A), s_graph.findNode(C)), 0);
+		assertEquals(GraphUtility.findRoute(s_graph.findNode(D), s_graph.findNode(B)).getLength(), GraphUtility.findDistance(s_graph.findNode(D), s_graph.findNode(B)), 0);
+		assertEquals(0, GraphUtility.findDistance(s_graph.findNode(B), s_graph.findNode(B)), 0);
+		assertEquals(0, GraphUtility.findDistance(s_graph.findNode(A), s_graph.findNode(E)), 0);
+	}
+
+	@Test
+	public void testFindTravelDurationInMinutes() {
+		assertEquals(0, GraphUtility.findTravelDurationInMinutes(s_graph.findNode(A), s_graph.findNode(C)));
+		assertEquals(3, GraphUtility.calculateTravelDurationInMinutes(1000));
+	}
+}
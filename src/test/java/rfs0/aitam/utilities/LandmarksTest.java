@@ -0,0 +1,60 @@
+package rfs0.aitam.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.vividsolutions.jts.geom.Coordinate;
+
+import sim.field.geo.GeomVectorField;
+
+public class LandmarksTest {
+
+	private static RoutingGraph s_graph;
+	private static Landmarks s_landmarks;
+	private static double[][] s_distances;
+
+	/**
+	 * <p>Creates a river (x = 50) which can only be crossed by a bridge at the south end (y = 0) as well as a separate path which is not connected to the rest.</p>
+	 */
+	@BeforeClass
+	public static void initGraph() {
+		GeomVectorField paths = new GeomVectorField();
+		for (int y = 0; y < 100; y += 10) {
+			RoutingTestGraphs.addPath(paths, new Coordinate(0, y), new Coordinate(0, y + 10));
+			RoutingTestGraphs.addPath(paths, new Coordinate(100, y), new Coordinate(100, y + 10));
+		}
+		RoutingTestGraphs.addPath(paths, new Coordinate(0, 0), new Coordinate(100, 0));
+		RoutingTestGraphs.addPath(paths, new Coordinate(200, 200), new Coordinate(210, 200));
+		s_graph = new RoutingGraph(RoutingTestGraphs.createGraph(paths));
+		s_landmarks = new Landmarks(s_graph, 4);
+		s_distances = RoutingTestGraphs.calculateDistances(s_graph);
+	}
+
+	@Test
+	public void testLowerBoundIsAdmissible() {
+		for (int start = 0; start < s_graph.getNumberOfNodes(); start++) {
+			for (int goal = 0; goal < s_graph.getNumberOfNodes(); goal++) {
+				assertTrue(s_landmarks.getLowerBound(start, goal) <= s_distances[start][goal] + 1e-9);
+			}
+		}
+	}
+
+	@Test
+	public void testLowerBoundAcrossRiver() {
+		int northWest = s_graph.getNodeId(new Coordinate(0, 100));
+		int northEast = s_graph.getNodeId(new Coordinate(100, 100));
+		// the straight-line distance is 100, but the only way leads via the bridge
+		assertEquals(300, s_landmarks.getLowerBound(northWest, northEast), 1e-9);
+	}
+
+	@Test
+	public void testLandmarksAreInLargestComponent() {
+		assertEquals(4, s_landmarks.getNumberOfLandmarks());
+		for (int i = 0; i < s_landmarks.getNumberOfLandmarks(); i++) {
+			assertTrue(s_graph.getX(s_landmarks.getLandmark(i)) <= 100);
+		}
+	}
+}
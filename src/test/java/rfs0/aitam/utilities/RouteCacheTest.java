@@ -0,0 +1,59 @@
+package rfs0.aitam.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import sim.util.geo.GeomPlanarGraphDirectedEdge;
+
+public class RouteCacheTest {
+
+	private static Route createRoute(double length) {
+		return new Route(new ArrayList<GeomPlanarGraphDirectedEdge>(), length);
+	}
+
+	@Test
+	public void testGetAndPut() {
+		RouteCache cache = new RouteCache(10);
+		Route route = createRoute(1);
+		assertNull(cache.get(1, 2));
+		cache.put(1, 2, route);
+		assertSame(route, cache.get(1, 2));
+		assertNull(cache.get(2, 1));
+		assertEquals(1, cache.getHits());
+		assertEquals(2, cache.getMisses());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedRouteIsEvicted() {
+		RouteCache cache = new RouteCache(2);
+		cache.put(0, 1, createRoute(1));
+		cache.put(0, 2, createRoute(2));
+		cache.get(0, 1); // (0, 2) is now the least recently used route
+		cache.put(0, 3, createRoute(3));
+		assertEquals(2, cache.size());
+		assertNull(cache.get(0, 2));
+		assertEquals(1, cache.get(0, 1).getLength(), 0);
+		assertEquals(3, cache.get(0, 3).getLength(), 0);
+	}
+
+	@Test
+	public void testClear() {
+		RouteCache cache = new RouteCache(2);
+		cache.put(0, 1, createRoute(1));
+		cache.get(0, 1);
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getHits());
+		assertEquals(0, cache.getMisses());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidSize() {
+		new RouteCache(0);
+	}
+}
@@ -0,0 +1,112 @@
+package rfs0.aitam.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.GeometryFactory;
+
+import rfs0.aitam.utilities.RoutingStatistics.Histogram;
+import sim.field.geo.GeomVectorField;
+import sim.util.geo.GeomPlanarGraph;
+import sim.util.geo.MasonGeometry;
+
+public class RoutingStatisticsTest {
+
+	private static final GeometryFactory GEO_FACTORY = new GeometryFactory();
+	private static final int SIZE = 5;
+
+	private GeomPlanarGraph m_graph;
+
+	/**
+	 * <p>Creates a 5x5 grid with a spacing of 100 and initializes the routing graph (and thereby new statistics) for each test.</p>
+	 */
+	@Before
+	public void initGraph() {
+		GeomVectorField paths = new GeomVectorField();
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				if (x + 1 < SIZE) {
+					addPath(paths, new Coordinate(100 * x, 100 * y), new Coordinate(100 * (x + 1), 100 * y));
+				}
+				if (y + 1 < SIZE) {
+					addPath(paths, new Coordinate(100 * x, 100 * y), new Coordinate(100 * x, 100 * (y + 1)));
+				}
+			}
+		}
+		m_graph = new GeomPlanarGraph();
+		m_graph.createFromGeomField(paths);
+		GraphUtility.initRoutingGraph(m_graph);
+	}
+
+	private static void addPath(GeomVectorField paths, Coordinate from, Coordinate to) {
+		paths.addGeometry(new MasonGeometry(GEO_FACTORY.createLineString(new Coordinate[] { from, to })));
+	}
+
+	@Test
+	public void testQueriesAreRecordedByCaller() {
+		RoutingStatistics routingStatistics = GraphUtility.getRoutingStatistics();
+		GraphUtility.findRoute(m_graph.findNode(new Coordinate(0, 0)), m_graph.findNode(new Coordinate(400, 300)));
+		assertEquals(1, routingStatistics.getNumberOfQueries(RoutingCaller.TRAVELING));
+		assertEquals(0, routingStatistics.getNumberOfQueries(RoutingCaller.PLANNING));
+		assertTrue(routingStatistics.getSettledNodes(RoutingCaller.TRAVELING).getMax() > 0);
+		assertTrue(routingStatistics.getRelaxedArcs(RoutingCaller.TRAVELING).getMax() > 0);
+		assertTrue(routingStatistics.getHeapOperations(RoutingCaller.TRAVELING).getMax() > 0);
+		assertEquals(700, routingStatistics.getPathLengthInMeters(RoutingCaller.TRAVELING).getMax());
+
+		// the path is cached now, hence the query does not search
+		GraphUtility.findDistance(m_graph.findNode(new Coordinate(0, 0)), m_graph.findNode(new Coordinate(400, 300)));
+		assertEquals(1, routingStatistics.getNumberOfQueries(RoutingCaller.PLANNING));
+		assertEquals(0, routingStatistics.getSettledNodes(RoutingCaller.PLANNING).getMax());
+		assertEquals(700, routingStatistics.getPathLengthInMeters(RoutingCaller.PLANNING).getMax());
+		assertTrue(routingStatistics.toString().contains(RoutingCaller.TRAVELING.toString()));
+		assertFalse(routingStatistics.toString().contains(RoutingCaller.BATCH.toString()));
+	}
+
+	@Test
+	public void testOneToManyQueries() {
+		BatchRouter batchRouter = GraphUtility.createBatchRouter();
+		for (int x = 0; x < SIZE; x++) {
+			batchRouter.addRequest(m_graph.findNode(new Coordinate(0, 0)), m_graph.findNode(new Coordinate(100 * x, 400)));
+		}
+		batchRouter.addRequest(m_graph.findNode(new Coordinate(400, 0)), m_graph.findNode(new Coordinate(0, 0)));
+		batchRouter.solve();
+		RoutingStatistics routingStatistics = GraphUtility.getRoutingStatistics();
+		// one query per origin, but one length per path
+		assertEquals(2, routingStatistics.getNumberOfQueries(RoutingCaller.BATCH));
+		assertEquals(SIZE + 1, routingStatistics.getPathLengthInMeters(RoutingCaller.BATCH).getCount());
+		assertEquals(800, routingStatistics.getPathLengthInMeters(RoutingCaller.BATCH).getMax());
+	}
+
+	@Test
+	public void testBuckets() {
+		for (long value = 0; value < 100000; value++) {
+			int bucket = Histogram.getBucket(value);
+			assertTrue(value <= Histogram.getUpperBound(bucket));
+			assertTrue(bucket == 0 || value > Histogram.getUpperBound(bucket - 1));
+		}
+		assertTrue(Histogram.getBucket(Long.MAX_VALUE) < 4 * 62);
+		assertEquals(Long.MAX_VALUE, Histogram.getUpperBound(Histogram.getBucket(Long.MAX_VALUE)));
+	}
+
+	@Test
+	public void testPercentiles() {
+		Histogram histogram = new Histogram();
+		assertEquals(0, histogram.getPercentile(50));
+		for (long value = 1; value <= 1000; value++) {
+			histogram.add(value);
+		}
+		assertEquals(1000, histogram.getCount());
+		assertEquals(500.5, histogram.getMean(), 1e-9);
+		assertEquals(1000, histogram.getMax());
+		assertEquals(1000, histogram.getPercentile(100));
+		long median = histogram.getPercentile(50);
+		assertTrue(median >= 500 && median <= 500 * 1.25);
+		long p90 = histogram.getPercentile(90);
+		assertTrue(p90 >= 900 && p90 <= 1000);
+	}
+}
@@ -0,0 +1,109 @@
+package rfs0.aitam.utilities;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.GeometryFactory;
+
+import sim.field.geo.GeomVectorField;
+import sim.util.geo.GeomPlanarGraph;
+import sim.util.geo.GeomPlanarGraphDirectedEdge;
+import sim.util.geo.MasonGeometry;
+
+/**
+ * <p>This class contains the path networks and the reference distances shared by the tests of the routing algorithms.</p>
+ */
+final class RoutingTestGraphs {
+
+	private static final GeometryFactory GEO_FACTORY = new GeometryFactory();
+
+	private RoutingTestGraphs() {
+	}
+
+	/**
+	 * <p>Adds a single path along the provided coordinates.</p>
+	 */
+	static void addPath(GeomVectorField paths, Coordinate... coordinates) {
+		paths.addGeometry(new MasonGeometry(GEO_FACTORY.createLineString(coordinates)));
+	}
+
+	/**
+	 * <p>Adds a separate path for each pair of consecutive coordinates.</p>
+	 */
+	static void addChain(GeomVectorField paths, Coordinate... coordinates) {
+		for (int i = 0; i + 1 < coordinates.length; i++) {
+			addPath(paths, coordinates[i], coordinates[i + 1]);
+		}
+	}
+
+	/**
+	 * <p>Adds a grid of paths with a spacing of 10 where each path between adjacent nodes makes a detour of random length.</p>
+	 *
+	 * @param paths - the field to add the paths to.
+	 * @param gridSize - the number of nodes per row and column.
+	 * @param random - the random number generator used to create the detours.
+	 */
+	static void addGridWithDetours(GeomVectorField paths, int gridSize, Random random) {
+		for (int x = 0; x < gridSize; x++) {
+			for (int y = 0; y < gridSize; y++) {
+				if (x + 1 < gridSize) {
+					addPath(paths, new Coordinate(10 * x, 10 * y), new Coordinate(10 * x + 5, 10 * y + 10 * random.nextDouble()), new Coordinate(10 * x + 10, 10 * y));
+				}
+				if (y + 1 < gridSize) {
+					addPath(paths, new Coordinate(10 * x, 10 * y), new Coordinate(10 * x + 10 * random.nextDouble(), 10 * y + 5), new Coordinate(10 * x, 10 * y + 10));
+				}
+			}
+		}
+	}
+
+	static GeomPlanarGraph createGraph(GeomVectorField paths) {
+		GeomPlanarGraph graph = new GeomPlanarGraph();
+		graph.createFromGeomField(paths);
+		return graph;
+	}
+
+	/**
+	 * <p>Calculates the distances between all nodes with the Floyd–Warshall algorithm.</p>
+	 *
+	 * @param graph - the graph.
+	 * @return double[][] - the distance from the node with the first index to the node with the second index, or {@link Double#POSITIVE_INFINITY} if it is not reachable.
+	 */
+	static double[][] calculateDistances(RoutingGraph graph) {
+		int numberOfNodes = graph.getNumberOfNodes();
+		double[][] distances = new double[numberOfNodes][numberOfNodes];
+		for (int i = 0; i < numberOfNodes; i++) {
+			for (int j = 0; j < numberOfNodes; j++) {
+				distances[i][j] = i == j ? 0 : Double.POSITIVE_INFINITY;
+			}
+			for (int arc = graph.getFirstOutArc(i); arc < graph.getEndOutArc(i); arc++) {
+				distances[i][graph.getArcTarget(arc)] = Math.min(distances[i][graph.getArcTarget(arc)], graph.getArcLength(arc));
+			}
+		}
+		for (int k = 0; k < numberOfNodes; k++) {
+			for (int i = 0; i < numberOfNodes; i++) {
+				for (int j = 0; j < numberOfNodes; j++) {
+					distances[i][j] = Math.min(distances[i][j], distances[i][k] + distances[k][j]);
+				}
+			}
+		}
+		return distances;
+	}
+
+	/**
+	 * <p>Asserts that the path is connected, leads from the start to the goal and is as long as the shortest path.</p>
+	 */
+	static void assertPathLeadsFromStartToGoal(RoutingGraph graph, double[][] distances, List<GeomPlanarGraphDirectedEdge> path, int start, int goal) {
+		double length = 0;
+		int node = start;
+		for (GeomPlanarGraphDirectedEdge directedEdge: path) {
+			assertEquals(node, graph.getNodeId(directedEdge.getFromNode()));
+			node = graph.getNodeId(directedEdge.getToNode());
+			length += graph.getArcLength(graph.getArcId(directedEdge));
+		}
+		assertEquals(goal, node);
+		assertEquals(distances[start][goal], length, 1e-9);
+	}
+}
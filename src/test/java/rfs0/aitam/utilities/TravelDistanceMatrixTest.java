@@ -0,0 +1,85 @@
+package rfs0.aitam.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.planargraph.Node;
+
+import rfs0.aitam.settings.ISimulationSettings;
+import sim.field.geo.GeomVectorField;
+import sim.util.geo.GeomPlanarGraph;
+import sim.util.geo.MasonGeometry;
+
+public class TravelDistanceMatrixTest {
+
+	private static final GeometryFactory GEO_FACTORY = new GeometryFactory();
+	private static final Coordinate A = new Coordinate(0, 0);
+	private static final Coordinate B = new Coordinate(1000, 0);
+	private static final Coordinate C = new Coordinate(2000, 0);
+	private static final Coordinate D = new Coordinate(1000, 1000);
+	private static final Coordinate E = new Coordinate(5000, 5000);
+	private static final Coordinate F = new Coordinate(6000, 5000);
+
+	private static GeomPlanarGraph s_graph;
+	private static TravelDistanceMatrix s_matrix;
+
+	/**
+	 * <p>Creates the following graph: A - B - C is the short way from A to C, A - D - C is a detour and E - F is not connected to the rest.
+	 * The anchors are A, C, D and E (A is provided twice).</p>
+	 */
+	@BeforeClass
+	public static void initGraph() {
+		GeomVectorField paths = new GeomVectorField();
+		addPath(paths, A, B);
+		addPath(paths, B, C);
+		addPath(paths, A, D);
+		addPath(paths, D, C);
+		addPath(paths, E, F);
+		s_graph = new GeomPlanarGraph();
+		s_graph.createFromGeomField(paths);
+		s_matrix = new TravelDistanceMatrix(new RoutingGraph(s_graph), new AStarSearchState(), Arrays.asList(node(A), node(C), node(D), node(A), node(E)));
+	}
+
+	private static void addPath(GeomVectorField paths, Coordinate from, Coordinate to) {
+		paths.addGeometry(new MasonGeometry(GEO_FACTORY.createLineString(new Coordinate[] { from, to })));
+	}
+
+	private static Node node(Coordinate coordinate) {
+		return s_graph.findNode(coordinate);
+	}
+
+	@Test
+	public void testDistances() {
+		assertEquals(4, s_matrix.getNumberOfAnchors());
+		assertEquals(2000, s_matrix.getDistance(node(A), node(C)), 1e-9);
+		assertEquals(2000, s_matrix.getDistance(node(C), node(A)), 1e-9);
+		assertEquals(Math.sqrt(2) * 1000, s_matrix.getDistance(node(D), node(A)), 1e-9);
+		assertEquals(0, s_matrix.getDistance(node(D), node(D)), 0);
+	}
+
+	@Test
+	public void testTravelDurations() {
+		assertEquals(Math.round(2000 / ISimulationSettings.MAX_VELOCITY), s_matrix.getTravelDurationInMinutes(node(A), node(C)));
+		assertEquals(Math.round(Math.sqrt(2) * 1000 / ISimulationSettings.MAX_VELOCITY), s_matrix.getTravelDurationInMinutes(node(A), node(D)));
+	}
+
+	@Test
+	public void testUnreachableAnchor() {
+		assertEquals(0, s_matrix.getDistance(node(A), node(E)), 0);
+		assertEquals(0, s_matrix.getTravelDurationInMinutes(node(E), node(C)));
+	}
+
+	@Test
+	public void testNodeWhichIsNoAnchor() {
+		assertTrue(Double.isNaN(s_matrix.getDistance(node(A), node(B))));
+		assertEquals(-1, s_matrix.getTravelDurationInMinutes(node(B), node(A)));
+		assertEquals(-1, s_matrix.getTravelDurationInMinutes(node(A), node(F)));
+	}
+}